@@ -0,0 +1,36 @@
+/*
+ *
+ *  * Copyright (c) 2020-2024, Lykan (jiashuomeng@gmail.com).
+ *  * <p>
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  * <p>
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  * <p>
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+package cn.kstry.framework.benchmark;
+
+import cn.kstry.framework.core.annotation.EnableKstry;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+/**
+ * 基准测试使用的 Kstry 容器配置，流程全部通过 ProcessLink 代码定义
+ *
+ * @author lykan
+ */
+@Configuration
+@EnableKstry
+@PropertySource("classpath:application.properties")
+@ComponentScan(basePackageClasses = BenchmarkConfiguration.class)
+public class BenchmarkConfiguration {
+
+}
@@ -0,0 +1,88 @@
+/*
+ *
+ *  * Copyright (c) 2020-2024, Lykan (jiashuomeng@gmail.com).
+ *  * <p>
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  * <p>
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  * <p>
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+package cn.kstry.framework.benchmark;
+
+import cn.kstry.framework.benchmark.bo.BenchRequest;
+import cn.kstry.framework.core.bus.OperatorStoryBus;
+import cn.kstry.framework.core.bus.StoryBus;
+import cn.kstry.framework.core.component.expression.ConditionExpression;
+import cn.kstry.framework.core.component.expression.ConditionExpressionImpl;
+import cn.kstry.framework.core.component.expression.QLExpConditionExpression;
+import cn.kstry.framework.core.component.expression.SpelConditionExpression;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SpEL、QLExpress 条件表达式计算开销，表达式在 Setup 阶段完成解析，测量的是运行期的 condition 计算
+ *
+ * @author lykan
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class ConditionExpressionBenchmark {
+
+    @Param({"req.count >= 1", "req.count >= 1 && req.item.price > 100 && req.item.name != null"})
+    private String expression;
+
+    private StoryBus storyBus;
+
+    private ConditionExpression spelExpression;
+
+    private ConditionExpression qlExpression;
+
+    @Setup(Level.Trial)
+    public void setup(KstryContext context) {
+        BenchRequest request = KstryContext.newRequest(1, 0);
+        storyBus = new OperatorStoryBus(context.getTypeConverterProcessor(), null, 3000, null,
+                "bench-request-id", "bench-start-id", null, null, null, request, null, null);
+        spelExpression = newWorkConditionExpression(new SpelConditionExpression(), expression);
+        qlExpression = newWorkConditionExpression(new QLExpConditionExpression(), expression);
+    }
+
+    @Benchmark
+    public boolean spel() {
+        return spelExpression.condition(storyBus);
+    }
+
+    @Benchmark
+    public boolean qlExpress() {
+        return qlExpression.condition(storyBus);
+    }
+
+    private static ConditionExpression newWorkConditionExpression(ConditionExpressionImpl conditionExpression, String expression) {
+        ConditionExpression workExpression = conditionExpression.newWorkConditionExpression(expression, expression, 0, false);
+        workExpression.parseConditionExpression(null);
+        return workExpression;
+    }
+}
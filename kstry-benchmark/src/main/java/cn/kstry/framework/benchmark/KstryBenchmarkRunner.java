@@ -0,0 +1,53 @@
+/*
+ *
+ *  * Copyright (c) 2020-2024, Lykan (jiashuomeng@gmail.com).
+ *  * <p>
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  * <p>
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  * <p>
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+package cn.kstry.framework.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 基准测试入口，在 JMH 命令行参数的基础上固定开启 GC Profiler，输出每个用例的内存分配速率（gc.alloc.rate.norm）
+ *
+ * <pre>
+ *     mvn clean package
+ *     java -jar target/benchmarks.jar                       # 全部用例
+ *     java -jar target/benchmarks.jar StoryEngineBenchmark  # 指定用例，支持 JMH 全部命令行参数
+ * </pre>
+ *
+ * @author lykan
+ */
+public class KstryBenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        ChainedOptionsBuilder builder = new OptionsBuilder().parent(commandLineOptions).addProfiler(GCProfiler.class);
+        if (commandLineOptions.getIncludes().isEmpty()) {
+            builder.include(KstryBenchmarkRunner.class.getPackage().getName() + ".*Benchmark");
+        }
+        // JDK 9+ 需要开放 java.lang，否则异步任务无法复制 ThreadLocal
+        if (!System.getProperty("java.specification.version").startsWith("1.")) {
+            builder.jvmArgsAppend("--add-opens=java.base/java.lang=ALL-UNNAMED");
+        }
+        new Runner(builder.build()).run();
+    }
+}
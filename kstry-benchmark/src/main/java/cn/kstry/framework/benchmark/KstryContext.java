@@ -0,0 +1,93 @@
+/*
+ *
+ *  * Copyright (c) 2020-2024, Lykan (jiashuomeng@gmail.com).
+ *  * <p>
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  * <p>
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  * <p>
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+package cn.kstry.framework.benchmark;
+
+import cn.kstry.framework.benchmark.bo.BenchItem;
+import cn.kstry.framework.benchmark.bo.BenchRequest;
+import cn.kstry.framework.core.component.conversion.TypeConverterProcessor;
+import cn.kstry.framework.core.engine.StoryEngine;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 基准测试共享的 Spring 容器，每个 Fork 启动一次
+ *
+ * @author lykan
+ */
+@State(Scope.Benchmark)
+public class KstryContext {
+
+    private AnnotationConfigApplicationContext applicationContext;
+
+    private StoryEngine storyEngine;
+
+    private TypeConverterProcessor typeConverterProcessor;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        applicationContext = new AnnotationConfigApplicationContext(BenchmarkConfiguration.class);
+        storyEngine = applicationContext.getBean(StoryEngine.class);
+        typeConverterProcessor = applicationContext.getBean(TypeConverterProcessor.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (applicationContext != null) {
+            applicationContext.close();
+        }
+    }
+
+    public StoryEngine getStoryEngine() {
+        return storyEngine;
+    }
+
+    public TypeConverterProcessor getTypeConverterProcessor() {
+        return typeConverterProcessor;
+    }
+
+    /**
+     * 创建基准测试请求，流程中只读取不修改，可在多次调用间复用
+     *
+     * @param count 初始计数
+     * @param listSize 迭代数据大小
+     * @return 请求对象
+     */
+    public static BenchRequest newRequest(int count, int listSize) {
+        List<Integer> numList = new ArrayList<>(listSize);
+        for (int i = 0; i < listSize; i++) {
+            numList.add(i);
+        }
+        BenchItem item = new BenchItem();
+        item.setName("kstry-item");
+        item.setPrice(128L);
+
+        BenchRequest request = new BenchRequest();
+        request.setId("bench-request");
+        request.setCount(count);
+        request.setNumList(numList);
+        request.setItem(item);
+        return request;
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ *
+ *  * Copyright (c) 2020-2024, Lykan (jiashuomeng@gmail.com).
+ *  * <p>
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  * <p>
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  * <p>
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+package cn.kstry.framework.benchmark;
+
+import cn.kstry.framework.benchmark.bo.BenchRequest;
+import cn.kstry.framework.benchmark.config.BenchProcessConfiguration;
+import cn.kstry.framework.core.engine.facade.ReqBuilder;
+import cn.kstry.framework.core.engine.facade.TaskResponse;
+import cn.kstry.framework.core.enums.TrackingTypeEnum;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MonitorTracking 在各 TrackingTypeEnum 下的开销，同一流程分别开启不同的链路追踪级别
+ *
+ * @author lykan
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class MonitorTrackingBenchmark {
+
+    @Param({"NONE", "ALL", "NODE", "SERVICE", "SERVICE_DETAIL"})
+    private TrackingTypeEnum trackingType;
+
+    @Param({BenchProcessConfiguration.LINEAR, BenchProcessConfiguration.PARAM_INJECT})
+    private String startId;
+
+    private BenchRequest request;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        request = KstryContext.newRequest(1, 0);
+    }
+
+    @Benchmark
+    public TaskResponse<Object> fire(KstryContext context) {
+        return context.getStoryEngine().fire(ReqBuilder.returnType(Object.class)
+                .startId(startId).request(request).trackingType(trackingType).build());
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ *
+ *  * Copyright (c) 2020-2024, Lykan (jiashuomeng@gmail.com).
+ *  * <p>
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  * <p>
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  * <p>
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+package cn.kstry.framework.benchmark;
+
+import cn.kstry.framework.benchmark.bo.BenchRequest;
+import cn.kstry.framework.core.util.PropertyUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PropertyUtil 属性读写开销，覆盖 JavaBean、嵌套属性、Map 三种取值对象
+ *
+ * @author lykan
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class PropertyUtilBenchmark {
+
+    private BenchRequest request;
+
+    private Map<String, Object> map;
+
+    private int counter;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        request = KstryContext.newRequest(1, 0);
+        map = new HashMap<>();
+        map.put("request", request);
+        map.put("count", 1);
+    }
+
+    @Benchmark
+    public Optional<Object> getSimpleProperty() {
+        return PropertyUtil.getProperty(request, "count");
+    }
+
+    @Benchmark
+    public Optional<Object> getNestedProperty() {
+        return PropertyUtil.getProperty(request, "item.name");
+    }
+
+    @Benchmark
+    public Optional<Object> getMapNestedProperty() {
+        return PropertyUtil.getProperty(map, "request.item.price");
+    }
+
+    @Benchmark
+    public boolean setSimpleProperty() {
+        return PropertyUtil.setProperty(request, "count", ++counter);
+    }
+
+    @Benchmark
+    public boolean setNestedProperty() {
+        return PropertyUtil.setProperty(request, "item.price", (long) ++counter);
+    }
+
+    @Benchmark
+    public boolean setMapProperty() {
+        return PropertyUtil.setProperty(map, "count", ++counter);
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ *
+ *  * Copyright (c) 2020-2024, Lykan (jiashuomeng@gmail.com).
+ *  * <p>
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  * <p>
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  * <p>
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+package cn.kstry.framework.benchmark;
+
+import cn.kstry.framework.benchmark.bo.BenchItem;
+import cn.kstry.framework.core.component.conversion.TypeConverterProcessor;
+import cn.kstry.framework.core.constant.TypeConverterNames;
+import org.apache.commons.lang3.tuple.Pair;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TypeConverterProcessor.convert 开销，覆盖无需转换、按类型匹配转换器、指定转换器三类场景
+ *
+ * @author lykan
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class TypeConverterBenchmark {
+
+    private TypeConverterProcessor typeConverterProcessor;
+
+    private Map<String, Object> itemMap;
+
+    private List<String> numStrList;
+
+    @Setup(Level.Trial)
+    public void setup(KstryContext context) {
+        typeConverterProcessor = context.getTypeConverterProcessor();
+        itemMap = new HashMap<>();
+        itemMap.put("name", "kstry-item");
+        itemMap.put("price", 128L);
+        numStrList = Arrays.asList("1", "2", "3", "4", "5", "6", "7", "8");
+    }
+
+    @Benchmark
+    public Pair<String, Number> assignable() {
+        return typeConverterProcessor.convert(1, Number.class);
+    }
+
+    @Benchmark
+    public Pair<String, Integer> stringToInteger() {
+        return typeConverterProcessor.convert(null, "128", Integer.class);
+    }
+
+    @Benchmark
+    public Pair<String, LocalDateTime> stringToLocalDateTime() {
+        return typeConverterProcessor.convert(null, "2024-01-01 12:00:00", LocalDateTime.class);
+    }
+
+    @Benchmark
+    public Pair<String, BenchItem> mapToBean() {
+        return typeConverterProcessor.convert(itemMap, BenchItem.class);
+    }
+
+    @Benchmark
+    @SuppressWarnings("rawtypes")
+    public Pair<String, List> collectionGeneric() {
+        return typeConverterProcessor.convert(null, numStrList, List.class, Integer.class);
+    }
+
+    @Benchmark
+    public Pair<String, Object> namedConverter() {
+        return typeConverterProcessor.convert(TypeConverterNames.ONE_ITEM_TO_LIST, "kstry");
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ *
+ *  * Copyright (c) 2020-2024, Lykan (jiashuomeng@gmail.com).
+ *  * <p>
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  * <p>
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  * <p>
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+package cn.kstry.framework.benchmark.bo;
+
+import java.util.List;
+
+/**
+ *
+ * @author lykan
+ */
+public class BenchRequest {
+
+    private String id;
+
+    private int count;
+
+    private List<Integer> numList;
+
+    private BenchItem item;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+
+    public List<Integer> getNumList() {
+        return numList;
+    }
+
+    public void setNumList(List<Integer> numList) {
+        this.numList = numList;
+    }
+
+    public BenchItem getItem() {
+        return item;
+    }
+
+    public void setItem(BenchItem item) {
+        this.item = item;
+    }
+}
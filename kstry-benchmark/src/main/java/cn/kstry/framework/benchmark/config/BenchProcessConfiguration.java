@@ -0,0 +1,201 @@
+/*
+ *
+ *  * Copyright (c) 2020-2024, Lykan (jiashuomeng@gmail.com).
+ *  * <p>
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  * <p>
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  * <p>
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+package cn.kstry.framework.benchmark.config;
+
+import cn.kstry.framework.core.bpmn.extend.ElementIterable;
+import cn.kstry.framework.core.component.bpmn.builder.SubProcessLink;
+import cn.kstry.framework.core.component.bpmn.link.ProcessLink;
+import cn.kstry.framework.core.component.bpmn.link.StartProcessLink;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static cn.kstry.framework.benchmark.service.BenchService.INCREASE;
+import static cn.kstry.framework.benchmark.service.BenchService.INIT;
+import static cn.kstry.framework.benchmark.service.BenchService.INJECT_PARAMS;
+import static cn.kstry.framework.benchmark.service.BenchService.NAME;
+import static cn.kstry.framework.benchmark.service.BenchService.NOOP;
+import static cn.kstry.framework.benchmark.service.BenchService.RESULT;
+import static cn.kstry.framework.benchmark.service.BenchService.SQUARE;
+
+/**
+ * 基准测试流程定义
+ *
+ * @author lykan
+ */
+@Configuration
+public class BenchProcessConfiguration {
+
+    /**
+     * 线性流程：init -> increase * 5 -> result
+     */
+    public static final String LINEAR = "bench-linear";
+
+    /**
+     * 排他网关：按 req.count 选择分支
+     */
+    public static final String EXCLUSIVE = "bench-exclusive";
+
+    /**
+     * 并行网关，同步执行四个分支
+     */
+    public static final String PARALLEL = "bench-parallel";
+
+    /**
+     * 并行网关，异步执行四个分支
+     */
+    public static final String PARALLEL_ASYNC = "bench-parallel-async";
+
+    /**
+     * 子流程：init -> 子流程（increase * 3）-> result
+     */
+    public static final String SUB_PROCESS = "bench-sub-process";
+
+    /**
+     * 迭代流程：同步迭代 req.numList
+     */
+    public static final String ITERATOR = "bench-iterator";
+
+    /**
+     * 迭代流程：异步批量迭代 req.numList
+     */
+    public static final String ITERATOR_ASYNC = "bench-iterator-async";
+
+    /**
+     * 参数注入：init -> inject-params -> result
+     */
+    public static final String PARAM_INJECT = "bench-param-inject";
+
+    /**
+     * 无参数注入的对照组：init -> noop -> result
+     */
+    public static final String NO_PARAM = "bench-no-param";
+
+    private static final String INNER_SUB_PROCESS = "bench-inner-sub-process";
+
+    @Bean
+    public ProcessLink benchLinearProcess() {
+        StartProcessLink processLink = StartProcessLink.build(LINEAR);
+        processLink
+                .nextTask(NAME, INIT).build()
+                .nextTask(NAME, INCREASE).build()
+                .nextTask(NAME, INCREASE).build()
+                .nextTask(NAME, INCREASE).build()
+                .nextTask(NAME, INCREASE).build()
+                .nextTask(NAME, INCREASE).build()
+                .nextTask(NAME, RESULT).build()
+                .end();
+        return processLink;
+    }
+
+    @Bean
+    public ProcessLink benchExclusiveProcess() {
+        StartProcessLink processLink = StartProcessLink.build(EXCLUSIVE);
+        ProcessLink exclusive = processLink.nextTask(NAME, INIT).build().nextExclusive().build();
+        exclusive
+                .nextTask("req.count < 10", NAME, INCREASE).build()
+                .nextTask(NAME, RESULT).build()
+                .end();
+        exclusive
+                .nextTask("req.count >= 10", NAME, INCREASE).build()
+                .nextTask(NAME, INCREASE).build()
+                .nextTask(NAME, RESULT).build()
+                .end();
+        return processLink;
+    }
+
+    @Bean
+    public ProcessLink benchParallelProcess() {
+        return buildParallelProcess(StartProcessLink.build(PARALLEL), false);
+    }
+
+    @Bean
+    public ProcessLink benchParallelAsyncProcess() {
+        return buildParallelProcess(StartProcessLink.build(PARALLEL_ASYNC), true);
+    }
+
+    @Bean
+    public SubProcessLink benchInnerSubProcess() {
+        return SubProcessLink.build(INNER_SUB_PROCESS, link -> link
+                .nextTask(NAME, INCREASE).build()
+                .nextTask(NAME, INCREASE).build()
+                .nextTask(NAME, INCREASE).build()
+                .end()
+        );
+    }
+
+    @Bean
+    public ProcessLink benchSubProcess() {
+        StartProcessLink processLink = StartProcessLink.build(SUB_PROCESS);
+        processLink
+                .nextTask(NAME, INIT).build()
+                .nextSubProcess(INNER_SUB_PROCESS).build()
+                .nextTask(NAME, RESULT).build()
+                .end();
+        return processLink;
+    }
+
+    @Bean
+    public ProcessLink benchIteratorProcess() {
+        StartProcessLink processLink = StartProcessLink.build(ITERATOR);
+        processLink.nextTask(NAME, SQUARE).iterable(ElementIterable.builder("req.numList").build()).build().end();
+        return processLink;
+    }
+
+    @Bean
+    public ProcessLink benchIteratorAsyncProcess() {
+        StartProcessLink processLink = StartProcessLink.build(ITERATOR_ASYNC);
+        processLink.nextTask(NAME, SQUARE).iterable(ElementIterable.builder("req.numList").openAsync().build()).build().end();
+        return processLink;
+    }
+
+    @Bean
+    public ProcessLink benchParamInjectProcess() {
+        StartProcessLink processLink = StartProcessLink.build(PARAM_INJECT);
+        processLink
+                .nextTask(NAME, INIT).build()
+                .nextTask(NAME, INJECT_PARAMS).build()
+                .nextTask(NAME, RESULT).build()
+                .end();
+        return processLink;
+    }
+
+    @Bean
+    public ProcessLink benchNoParamProcess() {
+        StartProcessLink processLink = StartProcessLink.build(NO_PARAM);
+        processLink
+                .nextTask(NAME, INIT).build()
+                .nextTask(NAME, NOOP).build()
+                .nextTask(NAME, RESULT).build()
+                .end();
+        return processLink;
+    }
+
+    private static ProcessLink buildParallelProcess(StartProcessLink processLink, boolean async) {
+        ProcessLink init = processLink.nextTask(NAME, INIT).build();
+        (async ? processLink.parallel().openAsync() : processLink.parallel()).build()
+                .joinLinks(
+                        init.nextTask(NAME, NOOP).build(),
+                        init.nextTask(NAME, NOOP).build(),
+                        init.nextTask(NAME, NOOP).build(),
+                        init.nextTask(NAME, NOOP).build()
+                )
+                .nextTask(NAME, RESULT).build()
+                .end();
+        return processLink;
+    }
+}
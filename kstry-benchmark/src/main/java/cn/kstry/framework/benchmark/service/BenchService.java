@@ -0,0 +1,98 @@
+/*
+ *
+ *  * Copyright (c) 2020-2024, Lykan (jiashuomeng@gmail.com).
+ *  * <p>
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  * <p>
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  * <p>
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+package cn.kstry.framework.benchmark.service;
+
+import cn.kstry.framework.benchmark.bo.BenchItem;
+import cn.kstry.framework.benchmark.bo.BenchRequest;
+import cn.kstry.framework.core.annotation.NoticeResult;
+import cn.kstry.framework.core.annotation.NoticeVar;
+import cn.kstry.framework.core.annotation.ReqTaskParam;
+import cn.kstry.framework.core.annotation.StaTaskParam;
+import cn.kstry.framework.core.annotation.TaskComponent;
+import cn.kstry.framework.core.annotation.TaskService;
+import cn.kstry.framework.core.annotation.VarTaskParam;
+import cn.kstry.framework.core.bus.IterDataItem;
+import cn.kstry.framework.core.bus.ScopeDataOperator;
+
+/**
+ * 基准测试服务节点，只做极少量计算，使测量结果集中在引擎本身的开销上
+ *
+ * @author lykan
+ */
+@SuppressWarnings("unused")
+@TaskComponent(name = BenchService.NAME)
+public class BenchService {
+
+    public static final String NAME = "bench-service";
+
+    public static final String INIT = "init";
+
+    public static final String INCREASE = "increase";
+
+    public static final String NOOP = "noop";
+
+    public static final String SQUARE = "square";
+
+    public static final String INJECT_PARAMS = "inject-params";
+
+    public static final String RESULT = "result";
+
+    @NoticeVar(target = "count")
+    @TaskService(name = INIT)
+    public int init(@ReqTaskParam("count") int count) {
+        return count;
+    }
+
+    @NoticeVar(target = "count")
+    @TaskService(name = INCREASE)
+    public int increase(@VarTaskParam("count") int count) {
+        return count + 1;
+    }
+
+    @TaskService(name = NOOP)
+    public void noop() {
+
+    }
+
+    @TaskService(name = SQUARE)
+    public Integer square(IterDataItem<Integer> data) {
+        return data.getData().map(i -> i * i).orElse(0);
+    }
+
+    /**
+     * 覆盖 TaskParamParser 主要的参数注入方式：请求自身、请求字段、变量域、稳定域、ScopeDataOperator、按字段名注入
+     */
+    @NoticeVar(target = "count")
+    @TaskService(name = INJECT_PARAMS)
+    public int injectParams(@ReqTaskParam(reqSelf = true) BenchRequest request,
+                            @ReqTaskParam("item") BenchItem item,
+                            @ReqTaskParam("item.name") String name,
+                            @ReqTaskParam("item.price") long price,
+                            @VarTaskParam("count") Integer count,
+                            @StaTaskParam("tag") String tag,
+                            ScopeDataOperator scopeDataOperator,
+                            String id) {
+        return (count == null ? 0 : count) + (price > 0 ? 1 : 0);
+    }
+
+    @NoticeResult
+    @TaskService(name = RESULT)
+    public int result(@VarTaskParam("count") int count) {
+        return count;
+    }
+}
@@ -87,4 +87,21 @@ public @interface Invoke {
      * 指定服务节点执行器，不为空时从Spring容器中使用名称获取 ExecutorService 实例来作为执行器执行当前服务节点，默认不指定自定义执行器
      */
     String executor() default StringUtils.EMPTY;
+
+    /**
+     * 熔断器打开前允许服务节点连续执行失败的次数（每次重试都计入），默认为 0 代表不开启熔断器
+     * 熔断器打开后不再调用服务节点，直接执行降级服务节点，未指定降级时抛出熔断异常【注意：流程配置中也可指定该属性，流程配置指定后，注解方式将会失效】
+     *
+     * @since 1.1.16
+     * @return 连续失败次数
+     */
+    int breakerThreshold() default 0;
+
+    /**
+     * 熔断器打开持续时间，到期后进入半开状态放行一次探测调用，探测成功后关闭熔断器，失败后重新打开【注意：流程配置中也可指定该属性，流程配置指定后，注解方式将会失效】
+     *
+     * @since 1.1.16
+     * @return 打开持续时间，单位：ms
+     */
+    int breakerOpenTime() default 10000;
 }
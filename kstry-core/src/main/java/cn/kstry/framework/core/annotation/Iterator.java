@@ -44,6 +44,8 @@ public @interface Iterator {
 
     /**
      * 指定迭代数据域中的哪个集合变量
+     * <p>
+     * 支持数组、Iterable、Iterator、Stream、Spliterator、Flux，迭代时按需拉取迭代项，不会预先复制整个集合
      */
     String source() default StringUtils.EMPTY;
 
@@ -67,4 +69,12 @@ public @interface Iterator {
      * 注意：如果进行一一对齐，返回值集合中的null值将不会被过滤，需要考虑集合中元素出现null的情况
      */
     boolean alignIndex() default false;
+
+    /**
+     * 异步迭代时同时执行的迭代项（批）数量上限，迭代项执行完成后再提交后续迭代项。默认为 0 代表以执行器的最大线程数为上限
+     * 注意：ANY_SUCCESS 策略只有指定该参数后才会并发迭代，并以最先执行成功的迭代项为结果，未指定时按顺序逐项迭代
+     *
+     * @since 1.1.16
+     */
+    int concurrency() default 0;
 }
@@ -37,6 +37,8 @@ public @interface Limiter {
 
     /**
      * 使用限速器名称，默认：本地单实例限流
+     * <p>
+     * 可选：local_single_node_rate_limiter、token_bucket_node_rate_limiter、sliding_window_node_rate_limiter、concurrency_node_rate_limiter、adaptive_node_rate_limiter
      */
     String name() default LocalSingleNodeRateLimiter.LOCAL_SINGLE_NODE_RATE_LIMITER;
 
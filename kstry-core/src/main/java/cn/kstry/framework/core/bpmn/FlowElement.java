@@ -52,6 +52,13 @@ public interface FlowElement extends BpmnElement {
      */
     List<FlowElement> comingList();
 
+    /**
+     * 拿到 按照 Order 排序后的出度 列表，元素不可变后排序结果会被缓存，执行时无需再次排序
+     *
+     * @return list
+     */
+    List<FlowElement> sortedOutingList();
+
     /**
      * 从 一个 AggregationFlowElement 到另一个 AggregationFlowElement 之间会经过一些普通节点
      * FlowTrack 保存所有的这些节点索引
@@ -116,6 +116,20 @@ public interface ServiceTask extends Task {
      */
     ServiceNodeResource getTaskDemotion();
 
+    /**
+     * 获取熔断器打开前允许服务节点连续执行失败的次数
+     *
+     * @return 连续失败次数
+     */
+    Integer getBreakerThreshold();
+
+    /**
+     * 获取熔断器打开持续时间
+     *
+     * @return 打开持续时间，单位：ms
+     */
+    Integer getBreakerOpenTime();
+
     /**
      * 获取Service Task 构造器
      *
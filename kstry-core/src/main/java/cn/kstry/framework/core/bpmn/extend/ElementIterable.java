@@ -29,6 +29,7 @@ public interface ElementIterable extends AsyncFlowElement {
 
     /**
      * 指定需要从 StoryBus 中的什么地方来获取需要迭代的集合
+     * 支持数组、Iterable、Iterator、Stream、Spliterator、Flux，其中 Iterator、Stream、Spliterator、Flux 只能被消费一次
      *
      * @return StoryBus中的目标
      */
@@ -61,6 +62,13 @@ public interface ElementIterable extends AsyncFlowElement {
      */
     Boolean getIteAlignIndex();
 
+    /**
+     * 异步迭代时同时执行的迭代项（批）数量上限。默认为空，代表以执行器的最大线程数为上限
+     *
+     * @return 并发数
+     */
+    Integer getConcurrency();
+
     /**
      * 是否可以被遍历执行
      *
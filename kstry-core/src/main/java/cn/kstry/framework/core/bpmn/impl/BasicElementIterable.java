@@ -52,6 +52,11 @@ public class BasicElementIterable extends BasicAsyncFlowElement implements Eleme
      */
     private Boolean iteAlignIndex;
 
+    /**
+     * 异步迭代时同时执行的迭代项（批）数量上限
+     */
+    private Integer concurrency;
+
     @Override
     public String getIteSource() {
         return this.source;
@@ -77,6 +82,18 @@ public class BasicElementIterable extends BasicAsyncFlowElement implements Eleme
         return iteAlignIndex;
     }
 
+    @Override
+    public Integer getConcurrency() {
+        return concurrency;
+    }
+
+    public void setConcurrency(Integer concurrency) {
+        if (concurrency != null && concurrency <= 0) {
+            return;
+        }
+        this.concurrency = concurrency;
+    }
+
     public void setIteAlignIndex(Boolean iterAlignIndex) {
         this.iteAlignIndex = iterAlignIndex;
     }
@@ -120,5 +137,8 @@ public class BasicElementIterable extends BasicAsyncFlowElement implements Eleme
         if (this.getIteAlignIndex() == null && elementIterable.getIteAlignIndex() != null) {
             this.setIteAlignIndex(elementIterable.getIteAlignIndex());
         }
+        if (this.getConcurrency() == null && elementIterable.getConcurrency() != null) {
+            this.setConcurrency(elementIterable.getConcurrency());
+        }
     }
 }
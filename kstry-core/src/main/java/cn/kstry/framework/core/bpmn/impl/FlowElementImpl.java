@@ -26,6 +26,7 @@ import cn.kstry.framework.core.util.ExceptionUtil;
 import cn.kstry.framework.core.util.GlobalUtil;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
+import org.springframework.core.OrderComparator;
 
 import java.util.Collections;
 import java.util.List;
@@ -46,6 +47,11 @@ public class FlowElementImpl extends BpmnElementImpl implements FlowElement {
      */
     private List<FlowElement> comingFlowElementList = Lists.newArrayList();
 
+    /**
+     * 按照 Order 排序后的出度集合，元素不可变时生成
+     */
+    private List<FlowElement> sortedOutingFlowElementList;
+
     /**
      * 不可变标识
      */
@@ -88,6 +94,14 @@ public class FlowElementImpl extends BpmnElementImpl implements FlowElement {
         return comingFlowElementList;
     }
 
+    @Override
+    public List<FlowElement> sortedOutingList() {
+        if (sortedOutingFlowElementList != null) {
+            return sortedOutingFlowElementList;
+        }
+        return sortOutingList(outingFlowElementList);
+    }
+
     @Override
     public List<Integer> getFlowTrack() {
         return flowTrack;
@@ -115,6 +129,7 @@ public class FlowElementImpl extends BpmnElementImpl implements FlowElement {
         }
         outingFlowElementList = Collections.unmodifiableList(outingFlowElementList);
         comingFlowElementList = Collections.unmodifiableList(comingFlowElementList);
+        sortedOutingFlowElementList = Collections.unmodifiableList(sortOutingList(outingFlowElementList));
         immutable = true;
     }
 
@@ -140,6 +155,12 @@ public class FlowElementImpl extends BpmnElementImpl implements FlowElement {
         super.setIndex(index);
     }
 
+    private static List<FlowElement> sortOutingList(List<FlowElement> outingList) {
+        List<FlowElement> sortedList = Lists.newArrayList(outingList);
+        OrderComparator.sort(sortedList);
+        return sortedList;
+    }
+
     private void coming(FlowElement flowElement) {
         AssertUtil.notNull(flowElement);
         AssertUtil.isTrue(flowElement.outingList().contains(this), ExceptionEnum.CONFIGURATION_PARSE_FAILURE);
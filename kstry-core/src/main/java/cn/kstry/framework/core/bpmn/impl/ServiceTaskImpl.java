@@ -107,6 +107,16 @@ public class ServiceTaskImpl extends TaskImpl implements ServiceTask {
      */
     private ServiceNodeResource taskDemotion;
 
+    /**
+     * 熔断器打开前允许服务节点连续执行失败的次数
+     */
+    private Integer breakerThreshold;
+
+    /**
+     * 熔断器打开持续时间
+     */
+    private Integer breakerOpenTime;
+
     @Override
     public String getTaskComponent() {
         return taskComponent;
@@ -254,6 +264,26 @@ public class ServiceTaskImpl extends TaskImpl implements ServiceTask {
         }
     }
 
+    @Override
+    public Integer getBreakerThreshold() {
+        return breakerThreshold;
+    }
+
+    public void setBreakerThreshold(Integer breakerThreshold) {
+        AssertUtil.notTrue(immutable, ExceptionEnum.COMPONENT_IMMUTABLE_ERROR, "FlowElement is not modifiable.");
+        this.breakerThreshold = breakerThreshold;
+    }
+
+    @Override
+    public Integer getBreakerOpenTime() {
+        return breakerOpenTime;
+    }
+
+    public void setBreakerOpenTime(Integer breakerOpenTime) {
+        AssertUtil.notTrue(immutable, ExceptionEnum.COMPONENT_IMMUTABLE_ERROR, "FlowElement is not modifiable.");
+        this.breakerOpenTime = breakerOpenTime;
+    }
+
     @Override
     public String identity() {
         return GlobalUtil.format("{}:[id: {}, name: {}, component: {}, service: {}]", getElementType(), getId(), getName(), taskComponent, taskService);
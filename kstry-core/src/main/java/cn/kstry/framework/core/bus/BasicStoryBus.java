@@ -20,9 +20,12 @@ package cn.kstry.framework.core.bus;
 import cn.kstry.framework.core.bpmn.FlowElement;
 import cn.kstry.framework.core.bpmn.ServiceTask;
 import cn.kstry.framework.core.component.conversion.TypeConverterProcessor;
+import cn.kstry.framework.core.constant.GlobalProperties;
 import cn.kstry.framework.core.container.component.MethodWrapper;
 import cn.kstry.framework.core.container.component.TaskServiceDef;
 import cn.kstry.framework.core.engine.thread.InvokeMethodThreadLocal;
+import cn.kstry.framework.core.enums.ContinuationPolicyEnum;
+import cn.kstry.framework.core.enums.MethodTimeoutModeEnum;
 import cn.kstry.framework.core.enums.ScopeTypeEnum;
 import cn.kstry.framework.core.exception.ExceptionEnum;
 import cn.kstry.framework.core.monitor.MonitorTracking;
@@ -112,9 +115,9 @@ public abstract class BasicStoryBus implements StoryBus {
     final MonitorTracking monitorTracking;
 
     /**
-     * Bus 读写锁
+     * Bus 读写锁，支持乐观读。读取数据时先进行乐观读，读取期间没有发生写操作时直接返回，否则在读锁中重新读取
      */
-    final ReentrantReadWriteLock readWriteLock = new ReentrantReadWriteLock();
+    final VersionedReadWriteLock readWriteLock = new VersionedReadWriteLock();
 
     /**
      * 指定当前任务使用的任务执行器
@@ -133,6 +136,26 @@ public abstract class BasicStoryBus implements StoryBus {
 
     final boolean setReqScope;
 
+    /**
+     * 异步结果产生后执行后续片段任务的延续策略，为空时使用全局默认配置
+     */
+    private volatile ContinuationPolicyEnum continuationPolicy;
+
+    /**
+     * 服务节点设置超时时间时目标方法的执行方式，为空时使用全局默认配置
+     */
+    private volatile MethodTimeoutModeEnum methodTimeoutMode;
+
+    /**
+     * 子流程是否允许在父流程当前线程中直接执行，为空时使用全局默认配置
+     */
+    private volatile Boolean subProcessInline;
+
+    /**
+     * 表达式计算入口，同一个 StoryBus 中复用
+     */
+    final ExpressionBus expressionBus = new ExpressionBus(this);
+
     public BasicStoryBus(TypeConverterProcessor typeConverterProcessor, Class<?> returnType, int timeout, ExecutorService storyExecutor, String requestId,
                          String startEventId, String businessId, Role role, MonitorTracking monitorTracking, Object reqScopeData, ScopeData varScopeData, ScopeData staScopeData) {
         this.role = role;
@@ -179,27 +202,45 @@ public abstract class BasicStoryBus implements StoryBus {
         if (scopeTypeEnum == null) {
             return Optional.empty();
         }
+        long stamp = readWriteLock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                Optional<Object> value = doGetValue(scopeTypeEnum, key);
+                if (readWriteLock.validate(stamp)) {
+                    return value;
+                }
+            } catch (RuntimeException e) {
+                // 乐观读期间数据被并发修改可能导致读取异常，此时在读锁中重新读取，否则原样抛出
+                if (readWriteLock.validate(stamp)) {
+                    throw e;
+                }
+            }
+        }
         ReentrantReadWriteLock.ReadLock readLock = readWriteLock.readLock();
         readLock.lock();
         try {
-            if (scopeTypeEnum == ScopeTypeEnum.RESULT) {
-                return StringUtils.isBlank(key) ? getResult() : PropertyUtil.getProperty(getResult().orElse(null), key);
-            }
-            if (scopeTypeEnum == ScopeTypeEnum.STABLE) {
-                return StringUtils.isBlank(key) ? Optional.ofNullable(getSta()) : PropertyUtil.getProperty(getSta(), key);
-            }
-            if (scopeTypeEnum == ScopeTypeEnum.VARIABLE) {
-                return StringUtils.isBlank(key) ? Optional.ofNullable(getVar()) : PropertyUtil.getProperty(getVar(), key);
-            }
-            if (scopeTypeEnum == ScopeTypeEnum.REQUEST) {
-                return StringUtils.isBlank(key) ? GlobalUtil.resOptional(getReq()) : PropertyUtil.getProperty(getReq(), key);
-            }
-            throw ExceptionUtil.buildException(null, ExceptionEnum.STORY_ERROR, null);
+            return doGetValue(scopeTypeEnum, key);
         } finally {
             readLock.unlock();
         }
     }
 
+    private Optional<Object> doGetValue(ScopeTypeEnum scopeTypeEnum, String key) {
+        if (scopeTypeEnum == ScopeTypeEnum.RESULT) {
+            return StringUtils.isBlank(key) ? getResult() : PropertyUtil.getProperty(getResult().orElse(null), key);
+        }
+        if (scopeTypeEnum == ScopeTypeEnum.STABLE) {
+            return StringUtils.isBlank(key) ? Optional.ofNullable(getSta()) : PropertyUtil.getProperty(getSta(), key);
+        }
+        if (scopeTypeEnum == ScopeTypeEnum.VARIABLE) {
+            return StringUtils.isBlank(key) ? Optional.ofNullable(getVar()) : PropertyUtil.getProperty(getVar(), key);
+        }
+        if (scopeTypeEnum == ScopeTypeEnum.REQUEST) {
+            return StringUtils.isBlank(key) ? GlobalUtil.resOptional(getReq()) : PropertyUtil.getProperty(getReq(), key);
+        }
+        throw ExceptionUtil.buildException(null, ExceptionEnum.STORY_ERROR, null);
+    }
+
     @Override
     public Role getRole() {
         return role;
@@ -273,6 +314,11 @@ public abstract class BasicStoryBus implements StoryBus {
         }
     }
 
+    @Override
+    public ExpressionBus getExpressionBus() {
+        return expressionBus;
+    }
+
     @Override
     public MonitorTracking getMonitorTracking() {
         AssertUtil.notNull(monitorTracking);
@@ -294,6 +340,33 @@ public abstract class BasicStoryBus implements StoryBus {
         return storyExecutor;
     }
 
+    @Override
+    public ContinuationPolicyEnum getContinuationPolicy() {
+        return Optional.ofNullable(continuationPolicy).orElse(GlobalProperties.KSTRY_STORY_MONO_CONTINUATION);
+    }
+
+    public void setContinuationPolicy(ContinuationPolicyEnum continuationPolicy) {
+        this.continuationPolicy = continuationPolicy;
+    }
+
+    @Override
+    public MethodTimeoutModeEnum getMethodTimeoutMode() {
+        return Optional.ofNullable(methodTimeoutMode).orElse(GlobalProperties.KSTRY_STORY_METHOD_TIMEOUT_MODE);
+    }
+
+    public void setMethodTimeoutMode(MethodTimeoutModeEnum methodTimeoutMode) {
+        this.methodTimeoutMode = methodTimeoutMode;
+    }
+
+    @Override
+    public boolean isSubProcessInline() {
+        return Optional.ofNullable(subProcessInline).orElse(GlobalProperties.KSTRY_STORY_SUB_PROCESS_INLINE);
+    }
+
+    public void setSubProcessInline(Boolean subProcessInline) {
+        this.subProcessInline = subProcessInline;
+    }
+
     @Override
     public int remainTimeMillis() {
         int t = (int) (timeoutMillis - (System.currentTimeMillis() - beginTimeMillis));
@@ -21,13 +21,16 @@ import cn.kstry.framework.core.bpmn.ServiceTask;
 import cn.kstry.framework.core.component.expression.ConditionExpression;
 import cn.kstry.framework.core.engine.thread.InvokeMethodThreadLocal;
 import cn.kstry.framework.core.resource.service.ServiceNodeResource;
+import com.ql.util.express.IExpressContext;
 
 import java.util.Map;
 
 /**
+ * 表达式计算入口，同时作为 QLExpress 脚本执行的只读上下文
+ *
  * @author lykan
  */
-public class ExpressionBus {
+public class ExpressionBus implements IExpressContext<String, Object> {
 
     private final StoryBus storyBus;
 
@@ -178,4 +181,28 @@ public class ExpressionBus {
     public String getExpression() {
         return InvokeMethodThreadLocal.getServiceTask().flatMap(ServiceTask::getConditionExpression).map(ConditionExpression::getPlainExpression).orElse(null);
     }
+
+    @Override
+    public Object get(Object key) {
+        if (!(key instanceof String)) {
+            return null;
+        }
+        switch ((String) key) {
+            case "sta":
+                return getSta();
+            case "var":
+                return getVar();
+            case "req":
+                return getReq();
+            case "res":
+                return getRes();
+            default:
+                return null;
+        }
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        return null;
+    }
 }
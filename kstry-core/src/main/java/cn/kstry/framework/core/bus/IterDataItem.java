@@ -63,6 +63,11 @@ public class IterDataItem<T> {
         return dataList;
     }
 
+    /**
+     * 迭代项（批）总数，迭代 Iterator、Stream、Flux 等无法预知大小的数据源时为 -1
+     *
+     * @return 迭代项（批）总数
+     */
     public int getSize() {
         return size;
     }
@@ -19,6 +19,8 @@ package cn.kstry.framework.core.bus;
 
 import cn.kstry.framework.core.bpmn.ServiceTask;
 import cn.kstry.framework.core.container.component.TaskServiceDef;
+import cn.kstry.framework.core.enums.ContinuationPolicyEnum;
+import cn.kstry.framework.core.enums.MethodTimeoutModeEnum;
 import cn.kstry.framework.core.enums.ScopeTypeEnum;
 import cn.kstry.framework.core.monitor.MonitorTracking;
 import cn.kstry.framework.core.role.Role;
@@ -119,11 +121,33 @@ public interface StoryBus {
      */
     ScopeDataOperator getScopeDataOperator();
 
+    /**
+     * 获取表达式计算使用的 ExpressionBus，同一个 StoryBus 中复用
+     *
+     * @return ExpressionBus
+     */
+    ExpressionBus getExpressionBus();
+
     /**
      * 获取当前任务使用的自定义任务执行器
      */
     ExecutorService getStoryExecutor();
 
+    /**
+     * 获取异步结果产生后执行后续片段任务的延续策略
+     */
+    ContinuationPolicyEnum getContinuationPolicy();
+
+    /**
+     * 获取服务节点设置超时时间时目标方法的执行方式
+     */
+    MethodTimeoutModeEnum getMethodTimeoutMode();
+
+    /**
+     * 获取子流程是否允许在父流程当前线程中直接执行
+     */
+    boolean isSubProcessInline();
+
     /**
      * 距离最后期限的剩余时间
      */
@@ -0,0 +1,121 @@
+/*
+ *
+ *  * Copyright (c) 2020-2024, Lykan (jiashuomeng@gmail.com).
+ *  * <p>
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  * <p>
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  * <p>
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+package cn.kstry.framework.core.bus;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * 支持乐观读的读写锁。对外仍以可重入的 ReentrantReadWriteLock 提供读锁、写锁，
+ * 写锁最外层获取成功后同时持有内部 StampedLock 的写锁，最外层释放前释放，
+ * 无论写锁由框架内部获取还是通过 ScopeDataOperator#writeLock() 暴露给业务代码获取，乐观读都能感知到写操作。
+ * 乐观读使用 StampedLock#tryOptimisticRead()、StampedLock#validate(long)，校验前的读操作不会被重排到校验之后
+ *
+ * @author lykan
+ */
+class VersionedReadWriteLock extends ReentrantReadWriteLock {
+
+    /**
+     * 仅用于乐观读校验，只在持有写锁时获取其写锁，从不获取其读锁
+     */
+    private final StampedLock stampedLock = new StampedLock();
+
+    private final VersionedWriteLock writeLock = new VersionedWriteLock(this);
+
+    /**
+     * 最外层写锁对应的 StampedLock 写锁戳，只被持有写锁的线程访问
+     */
+    private long writeStamp;
+
+    @Override
+    public WriteLock writeLock() {
+        return writeLock;
+    }
+
+    /**
+     * 开始乐观读
+     *
+     * @return 乐观读戳，当前持有写锁时返回 0
+     */
+    long tryOptimisticRead() {
+        return stampedLock.tryOptimisticRead();
+    }
+
+    /**
+     * 校验乐观读期间是否发生过写操作
+     *
+     * @param stamp tryOptimisticRead() 返回的乐观读戳
+     * @return 期间没有写操作：true
+     */
+    boolean validate(long stamp) {
+        return stamp != 0 && stampedLock.validate(stamp);
+    }
+
+    private class VersionedWriteLock extends WriteLock {
+
+        private VersionedWriteLock(ReentrantReadWriteLock lock) {
+            super(lock);
+        }
+
+        @Override
+        public void lock() {
+            super.lock();
+            afterLock();
+        }
+
+        @Override
+        public void lockInterruptibly() throws InterruptedException {
+            super.lockInterruptibly();
+            afterLock();
+        }
+
+        @Override
+        public boolean tryLock() {
+            boolean locked = super.tryLock();
+            if (locked) {
+                afterLock();
+            }
+            return locked;
+        }
+
+        @Override
+        public boolean tryLock(long timeout, TimeUnit unit) throws InterruptedException {
+            boolean locked = super.tryLock(timeout, unit);
+            if (locked) {
+                afterLock();
+            }
+            return locked;
+        }
+
+        @Override
+        public void unlock() {
+            if (isHeldByCurrentThread() && getHoldCount() == 1) {
+                stampedLock.unlockWrite(writeStamp);
+            }
+            super.unlock();
+        }
+
+        private void afterLock() {
+            // 写锁可重入，只在最外层获取 StampedLock 写锁。其他线程不会持有 StampedLock 的锁，此处不会阻塞
+            if (getHoldCount() == 1) {
+                writeStamp = stampedLock.writeLock();
+            }
+        }
+    }
+}
@@ -57,6 +57,11 @@ public class IterablePropertyBuilder {
         return this;
     }
 
+    public IterablePropertyBuilder concurrency(Integer concurrency) {
+        elementIterable.setConcurrency(concurrency);
+        return this;
+    }
+
     public BasicElementIterable build() {
         return elementIterable;
     }
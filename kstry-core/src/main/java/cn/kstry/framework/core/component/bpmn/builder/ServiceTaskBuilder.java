@@ -108,6 +108,17 @@ public class ServiceTaskBuilder {
         return this;
     }
 
+    public ServiceTaskBuilder breaker(Integer threshold, Integer openTime) {
+        if (threshold == null || threshold <= 0) {
+            return this;
+        }
+        this.serviceTask.setBreakerThreshold(threshold);
+        if (openTime != null && openTime >= 0) {
+            this.serviceTask.setBreakerOpenTime(openTime);
+        }
+        return this;
+    }
+
     public ServiceTaskBuilder notStrictMode() {
         this.serviceTask.setStrictMode(false);
         return this;
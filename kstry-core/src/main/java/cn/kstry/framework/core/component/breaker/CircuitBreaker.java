@@ -0,0 +1,156 @@
+/*
+ *
+ *  * Copyright (c) 2020-2024, Lykan (jiashuomeng@gmail.com).
+ *  * <p>
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  * <p>
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  * <p>
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+package cn.kstry.framework.core.component.breaker;
+
+import cn.kstry.framework.core.enums.CircuitBreakerStateEnum;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 服务节点熔断器
+ * 连续失败次数达到阈值后打开，打开时间到期后进入半开状态放行一次探测调用，探测成功后关闭，失败后重新打开
+ * 关闭状态下的调用只读取 volatile 状态，状态变更时才加锁
+ * 节点配置重试时，每次失败的尝试都单独计入连续失败次数
+ *
+ * @author lykan
+ */
+public class CircuitBreaker {
+
+    /**
+     * 服务节点资源标识
+     */
+    private final String identityId;
+
+    /**
+     * 熔断器打开前允许连续失败的次数
+     */
+    private final int threshold;
+
+    /**
+     * 熔断器打开持续时间，单位：ms
+     */
+    private final int openTime;
+
+    private final long openTimeNanos;
+
+    /**
+     * 连续失败次数
+     */
+    private final AtomicInteger failures = new AtomicInteger(0);
+
+    private volatile CircuitBreakerStateEnum state = CircuitBreakerStateEnum.CLOSED;
+
+    /**
+     * 打开状态：打开截止时间。半开状态：探测调用截止时间，到期仍未返回结果时再放行一次探测调用
+     */
+    private volatile long deadline;
+
+    public CircuitBreaker(String identityId, int threshold, int openTime) {
+        this.identityId = identityId;
+        this.threshold = Math.max(threshold, 1);
+        this.openTime = Math.max(openTime, 0);
+        this.openTimeNanos = TimeUnit.MILLISECONDS.toNanos(this.openTime);
+    }
+
+    /**
+     * 判断当前是否允许调用服务节点
+     *
+     * @return 是否允许调用
+     */
+    public boolean tryPass() {
+        if (state == CircuitBreakerStateEnum.CLOSED) {
+            return true;
+        }
+        if (System.nanoTime() - deadline < 0) {
+            return false;
+        }
+        synchronized (this) {
+            if (state == CircuitBreakerStateEnum.CLOSED) {
+                return true;
+            }
+            long now = System.nanoTime();
+            if (now - deadline < 0) {
+                return false;
+            }
+            state = CircuitBreakerStateEnum.HALF_OPEN;
+            deadline = now + openTimeNanos;
+            return true;
+        }
+    }
+
+    /**
+     * 记录一次调用成功
+     *
+     * @return 熔断器状态是否发生变化
+     */
+    public boolean onSuccess() {
+        if (state == CircuitBreakerStateEnum.CLOSED) {
+            if (failures.get() != 0) {
+                failures.set(0);
+            }
+            return false;
+        }
+        synchronized (this) {
+            // 打开状态下收到的成功结果来自打开之前放行的调用，不影响熔断器状态
+            if (state != CircuitBreakerStateEnum.HALF_OPEN) {
+                return false;
+            }
+            failures.set(0);
+            state = CircuitBreakerStateEnum.CLOSED;
+            return true;
+        }
+    }
+
+    /**
+     * 记录一次调用失败
+     *
+     * @return 熔断器状态是否发生变化
+     */
+    public boolean onFailure() {
+        CircuitBreakerStateEnum s = state;
+        if (s == CircuitBreakerStateEnum.OPEN || (s == CircuitBreakerStateEnum.CLOSED && failures.incrementAndGet() < threshold)) {
+            return false;
+        }
+        synchronized (this) {
+            if (state == CircuitBreakerStateEnum.OPEN) {
+                return false;
+            }
+            failures.set(0);
+            state = CircuitBreakerStateEnum.OPEN;
+            deadline = System.nanoTime() + openTimeNanos;
+            return true;
+        }
+    }
+
+    public CircuitBreakerStateEnum getState() {
+        return state;
+    }
+
+    public String getIdentityId() {
+        return identityId;
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    public int getOpenTime() {
+        return openTime;
+    }
+}
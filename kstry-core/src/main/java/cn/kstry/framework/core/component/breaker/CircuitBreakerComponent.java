@@ -0,0 +1,65 @@
+/*
+ *
+ *  * Copyright (c) 2020-2024, Lykan (jiashuomeng@gmail.com).
+ *  * <p>
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  * <p>
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  * <p>
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+package cn.kstry.framework.core.component.breaker;
+
+import cn.kstry.framework.core.resource.service.ServiceNodeResource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 服务节点熔断器管理，服务节点资源与熔断配置共同确定一个熔断器
+ * 共享同一服务节点资源但熔断配置不同的节点各自持有独立的熔断器，互不重置对方的失败计数
+ *
+ * @author lykan
+ */
+public class CircuitBreakerComponent {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CircuitBreakerComponent.class);
+
+    /**
+     * 服务节点熔断器，key：服务节点资源标识@连续失败次数@打开持续时间
+     */
+    private final ConcurrentHashMap<String, CircuitBreaker> circuitBreakerMap = new ConcurrentHashMap<>();
+
+    /**
+     * 获取服务节点熔断器，相同服务节点资源与熔断配置返回同一熔断器
+     *
+     * @param serviceNodeResource 服务节点资源
+     * @param threshold 熔断器打开前允许连续失败的次数，小于等于 0 时不开启熔断器
+     * @param openTime 熔断器打开持续时间，单位：ms
+     * @return 熔断器
+     */
+    public Optional<CircuitBreaker> getCircuitBreaker(ServiceNodeResource serviceNodeResource, int threshold, int openTime) {
+        if (serviceNodeResource == null || threshold <= 0) {
+            return Optional.empty();
+        }
+        int breakerOpenTime = Math.max(openTime, 0);
+        String key = serviceNodeResource.getIdentityId() + "@" + threshold + "@" + breakerOpenTime;
+        CircuitBreaker circuitBreaker = circuitBreakerMap.get(key);
+        if (circuitBreaker != null) {
+            return Optional.of(circuitBreaker);
+        }
+        return Optional.of(circuitBreakerMap.computeIfAbsent(key, k -> {
+            LOGGER.debug("CircuitBreaker create. identity: {}, threshold: {}, openTime: {}", serviceNodeResource.getIdentityId(), threshold, breakerOpenTime);
+            return new CircuitBreaker(serviceNodeResource.getIdentityId(), threshold, breakerOpenTime);
+        }));
+    }
+}
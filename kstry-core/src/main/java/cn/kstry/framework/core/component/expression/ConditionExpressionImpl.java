@@ -22,6 +22,7 @@ import cn.kstry.framework.core.util.AssertUtil;
 import org.apache.commons.lang3.StringUtils;
 
 import java.util.function.BiPredicate;
+import java.util.function.Consumer;
 
 /**
  * @author lykan
@@ -58,9 +59,19 @@ public class ConditionExpressionImpl implements ConditionExpression {
      */
     private final BiPredicate<StoryBus, String> testCondition;
 
+    /**
+     * 预编译表达式行为，在表达式解析完成后执行，由具体业务指定
+     */
+    private final Consumer<String> compileExpression;
+
     public ConditionExpressionImpl(BiPredicate<StoryBus, String> testCondition) {
+        this(testCondition, null);
+    }
+
+    public ConditionExpressionImpl(BiPredicate<StoryBus, String> testCondition, Consumer<String> compileExpression) {
         AssertUtil.notNull(testCondition);
         this.testCondition = testCondition;
+        this.compileExpression = compileExpression;
     }
 
     @Override
@@ -87,6 +98,9 @@ public class ConditionExpressionImpl implements ConditionExpression {
         } else {
             this.conditionExpression = this.expression;
         }
+        if (compileExpression != null && StringUtils.isNotBlank(this.conditionExpression)) {
+            compileExpression.accept(this.conditionExpression);
+        }
     }
 
     @Override
@@ -110,7 +124,7 @@ public class ConditionExpressionImpl implements ConditionExpression {
      * @return 表达式对象
      */
     public ConditionExpression newWorkConditionExpression(String plainExpression, String expression, int order, boolean needParserExpression) {
-        ConditionExpressionImpl conditionExpression = new ConditionExpressionImpl(this.testCondition);
+        ConditionExpressionImpl conditionExpression = new ConditionExpressionImpl(this.testCondition, this.compileExpression);
         conditionExpression.order = order;
         conditionExpression.expression = expression;
         conditionExpression.plainExpression = plainExpression;
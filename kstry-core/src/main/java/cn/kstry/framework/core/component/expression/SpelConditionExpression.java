@@ -17,14 +17,29 @@
  */
 package cn.kstry.framework.core.component.expression;
 
-import cn.kstry.framework.core.bus.ExpressionBus;
+import cn.kstry.framework.core.constant.GlobalProperties;
 import cn.kstry.framework.core.exception.ExceptionEnum;
 import cn.kstry.framework.core.exception.ExpressionException;
 import cn.kstry.framework.core.util.GlobalUtil;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.springframework.expression.ExpressionParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.expression.ConstructorResolver;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
+import org.springframework.expression.MethodResolver;
+import org.springframework.expression.PropertyAccessor;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  *
@@ -32,7 +47,26 @@ import org.springframework.expression.spel.standard.SpelExpressionParser;
  */
 public class SpelConditionExpression extends ConditionExpressionImpl implements ConditionExpression {
 
-    private static final ExpressionParser PARSER = new SpelExpressionParser();
+    private static final Logger LOGGER = LoggerFactory.getLogger(SpelConditionExpression.class);
+
+    /**
+     * 已解析表达式缓存，key：表达式文本
+     */
+    private static final Cache<String, Expression> expressionCache = CacheBuilder.newBuilder()
+            .concurrencyLevel(8).initialCapacity(1024).maximumSize(20_000).expireAfterAccess(1, TimeUnit.HOURS)
+            .removalListener(notification -> LOGGER.debug("Spel expression cache lose efficacy. key: {}, cause: {}",
+                    notification.getKey(), notification.getCause())).build();
+
+    /**
+     * 计算上下文模板，仅用于提供可多线程共享的属性访问器、方法解析器等组件，不直接参与计算
+     */
+    private static final StandardEvaluationContext CONTEXT_TEMPLATE = new StandardEvaluationContext();
+
+    private static final List<PropertyAccessor> PROPERTY_ACCESSORS = Collections.unmodifiableList(CONTEXT_TEMPLATE.getPropertyAccessors());
+
+    private static final List<MethodResolver> METHOD_RESOLVERS = Collections.unmodifiableList(CONTEXT_TEMPLATE.getMethodResolvers());
+
+    private static final List<ConstructorResolver> CONSTRUCTOR_RESOLVERS = Collections.unmodifiableList(CONTEXT_TEMPLATE.getConstructorResolvers());
 
     public SpelConditionExpression() {
         super((scopeData, exp) -> {
@@ -41,13 +75,13 @@ public class SpelConditionExpression extends ConditionExpressionImpl implements
             }
             Boolean value;
             try {
-                value = PARSER.parseExpression(exp).getValue(new ExpressionBus(scopeData), Boolean.class);
+                value = getExpression(exp).getValue(newEvaluationContext(scopeData.getExpressionBus()), Boolean.class);
             } catch (Throwable e) {
                 throw new ExpressionException(ExceptionEnum.EXPRESSION_INVOKE_ERROR,
                         GlobalUtil.format("{} expression: {}", ExceptionEnum.EXPRESSION_INVOKE_ERROR.getDesc(), exp), e);
             }
             return BooleanUtils.isTrue(value);
-        });
+        }, SpelConditionExpression::getExpression);
     }
 
     @Override
@@ -59,4 +93,55 @@ public class SpelConditionExpression extends ConditionExpressionImpl implements
     public boolean match(String expression) {
         return true;
     }
+
+    /**
+     * 获取解析后的表达式，首次获取时解析并缓存。解析失败时直接抛出异常
+     *
+     * @param exp 表达式
+     * @return 解析后的表达式
+     */
+    public static Expression getExpression(String exp) {
+        Expression expression = expressionCache.getIfPresent(exp);
+        if (expression != null) {
+            return expression;
+        }
+        try {
+            expression = newParser().parseExpression(exp);
+        } catch (Throwable e) {
+            throw new ExpressionException(ExceptionEnum.EXPRESSION_INVOKE_ERROR,
+                    GlobalUtil.format("{} expression: {}", ExceptionEnum.EXPRESSION_INVOKE_ERROR.getDesc(), exp), e);
+        }
+        expressionCache.put(exp, expression);
+        return expression;
+    }
+
+    private static SpelExpressionParser newParser() {
+        SpelCompilerMode compilerMode = SpelCompilerMode.OFF;
+        if (StringUtils.isNotBlank(GlobalProperties.SPEL_COMPILER_MODE)) {
+            try {
+                compilerMode = SpelCompilerMode.valueOf(GlobalProperties.SPEL_COMPILER_MODE.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                LOGGER.warn("[{}] Unknown spel compiler mode: {}, use the default mode: {}",
+                        ExceptionEnum.EXPRESSION_INVOKE_ERROR.getExceptionCode(), GlobalProperties.SPEL_COMPILER_MODE, compilerMode);
+            }
+        }
+        return new SpelExpressionParser(new SpelParserConfiguration(compilerMode, SpelConditionExpression.class.getClassLoader()));
+    }
+
+    /**
+     * 每次计算创建新的上下文，避免表达式中的变量赋值等写操作在多线程间相互影响。
+     * 属性访问器、方法解析器等组件自身线程安全且内部带有反射缓存，从模板中复用
+     *
+     * @param rootObject 根对象
+     * @return 计算上下文
+     */
+    private static EvaluationContext newEvaluationContext(Object rootObject) {
+        StandardEvaluationContext context = new StandardEvaluationContext(rootObject);
+        context.setPropertyAccessors(PROPERTY_ACCESSORS);
+        context.setMethodResolvers(METHOD_RESOLVERS);
+        context.setConstructorResolvers(CONSTRUCTOR_RESOLVERS);
+        context.setTypeLocator(CONTEXT_TEMPLATE.getTypeLocator());
+        context.setTypeConverter(CONTEXT_TEMPLATE.getTypeConverter());
+        return context;
+    }
 }
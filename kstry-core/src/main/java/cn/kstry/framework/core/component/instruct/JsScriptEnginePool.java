@@ -0,0 +1,201 @@
+/*
+ *
+ *  * Copyright (c) 2020-2024, Lykan (jiashuomeng@gmail.com).
+ *  * <p>
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  * <p>
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  * <p>
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+package cn.kstry.framework.core.component.instruct;
+
+import cn.kstry.framework.core.exception.ExceptionEnum;
+import cn.kstry.framework.core.util.AssertUtil;
+import cn.kstry.framework.core.util.ExceptionUtil;
+
+import javax.script.Bindings;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
+import javax.script.ScriptEngine;
+import javax.script.ScriptEngineManager;
+import javax.script.ScriptException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * 脚本引擎池。引擎在借出期间只被一个线程使用，每个引擎各自缓存编译过的脚本
+ *
+ * @author lykan
+ */
+public class JsScriptEnginePool {
+
+    /**
+     * 每个引擎最多缓存的编译脚本数量
+     */
+    private static final int MAX_COMPILED_SCRIPT_SIZE = 1024;
+
+    private final String engineName;
+
+    private final int maxSize;
+
+    /**
+     * 池中无空闲引擎时的最长等待时间，单位：ms
+     */
+    private final long borrowTimeout;
+
+    private final AtomicInteger createdCount = new AtomicInteger(0);
+
+    private final BlockingQueue<PooledEngine> idleEngines;
+
+    /**
+     * 当前环境是否存在可用的脚本引擎
+     */
+    private volatile Boolean engineAvailable;
+
+    public JsScriptEnginePool(String engineName, int maxSize, long borrowTimeout) {
+        AssertUtil.notBlank(engineName);
+        AssertUtil.isTrue(maxSize > 0);
+        AssertUtil.isTrue(borrowTimeout >= 0);
+        this.engineName = engineName;
+        this.maxSize = maxSize;
+        this.borrowTimeout = borrowTimeout;
+        this.idleEngines = new ArrayBlockingQueue<>(maxSize);
+    }
+
+    /**
+     * 执行脚本，脚本最后一个语句的值作为返回值
+     *
+     * @param script 脚本
+     * @param bindingsInit 初始化本次执行使用的变量
+     * @return 执行结果
+     */
+    public Object eval(String script, Consumer<Bindings> bindingsInit) throws ScriptException, InterruptedException {
+        PooledEngine pooledEngine = borrow();
+        try {
+            Bindings bindings = pooledEngine.engine.createBindings();
+            if (bindingsInit != null) {
+                bindingsInit.accept(bindings);
+            }
+            CompiledScript compiledScript = pooledEngine.compile(script);
+            if (compiledScript == null) {
+                return pooledEngine.engine.eval(script, bindings);
+            }
+            return compiledScript.eval(bindings);
+        } finally {
+            giveBack(pooledEngine);
+        }
+    }
+
+    /**
+     * 编译脚本，用于在流程加载时提前暴露脚本语法错误。当前环境没有可用脚本引擎时不做处理
+     *
+     * @param script 脚本
+     */
+    public void compile(String script) throws ScriptException, InterruptedException {
+        if (!isEngineAvailable()) {
+            return;
+        }
+        PooledEngine pooledEngine = borrow();
+        try {
+            pooledEngine.compile(script);
+        } finally {
+            giveBack(pooledEngine);
+        }
+    }
+
+    public boolean isEngineAvailable() {
+        if (engineAvailable == null) {
+            engineAvailable = new ScriptEngineManager().getEngineByName(engineName) != null;
+        }
+        return engineAvailable;
+    }
+
+    /**
+     * 借出引擎。池中引擎已全部借出时最多等待 borrowTimeout，超时后创建不归还至池中的临时引擎，避免执行线程被无限期阻塞
+     */
+    private PooledEngine borrow() throws InterruptedException {
+        PooledEngine pooledEngine = idleEngines.poll();
+        if (pooledEngine != null) {
+            return pooledEngine;
+        }
+        if (createdCount.incrementAndGet() <= maxSize) {
+            try {
+                return new PooledEngine(newEngine(), false);
+            } catch (Throwable e) {
+                createdCount.decrementAndGet();
+                throw e;
+            }
+        }
+        createdCount.decrementAndGet();
+        pooledEngine = idleEngines.poll(borrowTimeout, TimeUnit.MILLISECONDS);
+        if (pooledEngine != null) {
+            return pooledEngine;
+        }
+        return new PooledEngine(newEngine(), true);
+    }
+
+    private void giveBack(PooledEngine pooledEngine) {
+        if (pooledEngine.temporary) {
+            return;
+        }
+        idleEngines.offer(pooledEngine);
+    }
+
+    private ScriptEngine newEngine() {
+        ScriptEngine engine = new ScriptEngineManager().getEngineByName(engineName);
+        if (engine == null) {
+            throw ExceptionUtil.buildException(null, ExceptionEnum.SCRIPT_EXECUTE_ERROR, "Script engine not found! engine: " + engineName);
+        }
+        return engine;
+    }
+
+    private static class PooledEngine {
+
+        private final ScriptEngine engine;
+
+        /**
+         * 池满且等待超时后创建的临时引擎，使用后直接丢弃
+         */
+        private final boolean temporary;
+
+        /**
+         * 借出期间只被一个线程访问，无需同步
+         */
+        private final Map<String, CompiledScript> compiledScriptMap = new LinkedHashMap<String, CompiledScript>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CompiledScript> eldest) {
+                return size() > MAX_COMPILED_SCRIPT_SIZE;
+            }
+        };
+
+        private PooledEngine(ScriptEngine engine, boolean temporary) {
+            this.engine = engine;
+            this.temporary = temporary;
+        }
+
+        private CompiledScript compile(String script) throws ScriptException {
+            if (!(engine instanceof Compilable)) {
+                return null;
+            }
+            CompiledScript compiledScript = compiledScriptMap.get(script);
+            if (compiledScript == null) {
+                compiledScript = ((Compilable) engine).compile(script);
+                compiledScriptMap.put(script, compiledScript);
+            }
+            return compiledScript;
+        }
+    }
+}
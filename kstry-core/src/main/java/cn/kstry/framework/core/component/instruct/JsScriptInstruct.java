@@ -23,77 +23,59 @@ import cn.kstry.framework.core.bus.InstructContent;
 import cn.kstry.framework.core.bus.ScopeDataOperator;
 import cn.kstry.framework.core.component.conversion.TypeConverterProcessor;
 import cn.kstry.framework.core.constant.BpmnElementProperties;
+import cn.kstry.framework.core.constant.GlobalProperties;
 import cn.kstry.framework.core.container.task.TaskComponentRegister;
 import cn.kstry.framework.core.exception.ExceptionEnum;
 import cn.kstry.framework.core.util.ExceptionUtil;
 import cn.kstry.framework.core.util.GlobalUtil;
 import cn.kstry.framework.core.util.PropertyUtil;
-import com.alibaba.fastjson.JSON;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import javax.script.*;
-import java.util.Optional;
+import javax.script.ScriptException;
 
 public class JsScriptInstruct implements TaskComponentRegister {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(PropertyUtil.class);
 
+    /**
+     * 指令名称
+     */
+    public static final String INSTRUCT_NAME = "jscript";
+
     private static final String DEFAULT_FUNCTION = "function {}() \n{\n{}\n}";
 
+    private static final String DEFAULT_INVOKE_METHOD = "invoke";
+
     private final TypeConverterProcessor typeConverterProcessor;
 
     public JsScriptInstruct(TypeConverterProcessor typeConverterProcessor) {
         this.typeConverterProcessor = typeConverterProcessor;
     }
 
-    @TaskInstruct(name = "jscript")
+    @TaskInstruct(name = INSTRUCT_NAME)
     @TaskService(name = "js-script-instruct")
     public void instruct(InstructContent instructContent, ScopeDataOperator scopeDataOperator) {
         if (StringUtils.isBlank(instructContent.getContent())) {
             return;
         }
 
-        JsScriptProperty property = null;
-        if (scopeDataOperator.getTaskProperty().isPresent()) {
-            try {
-                property = JSON.parseObject(scopeDataOperator.getTaskProperty().get(), JsScriptProperty.class);
-            } catch (Exception e) {
-                LOGGER.warn("[{}] js script property parsing exception. instruct: '{}{}', property: {}", ExceptionEnum.SCRIPT_PROPERTY_PARSER_ERROR.getExceptionCode(),
-                        BpmnElementProperties.SERVICE_TASK_TASK_INSTRUCT, instructContent.getInstruct(), scopeDataOperator.getTaskProperty().orElse(StringUtils.EMPTY), e);
-            }
-        }
-
-        String invokeMethodName = "invoke";
+        JsScriptProperty property = scopeDataOperator.getTaskProperty().flatMap(JsScriptProperty::parse).orElse(null);
         String script = instructContent.getContent();
         try {
-            if (property != null && StringUtils.isNotBlank(property.getInvokeMethod())) {
-                invokeMethodName = property.getInvokeMethod();
-            } else {
-                script = GlobalUtil.format(DEFAULT_FUNCTION, invokeMethodName, script);
-            }
+            script = buildScript(script, property);
             LOGGER.debug("invoke js script. instruct: '{}{}', script: {}, property: {}",
                     BpmnElementProperties.SERVICE_TASK_TASK_INSTRUCT, instructContent.getInstruct(), script, scopeDataOperator.getTaskProperty().orElse(StringUtils.EMPTY));
-            ScriptEngine jsEngine = new ScriptEngineManager().getEngineByName("javascript");
-            Bindings bind = jsEngine.createBindings();
-            bind.put("ksta", scopeDataOperator.getStaScope());
-            bind.put("kvar", scopeDataOperator.getVarScope());
-            bind.put("kreq", scopeDataOperator.getReqScope());
-            bind.put("kres", scopeDataOperator.getResult().orElse(null));
-            jsEngine.setBindings(bind, ScriptContext.ENGINE_SCOPE);
-
-            jsEngine.eval(script);
-            Object result = ((Invocable) jsEngine).invokeFunction(invokeMethodName);
+            Object result = EnginePoolHolder.ENGINE_POOL.eval(script, bind -> {
+                bind.put("ksta", scopeDataOperator.getStaScope());
+                bind.put("kvar", scopeDataOperator.getVarScope());
+                bind.put("kreq", scopeDataOperator.getReqScope());
+                bind.put("kres", scopeDataOperator.getResult().orElse(null));
+            });
             if (result != null && property != null && !StringUtils.isAllBlank(property.getReturnType(), property.getResultConverter())) {
-                result = typeConverterProcessor.convert(property.getResultConverter(), result, Optional.ofNullable(property.getReturnType()).filter(StringUtils::isNotBlank).map(rt -> {
-                    try {
-                        return Class.forName(rt);
-                    } catch (ClassNotFoundException e) {
-                        throw new RuntimeException(e);
-                    }
-                }).orElse(null)).getValue();
+                result = typeConverterProcessor.convert(property.getResultConverter(), result, property.resolveReturnType()).getValue();
             }
             if (property != null && CollectionUtils.isNotEmpty(property.getReturnTarget())) {
                 for (String target : property.getReturnTarget()) {
@@ -111,8 +93,45 @@ public class JsScriptInstruct implements TaskComponentRegister {
         }
     }
 
+    /**
+     * 流程加载时解析脚本属性并预编译脚本，当前环境没有可用的脚本引擎时只解析属性
+     *
+     * @param content 脚本内容
+     * @param taskProperty 任务属性
+     */
+    public static void compile(String content, String taskProperty) throws ScriptException, InterruptedException {
+        if (StringUtils.isBlank(content)) {
+            return;
+        }
+        JsScriptProperty property = JsScriptProperty.parse(taskProperty).orElse(null);
+        EnginePoolHolder.ENGINE_POOL.compile(buildScript(content, property));
+    }
+
     @Override
     public String getName() {
         return "js-script-instruct-component";
     }
+
+    /**
+     * 组装实际执行的脚本，在脚本末尾调用入口方法，使脚本的执行结果即为入口方法的返回值
+     */
+    private static String buildScript(String content, JsScriptProperty property) {
+        String invokeMethodName = DEFAULT_INVOKE_METHOD;
+        String script = content;
+        if (property != null && StringUtils.isNotBlank(property.getInvokeMethod())) {
+            invokeMethodName = property.getInvokeMethod();
+        } else {
+            script = GlobalUtil.format(DEFAULT_FUNCTION, invokeMethodName, script);
+        }
+        return script + "\n" + invokeMethodName + "();";
+    }
+
+    /**
+     * 首次使用时创建引擎池，保证读取到的是初始化后的全局配置
+     */
+    private static class EnginePoolHolder {
+
+        private static final JsScriptEnginePool ENGINE_POOL = new JsScriptEnginePool("javascript",
+                GlobalProperties.JS_SCRIPT_ENGINE_POOL_SIZE, GlobalProperties.JS_SCRIPT_ENGINE_BORROW_TIMEOUT);
+    }
 }
@@ -17,12 +17,33 @@
  */
 package cn.kstry.framework.core.component.instruct;
 
+import cn.kstry.framework.core.exception.ExceptionEnum;
+import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.annotation.JSONField;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.ClassUtils;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 public class JsScriptProperty {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(JsScriptProperty.class);
+
+    /**
+     * 已解析的脚本属性缓存，key：属性文本
+     */
+    private static final Cache<String, Optional<JsScriptProperty>> propertyCache = CacheBuilder.newBuilder()
+            .concurrencyLevel(8).initialCapacity(256).maximumSize(20_000).expireAfterAccess(1, TimeUnit.HOURS)
+            .removalListener(notification -> LOGGER.debug("Script property cache lose efficacy. key: {}, cause: {}",
+                    notification.getKey(), notification.getCause())).build();
+
     @JSONField(name = "return-type")
     private String returnType;
 
@@ -38,12 +59,57 @@ public class JsScriptProperty {
     @JSONField(name = "result-converter")
     private String resultConverter;
 
+    /**
+     * 解析后的返回值类型
+     */
+    @JSONField(serialize = false, deserialize = false)
+    private volatile Class<?> returnTypeClass;
+
+    /**
+     * 解析脚本属性，同一份属性文本只解析一次。解析失败时返回空
+     *
+     * @param property 属性文本
+     * @return 脚本属性
+     */
+    public static Optional<JsScriptProperty> parse(String property) {
+        if (StringUtils.isBlank(property)) {
+            return Optional.empty();
+        }
+        try {
+            return propertyCache.get(property, () -> {
+                try {
+                    return Optional.ofNullable(JSON.parseObject(property, JsScriptProperty.class));
+                } catch (Exception e) {
+                    LOGGER.warn("[{}] script property parsing exception. property: {}", ExceptionEnum.SCRIPT_PROPERTY_PARSER_ERROR.getExceptionCode(), property, e);
+                    return Optional.empty();
+                }
+            });
+        } catch (ExecutionException e) {
+            LOGGER.warn("[{}] script property parsing exception. property: {}", ExceptionEnum.SCRIPT_PROPERTY_PARSER_ERROR.getExceptionCode(), property, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * 获取返回值类型，首次调用时加载并缓存
+     *
+     * @return 返回值类型，未指定时返回 null
+     */
+    public Class<?> resolveReturnType() throws ClassNotFoundException {
+        if (returnTypeClass != null || StringUtils.isBlank(returnType)) {
+            return returnTypeClass;
+        }
+        returnTypeClass = ClassUtils.forName(returnType, JsScriptProperty.class.getClassLoader());
+        return returnTypeClass;
+    }
+
     public String getReturnType() {
         return returnType;
     }
 
     public void setReturnType(String returnType) {
         this.returnType = returnType;
+        this.returnTypeClass = null;
     }
 
     public List<String> getReturnTarget() {
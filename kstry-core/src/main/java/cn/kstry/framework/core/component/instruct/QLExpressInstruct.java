@@ -11,8 +11,7 @@ import cn.kstry.framework.core.exception.ExceptionEnum;
 import cn.kstry.framework.core.util.ExceptionUtil;
 import cn.kstry.framework.core.util.GlobalUtil;
 import cn.kstry.framework.core.util.PropertyUtil;
-import com.alibaba.fastjson.JSON;
-import com.ql.util.express.ExpressRunner;
+import cn.kstry.framework.core.util.QLExpressUtil;
 import com.ql.util.express.IExpressContext;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -21,7 +20,6 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationContext;
 
-import java.util.Optional;
 
 /**
  *
@@ -31,7 +29,10 @@ public class QLExpressInstruct implements TaskComponentRegister {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(PropertyUtil.class);
 
-    private static ExpressRunner PARSER = new ExpressRunner();
+    /**
+     * 指令名称
+     */
+    public static final String INSTRUCT_NAME = "qlexpress";
 
     private final TypeConverterProcessor typeConverterProcessor;
     @Autowired
@@ -41,36 +42,21 @@ public class QLExpressInstruct implements TaskComponentRegister {
         this.typeConverterProcessor = typeConverterProcessor;
     }
 
-    @TaskInstruct(name = "qlexpress")
+    @TaskInstruct(name = INSTRUCT_NAME)
     @TaskService(name = "qlexpress-instruct")
     public void instruct(InstructContent instructContent, ScopeDataOperator scopeDataOperator) {
         if (StringUtils.isBlank(instructContent.getContent())) {
             return;
         }
 
-        JsScriptProperty property = null;
-        if (scopeDataOperator.getTaskProperty().isPresent()) {
-            try {
-                property = JSON.parseObject(scopeDataOperator.getTaskProperty().get(), JsScriptProperty.class);
-            } catch (Exception e) {
-                LOGGER.warn("[{}] ql express property parsing exception. instruct: '{}{}', property: {}", ExceptionEnum.SCRIPT_PROPERTY_PARSER_ERROR.getExceptionCode(),
-                        BpmnElementProperties.SERVICE_TASK_TASK_INSTRUCT, instructContent.getInstruct(), scopeDataOperator.getTaskProperty().orElse(StringUtils.EMPTY), e);
-            }
-        }
-
+        JsScriptProperty property = scopeDataOperator.getTaskProperty().flatMap(JsScriptProperty::parse).orElse(null);
         String script = instructContent.getContent();
         try {
             IExpressContext<String, Object> context= new ExpressionBusContext(scopeDataOperator,this.applicationContext);
-            Object result = PARSER.execute(script, context, null, true, false);
+            Object result = QLExpressUtil.execute(script, context);
 
             if (result != null && property != null && !StringUtils.isAllBlank(property.getReturnType(), property.getResultConverter())) {
-                result = typeConverterProcessor.convert(property.getResultConverter(), result, Optional.ofNullable(property.getReturnType()).filter(StringUtils::isNotBlank).map(rt -> {
-                    try {
-                        return Class.forName(rt);
-                    } catch (ClassNotFoundException e) {
-                        throw new RuntimeException(e);
-                    }
-                }).orElse(null)).getValue();
+                result = typeConverterProcessor.convert(property.getResultConverter(), result, property.resolveReturnType()).getValue();
             }
             if (property != null && CollectionUtils.isNotEmpty(property.getReturnTarget())) {
                 for (String target : property.getReturnTarget()) {
@@ -3,6 +3,7 @@ package cn.kstry.framework.core.component.instruct;
 import cn.kstry.framework.core.annotation.TaskInstruct;
 import cn.kstry.framework.core.annotation.TaskService;
 import cn.kstry.framework.core.bus.InstructContent;
+import cn.kstry.framework.core.bus.IterDataItem;
 import cn.kstry.framework.core.bus.ScopeDataOperator;
 import cn.kstry.framework.core.component.conversion.TypeConverterProcessor;
 import cn.kstry.framework.core.constant.BpmnElementProperties;
@@ -12,7 +13,6 @@ import cn.kstry.framework.core.exception.ExceptionEnum;
 import cn.kstry.framework.core.util.ExceptionUtil;
 import cn.kstry.framework.core.util.GlobalUtil;
 import cn.kstry.framework.core.util.PropertyUtil;
-import com.alibaba.fastjson.JSON;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
@@ -24,18 +24,26 @@ import org.springframework.jdbc.core.namedparam.SqlParameterSource;
 import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
 
 import javax.sql.DataSource;
-import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * 使用JsScriptProperty设置sql执行逻辑
  *   invokeSource: ds1 ，获取springContext当前的routeDatasource或名为ds1的DataSrouce对象
- *   invokeMethod: select返回Map, selectlist返回List, value返回单值转字符, execute执行update/delete
+ *                 存在routeDatasource时直接使用路由数据源本身，每次获取连接时才按当前路由键选择目标数据源，
+ *                 不再像之前一样在执行指令时解析一次当前目标数据源，路由键需要在获取连接前（执行指令的线程中）设置
+ *   invokeMethod: select返回Map, selectlist返回List, value返回单值转字符, execute执行update/delete,
+ *                 batch在批量迭代(stride>1)时将本批次的每一项作为一组参数执行一次JDBC批量更新，返回每一项的更新条数
  *   returnType: 返回对象类型，可为null
  *   returnTarget: ['res', 'sta.v1', 'var.v1'] , 将返回值写入这些存储域
  *
  *   使用sql变量绑定: select ..from a where k1>:var.k1 and k2==:sta.k2
+ *   迭代执行时使用当前项绑定: update a set v=:item.v where id=:item.id
  *
  * @author crabo Yang, Feb 2025
  */
@@ -43,6 +51,21 @@ public class SqlInstruct implements TaskComponentRegister {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(PropertyUtil.class);
 
+    /**
+     * 指令名称
+     */
+    public static final String INSTRUCT_NAME = "sql";
+
+    /**
+     * 迭代项参数前缀
+     */
+    private static final String ITEM_PARAM = "item";
+
+    /**
+     * 已解析的 JdbcTemplate，key：数据源名称，未指定数据源时为空串
+     */
+    private final Map<String, NamedParameterJdbcTemplate> jdbcTemplateCache = new ConcurrentHashMap<>();
+
     @Autowired
     private ApplicationContext applicationContext;
 
@@ -52,43 +75,30 @@ public class SqlInstruct implements TaskComponentRegister {
         this.typeConverterProcessor = typeConverterProcessor;
     }
 
-    @TaskInstruct(name = "sql")
+    @TaskInstruct(name = INSTRUCT_NAME)
     @TaskService(name = "sql-instruct")
-    public void instruct(InstructContent instructContent, ScopeDataOperator scopeDataOperator) {
+    public void instruct(InstructContent instructContent, ScopeDataOperator scopeDataOperator, IterDataItem<Object> iterDataItem) {
         if (StringUtils.isBlank(instructContent.getContent())) {
             return;
         }
 
-        JsScriptProperty property = null;
-        if (scopeDataOperator.getTaskProperty().isPresent()) {
-            try {
-                property = JSON.parseObject(scopeDataOperator.getTaskProperty().get(), JsScriptProperty.class);
-            } catch (Exception e) {
-                LOGGER.warn("[{}] SQL parsing exception. instruct: '{}{}', property: {}", ExceptionEnum.SCRIPT_PROPERTY_PARSER_ERROR.getExceptionCode(),
-                        BpmnElementProperties.SERVICE_TASK_TASK_INSTRUCT, instructContent.getInstruct(), scopeDataOperator.getTaskProperty().orElse(StringUtils.EMPTY), e);
-            }
-        }
-
+        JsScriptProperty property = scopeDataOperator.getTaskProperty().flatMap(JsScriptProperty::parse).orElse(null);
         String sql = instructContent.getContent();
         try {
+            if (property == null || StringUtils.isBlank(property.getInvokeMethod())) {
+                throw new BusinessException(ExceptionEnum.SCRIPT_PROPERTY_PARSER_ERROR.getExceptionCode(), "SQL指令需要在任务属性中指定invoke-method");
+            }
             NamedParameterJdbcTemplate jdbc = this.getJdbc(property.getInvokeSource());
             if(jdbc==null){
-                throw new BusinessException(ExceptionEnum.SCRIPT_EXECUTE_ERROR.getExceptionCode(), "无法创建数据源连接："+property.getInvokeMethod());
+                throw new BusinessException(ExceptionEnum.SCRIPT_EXECUTE_ERROR.getExceptionCode(), "无法创建数据源连接："+property.getInvokeSource());
             }
 
-            SqlParameterSource paramSource= new ExpressionBusParameterSource(scopeDataOperator);
-            Object result = this.executeSql(property.getInvokeMethod(), jdbc, sql, paramSource);
-
-            if (result != null && property != null && !StringUtils.isAllBlank(property.getReturnType(), property.getResultConverter())) {
-                result = typeConverterProcessor.convert(property.getResultConverter(), result, Optional.ofNullable(property.getReturnType()).filter(StringUtils::isNotBlank).map(rt -> {
-                    try {
-                        return Class.forName(rt);
-                    } catch (ClassNotFoundException e) {
-                        throw new RuntimeException(e);
-                    }
-                }).orElse(null)).getValue();
+            Object result = this.executeSql(property.getInvokeMethod(), jdbc, sql, scopeDataOperator, iterDataItem);
+
+            if (result != null && !StringUtils.isAllBlank(property.getReturnType(), property.getResultConverter())) {
+                result = typeConverterProcessor.convert(property.getResultConverter(), result, property.resolveReturnType()).getValue();
             }
-            if (property != null && CollectionUtils.isNotEmpty(property.getReturnTarget())) {
+            if (CollectionUtils.isNotEmpty(property.getReturnTarget())) {
                 for (String target : property.getReturnTarget()) {
                     boolean setRes = scopeDataOperator.setData(target, result);
                 }
@@ -105,17 +115,24 @@ public class SqlInstruct implements TaskComponentRegister {
         return "sql-instruct-component";
     }
 
-    private NamedParameterJdbcTemplate getJdbc(String ds){
+    private NamedParameterJdbcTemplate getJdbc(String ds) {
+        NamedParameterJdbcTemplate jdbc = jdbcTemplateCache.get(StringUtils.defaultString(ds));
+        if (jdbc != null) {
+            return jdbc;
+        }
+        // 解析失败时不缓存，下次执行时重新解析
+        return jdbcTemplateCache.computeIfAbsent(StringUtils.defaultString(ds), this::createJdbc);
+    }
+
+    private NamedParameterJdbcTemplate createJdbc(String ds){
         try {
             DataSource targetDataSource;
 
             Map<String, AbstractRoutingDataSource> beans = applicationContext.getBeansOfType(AbstractRoutingDataSource.class);
             AbstractRoutingDataSource multi = beans.values().stream().findFirst().orElse(null);
-            //先判断是否有多源切换机制
+            //先判断是否有多源切换机制，路由数据源在每次获取连接时才决定目标数据源，可以直接缓存
             if(multi!=null) {
-                Method method = AbstractRoutingDataSource.class.getDeclaredMethod("determineTargetDataSource");
-                method.setAccessible(true);
-                targetDataSource = (DataSource) method.invoke(multi);
+                targetDataSource = multi;
             }else{
                 Map<String, DataSource> map = applicationContext.getBeansOfType(DataSource.class);
                 //多个数据源，用invokeSource参数指定名称
@@ -132,8 +149,18 @@ public class SqlInstruct implements TaskComponentRegister {
         return null;
     }
 
-    private Object executeSql(String invokeMethod,NamedParameterJdbcTemplate jdbc, String sql, SqlParameterSource paramSource){
+    private Object executeSql(String invokeMethod, NamedParameterJdbcTemplate jdbc, String sql, ScopeDataOperator scopeData, IterDataItem<Object> iterDataItem){
+        if ("batch".equals(invokeMethod)) {
+            if (iterDataItem == null || !iterDataItem.isBatch()) {
+                return jdbc.update(sql, new ExpressionBusParameterSource(scopeData, iterDataItem == null ? null : iterDataItem.getData().orElse(null)));
+            }
+            List<Object> dataList = iterDataItem.getDataList();
+            SqlParameterSource[] batchParams = dataList.stream().map(item -> new ExpressionBusParameterSource(scopeData, item)).toArray(SqlParameterSource[]::new);
+            int[] counts = jdbc.batchUpdate(sql, batchParams);
+            return IntStream.of(counts).boxed().collect(Collectors.toList());
+        }
 
+        SqlParameterSource paramSource = new ExpressionBusParameterSource(scopeData, iterDataItem == null || iterDataItem.isBatch() ? null : iterDataItem.getData().orElse(null));
         switch (invokeMethod) {
             case "map":
             case "select":
@@ -153,21 +180,46 @@ public class SqlInstruct implements TaskComponentRegister {
         return null;
     }
 
+    /**
+     * 从 StoryBus 或当前迭代项中获取 SQL 参数。单次执行中同一参数只解析一次
+     */
     static class ExpressionBusParameterSource implements SqlParameterSource {
 
-        ScopeDataOperator scopeData;
-        public ExpressionBusParameterSource(ScopeDataOperator scopeData){
+        final ScopeDataOperator scopeData;
+
+        final Object item;
+
+        final Map<String, Optional<Object>> valueCache = new HashMap<>();
+
+        public ExpressionBusParameterSource(ScopeDataOperator scopeData, Object item){
             this.scopeData = scopeData;
+            this.item = item;
         }
 
         @Override
         public boolean hasValue(String expression) {
-            return this.scopeData.getData(expression).isPresent();
+            return resolve(expression).isPresent();
         }
 
         @Override
         public Object getValue(String expression) throws IllegalArgumentException {
-            return this.scopeData.getData(expression).orElse(null);
+            return resolve(expression).orElse(null);
+        }
+
+        private Optional<Object> resolve(String expression) {
+            Optional<Object> value = valueCache.get(expression);
+            if (value != null) {
+                return value;
+            }
+            if (ITEM_PARAM.equals(expression)) {
+                value = Optional.ofNullable(item);
+            } else if (expression.startsWith(ITEM_PARAM + ".")) {
+                value = PropertyUtil.getProperty(item, expression.substring(ITEM_PARAM.length() + 1)).filter(v -> v != PropertyUtil.GET_PROPERTY_ERROR_SIGN);
+            } else {
+                value = this.scopeData.getData(expression);
+            }
+            valueCache.put(expression, value);
+            return value;
         }
     }
 }
@@ -379,6 +379,7 @@ public class JsonProcessModelTransfer implements ProcessModelTransfer<List<JsonP
         ElementPropertyUtil.getJsonNodeProperty(flowNode, BpmnElementProperties.ITERATE_ALIGN_INDEX).map(BooleanUtils::toBoolean).ifPresent(elementIterable::setIteAlignIndex);
         ElementPropertyUtil.getJsonNodeProperty(flowNode, BpmnElementProperties.ITERATE_STRATEGY).flatMap(IterateStrategyEnum::of).ifPresent(elementIterable::setIteStrategy);
         ElementPropertyUtil.getJsonNodeProperty(flowNode, BpmnElementProperties.ITERATE_STRIDE).map(NumberUtils::toInt).ifPresent(elementIterable::setStride);
+        ElementPropertyUtil.getJsonNodeProperty(flowNode, BpmnElementProperties.ITERATE_CONCURRENCY).map(NumberUtils::toInt).ifPresent(elementIterable::setConcurrency);
         setConsumer.accept(elementIterable);
     }
 
@@ -484,6 +485,8 @@ public class JsonProcessModelTransfer implements ProcessModelTransfer<List<JsonP
             serviceTaskImpl.setExpression(sequenceFlowExpression);
         });
         ElementPropertyUtil.getJsonNodeProperty(flowNode, BpmnElementProperties.SERVICE_TASK_RETRY_TIMES).map(NumberUtils::toInt).filter(i -> i > 0).ifPresent(serviceTaskImpl::setRetryTimes);
+        ElementPropertyUtil.getJsonNodeProperty(flowNode, BpmnElementProperties.SERVICE_TASK_BREAKER_THRESHOLD).map(NumberUtils::toInt).filter(i -> i > 0).ifPresent(serviceTaskImpl::setBreakerThreshold);
+        ElementPropertyUtil.getJsonNodeProperty(flowNode, BpmnElementProperties.SERVICE_TASK_BREAKER_OPEN_TIME).map(s -> NumberUtils.toInt(s, -1)).filter(i -> i >= 0).ifPresent(serviceTaskImpl::setBreakerOpenTime);
         ElementPropertyUtil.getJsonNodeProperty(flowNode, BpmnElementProperties.SERVICE_TASK_CUSTOM_ROLE).flatMap(CustomRoleInfo::buildCustomRole).ifPresent(serviceTaskImpl::setCustomRoleInfo);
         ElementPropertyUtil.getJsonNodeProperty(flowNode, BpmnElementProperties.TASK_ALLOW_ABSENT).map(BooleanUtils::toBooleanObject).ifPresent(serviceTaskImpl::setAllowAbsent);
         ElementPropertyUtil.getJsonNodeProperty(flowNode, BpmnElementProperties.TASK_STRICT_MODE).map(BooleanUtils::toBooleanObject).ifPresent(serviceTaskImpl::setStrictMode);
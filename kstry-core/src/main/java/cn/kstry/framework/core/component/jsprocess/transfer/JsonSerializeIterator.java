@@ -174,6 +174,8 @@ public class JsonSerializeIterator extends DiagramTraverseSupport<Map<String, Js
         properties.put(BpmnElementProperties.SERVICE_TASK_TASK_PROPERTY, serviceTask.getTaskProperty());
         properties.put(BpmnElementProperties.SERVICE_TASK_TASK_PARAMS, serviceTask.getTaskParams());
         properties.put(BpmnElementProperties.SERVICE_TASK_RETRY_TIMES, serviceTask.getRetryTimes());
+        properties.put(BpmnElementProperties.SERVICE_TASK_BREAKER_THRESHOLD, serviceTask.getBreakerThreshold());
+        properties.put(BpmnElementProperties.SERVICE_TASK_BREAKER_OPEN_TIME, serviceTask.getBreakerOpenTime());
         properties.put(BpmnElementProperties.TASK_ALLOW_ABSENT, serviceTask.allowAbsent());
         properties.put(BpmnElementProperties.TASK_STRICT_MODE, serviceTask.strictMode());
         properties.put(BpmnElementProperties.TASK_TIMEOUT, serviceTask.getTimeout());
@@ -193,6 +195,7 @@ public class JsonSerializeIterator extends DiagramTraverseSupport<Map<String, Js
             properties.put(BpmnElementProperties.ITERATE_SOURCE, elementIterable.getIteSource());
             properties.put(BpmnElementProperties.ITERATE_STRATEGY, Optional.ofNullable(elementIterable.getIteStrategy()).map(IterateStrategyEnum::getKey).orElse(null));
             properties.put(BpmnElementProperties.ITERATE_STRIDE, elementIterable.getStride());
+            properties.put(BpmnElementProperties.ITERATE_CONCURRENCY, elementIterable.getConcurrency());
             if (BooleanUtils.isTrue(elementIterable.openAsync())) {
                 properties.put(BpmnElementProperties.ITERATE_ASYNC, elementIterable.openAsync());
             }
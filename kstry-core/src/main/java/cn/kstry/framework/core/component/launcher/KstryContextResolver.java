@@ -24,12 +24,18 @@ import cn.kstry.framework.core.component.dynamic.KValueDynamicComponent;
 import cn.kstry.framework.core.component.dynamic.RoleDynamicComponent;
 import cn.kstry.framework.core.component.expression.ExpressionAliasParser;
 import cn.kstry.framework.core.component.jsprocess.transfer.JsonSerializeProcessParser;
+import cn.kstry.framework.core.component.breaker.CircuitBreakerComponent;
+import cn.kstry.framework.core.component.limiter.AdaptiveNodeRateLimiter;
+import cn.kstry.framework.core.component.limiter.ConcurrencyNodeRateLimiter;
 import cn.kstry.framework.core.component.limiter.LocalSingleNodeRateLimiter;
 import cn.kstry.framework.core.component.limiter.NodeRateLimiter;
 import cn.kstry.framework.core.component.limiter.RateLimiterComponent;
+import cn.kstry.framework.core.component.limiter.SlidingWindowNodeRateLimiter;
+import cn.kstry.framework.core.component.limiter.TokenBucketNodeRateLimiter;
 import cn.kstry.framework.core.component.limiter.strategy.FailAcquireStrategy;
 import cn.kstry.framework.core.constant.ConfigPropertyNameConstant;
 import cn.kstry.framework.core.constant.GlobalConstant;
+import cn.kstry.framework.core.constant.GlobalProperties;
 import cn.kstry.framework.core.container.ComponentLifecycle;
 import cn.kstry.framework.core.container.component.SpringTaskComponentRepository;
 import cn.kstry.framework.core.container.component.TaskContainer;
@@ -44,6 +50,7 @@ import cn.kstry.framework.core.engine.interceptor.TaskInterceptor;
 import cn.kstry.framework.core.engine.interceptor.TaskInterceptorRepository;
 import cn.kstry.framework.core.engine.thread.TaskServiceExecutor;
 import cn.kstry.framework.core.engine.thread.hook.ThreadSwitchHookProcessor;
+import cn.kstry.framework.core.engine.timer.HashedWheelTimer;
 import cn.kstry.framework.core.enums.ExecutorType;
 import cn.kstry.framework.core.kv.*;
 import cn.kstry.framework.core.monitor.FieldSerializeTracking;
@@ -66,12 +73,15 @@ import org.springframework.context.annotation.Condition;
 import org.springframework.context.annotation.ConditionContext;
 import org.springframework.context.annotation.Conditional;
 import org.springframework.core.type.AnnotatedTypeMetadata;
+import reactor.core.scheduler.Schedulers;
 
 import javax.annotation.Nonnull;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
@@ -141,16 +151,51 @@ public class KstryContextResolver extends BasicLauncher {
         return new LocalSingleNodeRateLimiter(failAcquireStrategyList, expressionAliasParser);
     }
 
+    @Bean
+    public TokenBucketNodeRateLimiter getTokenBucketNodeRateLimiter(List<FailAcquireStrategy> failAcquireStrategyList, ExpressionAliasParser expressionAliasParser) {
+        return new TokenBucketNodeRateLimiter(failAcquireStrategyList, expressionAliasParser);
+    }
+
+    @Bean
+    public SlidingWindowNodeRateLimiter getSlidingWindowNodeRateLimiter(List<FailAcquireStrategy> failAcquireStrategyList, ExpressionAliasParser expressionAliasParser) {
+        return new SlidingWindowNodeRateLimiter(failAcquireStrategyList, expressionAliasParser);
+    }
+
+    @Bean
+    public ConcurrencyNodeRateLimiter getConcurrencyNodeRateLimiter(List<FailAcquireStrategy> failAcquireStrategyList, ExpressionAliasParser expressionAliasParser) {
+        return new ConcurrencyNodeRateLimiter(failAcquireStrategyList, expressionAliasParser);
+    }
+
+    @Bean
+    public AdaptiveNodeRateLimiter getAdaptiveNodeRateLimiter(List<FailAcquireStrategy> failAcquireStrategyList, ExpressionAliasParser expressionAliasParser) {
+        return new AdaptiveNodeRateLimiter(failAcquireStrategyList, expressionAliasParser);
+    }
+
     @Bean
     public RateLimiterComponent getRateLimiterComponent(List<NodeRateLimiter> nodeRateLimiters) {
         return new RateLimiterComponent(nodeRateLimiters);
     }
 
+    @Bean
+    public CircuitBreakerComponent getCircuitBreakerComponent() {
+        return new CircuitBreakerComponent();
+    }
+
+    /**
+     * 超时定时器，到期任务默认交由 Schedulers.parallel() 执行，可以通过定义名为 kstry-timer-executor 的 Executor Bean 替换
+     */
+    @Bean(destroyMethod = ComponentLifecycle.DESTROY)
+    public HashedWheelTimer getStoryTimer() {
+        Executor taskExecutor = applicationContext.containsBean(GlobalConstant.TIMER_EXECUTOR_BEAN_NAME)
+                ? applicationContext.getBean(GlobalConstant.TIMER_EXECUTOR_BEAN_NAME, Executor.class) : task -> Schedulers.parallel().schedule(task);
+        return new HashedWheelTimer("kstry-timer", 10, TimeUnit.MILLISECONDS, 512, GlobalProperties.KSTRY_TIMER_MAX_PENDING_TIMEOUTS, taskExecutor);
+    }
+
     @Bean
     public StoryEngine getFlowEngine(StartEventContainer startEventContainer, RoleDynamicComponent roleDynamicComponent, TaskContainer taskContainer,
                                      List<TaskServiceExecutor> taskServiceExecutor, ThreadSwitchHookProcessor threadSwitchHookProcessor,
                                      SerializeProcessParser<?> serializeProcessParser, SerializeTracking serializeTracking, TypeConverterProcessor typeConverterProcessor,
-                                     RateLimiterComponent rateLimiterComponent) {
+                                     RateLimiterComponent rateLimiterComponent, CircuitBreakerComponent circuitBreakerComponent, HashedWheelTimer storyTimer) {
         StoryEngineModule storyEngineModule = new StoryEngineModule(taskServiceExecutor, startEventContainer, taskContainer, def -> {
             AssertUtil.notNull(def);
             if (def.isSpringInitialization()) {
@@ -158,7 +203,7 @@ public class KstryContextResolver extends BasicLauncher {
             }
             return ElementParserUtil.newInstance(def.getParamType()).orElse(null);
         }, getSubProcessInterceptorRepository(), getTaskInterceptorRepository(),
-                threadSwitchHookProcessor, applicationContext, serializeProcessParser, serializeTracking, typeConverterProcessor, rateLimiterComponent);
+                threadSwitchHookProcessor, applicationContext, serializeProcessParser, serializeTracking, typeConverterProcessor, rateLimiterComponent, circuitBreakerComponent, storyTimer);
         return new StoryEngine(storyEngineModule, getBusinessRoleRepository(roleDynamicComponent));
     }
 
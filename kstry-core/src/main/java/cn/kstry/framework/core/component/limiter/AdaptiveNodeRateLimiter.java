@@ -0,0 +1,65 @@
+/*
+ *
+ *  * Copyright (c) 2020-2024, Lykan (jiashuomeng@gmail.com).
+ *  * <p>
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  * <p>
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  * <p>
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+package cn.kstry.framework.core.component.limiter;
+
+import cn.kstry.framework.core.bus.StoryBus;
+import cn.kstry.framework.core.component.expression.ExpressionAliasParser;
+import cn.kstry.framework.core.component.limiter.algorithm.NodeLimiter;
+import cn.kstry.framework.core.component.limiter.algorithm.VegasNodeLimiter;
+import cn.kstry.framework.core.component.limiter.strategy.FailAcquireStrategy;
+import cn.kstry.framework.core.resource.service.ServiceNodeResource;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * 本地单实例自适应并发数限流，根据服务节点的执行耗时自动调整并发上限。
+ * permits：并发上限的最大值，初始并发上限为 min(20, permits)。不支持预热与等待获取许可
+ *
+ * @author lykan
+ */
+public class AdaptiveNodeRateLimiter extends BasicNodeRateLimiter implements NodeRateLimiter {
+
+    public static final String ADAPTIVE_NODE_RATE_LIMITER = "adaptive_node_rate_limiter";
+
+    public AdaptiveNodeRateLimiter(List<FailAcquireStrategy> failAcquireStrategyList, ExpressionAliasParser expressionAliasParser) {
+        super(failAcquireStrategyList, expressionAliasParser);
+    }
+
+    @Override
+    public Optional<FailAcquireStrategy> getNodeRateLimiter(StoryBus storyBus, ServiceNodeResource serviceNodeResource, RateLimiterConfig rateLimiterConfig) {
+        return tryAcquire(storyBus, serviceNodeResource, rateLimiterConfig, null);
+    }
+
+    @Override
+    public Optional<FailAcquireStrategy> getNodeRateLimiter(StoryBus storyBus, ServiceNodeResource serviceNodeResource,
+                                                            RateLimiterConfig rateLimiterConfig, Consumer<Runnable> releaseConsumer) {
+        return tryAcquire(storyBus, serviceNodeResource, rateLimiterConfig, releaseConsumer);
+    }
+
+    @Override
+    protected NodeLimiter buildNodeLimiter(RateLimiterConfig rateLimiterConfig) {
+        return new VegasNodeLimiter(rateLimiterConfig);
+    }
+
+    @Override
+    public String getName() {
+        return ADAPTIVE_NODE_RATE_LIMITER;
+    }
+}
@@ -22,6 +22,8 @@ import cn.kstry.framework.core.bpmn.impl.SequenceFlowExpression;
 import cn.kstry.framework.core.bus.StoryBus;
 import cn.kstry.framework.core.component.expression.ConditionExpression;
 import cn.kstry.framework.core.component.expression.ExpressionAliasParser;
+import cn.kstry.framework.core.component.limiter.algorithm.GuavaNodeLimiter;
+import cn.kstry.framework.core.component.limiter.algorithm.NodeLimiter;
 import cn.kstry.framework.core.component.limiter.strategy.ExceptionFailAcquireStrategy;
 import cn.kstry.framework.core.component.limiter.strategy.FailAcquireStrategy;
 import cn.kstry.framework.core.exception.ExceptionEnum;
@@ -38,6 +40,8 @@ import org.slf4j.LoggerFactory;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -49,6 +53,11 @@ public abstract class BasicNodeRateLimiter {
 
     protected final Map<String, FailAcquireStrategy> failAcquireStrategyMap;
 
+    /**
+     * 服务节点限流器，key：服务节点资源标识
+     */
+    private final ConcurrentHashMap<String, NodeLimiterHolder> nodeLimiterMap = new ConcurrentHashMap<>();
+
     public BasicNodeRateLimiter(List<FailAcquireStrategy> failAcquireStrategyList, ExpressionAliasParser expressionAliasParser) {
         AssertUtil.notNull(expressionAliasParser);
         this.failAcquireStrategyMap = CollectionUtils.isEmpty(failAcquireStrategyList)
@@ -59,6 +68,60 @@ public abstract class BasicNodeRateLimiter {
         this.expressionAliasParser = expressionAliasParser;
     }
 
+    /**
+     * 创建服务节点的限流算法，默认使用 Guava RateLimiter，子类可替换为其他的限流算法
+     *
+     * @param rateLimiterConfig 限流器配置，permits 大于 0
+     * @return 限流算法
+     */
+    protected NodeLimiter buildNodeLimiter(RateLimiterConfig rateLimiterConfig) {
+        return new GuavaNodeLimiter(rateLimiterConfig);
+    }
+
+    /**
+     * 获取服务节点许可
+     *
+     * @param releaseConsumer 获取到的许可需要在服务节点执行结束后归还时，接收归还操作。为空时不归还，不适用于并发数限流
+     * @return 获取失败时返回失败策略
+     */
+    protected Optional<FailAcquireStrategy> tryAcquire(StoryBus storyBus, ServiceNodeResource serviceNodeResource,
+                                                       RateLimiterConfig rateLimiterConfig, Consumer<Runnable> releaseConsumer) {
+        if (storyBus == null || serviceNodeResource == null || rateLimiterConfig == null) {
+            return Optional.empty();
+        }
+        NodeLimiterHolder holder = getNodeLimiterHolder(serviceNodeResource, rateLimiterConfig);
+        if (!holder.rateLimiterConfig.valid() || notNeedLimiter(storyBus, holder.conditionExpression)) {
+            return Optional.empty();
+        }
+        NodeLimiter nodeLimiter = holder.nodeLimiter;
+        if (nodeLimiter == null || !nodeLimiter.tryAcquire(holder.rateLimiterConfig.getAcquireTimeout())) {
+            return getFailStrategy(holder.rateLimiterConfig.getFailStrategy());
+        }
+        if (releaseConsumer != null && nodeLimiter.needRelease()) {
+            long acquireTime = System.nanoTime();
+            releaseConsumer.accept(() -> nodeLimiter.release(System.nanoTime() - acquireTime));
+        }
+        return Optional.empty();
+    }
+
+    private NodeLimiterHolder getNodeLimiterHolder(ServiceNodeResource serviceNodeResource, RateLimiterConfig rateLimiterConfig) {
+        NodeLimiterHolder holder = nodeLimiterMap.get(serviceNodeResource.getIdentityId());
+        if (holder != null && holder.match(rateLimiterConfig)) {
+            return holder;
+        }
+        return nodeLimiterMap.compute(serviceNodeResource.getIdentityId(), (k, old) -> {
+            if (old != null && old.match(rateLimiterConfig)) {
+                return old;
+            }
+            boolean needLimiter = rateLimiterConfig.valid() && rateLimiterConfig.getPermits() > 0.0;
+            NodeLimiterHolder h = new NodeLimiterHolder(rateLimiterConfig,
+                    buildConditionExpression(serviceNodeResource, rateLimiterConfig), needLimiter ? buildNodeLimiter(rateLimiterConfig) : null);
+            LOGGER.debug("NodeRateLimiter refresh. identity: {}, old: {}, new: {}",
+                    serviceNodeResource.getIdentityId(), Optional.ofNullable(old).map(o -> o.rateLimiterConfig).orElse(null), rateLimiterConfig);
+            return h;
+        });
+    }
+
     protected ConditionExpression buildConditionExpression(ServiceNodeResource serviceNodeResource, RateLimiterConfig rateLimiterConfig) {
         try {
             ConditionExpression conditionExpression = null;
@@ -92,4 +155,26 @@ public abstract class BasicNodeRateLimiter {
                 ExceptionEnum.COMPONENT_ATTRIBUTES_EMPTY.getExceptionCode(), failStrategy, ExceptionFailAcquireStrategy.NAME);
         return Optional.ofNullable(failAcquireStrategyMap.get(ExceptionFailAcquireStrategy.NAME));
     }
+
+    private static class NodeLimiterHolder {
+
+        private final RateLimiterConfig rateLimiterConfig;
+
+        private final ConditionExpression conditionExpression;
+
+        private final NodeLimiter nodeLimiter;
+
+        private NodeLimiterHolder(RateLimiterConfig rateLimiterConfig, ConditionExpression conditionExpression, NodeLimiter nodeLimiter) {
+            this.rateLimiterConfig = rateLimiterConfig;
+            this.conditionExpression = conditionExpression;
+            this.nodeLimiter = nodeLimiter;
+        }
+
+        /**
+         * 配置未变化时通常为同一个对象，引用比较不通过时再比较配置内容
+         */
+        private boolean match(RateLimiterConfig config) {
+            return rateLimiterConfig == config || rateLimiterConfig.equals(config);
+        }
+    }
 }
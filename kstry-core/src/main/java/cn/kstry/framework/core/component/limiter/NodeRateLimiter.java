@@ -22,6 +22,7 @@ import cn.kstry.framework.core.component.limiter.strategy.FailAcquireStrategy;
 import cn.kstry.framework.core.resource.service.ServiceNodeResource;
 
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * 限流器定义
@@ -37,4 +38,12 @@ public interface NodeRateLimiter {
      * 获取服务节点限流器
      */
     Optional<FailAcquireStrategy> getNodeRateLimiter(StoryBus storyBus, ServiceNodeResource serviceNodeResource, RateLimiterConfig rateLimiterConfig);
+
+    /**
+     * 获取服务节点限流器，获取到的许可需要在服务节点执行结束后归还时（如并发数限流），通过 releaseConsumer 接收归还操作
+     */
+    default Optional<FailAcquireStrategy> getNodeRateLimiter(StoryBus storyBus, ServiceNodeResource serviceNodeResource,
+                                                             RateLimiterConfig rateLimiterConfig, Consumer<Runnable> releaseConsumer) {
+        return getNodeRateLimiter(storyBus, serviceNodeResource, rateLimiterConfig);
+    }
 }
@@ -30,6 +30,7 @@ import org.apache.commons.lang3.StringUtils;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -48,6 +49,11 @@ public class RateLimiterComponent {
     }
 
     public Optional<FailAcquireStrategy> tryAcquire(StoryBus storyBus, ServiceNodeResource serviceNodeResource, RateLimiterConfig rateLimiterConfig) {
+        return tryAcquire(storyBus, serviceNodeResource, rateLimiterConfig, null);
+    }
+
+    public Optional<FailAcquireStrategy> tryAcquire(StoryBus storyBus, ServiceNodeResource serviceNodeResource,
+                                                    RateLimiterConfig rateLimiterConfig, Consumer<Runnable> releaseConsumer) {
         if (rateLimiterConfig == null || !rateLimiterConfig.valid() || serviceNodeResource == null || storyBus == null) {
             return Optional.empty();
         }
@@ -55,6 +61,6 @@ public class RateLimiterComponent {
         if (nodeRateLimiter == null) {
             return Optional.empty();
         }
-        return nodeRateLimiter.getNodeRateLimiter(storyBus, serviceNodeResource, rateLimiterConfig);
+        return nodeRateLimiter.getNodeRateLimiter(storyBus, serviceNodeResource, rateLimiterConfig, releaseConsumer);
     }
 }
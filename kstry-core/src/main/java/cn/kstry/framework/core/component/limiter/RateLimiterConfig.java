@@ -60,6 +60,11 @@ public class RateLimiterConfig extends BasicIdentity {
      */
     private final String expression;
 
+    /**
+     * 最近一次合并的结果。服务节点每次执行都会合并配置，配置未变化时复用同一个结果对象
+     */
+    private volatile MergedConfig lastMerged;
+
     public RateLimiterConfig(Limiter limiter) {
         this(limiter.name(), limiter.permits(), limiter.warmupPeriod(), limiter.acquireTimeout(), limiter.failStrategy(), limiter.expression());
     }
@@ -78,6 +83,16 @@ public class RateLimiterConfig extends BasicIdentity {
         if (config == null) {
             return this;
         }
+        MergedConfig merged = lastMerged;
+        if (merged != null && merged.source == config) {
+            return merged.result;
+        }
+        RateLimiterConfig result = doMerge(config);
+        lastMerged = new MergedConfig(config, result);
+        return result;
+    }
+
+    private RateLimiterConfig doMerge(RateLimiterConfig config) {
         if (getPermits() < 0.0 && config.getPermits() < 0.0) {
             return this;
         }
@@ -130,4 +145,16 @@ public class RateLimiterConfig extends BasicIdentity {
     public boolean valid() {
         return permits >= 0.0 && StringUtils.isNotBlank(name);
     }
+
+    private static class MergedConfig {
+
+        private final RateLimiterConfig source;
+
+        private final RateLimiterConfig result;
+
+        private MergedConfig(RateLimiterConfig source, RateLimiterConfig result) {
+            this.source = source;
+            this.result = result;
+        }
+    }
 }
@@ -0,0 +1,67 @@
+/*
+ *
+ *  * Copyright (c) 2020-2024, Lykan (jiashuomeng@gmail.com).
+ *  * <p>
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  * <p>
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  * <p>
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+package cn.kstry.framework.core.component.limiter.algorithm;
+
+import cn.kstry.framework.core.component.limiter.RateLimiterConfig;
+import cn.kstry.framework.core.util.AssertUtil;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 并发数限流，同一时刻执行中的服务节点数量不超过 permits，服务节点执行结束后归还许可。不支持等待获取许可
+ *
+ * @author lykan
+ */
+public class ConcurrencyNodeLimiter implements NodeLimiter {
+
+    private final int maxConcurrency;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public ConcurrencyNodeLimiter(RateLimiterConfig config) {
+        AssertUtil.isTrue(config != null && config.getPermits() > 0.0);
+        this.maxConcurrency = Math.max(1, (int) config.getPermits());
+    }
+
+    @Override
+    public boolean tryAcquire(int acquireTimeout) {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= maxConcurrency) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public boolean needRelease() {
+        return true;
+    }
+
+    @Override
+    public void release(long elapsedNanos) {
+        inFlight.decrementAndGet();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ *
+ *  * Copyright (c) 2020-2024, Lykan (jiashuomeng@gmail.com).
+ *  * <p>
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  * <p>
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  * <p>
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+package cn.kstry.framework.core.component.limiter.algorithm;
+
+import cn.kstry.framework.core.component.limiter.RateLimiterConfig;
+import cn.kstry.framework.core.util.AssertUtil;
+import com.google.common.util.concurrent.RateLimiter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于 Guava RateLimiter 的限流，支持预热
+ *
+ * @author lykan
+ */
+public class GuavaNodeLimiter implements NodeLimiter {
+
+    private final RateLimiter rateLimiter;
+
+    public GuavaNodeLimiter(RateLimiterConfig config) {
+        AssertUtil.isTrue(config != null && config.getPermits() > 0.0);
+        if (config.getWarmupPeriod() <= 0) {
+            this.rateLimiter = RateLimiter.create(config.getPermits());
+        } else {
+            this.rateLimiter = RateLimiter.create(config.getPermits(), config.getWarmupPeriod(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public boolean tryAcquire(int acquireTimeout) {
+        if (acquireTimeout <= 0) {
+            return rateLimiter.tryAcquire();
+        }
+        return rateLimiter.tryAcquire(acquireTimeout, TimeUnit.MILLISECONDS);
+    }
+}
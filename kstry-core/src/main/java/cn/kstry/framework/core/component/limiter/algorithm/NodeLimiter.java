@@ -0,0 +1,52 @@
+/*
+ *
+ *  * Copyright (c) 2020-2024, Lykan (jiashuomeng@gmail.com).
+ *  * <p>
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  * <p>
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  * <p>
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+package cn.kstry.framework.core.component.limiter.algorithm;
+
+/**
+ * 服务节点限流算法
+ *
+ * @author lykan
+ */
+public interface NodeLimiter {
+
+    /**
+     * 尝试获取许可
+     *
+     * @param acquireTimeout 获取许可的最大等待时长，单位ms，小于等于0时不等待
+     * @return 是否获取成功
+     */
+    boolean tryAcquire(int acquireTimeout);
+
+    /**
+     * 获取到的许可是否需要在服务节点执行结束后归还，如并发数限流
+     *
+     * @return 是否需要归还
+     */
+    default boolean needRelease() {
+        return false;
+    }
+
+    /**
+     * 归还许可
+     *
+     * @param elapsedNanos 许可的占用时长，即服务节点的执行耗时，单位：ns
+     */
+    default void release(long elapsedNanos) {
+
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ *
+ *  * Copyright (c) 2020-2024, Lykan (jiashuomeng@gmail.com).
+ *  * <p>
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  * <p>
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  * <p>
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+package cn.kstry.framework.core.component.limiter.algorithm;
+
+import cn.kstry.framework.core.component.limiter.RateLimiterConfig;
+import cn.kstry.framework.core.util.AssertUtil;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 滑动窗口计数限流
+ * <p>
+ * 将 1s 的统计窗口划分为多个时间片，统计窗口内的请求数不超过 permits。
+ * 时间片的重置与计数之间不加锁，并发时统计结果存在少量误差，不支持等待获取许可
+ *
+ * @author lykan
+ */
+public class SlidingWindowNodeLimiter implements NodeLimiter {
+
+    /**
+     * 统计窗口内的时间片数量
+     */
+    private static final int SLOT_COUNT = 10;
+
+    /**
+     * 时间片时长，单位：ms
+     */
+    private static final long SLOT_MILLIS = 1000 / SLOT_COUNT;
+
+    private final double permits;
+
+    /**
+     * 时间片所属的时间序号
+     */
+    private final AtomicLongArray slotEpochs = new AtomicLongArray(SLOT_COUNT);
+
+    /**
+     * 时间片内的请求数
+     */
+    private final AtomicLongArray slotCounts = new AtomicLongArray(SLOT_COUNT);
+
+    public SlidingWindowNodeLimiter(RateLimiterConfig config) {
+        AssertUtil.isTrue(config != null && config.getPermits() > 0.0);
+        this.permits = config.getPermits();
+    }
+
+    @Override
+    public boolean tryAcquire(int acquireTimeout) {
+        long epoch = System.currentTimeMillis() / SLOT_MILLIS;
+        int index = (int) (epoch % SLOT_COUNT);
+        long slotEpoch = slotEpochs.get(index);
+        if (slotEpoch != epoch && slotEpochs.compareAndSet(index, slotEpoch, epoch)) {
+            slotCounts.set(index, 0);
+        }
+        slotCounts.incrementAndGet(index);
+        long total = 0;
+        for (int i = 0; i < SLOT_COUNT; i++) {
+            if (epoch - slotEpochs.get(i) < SLOT_COUNT) {
+                total += slotCounts.get(i);
+            }
+        }
+        if (total <= permits) {
+            return true;
+        }
+        slotCounts.decrementAndGet(index);
+        return false;
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ *
+ *  * Copyright (c) 2020-2024, Lykan (jiashuomeng@gmail.com).
+ *  * <p>
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  * <p>
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  * <p>
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+package cn.kstry.framework.core.component.limiter.algorithm;
+
+import cn.kstry.framework.core.component.limiter.RateLimiterConfig;
+import cn.kstry.framework.core.util.AssertUtil;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 无锁令牌桶限流
+ * <p>
+ * 令牌以 permits/s 的速率生成，桶容量为 max(1, permits)，允许该数量以内的突发请求。
+ * 以理论到达时间（TAT）表示令牌桶状态，获取许可只需要一次 CAS
+ *
+ * @author lykan
+ */
+public class TokenBucketNodeLimiter implements NodeLimiter {
+
+    /**
+     * 生成一个令牌的间隔，单位：ns
+     */
+    private final long emissionInterval;
+
+    /**
+     * 允许突发的时间容量，单位：ns
+     */
+    private final long burstTolerance;
+
+    /**
+     * 理论到达时间，单位：ns
+     */
+    private final AtomicLong theoreticalArrivalTime;
+
+    public TokenBucketNodeLimiter(RateLimiterConfig config) {
+        AssertUtil.isTrue(config != null && config.getPermits() > 0.0);
+        this.emissionInterval = Math.max(1L, (long) (TimeUnit.SECONDS.toNanos(1) / config.getPermits()));
+        this.burstTolerance = (long) (emissionInterval * Math.max(1.0, config.getPermits()));
+        this.theoreticalArrivalTime = new AtomicLong(System.nanoTime());
+    }
+
+    @Override
+    public boolean tryAcquire(int acquireTimeout) {
+        long maxWait = acquireTimeout <= 0 ? 0 : TimeUnit.MILLISECONDS.toNanos(acquireTimeout);
+        while (true) {
+            long now = System.nanoTime();
+            long tat = theoreticalArrivalTime.get();
+            long start = Math.max(tat, now);
+            long next = start + emissionInterval;
+            long wait = next - burstTolerance - now;
+            if (wait > maxWait) {
+                return false;
+            }
+            if (theoreticalArrivalTime.compareAndSet(tat, next)) {
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ *
+ *  * Copyright (c) 2020-2024, Lykan (jiashuomeng@gmail.com).
+ *  * <p>
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  * <p>
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  * <p>
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+package cn.kstry.framework.core.component.limiter.algorithm;
+
+import cn.kstry.framework.core.component.limiter.RateLimiterConfig;
+import cn.kstry.framework.core.util.AssertUtil;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 自适应并发数限流，参考 TCP Vegas 拥塞控制算法
+ * <p>
+ * 以观测到的最小执行耗时作为无排队耗时 rttNoLoad，根据当前耗时估算排队数量 queue = limit * (1 - rttNoLoad / rtt)：
+ * 排队较少时增大并发上限，排队较多时缩小并发上限。下游变慢时并发上限随之收缩，超出上限的请求交由失败策略处理。
+ * 采样数量与时间间隔均达到要求后重置 rttNoLoad，以适应下游耗时的长期变化
+ *
+ * @author lykan
+ */
+public class VegasNodeLimiter implements NodeLimiter {
+
+    /**
+     * 初始并发上限
+     */
+    private static final int INITIAL_LIMIT = 20;
+
+    /**
+     * 重置 rttNoLoad 的采样间隔为当前并发上限的倍数
+     */
+    private static final int PROBE_MULTIPLIER = 30;
+
+    /**
+     * 重置 rttNoLoad 的最小时间间隔，避免请求量大时下游变慢后很快被当作无排队耗时，单位：ns
+     */
+    private static final long PROBE_INTERVAL = TimeUnit.SECONDS.toNanos(10);
+
+    private final int maxLimit;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * 当前并发上限，仅在采样时更新
+     */
+    private final AtomicInteger limit;
+
+    private final AtomicLong rttNoLoad = new AtomicLong();
+
+    private final AtomicLong sampleCount = new AtomicLong();
+
+    private final AtomicLong lastProbeTime = new AtomicLong(System.nanoTime());
+
+    public VegasNodeLimiter(RateLimiterConfig config) {
+        AssertUtil.isTrue(config != null && config.getPermits() > 0.0);
+        this.maxLimit = Math.max(1, (int) config.getPermits());
+        this.limit = new AtomicInteger(Math.min(INITIAL_LIMIT, maxLimit));
+    }
+
+    @Override
+    public boolean tryAcquire(int acquireTimeout) {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit.get()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public boolean needRelease() {
+        return true;
+    }
+
+    @Override
+    public void release(long elapsedNanos) {
+        int current = inFlight.getAndDecrement();
+        if (elapsedNanos > 0) {
+            sample(elapsedNanos, current);
+        }
+    }
+
+    /**
+     * 每次释放时采样，采样状态均为原子变量，不加锁。并发采样基于同一个并发上限计算时只有一方的调整生效
+     */
+    private void sample(long rtt, int currentInFlight) {
+        long count = sampleCount.incrementAndGet();
+        long noLoad = rttNoLoad.get();
+        if (noLoad == 0 || rtt < noLoad) {
+            rttNoLoad.accumulateAndGet(rtt, (prev, x) -> prev == 0 ? x : Math.min(prev, x));
+            return;
+        }
+        int currentLimit = limit.get();
+        if (count >= (long) PROBE_MULTIPLIER * currentLimit) {
+            long now = System.nanoTime();
+            long lastProbe = lastProbeTime.get();
+            if (now - lastProbe >= PROBE_INTERVAL && lastProbeTime.compareAndSet(lastProbe, now)) {
+                rttNoLoad.set(rtt);
+                sampleCount.set(0);
+                return;
+            }
+        }
+        double log = Math.max(1.0, Math.log10(currentLimit));
+        double queue = currentLimit * (1 - (double) noLoad / rtt);
+        int newLimit = currentLimit;
+        if (queue >= 6 * log) {
+            newLimit = currentLimit - (int) log;
+        } else if (queue <= 3 * log && currentInFlight * 2 >= currentLimit) {
+            // 未使用到并发上限一半时，耗时正常不能说明并发上限不足，无需增大
+            newLimit = currentLimit + (int) log;
+        }
+        newLimit = Math.max(1, Math.min(maxLimit, newLimit));
+        if (newLimit != currentLimit) {
+            limit.compareAndSet(currentLimit, newLimit);
+        }
+    }
+
+    public int getLimit() {
+        return limit.get();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
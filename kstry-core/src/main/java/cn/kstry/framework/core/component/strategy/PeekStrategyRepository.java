@@ -31,6 +31,7 @@ import com.google.common.collect.Lists;
 import org.apache.commons.collections.CollectionUtils;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.ReentrantLock;
@@ -166,14 +167,22 @@ public class PeekStrategyRepository {
         }
     });
 
+    /**
+     * 元素类型与 PeekStrategy 的对应关系
+     */
+    private static final Map<Class<?>, PeekStrategy> peekStrategyCache = new ConcurrentHashMap<>();
+
     @SuppressWarnings("all")
     public static ElementAllowNextEnum allowDoNext(FlowElement flowElement, FlowElement prevElement, ContextStoryBus contextStoryBus, boolean actualArrive) {
         ConcurrentHashMap<FlowElement, List<ContextStoryBus.ElementArriveRecord>> joinGatewayComingMap = contextStoryBus.getJoinGatewayComingMap();
         List<ContextStoryBus.ElementArriveRecord> expectedComingElement = joinGatewayComingMap.get(flowElement);
         long cycleTimes = contextStoryBus.getCycleTimes();
         if (expectedComingElement == null) {
-            List<ContextStoryBus.ElementArriveRecord> flowElementList =
-                    Lists.newArrayList(flowElement.comingList()).stream().map(e -> new ContextStoryBus.ElementArriveRecord(cycleTimes, e)).collect(Collectors.toList());
+            List<FlowElement> comingList = flowElement.comingList();
+            List<ContextStoryBus.ElementArriveRecord> flowElementList = Lists.newArrayListWithCapacity(comingList.size());
+            for (FlowElement coming : comingList) {
+                flowElementList.add(new ContextStoryBus.ElementArriveRecord(cycleTimes, coming));
+            }
             expectedComingElement = joinGatewayComingMap.putIfAbsent(flowElement, flowElementList);
             if (expectedComingElement == null) {
                 expectedComingElement = flowElementList;
@@ -238,4 +247,20 @@ public class PeekStrategyRepository {
     public static List<PeekStrategy> getPeekStrategy() {
         return peekStrategyList;
     }
+
+    /**
+     * 获取元素对应的 PeekStrategy，策略只与元素类型相关，按类型缓存匹配结果
+     */
+    public static Optional<PeekStrategy> getPeekStrategy(FlowElement flowElement) {
+        if (flowElement == null) {
+            return Optional.empty();
+        }
+        PeekStrategy peekStrategy = peekStrategyCache.get(flowElement.getClass());
+        if (peekStrategy != null) {
+            return Optional.of(peekStrategy);
+        }
+        Optional<PeekStrategy> peekStrategyOptional = peekStrategyList.stream().filter(strategy -> strategy.match(flowElement)).findFirst();
+        peekStrategyOptional.ifPresent(strategy -> peekStrategyCache.putIfAbsent(flowElement.getClass(), strategy));
+        return peekStrategyOptional;
+    }
 }
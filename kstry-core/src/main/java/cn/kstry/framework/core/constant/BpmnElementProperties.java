@@ -99,6 +99,16 @@ public interface BpmnElementProperties {
      */
     String SERVICE_TASK_DEMOTION = "task-demotion";
 
+    /**
+     * ServiceTask: 熔断器打开前允许服务节点连续执行失败的次数
+     */
+    String SERVICE_TASK_BREAKER_THRESHOLD = "breaker-threshold";
+
+    /**
+     * ServiceTask: 熔断器打开持续时间，单位：ms
+     */
+    String SERVICE_TASK_BREAKER_OPEN_TIME = "breaker-open-time";
+
     /**
      * AsyncFlowElement(InclusiveGateway/ParallelGateway/ElementIterator(SubProcess/ServiceTask)): open-async
      */
@@ -153,4 +163,9 @@ public interface BpmnElementProperties {
      * ElementIterator(SubProcess/ServiceTask): ite-stride
      */
     String ITERATE_STRIDE = "ite-stride";
+
+    /**
+     * ElementIterator(ServiceTask): ite-concurrency
+     */
+    String ITERATE_CONCURRENCY = "ite-concurrency";
 }
@@ -63,6 +63,26 @@ public interface ConfigPropertyNameConstant {
      */
     String KSTRY_STORY_DEFINE_NODE_PARAMS = "kstry.story.define-node-params";
 
+    /**
+     * 同步执行（fire）时是否由调用线程直接执行主流程，默认：false
+     */
+    String KSTRY_STORY_CALLER_RUNS = "kstry.story.caller-runs";
+
+    /**
+     * 服务节点返回 Mono 时，后续节点的执行策略，可选：story-executor、inline、scheduler，默认：story-executor
+     */
+    String KSTRY_STORY_MONO_CONTINUATION = "kstry.story.mono-continuation";
+
+    /**
+     * 不存在异步网关且未设置超时时间的子流程，是否在父流程片段的线程中直接执行，默认：true
+     */
+    String KSTRY_STORY_SUB_PROCESS_INLINE = "kstry.story.sub-process-inline";
+
+    /**
+     * 服务节点设置超时时间时，目标方法的执行方式，可选：thread-pool、deadline、continuation，默认：thread-pool
+     */
+    String KSTRY_STORY_METHOD_TIMEOUT_MODE = "kstry.story.method-timeout-mode";
+
     /**
      *  kstry 线程池核心线程数，默认：Math.max(Runtime.getRuntime().availableProcessors(), 2)
      */
@@ -117,4 +137,24 @@ public interface ConfigPropertyNameConstant {
      * 类型转换中日期格式，默认：yyyy-MM-dd HH:mm:ss
      */
     String TYPE_CONVERTER_DATE_FORMAT = "kstry.converter.date-format";
+
+    /**
+     * Spel 表达式编译模式，可选：off、immediate、mixed，默认：off
+     */
+    String KSTRY_EXPRESSION_SPEL_COMPILER_MODE = "kstry.expression.spel-compiler-mode";
+
+    /**
+     * JavaScript 脚本引擎池的最大引擎数，默认：kstry 线程池最大线程数
+     */
+    String KSTRY_INSTRUCT_JS_ENGINE_POOL_SIZE = "kstry.instruct.js-engine-pool-size";
+
+    /**
+     * JavaScript 脚本引擎池无空闲引擎时的最长等待时间，超时后创建临时引擎执行，单位：ms，默认：100
+     */
+    String KSTRY_INSTRUCT_JS_ENGINE_BORROW_TIMEOUT = "kstry.instruct.js-engine-borrow-timeout";
+
+    /**
+     * 超时定时器允许同时等待到期的最大任务数，小于等于 0 时不限制，默认：1000000
+     */
+    String KSTRY_TIMER_MAX_PENDING_TIMEOUTS = "kstry.timer.max-pending-timeouts";
 }
@@ -48,6 +48,16 @@ public interface GlobalConstant {
      */
     String KV_SCOPE_DEFAULT_BEAN_NAME = "kstry-kv-scope-{}";
 
+    /**
+     * SCHEDULER 延续策略使用的 Scheduler Bean 名字
+     */
+    String CONTINUATION_SCHEDULER_BEAN_NAME = "kstry-continuation-scheduler";
+
+    /**
+     * 超时定时器执行到期任务使用的 Executor Bean 名字，未定义时使用 Schedulers.parallel()
+     */
+    String TIMER_EXECUTOR_BEAN_NAME = "kstry-timer-executor";
+
     /**
      * 正则表达式：匹配有效的条件表达式
      */
@@ -17,6 +17,8 @@
  */
 package cn.kstry.framework.core.constant;
 
+import cn.kstry.framework.core.enums.ContinuationPolicyEnum;
+import cn.kstry.framework.core.enums.MethodTimeoutModeEnum;
 import com.google.common.collect.Lists;
 
 import java.util.List;
@@ -107,8 +109,48 @@ public class GlobalProperties {
      */
     public static boolean SERVICE_NODE_DEFINE_PARAMS = true;
 
+    /**
+     * 同步执行（fire）时是否由调用线程直接执行主流程，默认：false
+     */
+    public static boolean KSTRY_STORY_CALLER_RUNS = false;
+
+    /**
+     * 服务节点返回 Mono 时，后续节点的执行策略，默认：提交至 Story 线程池
+     */
+    public static ContinuationPolicyEnum KSTRY_STORY_MONO_CONTINUATION = ContinuationPolicyEnum.STORY_EXECUTOR;
+
+    /**
+     * 不存在异步网关且未设置超时时间的子流程，是否在父流程片段的线程中直接执行，默认：false
+     */
+    public static boolean KSTRY_STORY_SUB_PROCESS_INLINE = false;
+
+    /**
+     * 服务节点设置超时时间时，目标方法的执行方式，默认：提交至方法线程池
+     */
+    public static MethodTimeoutModeEnum KSTRY_STORY_METHOD_TIMEOUT_MODE = MethodTimeoutModeEnum.THREAD_POOL;
+
     /**
      * 类型转换中日期格式
      */
     public static String TYPE_CONVERTER_DATE_FORMAT = "yyyy-MM-dd HH:mm:ss";
+
+    /**
+     * Spel 表达式编译模式，可选：off、immediate、mixed，默认：off
+     */
+    public static String SPEL_COMPILER_MODE = "off";
+
+    /**
+     * JavaScript 脚本引擎池的最大引擎数
+     */
+    public static int JS_SCRIPT_ENGINE_POOL_SIZE = THREAD_POOL_MAX_SIZE;
+
+    /**
+     * JavaScript 脚本引擎池无空闲引擎时的最长等待时间，超时后创建临时引擎执行，单位：ms
+     */
+    public static long JS_SCRIPT_ENGINE_BORROW_TIMEOUT = 100;
+
+    /**
+     * 超时定时器允许同时等待到期的最大任务数，超出后新增超时控制时抛出 RejectedExecutionException，小于等于 0 时不限制
+     */
+    public static long KSTRY_TIMER_MAX_PENDING_TIMEOUTS = 1_000_000;
 }
@@ -64,6 +64,16 @@ public class InvokeProperties {
      */
     private final String customExecutorName;
 
+    /**
+     * 熔断器打开前允许服务节点连续执行失败的次数，在@Invoke注解中定义
+     */
+    private final int breakerThreshold;
+
+    /**
+     * 熔断器打开持续时间，在@Invoke注解中定义
+     */
+    private final int breakerOpenTime;
+
     /**
      * 服务节点调用失败时降低调用的资源位置，在@Invoke注解中定义
      */
@@ -76,6 +86,8 @@ public class InvokeProperties {
         this.timeout = invoke.timeout();
         this.strictMode = invoke.strictMode();
         this.customExecutorName = invoke.executor();
+        this.breakerThreshold = invoke.breakerThreshold();
+        this.breakerOpenTime = invoke.breakerOpenTime();
         this.retryIncludeExceptionList = ImmutableList.copyOf(invoke.retryIncludeExp());
         this.retryExcludeExceptionList = ImmutableList.copyOf(invoke.retryExcludeExp());
         this.demotionResource = PermissionUtil.parseResource(invoke.demotion())
@@ -114,4 +126,12 @@ public class InvokeProperties {
     public String getCustomExecutorName() {
         return customExecutorName;
     }
+
+    public int getBreakerThreshold() {
+        return Math.max(breakerThreshold, 0);
+    }
+
+    public int getBreakerOpenTime() {
+        return Math.max(breakerOpenTime, 0);
+    }
 }
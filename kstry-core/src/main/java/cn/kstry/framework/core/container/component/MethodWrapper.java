@@ -29,6 +29,7 @@ import cn.kstry.framework.core.component.limiter.RateLimiterConfig;
 import cn.kstry.framework.core.constant.GlobalConstant;
 import cn.kstry.framework.core.engine.ParamLifecycle;
 import cn.kstry.framework.core.enums.IdentityTypeEnum;
+import cn.kstry.framework.core.enums.ParamInjectType;
 import cn.kstry.framework.core.enums.ScopeTypeEnum;
 import cn.kstry.framework.core.exception.ExceptionEnum;
 import cn.kstry.framework.core.resource.identity.BasicIdentity;
@@ -44,13 +45,19 @@ import org.slf4j.LoggerFactory;
 import org.springframework.core.DefaultParameterNameDiscoverer;
 import org.springframework.core.ParameterNameDiscoverer;
 import org.springframework.core.ResolvableType;
+import org.springframework.util.ReflectionUtils;
 import reactor.core.publisher.Mono;
 
 import javax.annotation.Nonnull;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.Parameter;
 import java.lang.reflect.Type;
+import java.lang.reflect.UndeclaredThrowableException;
 import java.util.*;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -64,12 +71,27 @@ public class MethodWrapper {
 
     private static final ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
 
+    /**
+     * MethodHandle 参数个数上限为 255，预留出调用目标对象所占的位置
+     */
+    private static final int MAX_INVOKER_PARAM_COUNT = 250;
+
     private final Method method;
 
     private final ReturnTypeNoticeDef returnTypeNoticeDef = new ReturnTypeNoticeDef();
 
     private List<ParamInjectDef> paramInjectDefs;
 
+    /**
+     * 入参注入计划，下标与 paramInjectDefs 一一对应
+     */
+    private ParamInjectType[] paramInjectPlan = new ParamInjectType[0];
+
+    /**
+     * 入参中是否可能存在 ParamLifecycle 实例
+     */
+    private boolean lifecycleParam;
+
     private final String kvScope;
 
     private final NoticeAnnotationWrapper noticeMethodSpecify;
@@ -88,6 +110,11 @@ public class MethodWrapper {
 
     private final TaskInstructWrapper taskInstructWrapper;
 
+    /**
+     * 目标方法的直接调用句柄，签名统一为 (Object, Object[])Object。无法生成时为 null，使用反射调用
+     */
+    private final MethodHandle methodInvoker;
+
     public MethodWrapper(@Nonnull Method method, @Nonnull TaskService annotation,
                          @Nonnull NoticeAnnotationWrapper noticeMethodSpecify, TaskInstructWrapper taskInstructWrapper, boolean isCustomRole) {
         AssertUtil.notNull(method);
@@ -102,9 +129,26 @@ public class MethodWrapper {
         this.invokeProperties = new InvokeProperties(annotation.invoke());
         this.elementIterable = getElementIterable(annotation.iterator());
         this.rateLimiterConfig = new RateLimiterConfig(annotation.limiter());
+        this.methodInvoker = buildMethodInvoker(method);
         methodParser(method);
     }
 
+    /**
+     * 调用目标方法，异常语义与 ReflectionUtils.invokeMethod 保持一致：运行时异常及 Error 直接抛出，受检异常包装为 UndeclaredThrowableException
+     */
+    public Object invoke(Object target, Object[] params) {
+        if (methodInvoker == null) {
+            return ReflectionUtils.invokeMethod(method, target, params);
+        }
+        try {
+            return (Object) methodInvoker.invokeExact(target, params);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new UndeclaredThrowableException(e);
+        }
+    }
+
     public Method getMethod() {
         return method;
     }
@@ -117,6 +161,14 @@ public class MethodWrapper {
         return paramInjectDefs;
     }
 
+    public ParamInjectType[] getParamInjectPlan() {
+        return paramInjectPlan;
+    }
+
+    public boolean hasLifecycleParam() {
+        return lifecycleParam;
+    }
+
     public String getKvScope() {
         return kvScope;
     }
@@ -203,6 +255,71 @@ public class MethodWrapper {
             }
         }
         this.paramInjectDefs = Collections.unmodifiableList(Arrays.asList(injectDefs));
+
+        ParamInjectType[] injectPlan = new ParamInjectType[injectDefs.length];
+        for (int i = 0; i < injectDefs.length; i++) {
+            injectPlan[i] = getParamInjectType(injectDefs[i]);
+            Class<?> paramType = injectDefs[i].getParamType();
+            if (ParamLifecycle.class.isAssignableFrom(paramType) || paramType.isAssignableFrom(ParamLifecycle.class)) {
+                this.lifecycleParam = true;
+            }
+        }
+        this.paramInjectPlan = injectPlan;
+    }
+
+    /**
+     * 根据参数定义确定参数注入方式，判断顺序与执行时注入的优先级保持一致
+     */
+    private ParamInjectType getParamInjectType(ParamInjectDef iDef) {
+        if (iDef == null) {
+            return ParamInjectType.DEFAULT;
+        }
+        Class<?> paramType = iDef.getParamType();
+        if (iDef.notNeedInject()) {
+            if (StringUtils.isBlank(iDef.getTargetName()) && !iDef.getFieldName().startsWith("arg")) {
+                return ParamInjectType.FIELD_NAME;
+            }
+            return ParamInjectType.DEFAULT;
+        }
+        if (iDef.getScopeDataEnum() == ScopeTypeEnum.REQUEST && iDef.isInjectSelf()) {
+            return ParamInjectType.REQUEST_SELF;
+        }
+        if (InstructContent.class.isAssignableFrom(paramType)) {
+            return ParamInjectType.INSTRUCT_CONTENT;
+        }
+        if (IterDataItem.class.isAssignableFrom(paramType)) {
+            return ParamInjectType.ITER_DATA_ITEM;
+        }
+        if (isCustomRole && Role.class.isAssignableFrom(paramType)) {
+            return ParamInjectType.ROLE;
+        }
+        if (ScopeDataQuery.class.isAssignableFrom(paramType)) {
+            return ParamInjectType.SCOPE_DATA_OPERATOR;
+        }
+        if (iDef.getScopeDataEnum() != null && (StringUtils.isNotBlank(iDef.getTargetName()) || iDef.getScopeDataEnum() == ScopeTypeEnum.RESULT)) {
+            return ParamInjectType.SCOPE_DATA;
+        }
+        if (CollectionUtils.isNotEmpty(iDef.getFieldInjectDefList()) || iDef.isSpringInitialization() || ParamLifecycle.class.isAssignableFrom(paramType)) {
+            return ParamInjectType.BEAN;
+        }
+        return ParamInjectType.DEFAULT;
+    }
+
+    private static MethodHandle buildMethodInvoker(Method method) {
+        if (method.getParameterCount() > MAX_INVOKER_PARAM_COUNT) {
+            return null;
+        }
+        try {
+            ReflectionUtils.makeAccessible(method);
+            MethodHandle handle = MethodHandles.lookup().unreflect(method).asFixedArity();
+            if (Modifier.isStatic(method.getModifiers())) {
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            }
+            return handle.asType(MethodType.genericMethodType(method.getParameterCount() + 1)).asSpreader(Object[].class, method.getParameterCount());
+        } catch (Throwable e) {
+            LOGGER.debug("MethodWrapper build method invoker failed, use reflection instead. method: {}", method, e);
+            return null;
+        }
     }
 
     private List<ParamInjectDef> getFieldInjectDefs(Class<?> clazz) {
@@ -292,6 +409,7 @@ public class MethodWrapper {
         }
         iterable.setIteAlignIndex(iterator.alignIndex());
         iterable.setStride(iterator.stride());
+        iterable.setConcurrency(iterator.concurrency());
         iterable.setOpenAsync(iterator.async());
         iterable.setIteStrategy(iterator.strategy());
         return iterable;
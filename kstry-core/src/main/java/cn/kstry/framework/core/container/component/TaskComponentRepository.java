@@ -32,6 +32,8 @@ import cn.kstry.framework.core.role.Role;
 import cn.kstry.framework.core.util.AssertUtil;
 import cn.kstry.framework.core.util.ElementParserUtil;
 import cn.kstry.framework.core.util.TaskServiceUtil;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
@@ -44,6 +46,7 @@ import org.slf4j.LoggerFactory;
 
 import java.lang.reflect.Method;
 import java.util.*;
+import java.util.concurrent.ConcurrentMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -71,6 +74,14 @@ public abstract class TaskComponentRepository implements TaskContainer {
      */
     private final Map<String, ServiceNodeResource> taskInstructResourceMap = Maps.newHashMap();
 
+    /**
+     * 服务节点匹配结果缓存，角色 -> 角色下各服务节点匹配到的服务或服务能力。角色以弱引用持有，按对象标识区分
+     */
+    private final Cache<Role, RoleTaskServiceCache> roleTaskServiceCache = CacheBuilder.newBuilder()
+            .concurrencyLevel(8).initialCapacity(256).weakKeys().maximumSize(10_000)
+            .removalListener(notification -> LOGGER.debug("Role task service cache lose efficacy. role: {}, cause: {}",
+                    notification.getKey() == null ? null : ((Role) notification.getKey()).getName(), notification.getCause())).build();
+
     @Override
     public Optional<TaskServiceDef> getTaskServiceDef(String componentName, String serviceName, Role role) {
         if (StringUtils.isBlank(componentName)) {
@@ -81,40 +92,47 @@ public abstract class TaskComponentRepository implements TaskContainer {
             return Optional.empty();
         }
 
-        Optional<TaskServiceWrapper> taskServiceOptional = taskComponentWrapper.getTaskService(serviceName, role);
+        Optional<TaskServiceWrapper> taskServiceOptional = getTaskService(taskComponentWrapper, componentName, serviceName, role);
+        // 降级流程会修改 TaskServiceDef 中的降级标识，缓存匹配结果，每次返回新的 TaskServiceDef
         return taskServiceOptional.map(wrapper -> new TaskServiceDef(wrapper.getServiceNodeResource(), wrapper.getName(), wrapper.getMethodWrapper(), wrapper.getTarget()));
     }
 
     protected void doInit(Object target, Class<?> targetClass, String taskComponentName, boolean scanSuper) {
-        Method[] taskServiceMethods = MethodUtils.getMethodsWithAnnotation(targetClass, TaskService.class, false, false);
-        List<Method> taskServiceMethodList = filterTaskServiceMethods(taskServiceMethods, targetClass, scanSuper);
-        if (CollectionUtils.isEmpty(taskServiceMethodList)) {
-            return;
-        }
-        TaskComponentProxy targetObj = new TaskComponentProxy(target, taskComponentName);
-        TaskComponentRegisterWrapper taskComponentWrapper = taskComponentWrapperMap.computeIfAbsent(taskComponentName, TaskComponentRegisterWrapper::new);
-        taskServiceMethodList.forEach(method -> {
-            boolean isCustomRole = method.getAnnotation(CustomRole.class) != null;
-            TaskService annotation = method.getAnnotation(TaskService.class);
-            AssertUtil.notNull(annotation);
-            String taskServiceName = StringUtils.isBlank(annotation.name()) ? method.getName() : annotation.name();
-            AssertUtil.notBlank(taskServiceName, ExceptionEnum.COMPONENT_ATTRIBUTES_EMPTY, "TaskService name cannot be empty! methodName: {}", method.getName());
-            ServiceNodeResourceItem serviceNodeResource = new ServiceNodeResourceItem(targetObj.getName(), taskServiceName, annotation.ability(), annotation.desc());
-            AssertUtil.notTrue(registeredServiceNodeResource.containsKey(serviceNodeResource), ExceptionEnum.COMPONENT_DUPLICATION_ERROR,
-                    "TaskService with the same identity is not allowed to be set repeatedly! identity: {}", serviceNodeResource.getIdentityId());
-            TaskInstructWrapper taskInstruct = getTaskInstructWrapper(method, taskServiceName).orElse(null);
-            if (taskInstruct != null) {
-                AssertUtil.notBlank(taskInstruct.getName(), ExceptionEnum.COMPONENT_ATTRIBUTES_EMPTY, "TaskInstruct name cannot be empty! methodName: {}", method.getName());
-                AssertUtil.notTrue(taskInstructResourceMap.containsKey(taskInstruct.getName()), ExceptionEnum.COMPONENT_DUPLICATION_ERROR,
-                        "TaskInstruct with the same name is not allowed to be set repeatedly! instruct: {}", taskInstruct.getName());
-                taskInstructResourceMap.put(taskInstruct.getName(), serviceNodeResource);
+        // 注册期间并发的查询可能以旧的服务节点写入匹配结果，注册前后均需清理缓存
+        roleTaskServiceCache.invalidateAll();
+        try {
+            Method[] taskServiceMethods = MethodUtils.getMethodsWithAnnotation(targetClass, TaskService.class, false, false);
+            List<Method> taskServiceMethodList = filterTaskServiceMethods(taskServiceMethods, targetClass, scanSuper);
+            if (CollectionUtils.isEmpty(taskServiceMethodList)) {
+                return;
             }
-            NoticeAnnotationWrapper noticeMethodSpecify = new NoticeAnnotationWrapper(method);
-            MethodWrapper methodWrapper = new MethodWrapper(method, annotation, noticeMethodSpecify, taskInstruct, isCustomRole);
-            taskComponentWrapper.addTaskService(new AbilityTaskServiceWrapper(targetObj, methodWrapperProcessor(methodWrapper), serviceNodeResource));
-            registeredServiceNodeResource.put(serviceNodeResource, methodWrapper);
-            LOGGER.debug("Service node resource items are resolved. identity: {}", serviceNodeResource.getIdentityId());
-        });
+            TaskComponentProxy targetObj = new TaskComponentProxy(target, taskComponentName);
+            TaskComponentRegisterWrapper taskComponentWrapper = taskComponentWrapperMap.computeIfAbsent(taskComponentName, TaskComponentRegisterWrapper::new);
+            taskServiceMethodList.forEach(method -> {
+                boolean isCustomRole = method.getAnnotation(CustomRole.class) != null;
+                TaskService annotation = method.getAnnotation(TaskService.class);
+                AssertUtil.notNull(annotation);
+                String taskServiceName = StringUtils.isBlank(annotation.name()) ? method.getName() : annotation.name();
+                AssertUtil.notBlank(taskServiceName, ExceptionEnum.COMPONENT_ATTRIBUTES_EMPTY, "TaskService name cannot be empty! methodName: {}", method.getName());
+                ServiceNodeResourceItem serviceNodeResource = new ServiceNodeResourceItem(targetObj.getName(), taskServiceName, annotation.ability(), annotation.desc());
+                AssertUtil.notTrue(registeredServiceNodeResource.containsKey(serviceNodeResource), ExceptionEnum.COMPONENT_DUPLICATION_ERROR,
+                        "TaskService with the same identity is not allowed to be set repeatedly! identity: {}", serviceNodeResource.getIdentityId());
+                TaskInstructWrapper taskInstruct = getTaskInstructWrapper(method, taskServiceName).orElse(null);
+                if (taskInstruct != null) {
+                    AssertUtil.notBlank(taskInstruct.getName(), ExceptionEnum.COMPONENT_ATTRIBUTES_EMPTY, "TaskInstruct name cannot be empty! methodName: {}", method.getName());
+                    AssertUtil.notTrue(taskInstructResourceMap.containsKey(taskInstruct.getName()), ExceptionEnum.COMPONENT_DUPLICATION_ERROR,
+                            "TaskInstruct with the same name is not allowed to be set repeatedly! instruct: {}", taskInstruct.getName());
+                    taskInstructResourceMap.put(taskInstruct.getName(), serviceNodeResource);
+                }
+                NoticeAnnotationWrapper noticeMethodSpecify = new NoticeAnnotationWrapper(method);
+                MethodWrapper methodWrapper = new MethodWrapper(method, annotation, noticeMethodSpecify, taskInstruct, isCustomRole);
+                taskComponentWrapper.addTaskService(new AbilityTaskServiceWrapper(targetObj, methodWrapperProcessor(methodWrapper), serviceNodeResource));
+                registeredServiceNodeResource.put(serviceNodeResource, methodWrapper);
+                LOGGER.debug("Service node resource items are resolved. identity: {}", serviceNodeResource.getIdentityId());
+            });
+        } finally {
+            roleTaskServiceCache.invalidateAll();
+        }
     }
 
     private List<Method> filterTaskServiceMethods(Method[] taskServiceMethods, Class<?> targetClass, boolean scanSuper) {
@@ -214,6 +232,26 @@ public abstract class TaskComponentRepository implements TaskContainer {
         });
     }
 
+    private Optional<TaskServiceWrapper> getTaskService(TaskComponentRegisterWrapper taskComponentWrapper, String componentName, String serviceName, Role role) {
+        long version = role == null ? -1 : role.getPermissionVersion();
+        if (version < 0) {
+            return taskComponentWrapper.getTaskService(serviceName, role);
+        }
+        RoleTaskServiceCache taskServiceCache = roleTaskServiceCache.getIfPresent(role);
+        if (taskServiceCache == null || taskServiceCache.version != version) {
+            taskServiceCache = new RoleTaskServiceCache(version);
+            roleTaskServiceCache.put(role, taskServiceCache);
+        }
+        String key = TaskServiceUtil.joinName(componentName, serviceName);
+        Optional<TaskServiceWrapper> taskServiceOptional = taskServiceCache.taskServiceMap.get(key);
+        if (taskServiceOptional != null) {
+            return taskServiceOptional;
+        }
+        taskServiceOptional = taskComponentWrapper.getTaskService(serviceName, role);
+        taskServiceCache.taskServiceMap.putIfAbsent(key, taskServiceOptional);
+        return taskServiceOptional;
+    }
+
     private Optional<TaskInstructWrapper> getTaskInstructWrapper(Method method, String taskService) {
         TaskInstruct annotation = method.getAnnotation(TaskInstruct.class);
         if (annotation == null) {
@@ -221,4 +259,18 @@ public abstract class TaskComponentRepository implements TaskContainer {
         }
         return Optional.of(new TaskInstructWrapper(annotation, taskService));
     }
+
+    /**
+     * 角色在指定权限版本下的服务节点匹配结果，权限版本变化后整体失效
+     */
+    private static class RoleTaskServiceCache {
+
+        private final long version;
+
+        private final ConcurrentMap<String, Optional<TaskServiceWrapper>> taskServiceMap = Maps.newConcurrentMap();
+
+        RoleTaskServiceCache(long version) {
+            this.version = version;
+        }
+    }
 }
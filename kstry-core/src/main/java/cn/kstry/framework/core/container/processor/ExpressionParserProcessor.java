@@ -18,13 +18,24 @@
 package cn.kstry.framework.core.container.processor;
 
 import cn.kstry.framework.core.bpmn.FlowElement;
+import cn.kstry.framework.core.bpmn.ServiceTask;
 import cn.kstry.framework.core.bpmn.StartEvent;
 import cn.kstry.framework.core.bpmn.SubProcess;
+import cn.kstry.framework.core.bpmn.extend.ServiceTaskSupport;
 import cn.kstry.framework.core.component.bpmn.DiagramTraverseSupport;
 import cn.kstry.framework.core.component.expression.ConditionExpression;
 import cn.kstry.framework.core.component.expression.Expression;
 import cn.kstry.framework.core.component.expression.ExpressionAliasParser;
+import cn.kstry.framework.core.component.instruct.JsScriptInstruct;
+import cn.kstry.framework.core.component.instruct.JsScriptProperty;
+import cn.kstry.framework.core.component.instruct.QLExpressInstruct;
+import cn.kstry.framework.core.component.instruct.SqlInstruct;
+import cn.kstry.framework.core.constant.BpmnElementProperties;
+import cn.kstry.framework.core.exception.ExceptionEnum;
+import cn.kstry.framework.core.util.ExceptionUtil;
 import cn.kstry.framework.core.util.GlobalUtil;
+import cn.kstry.framework.core.util.QLExpressUtil;
+import org.apache.commons.lang3.StringUtils;
 
 import java.util.Optional;
 
@@ -49,6 +60,11 @@ public class ExpressionParserProcessor extends DiagramTraverseSupport<Object> im
 
     @Override
     public void doPlainElement(Object course, FlowElement node, SubProcess subProcess) {
+        if (node instanceof ServiceTask) {
+            compileInstruct((ServiceTask) node);
+        } else if (node instanceof ServiceTaskSupport) {
+            ((ServiceTaskSupport) node).getServiceTask().ifPresent(this::compileInstruct);
+        }
         if (!(node instanceof Expression)) {
             return;
         }
@@ -59,6 +75,29 @@ public class ExpressionParserProcessor extends DiagramTraverseSupport<Object> im
         conditionExpression.parseConditionExpression(expressionAliasParser);
     }
 
+    /**
+     * 预编译服务节点上的脚本指令，脚本错误在流程加载时暴露
+     *
+     * @param serviceTask 服务节点
+     */
+    private void compileInstruct(ServiceTask serviceTask) {
+        if (StringUtils.isBlank(serviceTask.getTaskInstruct()) || StringUtils.isBlank(serviceTask.getTaskInstructContent())) {
+            return;
+        }
+        try {
+            if (QLExpressInstruct.INSTRUCT_NAME.equals(serviceTask.getTaskInstruct())) {
+                QLExpressUtil.compile(serviceTask.getTaskInstructContent());
+            } else if (JsScriptInstruct.INSTRUCT_NAME.equals(serviceTask.getTaskInstruct())) {
+                JsScriptInstruct.compile(serviceTask.getTaskInstructContent(), serviceTask.getTaskProperty());
+            } else if (SqlInstruct.INSTRUCT_NAME.equals(serviceTask.getTaskInstruct())) {
+                JsScriptProperty.parse(serviceTask.getTaskProperty());
+            }
+        } catch (Throwable e) {
+            throw ExceptionUtil.buildException(e, ExceptionEnum.SCRIPT_EXECUTE_ERROR, GlobalUtil.format("script compile exception! identity: {}, instruct: '{}{}', script: \n{}",
+                    serviceTask.identity(), BpmnElementProperties.SERVICE_TASK_TASK_INSTRUCT, serviceTask.getTaskInstruct(), serviceTask.getTaskInstructContent()));
+        }
+    }
+
     @Override
     public int getOrder() {
         return 49;
@@ -22,6 +22,7 @@ import cn.kstry.framework.core.bpmn.enums.IterateStrategyEnum;
 import cn.kstry.framework.core.bpmn.extend.ElementIterable;
 import cn.kstry.framework.core.bus.IterDataItem;
 import cn.kstry.framework.core.bus.StoryBus;
+import cn.kstry.framework.core.component.breaker.CircuitBreaker;
 import cn.kstry.framework.core.container.component.InvokeProperties;
 import cn.kstry.framework.core.container.component.MethodWrapper;
 import cn.kstry.framework.core.container.component.ParamInjectDef;
@@ -32,6 +33,9 @@ import cn.kstry.framework.core.engine.thread.InvokeMethodThreadLocal;
 import cn.kstry.framework.core.engine.thread.MethodInvokeTask;
 import cn.kstry.framework.core.engine.thread.Task;
 import cn.kstry.framework.core.engine.thread.hook.ThreadSwitchHook;
+import cn.kstry.framework.core.engine.timer.Timeout;
+import cn.kstry.framework.core.enums.CircuitBreakerStateEnum;
+import cn.kstry.framework.core.enums.MethodTimeoutModeEnum;
 import cn.kstry.framework.core.exception.ExceptionEnum;
 import cn.kstry.framework.core.exception.KstryException;
 import cn.kstry.framework.core.monitor.DemotionInfo;
@@ -46,6 +50,8 @@ import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
 
 import java.util.List;
 import java.util.Map;
@@ -53,6 +59,10 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
 import java.util.function.Supplier;
 
 /**
@@ -134,6 +144,16 @@ public abstract class BasicTaskCore<T> implements Task<T> {
 
     protected Object retryInvokeMethod(boolean tracking, ElementIterable elementIterable,
                                        IterDataItem<Object> iterDataItem, TaskServiceDef taskServiceDef, ServiceTask serviceTask, StoryBus storyBus, Role role) {
+        return retryInvokeMethod(tracking, elementIterable, iterDataItem, taskServiceDef, serviceTask, storyBus, role, () -> false);
+    }
+
+    /**
+     * 重试执行目标方法
+     *
+     * @param cancelled 当前执行单元（如异步迭代项）是否已被取消，取消后不再重试，失败也不再计入熔断器
+     */
+    protected Object retryInvokeMethod(boolean tracking, ElementIterable elementIterable, IterDataItem<Object> iterDataItem,
+                                       TaskServiceDef taskServiceDef, ServiceTask serviceTask, StoryBus storyBus, Role role, BooleanSupplier cancelled) {
         MethodWrapper methodWrapper = taskServiceDef.getMethodWrapper();
         InvokeProperties invokeProperties = methodWrapper.getInvokeProperties();
         if (taskServiceDef.isDemotionNode()) {
@@ -141,22 +161,34 @@ public abstract class BasicTaskCore<T> implements Task<T> {
         }
 
         Supplier<Optional<TaskServiceDef>> needDemotionSupplier = getNeedDemotionSupplier(serviceTask, role, invokeProperties);
+        CircuitBreaker circuitBreaker = getCircuitBreaker(serviceTask, taskServiceDef);
         int retry = Optional.ofNullable(serviceTask.getRetryTimes()).filter(t -> t > 0).orElse(invokeProperties.getRetry());
         for (int i = 0; i <= retry; i++) {
+            boolean breakerRejected = false;
             try {
+                if (circuitBreaker != null && !circuitBreaker.tryPass()) {
+                    breakerRejected = true;
+                    throw ExceptionUtil.buildException(null, ExceptionEnum.CIRCUIT_BREAKER_OPEN, GlobalUtil.format("Service node circuit breaker is {}. identity: {}",
+                            circuitBreaker.getState(), serviceTask.identity()));
+                }
                 MethodInvokeTask.MethodInvokePedometer pedometer =
                         new MethodInvokeTask.MethodInvokePedometer(retry - i, needDemotionSupplier, false, invokeProperties.isStrictMode());
-                return doRetryInvokeMethod(tracking, elementIterable, iterDataItem, pedometer, serviceTask, taskServiceDef, storyBus, role);
+                Object result = doRetryInvokeMethod(tracking, elementIterable, iterDataItem, pedometer, serviceTask, taskServiceDef, storyBus, role);
+                return observeCircuitBreaker(circuitBreaker, serviceTask, result);
             } catch (Throwable exception) {
                 KstryException ke = ExceptionUtil.buildException(exception, ExceptionEnum.SERVICE_INVOKE_ERROR, null);
-                if (flowRegister.getAdminFuture().isCancelled(flowRegister.getStartEventId())) {
+                if (flowRegister.getAdminFuture().isCancelled(flowRegister.getStartEventId()) || cancelled.getAsBoolean()) {
                     throw ke;
                 }
                 String taskName = GlobalUtil.getTaskName(serviceTask, flowRegister.getRequestId());
-                int iFinal = i;
-                ke.log(e -> LOGGER.warn("[{}] Target method execution failed, retry for the {}th time. identity: {}, taskName: {}, exception: {}",
-                        ExceptionEnum.SERVICE_INVOKE_ERROR.getExceptionCode(), iFinal, serviceTask.identity(), taskName, exception.getMessage(), e));
-                if (i >= retry || notAllowRetry(exception, invokeProperties)) {
+                if (!breakerRejected) {
+                    circuitBreakerResult(circuitBreaker, serviceTask, false);
+                    int iFinal = i;
+                    ke.log(e -> LOGGER.warn("[{}] Target method execution failed, retry for the {}th time. identity: {}, taskName: {}, exception: {}",
+                            ExceptionEnum.SERVICE_INVOKE_ERROR.getExceptionCode(), iFinal, serviceTask.identity(), taskName, exception.getMessage(), e));
+                }
+                // 熔断器未关闭时不再重试，直接降级
+                if (breakerRejected || i >= retry || notAllowRetry(exception, invokeProperties)) {
                     Optional<TaskServiceDef> serviceDefOptional = needDemotionSupplier.get();
                     if (!serviceDefOptional.isPresent()) {
                         if (needIterateIgnore(elementIterable)) {
@@ -170,9 +202,17 @@ public abstract class BasicTaskCore<T> implements Task<T> {
                     demotionInfo.setRetryTimes(i);
                     demotionInfo.setDemotionNodeId(serviceDefOptional.get().getServiceNodeResource().getIdentityId());
                     demotionInfo.setDemotionSuccess(true);
+                    if (circuitBreaker != null && circuitBreaker.getState() != CircuitBreakerStateEnum.CLOSED) {
+                        demotionInfo.setCircuitBreakerState(circuitBreaker.getState());
+                    }
                     try {
                         flowRegister.getMonitorTracking().demotionTaskTracking(serviceTask, demotionInfo);
-                        return doRetryInvokeMethod(tracking, elementIterable, iterDataItem, pedometer, serviceTask, serviceDefOptional.get(), storyBus, role);
+                        Supplier<Object> demotionInvoke = () -> doRetryInvokeMethod(tracking, elementIterable, iterDataItem, pedometer, serviceTask, serviceDefOptional.get(), storyBus, role);
+                        if (iterDataItem == null && continuationInvoke(serviceTask, taskServiceDef, storyBus)) {
+                            // CONTINUATION 方式下外层不经过任务拦截器，熔断后同步执行的降级节点在此经过任务拦截器
+                            return engineModule.getTaskInterceptorRepository().process(demotionInvoke, taskServiceDef.getServiceNodeResource(), storyBus.getScopeDataOperator(), role);
+                        }
+                        return demotionInvoke.get();
                     } catch (Throwable ex) {
                         demotionInfo.setDemotionSuccess(false);
                         demotionInfo.setDemotionException(ex);
@@ -213,11 +253,81 @@ public abstract class BasicTaskCore<T> implements Task<T> {
         if (executor == null && (timeout == null || methodWrapper.isMonoResult())) {
             return doInvokeMethod(tracking, iterDataItem, taskServiceDef, serviceTask, storyBus, role);
         }
+        MethodTimeoutModeEnum methodTimeoutMode = storyBus.getMethodTimeoutMode();
+        if (executor == null && methodTimeoutMode != MethodTimeoutModeEnum.THREAD_POOL) {
+            // 迭代节点需要同步汇总各迭代项的结果，降级节点在重试流程中同步执行，均不适用 CONTINUATION 方式
+            if (methodTimeoutMode == MethodTimeoutModeEnum.CONTINUATION && !isIterable && !pedometer.isDemotion()) {
+                return continuationInvokeMethod(tracking, taskServiceDef, serviceTask, storyBus, role);
+            }
+            return deadlineInvokeMethod(tracking, iterDataItem, timeout, taskServiceDef, serviceTask, storyBus, role);
+        }
         MethodInvokeTask methodInvokeTask = new MethodInvokeTask(tracking, elementIterable, iterDataItem, pedometer, flowRegister, engineModule, serviceTask, taskServiceDef, storyBus, role);
         InvokeFuture invokeFuture = engineModule.getMethodThreadPool().submitMethodInvokeTask(executor, methodInvokeTask);
         return invokeFuture.invokeMethod(timeout == null ? storyBus.remainTimeMillis() : timeout, flowRegister.getMonitorTracking(), serviceTask);
     }
 
+    /**
+     * 在当前线程中调用目标方法，同时在定时器中登记截止时间，到期后中断当前线程，方法返回后以超时结束
+     */
+    private Object deadlineInvokeMethod(boolean tracking, IterDataItem<Object> iterDataItem, int timeout,
+                                        TaskServiceDef taskServiceDef, ServiceTask serviceTask, StoryBus storyBus, Role role) {
+        MethodDeadline methodDeadline = new MethodDeadline(Thread.currentThread());
+        Timeout deadline = engineModule.getTimer().newTimeout(methodDeadline::expire, timeout, TimeUnit.MILLISECONDS);
+        Object result;
+        try {
+            result = doInvokeMethod(tracking, iterDataItem, taskServiceDef, serviceTask, storyBus, role);
+        } catch (Throwable e) {
+            if (methodDeadline.finish()) {
+                throw e;
+            }
+            throw buildDeadlineException(e, timeout, serviceTask);
+        } finally {
+            deadline.cancel();
+        }
+        if (!methodDeadline.finish()) {
+            throw buildDeadlineException(null, timeout, serviceTask);
+        }
+        return result;
+    }
+
+    private KstryException buildDeadlineException(Throwable cause, int timeout, ServiceTask serviceTask) {
+        flowRegister.getMonitorTracking().timeoutTaskTracking(serviceTask, timeout);
+        TimeoutException timeoutException = new TimeoutException();
+        if (cause != null) {
+            timeoutException.initCause(cause);
+        }
+        return ExceptionUtil.buildException(timeoutException, ExceptionEnum.ASYNC_TASK_TIMEOUT,
+                GlobalUtil.format("Invoke method timeout! taskName: {}, maximum time limit: {}ms", getTaskName(), timeout));
+    }
+
+    /**
+     * 非迭代服务节点是否以 CONTINUATION 方式调用目标方法
+     */
+    protected boolean continuationInvoke(ServiceTask serviceTask, TaskServiceDef taskServiceDef, StoryBus storyBus) {
+        MethodWrapper methodWrapper = taskServiceDef.getMethodWrapper();
+        InvokeProperties invokeProperties = methodWrapper.getInvokeProperties();
+        return storyBus.getMethodTimeoutMode() == MethodTimeoutModeEnum.CONTINUATION && !taskServiceDef.isDemotionNode() && !methodWrapper.isMonoResult()
+                && StringUtils.isBlank(invokeProperties.getCustomExecutorName()) && getTaskTimeout(false, serviceTask, invokeProperties) != null;
+    }
+
+    /**
+     * 提交至方法线程池调用目标方法，以 Mono 的形式返回结果，当前线程无需等待方法返回
+     * 任务拦截器在方法线程中围绕目标方法执行，拦截器得到的是目标方法的原始返回值而非 Mono
+     */
+    protected Mono<Object> continuationInvokeMethod(boolean tracking, TaskServiceDef taskServiceDef, ServiceTask serviceTask, StoryBus storyBus, Role role) {
+        return Mono.fromCallable(() -> {
+            try {
+                engineModule.getThreadSwitchHookProcessor().usePreviousData(threadSwitchHookObjectMap, storyBus.getScopeDataOperator());
+                InvokeMethodThreadLocal.whenServiceInvoke(flowRegister, taskServiceDef, serviceTask, storyBus.getBusinessId());
+                return engineModule.getTaskInterceptorRepository().process(() -> doInvokeMethod(tracking, null, taskServiceDef, serviceTask, storyBus, role),
+                        taskServiceDef.getServiceNodeResource(), storyBus.getScopeDataOperator(), role);
+            } finally {
+                InvokeMethodThreadLocal.clear();
+                engineModule.getThreadSwitchHookProcessor().clear(threadSwitchHookObjectMap, storyBus.getScopeDataOperator());
+            }
+        }).subscribeOn(engineModule.getMethodThreadPool().getScheduler());
+    }
+
     /**
      * 实际调用目标方法
      */
@@ -244,7 +354,9 @@ public abstract class BasicTaskCore<T> implements Task<T> {
         if (elementIterable == null) {
             return true;
         }
-        return BooleanUtils.isNotTrue(elementIterable.openAsync()) || elementIterable.getIteStrategy() == IterateStrategyEnum.ANY_SUCCESS || methodWrapper.isMonoResult();
+        // ANY_SUCCESS 策略指定并发数后才会并发迭代，未指定时逐项迭代，保证以第一个执行成功的迭代项为结果
+        return BooleanUtils.isNotTrue(elementIterable.openAsync())
+                || (elementIterable.getIteStrategy() == IterateStrategyEnum.ANY_SUCCESS && elementIterable.getConcurrency() == null) || methodWrapper.isMonoResult();
     }
 
     boolean notAllowRetry(Throwable exception, InvokeProperties invokeProperties) {
@@ -290,6 +402,58 @@ public abstract class BasicTaskCore<T> implements Task<T> {
         };
     }
 
+    /**
+     * 获取服务节点熔断器，流程配置中指定的熔断属性优先于 @Invoke 注解
+     *
+     * @return 未开启熔断器时返回空
+     */
+    CircuitBreaker getCircuitBreaker(ServiceTask serviceTask, TaskServiceDef taskServiceDef) {
+        InvokeProperties invokeProperties = taskServiceDef.getMethodWrapper().getInvokeProperties();
+        int threshold = Optional.ofNullable(serviceTask.getBreakerThreshold()).filter(t -> t > 0).orElse(invokeProperties.getBreakerThreshold());
+        if (threshold <= 0) {
+            return null;
+        }
+        int openTime = Optional.ofNullable(serviceTask.getBreakerOpenTime()).filter(t -> t >= 0).orElse(invokeProperties.getBreakerOpenTime());
+        return engineModule.getCircuitBreakerComponent().getCircuitBreaker(taskServiceDef.getServiceNodeResource(), threshold, openTime).orElse(null);
+    }
+
+    /**
+     * 将目标方法执行结果计入熔断器，Mono 结果在结束时计入。
+     * 取消信号来自下游，如 Story 被取消、整体超时、迭代提前结束等，不代表节点自身失败，不计入熔断器。节点自身超时在超时回调中计入
+     */
+    Object observeCircuitBreaker(CircuitBreaker circuitBreaker, ServiceTask serviceTask, Object result) {
+        if (circuitBreaker == null) {
+            return result;
+        }
+        if (!(result instanceof Mono)) {
+            circuitBreakerResult(circuitBreaker, serviceTask, result != INVOKE_ERROR_SIGN);
+            return result;
+        }
+        Mono<?> mono = (Mono<?>) result;
+        return Mono.defer(() -> {
+            boolean[] success = new boolean[1];
+            return mono.doOnSuccess(v -> success[0] = true).doFinally(s -> {
+                if (s != SignalType.CANCEL || success[0]) {
+                    circuitBreakerResult(circuitBreaker, serviceTask, success[0]);
+                }
+            });
+        });
+    }
+
+    void circuitBreakerResult(CircuitBreaker circuitBreaker, ServiceTask serviceTask, boolean success) {
+        if (circuitBreaker == null || !(success ? circuitBreaker.onSuccess() : circuitBreaker.onFailure())) {
+            return;
+        }
+        CircuitBreakerStateEnum state = circuitBreaker.getState();
+        if (state == CircuitBreakerStateEnum.OPEN) {
+            LOGGER.warn("[{}] Service node circuit breaker is open. identity: {}, threshold: {}, openTime: {}ms",
+                    ExceptionEnum.CIRCUIT_BREAKER_OPEN.getExceptionCode(), circuitBreaker.getIdentityId(), circuitBreaker.getThreshold(), circuitBreaker.getOpenTime());
+        } else {
+            LOGGER.info("Service node circuit breaker is {}. identity: {}", state, circuitBreaker.getIdentityId());
+        }
+        flowRegister.getMonitorTracking().circuitBreakerTracking(serviceTask, state);
+    }
+
     Integer getTaskTimeout(boolean isDemotion, ServiceTask serviceTask, InvokeProperties invokeProperties) {
         return isDemotion
                 ? Optional.ofNullable(invokeProperties.getTimeout()).filter(t -> t >= 0).orElse(serviceTask.getTimeout())
@@ -299,4 +463,58 @@ public abstract class BasicTaskCore<T> implements Task<T> {
     protected boolean needIterateIgnore(ElementIterable elementIterable) {
         return elementIterable != null && elementIterable.iterable() && elementIterable.getIteStrategy() != IterateStrategyEnum.ALL_SUCCESS;
     }
+
+    /**
+     * 目标方法截止时间，方法返回与定时器到期两者之间只有一方生效
+     * 定时器到期时持有对象锁中断执行线程，方法返回后获取同一把锁即可确认中断标记已设置，无需自旋等待
+     */
+    private static final class MethodDeadline {
+
+        private static final int RUNNING = 0;
+
+        private static final int FINISHED = 1;
+
+        private static final int EXPIRED = 2;
+
+        private final AtomicInteger state = new AtomicInteger(RUNNING);
+
+        private final Thread thread;
+
+        /**
+         * 方法调用前线程是否已处于中断状态
+         */
+        private final boolean interrupted;
+
+        private MethodDeadline(Thread thread) {
+            this.thread = thread;
+            this.interrupted = thread.isInterrupted();
+        }
+
+        private void expire() {
+            synchronized (this) {
+                if (state.compareAndSet(RUNNING, EXPIRED)) {
+                    thread.interrupt();
+                }
+            }
+        }
+
+        /**
+         * 方法返回时调用
+         *
+         * @return 是否在截止时间之前返回
+         */
+        private boolean finish() {
+            if (state.compareAndSet(RUNNING, FINISHED)) {
+                return true;
+            }
+            // 定时器已到期，等待中断标记设置完成后清除，避免中断标记残留在当前线程，调用前已存在的中断标记重新设置
+            synchronized (this) {
+                Thread.interrupted();
+            }
+            if (interrupted) {
+                thread.interrupt();
+            }
+            return false;
+        }
+    }
 }
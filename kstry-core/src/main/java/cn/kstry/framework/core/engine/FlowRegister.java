@@ -42,7 +42,6 @@ import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.ApplicationContext;
-import org.springframework.core.OrderComparator;
 
 import java.util.List;
 import java.util.Objects;
@@ -248,12 +247,11 @@ public class FlowRegister {
         }
 
         // 获取当前执行节点
-        String taskName = GlobalUtil.getTaskName(getStartElement(), getRequestId());
         FlowElement currentFlowElement = elementOptional.get();
-        AssertUtil.notTrue(adminFuture.isCancelled(startEventId), ExceptionEnum.ASYNC_TASK_INTERRUPTED,
-                "Task interrupted. Story task was interrupted! taskName: {}, identity: {}", taskName, currentFlowElement.identity());
-        AssertUtil.isTrue(cycleTimes == 1L || cycleTimes <= GlobalProperties.KSTRY_STORY_MAX_CYCLE_COUNT, ExceptionEnum.CYCLE_TIMES_OVER_LIMIT,
-                "{} cycleTimes: {}, taskName: {}, identity: {}", ExceptionEnum.CYCLE_TIMES_OVER_LIMIT.getDesc(), cycleTimes, taskName, currentFlowElement.identity());
+        AssertUtil.isTrue(!adminFuture.isCancelled(startEventId), ExceptionEnum.ASYNC_TASK_INTERRUPTED, "Task interrupted. Story task was interrupted! taskName: {}, identity: {}",
+                () -> Lists.newArrayList(GlobalUtil.getTaskName(getStartElement(), getRequestId()), currentFlowElement.identity()));
+        AssertUtil.isTrue(cycleTimes == 1L || cycleTimes <= GlobalProperties.KSTRY_STORY_MAX_CYCLE_COUNT, ExceptionEnum.CYCLE_TIMES_OVER_LIMIT, "{} cycleTimes: {}, taskName: {}, identity: {}",
+                () -> Lists.newArrayList(ExceptionEnum.CYCLE_TIMES_OVER_LIMIT.getDesc(), cycleTimes, GlobalUtil.getTaskName(getStartElement(), getRequestId()), currentFlowElement.identity()));
 
         // 处理回环流程
         if (currentFlowElement instanceof SequenceFlow) {
@@ -307,11 +305,16 @@ public class FlowRegister {
             flowList = currentFlowElement.outingList();
         } else {
             flowList = contextStoryBus.getStoryBus().getScopeDataOperator().serialRead(opt -> {
-                List<SequenceFlow> sequenceFlowList = currentFlowElement.outingList().stream().map(f -> (SequenceFlow) f).collect(Collectors.toList());
-                OrderComparator.sort(sequenceFlowList);
+                List<FlowElement> sortedOutingList = currentFlowElement.sortedOutingList();
+                List<FlowElement> peekList = Lists.newArrayListWithCapacity(sortedOutingList.size());
                 try {
                     InvokeMethodThreadLocal.setCycleTimes(cycleTimes);
-                    return sequenceFlowList.stream().filter(flow -> peekStrategy.needPeek(monitorTracking, flow, contextStoryBus)).map(f -> (FlowElement) f).collect(Collectors.toList());
+                    for (FlowElement flow : sortedOutingList) {
+                        if (peekStrategy.needPeek(monitorTracking, flow, contextStoryBus)) {
+                            peekList.add(flow);
+                        }
+                    }
+                    return peekList;
                 } finally {
                     InvokeMethodThreadLocal.clearCycleTimes();
                 }
@@ -349,8 +352,7 @@ public class FlowRegister {
     }
 
     private PeekStrategy getPeekStrategy(FlowElement currentFlowElement) {
-        Optional<PeekStrategy> peekStrategyOptional = PeekStrategyRepository.getPeekStrategy().stream().filter(peekStrategy -> peekStrategy.match(currentFlowElement)).findFirst();
-        return peekStrategyOptional.orElseThrow(() -> ExceptionUtil.buildException(null, ExceptionEnum.CONFIGURATION_UNSUPPORTED_ELEMENT, null));
+        return PeekStrategyRepository.getPeekStrategy(currentFlowElement).orElseThrow(() -> ExceptionUtil.buildException(null, ExceptionEnum.CONFIGURATION_UNSUPPORTED_ELEMENT, null));
     }
 
     private void processNotMatchElement(ContextStoryBus contextStoryBus, List<FlowElement> flowList, FlowElement element) {
@@ -20,6 +20,7 @@ package cn.kstry.framework.core.engine;
 import cn.kstry.framework.core.bpmn.*;
 import cn.kstry.framework.core.bpmn.enums.BpmnTypeEnum;
 import cn.kstry.framework.core.bpmn.enums.IterateStrategyEnum;
+import cn.kstry.framework.core.bpmn.extend.AsyncFlowElement;
 import cn.kstry.framework.core.bpmn.extend.ElementIterable;
 import cn.kstry.framework.core.bpmn.impl.BasicElementIterable;
 import cn.kstry.framework.core.bus.ContextStoryBus;
@@ -27,6 +28,7 @@ import cn.kstry.framework.core.bus.IterDataItem;
 import cn.kstry.framework.core.bus.StoryBus;
 import cn.kstry.framework.core.component.hook.AsyncFlowHook;
 import cn.kstry.framework.core.component.hook.Hook;
+import cn.kstry.framework.core.component.breaker.CircuitBreaker;
 import cn.kstry.framework.core.component.limiter.RateLimiterConfig;
 import cn.kstry.framework.core.component.limiter.strategy.DemotionFailAcquireStrategy;
 import cn.kstry.framework.core.component.limiter.strategy.FailAcquireStrategy;
@@ -40,6 +42,8 @@ import cn.kstry.framework.core.engine.interceptor.TaskInterceptorRepository;
 import cn.kstry.framework.core.engine.thread.FragmentTask;
 import cn.kstry.framework.core.engine.thread.InvokeMethodThreadLocal;
 import cn.kstry.framework.core.engine.thread.MonoFlowTask;
+import cn.kstry.framework.core.engine.thread.TaskServiceExecutor;
+import cn.kstry.framework.core.enums.CircuitBreakerStateEnum;
 import cn.kstry.framework.core.exception.BusinessException;
 import cn.kstry.framework.core.exception.ExceptionEnum;
 import cn.kstry.framework.core.exception.KstryException;
@@ -49,29 +53,39 @@ import cn.kstry.framework.core.role.Role;
 import cn.kstry.framework.core.util.AssertUtil;
 import cn.kstry.framework.core.util.ExceptionUtil;
 import cn.kstry.framework.core.util.GlobalUtil;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
-import org.apache.commons.collections.CollectionUtils;
+import com.google.common.collect.Sets;
 import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.concurrent.Queues;
 
 import javax.annotation.Nonnull;
-import java.lang.reflect.Array;
 import java.time.Duration;
 import java.util.*;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
-import java.util.stream.Stream;
 
 /**
  * 流程任务执行核心
@@ -82,6 +96,20 @@ public abstract class FlowTaskCore<T> extends BasicTaskCore<T> {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(FlowTaskCore.class);
 
+    /**
+     * 子流程在当前线程中直接执行的状态：执行中、执行结束由当前片段继续执行父流程、由子流程结果回调继续执行父流程
+     */
+    private static final int INLINE_RUNNING = 0;
+
+    private static final int INLINE_CONTINUE = 1;
+
+    private static final int INLINE_DETACHED = 2;
+
+    /**
+     * 允许在当前线程中直接执行的子流程中包含的服务节点，子流程结构不允许直接执行时为空
+     */
+    private static final Cache<SubProcess, Optional<List<ServiceTask>>> INLINE_SUB_PROCESS_CACHE = CacheBuilder.newBuilder().weakKeys().build();
+
     public FlowTaskCore(StoryEngineModule engineModule, FlowRegister flowRegister, Role role, StoryBus storyBus) {
         super(engineModule, flowRegister, storyBus, role, GlobalUtil.getTaskName(flowRegister.getStartElement(), flowRegister.getRequestId()));
     }
@@ -116,15 +144,14 @@ public abstract class FlowTaskCore<T> extends BasicTaskCore<T> {
             if (!subInterceptorRepository.postBeforeProcessor(storyBus, subProcess.getStartEvent().getId(), flowRegister.getStoryId())) {
                 return true;
             }
-            subProcessTaskHandler(role, storyBus, flowRegister, subProcess);
-            return false;
+            return subProcessTaskHandler(role, storyBus, flowRegister, subProcess);
         }
 
         if (flowElement.getElementType() != BpmnTypeEnum.SERVICE_TASK) {
             return true;
         }
 
-        Object result;
+        Object result = null;
         MethodWrapper methodWrapper;
         TaskServiceDef taskServiceDef;
         ServiceTask serviceTask = (ServiceTask) flowElement;
@@ -152,10 +179,14 @@ public abstract class FlowTaskCore<T> extends BasicTaskCore<T> {
         } finally {
             InvokeMethodThreadLocal.clear();
         }
+        // 占用型限流器（如并发数限流）获取到的许可，服务节点执行结束后归还
+        Runnable[] limiterRelease = new Runnable[1];
+        boolean iterateResult = false;
         try {
             InvokeMethodThreadLocal.whenServiceInvoke(flowRegister, taskServiceDef, serviceTask, storyBus.getBusinessId());
             RateLimiterConfig rateLimiterConfig = serviceTask.getRateLimiterConfig().map(c -> c.merge(methodWrapper.getRateLimiterConfig())).orElse(methodWrapper.getRateLimiterConfig());
-            Optional<FailAcquireStrategy> failStrategyOptional = engineModule.getRateLimiterComponent().tryAcquire(storyBus, taskServiceDef.getServiceNodeResource(), rateLimiterConfig);
+            Optional<FailAcquireStrategy> failStrategyOptional =
+                    engineModule.getRateLimiterComponent().tryAcquire(storyBus, taskServiceDef.getServiceNodeResource(), rateLimiterConfig, r -> limiterRelease[0] = r);
             if (failStrategyOptional.isPresent()) {
                 FailAcquireStrategy failAcquireStrategy = failStrategyOptional.get();
                 flowRegister.getMonitorTracking().limiterTracking(serviceTask, rateLimiterConfig, failAcquireStrategy);
@@ -173,7 +204,7 @@ public abstract class FlowTaskCore<T> extends BasicTaskCore<T> {
                 demotionInfo.setDemotionSuccess(true);
                 try {
                     TaskInterceptorRepository taskInterceptorRepository = engineModule.getTaskInterceptorRepository();
-                    result = taskInterceptorRepository.process(() -> iterateInvokeMethod(serviceTask, demotionServiceDefOptional.get(), storyBus, role), taskServiceDef.getServiceNodeResource(), storyBus.getScopeDataOperator(), role);
+                    result = taskInterceptorRepository.process(() -> iterateInvokeMethod(flowRegister, serviceTask, demotionServiceDefOptional.get(), storyBus, role), taskServiceDef.getServiceNodeResource(), storyBus.getScopeDataOperator(), role);
                     flowRegister.getMonitorTracking().demotionTaskTracking(serviceTask, demotionInfo);
                 } catch (Exception e) {
                     demotionInfo.setDemotionSuccess(false);
@@ -181,9 +212,18 @@ public abstract class FlowTaskCore<T> extends BasicTaskCore<T> {
                     flowRegister.getMonitorTracking().demotionTaskTracking(serviceTask, demotionInfo);
                     throw e;
                 }
+            } else if (needBlockingIterate(serviceTask, taskServiceDef, storyBus)) {
+                result = blockingIterateInvokeMethod(flowRegister, serviceTask, taskServiceDef, storyBus, role);
+                iterateResult = true;
             } else {
-                TaskInterceptorRepository taskInterceptorRepository = engineModule.getTaskInterceptorRepository();
-                result = taskInterceptorRepository.process(() -> iterateInvokeMethod(serviceTask, taskServiceDef, storyBus, role), taskServiceDef.getServiceNodeResource(), storyBus.getScopeDataOperator(), role);
+                iterateResult = !taskServiceDef.isDemotionNode() && getElementIterable(serviceTask, methodWrapper.getElementIterable()).iterable();
+                if (!iterateResult && continuationInvoke(serviceTask, taskServiceDef, storyBus)) {
+                    // CONTINUATION 方式在方法线程中围绕目标方法执行任务拦截器，此处不再经过拦截器
+                    result = iterateInvokeMethod(flowRegister, serviceTask, taskServiceDef, storyBus, role);
+                } else {
+                    TaskInterceptorRepository taskInterceptorRepository = engineModule.getTaskInterceptorRepository();
+                    result = taskInterceptorRepository.process(() -> iterateInvokeMethod(flowRegister, serviceTask, taskServiceDef, storyBus, role), taskServiceDef.getServiceNodeResource(), storyBus.getScopeDataOperator(), role);
+                }
             }
         } catch (Throwable exception) {
             flowRegister.getMonitorTracking().finishTaskTracking(storyBus.getScopeDataOperator(), flowElement, exception);
@@ -196,9 +236,15 @@ public abstract class FlowTaskCore<T> extends BasicTaskCore<T> {
             throw exception;
         } finally {
             InvokeMethodThreadLocal.clear();
+            if (limiterRelease[0] != null && !(result instanceof Mono)) {
+                limiterRelease[0].run();
+            }
         }
         if (result instanceof Mono) {
-            monoResultHandler(0, role, storyBus, flowRegister, serviceTask, taskServiceDef, result);
+            if (limiterRelease[0] != null) {
+                result = ((Mono<?>) result).doFinally(s -> limiterRelease[0].run());
+            }
+            monoResultHandler(0, iterateResult, role, storyBus, flowRegister, serviceTask, taskServiceDef, result);
             return false;
         }
         storyBus.noticeResult(serviceTask, result, taskServiceDef);
@@ -206,25 +252,32 @@ public abstract class FlowTaskCore<T> extends BasicTaskCore<T> {
         return true;
     }
 
-    private void monoResultHandler(int alreadyRetry, Role role, StoryBus storyBus,
+    /**
+     * 订阅 Mono 结果，结果返回后继续执行流程
+     *
+     * @param iterateResult 是否为迭代执行时合并得到的 Mono，各迭代项已分别限制超时时间，且无法脱离迭代项重新执行，不再整体限时和重试
+     */
+    private void monoResultHandler(int alreadyRetry, boolean iterateResult, Role role, StoryBus storyBus,
                                    FlowRegister flowRegister, ServiceTask serviceTask, TaskServiceDef taskServiceDef, Object result) {
         InvokeProperties invokeProperties = taskServiceDef.getMethodWrapper().getInvokeProperties();
-        Integer timeout = Optional.ofNullable(serviceTask.getTimeout()).filter(t -> t >= 0).orElse(invokeProperties.getTimeout());
-        FlowTaskSubscriber flowTaskSubscriber = getFlowTaskSubscriber(alreadyRetry, role, storyBus, flowRegister, serviceTask, taskServiceDef, invokeProperties, timeout);
+        Integer timeout = iterateResult ? null : Optional.ofNullable(serviceTask.getTimeout()).filter(t -> t >= 0).orElse(invokeProperties.getTimeout());
+        FlowTaskSubscriber flowTaskSubscriber = getFlowTaskSubscriber(alreadyRetry, !iterateResult, role, storyBus, flowRegister, serviceTask, taskServiceDef, invokeProperties, timeout);
         Mono<?> mono = GlobalUtil.transferNotEmpty(result, Mono.class);
         if (timeout != null) {
             mono = mono.timeout(Duration.ofMillis(timeout), Mono.fromRunnable(() -> {
+                // 超时会取消上游 Mono，取消不计入熔断器，节点自身超时在此计入失败
+                circuitBreakerResult(getCircuitBreaker(serviceTask, taskServiceDef), serviceTask, false);
                 KstryException e = ExceptionUtil.buildException(null, ExceptionEnum.ASYNC_TASK_TIMEOUT,
                         GlobalUtil.format("Target method execution timeout! maximum time limit: {}ms, identity: {}, taskName: {}",
                                 timeout, serviceTask.identity(), GlobalUtil.getTaskName(serviceTask, flowRegister.getRequestId())));
                 flowTaskSubscriber.onError(e);
                 flowTaskSubscriber.dispose();
-            }));
+            }), engineModule.getTimer().getScheduler());
         }
         mono.subscribe(flowTaskSubscriber);
     }
 
-    private FlowTaskSubscriber getFlowTaskSubscriber(int alreadyRetry, Role role, StoryBus storyBus, FlowRegister flowRegister,
+    private FlowTaskSubscriber getFlowTaskSubscriber(int alreadyRetry, boolean retryable, Role role, StoryBus storyBus, FlowRegister flowRegister,
                                                      ServiceTask serviceTask, TaskServiceDef taskServiceDef, InvokeProperties invokeProperties, Integer timeout) {
         boolean strictMode = serviceTask.strictMode() && invokeProperties.isStrictMode();
         return new RetryFlowTaskSubscriber(alreadyRetry,
@@ -239,7 +292,10 @@ public abstract class FlowTaskCore<T> extends BasicTaskCore<T> {
             @Override
             protected void doErrorHook(Throwable throwable) {
                 int retry = Optional.ofNullable(serviceTask.getRetryTimes()).filter(t -> t > 0).orElse(invokeProperties.getRetry());
-                if (retry > getAlreadyRetry() && !notAllowRetry(throwable, invokeProperties) && !flowRegister.getAdminFuture().isCancelled(flowRegister.getStartEventId())) {
+                CircuitBreaker circuitBreaker = getCircuitBreaker(serviceTask, taskServiceDef);
+                // 熔断器未关闭时不再重试，直接降级
+                if (retryable && retry > getAlreadyRetry() && !notAllowRetry(throwable, invokeProperties)
+                        && !flowRegister.getAdminFuture().isCancelled(flowRegister.getStartEventId()) && (circuitBreaker == null || circuitBreaker.tryPass())) {
                     DemotionInfo demotionInfo = new DemotionInfo();
                     demotionInfo.setRetryTimes(getAlreadyRetry() + 1);
                     flowRegister.getMonitorTracking().demotionTaskTracking(serviceTask, demotionInfo);
@@ -247,14 +303,17 @@ public abstract class FlowTaskCore<T> extends BasicTaskCore<T> {
                     try {
                         InvokeMethodThreadLocal.whenServiceInvoke(flowRegister, taskServiceDef, serviceTask, storyBus.getBusinessId());
                         TaskInterceptorRepository taskInterceptorRepository = engineModule.getTaskInterceptorRepository();
-                        res = taskInterceptorRepository.process(() -> doInvokeMethod(true, null, taskServiceDef, serviceTask, storyBus, role), taskServiceDef.getServiceNodeResource(), storyBus.getScopeDataOperator(), role);
+                        // 非 Mono 返回值的方法进入该流程时，是以 CONTINUATION 方式执行的超时方法，重试时保持相同的执行方式，任务拦截器在方法线程中执行
+                        res = observeCircuitBreaker(circuitBreaker, serviceTask, taskServiceDef.getMethodWrapper().isMonoResult()
+                                ? taskInterceptorRepository.process(() -> doInvokeMethod(true, null, taskServiceDef, serviceTask, storyBus, role),
+                                taskServiceDef.getServiceNodeResource(), storyBus.getScopeDataOperator(), role) : continuationInvokeMethod(true, taskServiceDef, serviceTask, storyBus, role));
                     } finally {
                         InvokeMethodThreadLocal.clear();
                     }
                     if (!(res instanceof Mono)) {
                         flowRegister.getAdminFuture().errorNotice(ExceptionUtil.buildException(throwable, ExceptionEnum.SYSTEM_ERROR, null), flowRegister);
                     }
-                    monoResultHandler(getAlreadyRetry() + 1, role, storyBus, flowRegister, serviceTask, taskServiceDef, res);
+                    monoResultHandler(getAlreadyRetry() + 1, false, role, storyBus, flowRegister, serviceTask, taskServiceDef, res);
                     return;
                 }
                 Supplier<Optional<TaskServiceDef>> needDemotionSupplier = getNeedDemotionSupplier(serviceTask, role, invokeProperties);
@@ -274,9 +333,12 @@ public abstract class FlowTaskCore<T> extends BasicTaskCore<T> {
                     demotionInfo.setRetryTimes(getAlreadyRetry());
                     demotionInfo.setDemotionNodeId(demotionTaskServiceDef.getServiceNodeResource().getIdentityId());
                     demotionInfo.setDemotionSuccess(true);
+                    if (circuitBreaker != null && circuitBreaker.getState() != CircuitBreakerStateEnum.CLOSED) {
+                        demotionInfo.setCircuitBreakerState(circuitBreaker.getState());
+                    }
                     try {
                         InvokeMethodThreadLocal.whenServiceInvoke(flowRegister, taskServiceDef, serviceTask, storyBus.getBusinessId());
-                        Object o = iterateInvokeMethod(serviceTask, demotionTaskServiceDef, storyBus, role);
+                        Object o = iterateInvokeMethod(flowRegister, serviceTask, demotionTaskServiceDef, storyBus, role);
                         if (o instanceof Mono) {
                             Mono<?> demotionResultMono = GlobalUtil.transferNotEmpty(o, Mono.class);
                             BaseSubscriber<Object> demotionResultSubscriber = getDemotionResultSubscriber(demotionInfo);
@@ -287,7 +349,7 @@ public abstract class FlowTaskCore<T> extends BasicTaskCore<T> {
                                                     timeout, serviceTask.identity(), GlobalUtil.getTaskName(serviceTask, flowRegister.getRequestId())));
                                     demotionResultSubscriber.onError(e);
                                     demotionResultSubscriber.dispose();
-                                }));
+                                }), engineModule.getTimer().getScheduler());
                             }
                             demotionResultMono.subscribe(demotionResultSubscriber);
                             return;
@@ -379,30 +441,46 @@ public abstract class FlowTaskCore<T> extends BasicTaskCore<T> {
         };
     }
 
-    private void subProcessTaskHandler(Role role, StoryBus storyBus, FlowRegister parentFlowRegister, SubProcess subProcess) {
+    private boolean subProcessTaskHandler(Role role, StoryBus storyBus, FlowRegister parentFlowRegister, SubProcess subProcess) {
         StartEvent startEvent = subProcess.getStartEvent();
 
         FlowRegister cloneSubFlowRegister = parentFlowRegister.cloneSubFlowRegister(startEvent);
         String taskName = GlobalUtil.getTaskName(cloneSubFlowRegister.getStartElement(), cloneSubFlowRegister.getRequestId());
-        int timeout = Optional.of(subProcess).map(SubProcess::getTimeout).orElse(storyBus.remainTimeMillis());
+        boolean inline = storyBus.isSubProcessInline() && allowInlineSubProcess(subProcess, role);
+        Integer timeout = Optional.of(subProcess).map(SubProcess::getTimeout).orElse(storyBus.remainTimeMillis());
+
+        // 子流程在当前线程中直接执行时，当前线程无需切换线程上下文，子流程结果回调在其他线程中触发时才需要切换
+        AtomicReference<Thread> inlineThread = new AtomicReference<>();
+        AtomicInteger inlineState = new AtomicInteger(inline ? INLINE_RUNNING : INLINE_DETACHED);
+        AtomicBoolean finallyProcessed = new AtomicBoolean(false);
         FlowTaskSubscriber flowTaskSubscriber = new FlowTaskSubscriber(
-                () -> engineModule.getThreadSwitchHookProcessor().usePreviousData(threadSwitchHookObjectMap, storyBus.getScopeDataOperator()),
-                () -> engineModule.getThreadSwitchHookProcessor().clear(threadSwitchHookObjectMap, storyBus.getScopeDataOperator()),
+                () -> {
+                    if (inlineThread.get() != Thread.currentThread()) {
+                        engineModule.getThreadSwitchHookProcessor().usePreviousData(threadSwitchHookObjectMap, storyBus.getScopeDataOperator());
+                    }
+                },
+                () -> {
+                    if (inlineThread.get() != Thread.currentThread()) {
+                        engineModule.getThreadSwitchHookProcessor().clear(threadSwitchHookObjectMap, storyBus.getScopeDataOperator());
+                    }
+                },
                 subProcess.strictMode(), timeout, cloneSubFlowRegister, taskName) {
 
             @Override
             protected void doNextHook(Object value) {
                 SubProcessInterceptorRepository subInterceptorRepository = engineModule.getSubInterceptorRepository();
                 subInterceptorRepository.postAfterProcessor(storyBus, flowRegister.getStartElement().getId(), flowRegister.getStoryId());
-                doNextElement(parentFlowRegister, subProcess, storyBus, role);
+                postFinallyProcessor();
+                continueParentFlow();
             }
 
             @Override
             protected void doErrorHook(Throwable throwable) {
                 SubProcessInterceptorRepository subInterceptorRepository = engineModule.getSubInterceptorRepository();
                 subInterceptorRepository.postErrorProcessor(throwable, storyBus, flowRegister.getStartElement().getId(), flowRegister.getStoryId());
+                postFinallyProcessor();
                 if (!isStrictMode()) {
-                    doNextElement(parentFlowRegister, subProcess, storyBus, role);
+                    continueParentFlow();
                 } else {
                     flowRegister.getMonitorTracking().finishTaskTracking(storyBus.getScopeDataOperator(), subProcess, throwable);
                 }
@@ -415,12 +493,96 @@ public abstract class FlowTaskCore<T> extends BasicTaskCore<T> {
 
             @Override
             protected void doFinallyHook() {
+                postFinallyProcessor();
+            }
+
+            /**
+             * 子流程结束后、父流程继续执行前调用 finally 拦截器，保证父流程结束时子流程拦截器已全部执行完成。
+             * 超时、取消等不经过 next、error 回调的场景在 doFinallyHook 中兜底调用，只执行一次
+             */
+            private void postFinallyProcessor() {
+                if (!finallyProcessed.compareAndSet(false, true)) {
+                    return;
+                }
                 SubProcessInterceptorRepository subInterceptorRepository = engineModule.getSubInterceptorRepository();
                 subInterceptorRepository.postFinallyProcessor(storyBus, flowRegister.getStartElement().getId(), flowRegister.getStoryId());
             }
+
+            private void continueParentFlow() {
+                // 子流程在当前线程中直接执行结束，交由父流程片段继续向下执行
+                if (inlineState.compareAndSet(INLINE_RUNNING, INLINE_CONTINUE)) {
+                    return;
+                }
+                doNextElement(parentFlowRegister, subProcess, storyBus, role);
+            }
         };
         MonoFlowTask subFlowTask = new MonoFlowTask(engineModule, cloneSubFlowRegister, role, storyBus, flowTaskSubscriber);
-        engineModule.getTaskThreadPool().submitMonoFlowTask(storyBus.getStoryExecutor(), parentFlowRegister.getStartEventId(), subFlowTask);
+        if (inline) {
+            inlineThread.set(Thread.currentThread());
+            try {
+                inline = engineModule.getTaskThreadPool().runMonoFlowTask(parentFlowRegister.getStartEventId(), subFlowTask);
+            } finally {
+                inlineThread.set(null);
+            }
+            if (!inline) {
+                inlineState.set(INLINE_DETACHED);
+            }
+        }
+        if (!inline) {
+            engineModule.getTaskThreadPool().submitMonoFlowTask(storyBus.getStoryExecutor(), parentFlowRegister.getStartEventId(), subFlowTask);
+            return false;
+        }
+
+        // 子流程中存在异步结果未执行结束，或者执行失败时，父流程交由子流程结果回调继续执行
+        if (inlineState.compareAndSet(INLINE_RUNNING, INLINE_DETACHED)) {
+            return false;
+        }
+        parentFlowRegister.getMonitorTracking().finishTaskTracking(storyBus.getScopeDataOperator(), subProcess, null);
+        return true;
+    }
+
+    /**
+     * 子流程中不存在开启异步的网关，且子流程与其中的服务节点均未设置超时时间时，允许在父流程片段的线程中直接执行
+     */
+    private boolean allowInlineSubProcess(SubProcess subProcess, Role role) {
+        Optional<List<ServiceTask>> serviceTasksOptional = INLINE_SUB_PROCESS_CACHE.getIfPresent(subProcess);
+        if (serviceTasksOptional == null) {
+            serviceTasksOptional = getInlineServiceTasks(subProcess);
+            INLINE_SUB_PROCESS_CACHE.put(subProcess, serviceTasksOptional);
+        }
+        // @Invoke 超时时间与角色匹配到的服务有关，每次执行时检查
+        return serviceTasksOptional.map(serviceTasks -> serviceTasks.stream().noneMatch(serviceTask ->
+                engineModule.getTaskContainer().getTaskServiceDef(serviceTask.getTaskComponent(), serviceTask.getTaskService(), role)
+                        .map(taskServiceDef -> taskServiceDef.getMethodWrapper().getInvokeProperties().getTimeout() != null).orElse(false)
+        )).orElse(false);
+    }
+
+    private Optional<List<ServiceTask>> getInlineServiceTasks(SubProcess subProcess) {
+        if (subProcess.getTimeout() != null) {
+            return Optional.empty();
+        }
+        List<ServiceTask> serviceTasks = Lists.newArrayList();
+        Set<FlowElement> visited = Sets.newIdentityHashSet();
+        Deque<FlowElement> elementDeque = new ArrayDeque<>();
+        elementDeque.push(subProcess.getStartEvent());
+        while (!elementDeque.isEmpty()) {
+            FlowElement element = elementDeque.pop();
+            if (!visited.add(element)) {
+                continue;
+            }
+            if (element instanceof AsyncFlowElement && BooleanUtils.isTrue(((AsyncFlowElement) element).openAsync())) {
+                return Optional.empty();
+            }
+            if (element instanceof ServiceTask) {
+                ServiceTask serviceTask = (ServiceTask) element;
+                if (serviceTask.getTimeout() != null && serviceTask.getTimeout() >= 0) {
+                    return Optional.empty();
+                }
+                serviceTasks.add(serviceTask);
+            }
+            element.outingList().forEach(elementDeque::push);
+        }
+        return Optional.of(Collections.unmodifiableList(serviceTasks));
     }
 
     private void submitAsyncTask(Role role, StoryBus storyBus, FlowRegister flowRegister, Hook<List<FlowElement>> hook) {
@@ -440,221 +602,359 @@ public abstract class FlowTaskCore<T> extends BasicTaskCore<T> {
         if (asyncFlowHook.isPresent() && BooleanUtils.isTrue(asyncFlowHook.get().openAsync())) {
             submitAsyncTask(role, storyBus, flowRegister, asyncFlowHook.get());
         } else {
-            FragmentTask fragmentTask = new FragmentTask(engineModule, flowRegister, role, storyBus);
-            engineModule.getTaskThreadPool().submitFragmentTask(storyBus.getStoryExecutor(), fragmentTask);
+            continueFragmentTask(storyBus, new FragmentTask(engineModule, flowRegister, role, storyBus));
         }
     }
 
-    private Object iterateInvokeMethod(ServiceTask serviceTask, TaskServiceDef taskServiceDef, StoryBus storyBus, Role role) {
+    /**
+     * 异步结果产生后，按照延续策略执行后续片段任务
+     */
+    private void continueFragmentTask(StoryBus storyBus, FragmentTask fragmentTask) {
+        TaskServiceExecutor taskThreadPool = engineModule.getTaskThreadPool();
+        switch (storyBus.getContinuationPolicy()) {
+            case INLINE:
+                if (taskThreadPool.runFragmentTask(fragmentTask)) {
+                    return;
+                }
+                break;
+            case SCHEDULER:
+                taskThreadPool.submitFragmentTask(engineModule.getContinuationScheduler(), fragmentTask);
+                return;
+            default:
+                break;
+        }
+        taskThreadPool.submitFragmentTask(storyBus.getStoryExecutor(), fragmentTask);
+    }
+
+    /**
+     * Reactor 非阻塞线程（如 INLINE 延续策略下 Mono 结果产生的线程）中不允许阻塞式拉取 Flux，同步迭代 Flux 数据源的服务节点不能在此类线程中执行
+     */
+    private boolean needBlockingIterate(ServiceTask serviceTask, TaskServiceDef taskServiceDef, StoryBus storyBus) {
+        MethodWrapper methodWrapper = taskServiceDef.getMethodWrapper();
+        if (methodWrapper.isMonoResult() || taskServiceDef.isDemotionNode() || !Schedulers.isInNonBlockingThread()) {
+            return false;
+        }
+        ElementIterable elementIterable = getElementIterable(serviceTask, methodWrapper.getElementIterable());
+        if (!elementIterable.iterable()) {
+            return false;
+        }
+        ReentrantReadWriteLock.ReadLock readLock = storyBus.getScopeDataOperator().readLock();
+        readLock.lock();
+        try {
+            return storyBus.getScopeDataOperator().getData(elementIterable.getIteSource()).filter(d -> d instanceof Flux).isPresent();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * 将迭代执行（包括拦截器）转移到 Story 执行器中，迭代结果以 Mono 的形式返回，当前线程不等待
+     */
+    private Mono<Object> blockingIterateInvokeMethod(FlowRegister flowRegister, ServiceTask serviceTask, TaskServiceDef taskServiceDef, StoryBus storyBus, Role role) {
+        return Mono.fromCallable(() -> {
+            engineModule.getThreadSwitchHookProcessor().usePreviousData(threadSwitchHookObjectMap, storyBus.getScopeDataOperator());
+            try {
+                InvokeMethodThreadLocal.whenServiceInvoke(flowRegister, taskServiceDef, serviceTask, storyBus.getBusinessId());
+                TaskInterceptorRepository taskInterceptorRepository = engineModule.getTaskInterceptorRepository();
+                return taskInterceptorRepository.process(() -> iterateInvokeMethod(flowRegister, serviceTask, taskServiceDef, storyBus, role),
+                        taskServiceDef.getServiceNodeResource(), storyBus.getScopeDataOperator(), role);
+            } finally {
+                InvokeMethodThreadLocal.clear();
+                engineModule.getThreadSwitchHookProcessor().clear(threadSwitchHookObjectMap, storyBus.getScopeDataOperator());
+            }
+        }).subscribeOn(Schedulers.fromExecutorService(Optional.ofNullable(storyBus.getStoryExecutor()).orElse(engineModule.getTaskThreadPool().getExecutorService())));
+    }
+
+    private Object iterateInvokeMethod(FlowRegister flowRegister, ServiceTask serviceTask, TaskServiceDef taskServiceDef, StoryBus storyBus, Role role) {
         MethodWrapper methodWrapper = taskServiceDef.getMethodWrapper();
-        InvokeProperties invokeProperties = methodWrapper.getInvokeProperties();
         ElementIterable elementIterable = getElementIterable(serviceTask, methodWrapper.getElementIterable());
         if (!elementIterable.iterable() || taskServiceDef.isDemotionNode()) {
             return super.retryInvokeMethod(true, null, null, taskServiceDef, serviceTask, storyBus, role);
         }
-        List<Object> iteratorList = getIteratorList(serviceTask, storyBus, elementIterable);
-        if (CollectionUtils.isEmpty(iteratorList)) {
+        int stride = Optional.ofNullable(elementIterable.getStride()).filter(i -> i > 0).orElse(1);
+        Optional<IterateSource> iterateSourceOptional = getIterateSource(serviceTask, storyBus, elementIterable, stride, methodWrapper.isMonoResult());
+        if (!iterateSourceOptional.isPresent()) {
             return null;
         }
+        boolean isOneStride = stride == 1;
+        if (methodWrapper.isMonoResult()) {
+            // 数据源在合并后的 Mono 终止时关闭
+            return mergeIterate(flowRegister, elementIterable, serviceTask, storyBus, role, taskServiceDef, iterateSourceOptional.get(), stride, isOneStride);
+        }
+        try (IterateSource iterateSource = iterateSourceOptional.get()) {
+            int size = iterateSource.getBatchSize(stride);
+            if (notNeedAsyncIterate(methodWrapper, elementIterable) || size == 1) {
+                return syncIterate(elementIterable, serviceTask, storyBus, role, taskServiceDef, iterateSource, stride, isOneStride, size);
+            }
+            return asyncIterate(elementIterable, serviceTask, storyBus, role, taskServiceDef, methodWrapper, storyBus.getMonitorTracking(), iterateSource, stride, isOneStride, size);
+        }
+    }
+
+    private Object syncIterate(ElementIterable elementIterable, ServiceTask serviceTask, StoryBus storyBus, Role role, TaskServiceDef taskServiceDef,
+                               IterateSource iterateSource, int stride, boolean isOneStride, int size) {
         List<Object> resultList = Lists.newArrayList();
         MonitorTracking monitorTracking = storyBus.getMonitorTracking();
-        List<ImmutablePair<Mono<?>, Integer>> monoResultList = Lists.newArrayList();
-        int stride = Optional.ofNullable(elementIterable.getStride()).filter(i -> i > 0).orElse(1);
-        boolean isOneStride = stride == 1;
-        int size = isOneStride ? iteratorList.size() : (iteratorList.size() / stride + (iteratorList.size() % stride == 0 ? 0 : 1));
-        if (notNeedAsyncIterate(methodWrapper, elementIterable) || size <= 1) {
-            int count = 0;
-            List<Object> batchParamList = isOneStride ? null : Lists.newArrayList();
-            for (int i = 0; i < iteratorList.size(); i++) {
-                Object next = iteratorList.get(i);
-                if (!isOneStride) {
-                    batchParamList.add(next);
-                    next = batchParamList;
-                }
-                if (!isOneStride && batchParamList.size() < stride && (i + 1) < iteratorList.size()) {
+        int count = 0;
+        while (iterateSource.hasNext()) {
+            List<Object> batchParamList = isOneStride ? null : iterateSource.nextBatch(stride);
+            int batchParamSize = isOneStride ? 0 : batchParamList.size();
+            IterDataItem<Object> iterDataItem = isOneStride ? new IterDataItem<>(false, iterateSource.next(), Lists.newArrayList(), count, size)
+                    : new IterDataItem<>(true, null, batchParamList, count, size);
+            Object r = super.retryInvokeMethod(count++ == 0, elementIterable, iterDataItem, taskServiceDef, serviceTask, storyBus, role);
+            if (r == INVOKE_ERROR_SIGN) {
+                if (BooleanUtils.isNotTrue(elementIterable.getIteAlignIndex())) {
                     continue;
                 }
-                int batchParamSize = Optional.ofNullable(batchParamList).map(List::size).orElse(0);
-                IterDataItem<Object> iterDataItem = new IterDataItem<>(!isOneStride, isOneStride ? next : null, isOneStride ? Lists.newArrayList() : batchParamList, count++, size);
-                Object r = super.retryInvokeMethod(i == 0, elementIterable, iterDataItem, taskServiceDef, serviceTask, storyBus, role);
-                if (r == INVOKE_ERROR_SIGN) {
-                    if (BooleanUtils.isNotTrue(elementIterable.getIteAlignIndex())) {
-                        continue;
-                    }
-                    if (isOneStride) {
-                        resultList.add(null);
-                    } else {
-                        resultList.addAll(IntStream.range(0, batchParamSize).mapToObj(it -> null).collect(Collectors.toList()));
-                    }
-                    continue;
+                if (isOneStride) {
+                    resultList.add(null);
+                } else {
+                    resultList.addAll(Collections.nCopies(batchParamSize, null));
                 }
-                if (elementIterable.getIteStrategy() == IterateStrategyEnum.ANY_SUCCESS) {
-                    monitorTracking.iterateCountTracking(serviceTask, count, stride);
-                    if (r == null && BooleanUtils.isNotTrue(elementIterable.getIteAlignIndex())) {
-                        return resultList;
-                    }
-                    if (r instanceof Mono) {
-                        Integer taskTimeout = getTaskTimeout(false, serviceTask, invokeProperties);
-                        try {
-                            r = ((Mono<?>) r).block(Duration.ofMillis(taskTimeout == null ? storyBus.remainTimeMillis() : Math.min(taskTimeout, storyBus.remainTimeMillis())));
-                        } catch (Exception e) {
-                            monitorTracking.timeoutTaskTracking(serviceTask, taskTimeout);
-                            throw e;
-                        }
-                    }
-                    addSuccessResult(serviceTask, isOneStride, resultList, elementIterable, r, batchParamSize);
+                continue;
+            }
+            if (elementIterable.getIteStrategy() == IterateStrategyEnum.ANY_SUCCESS) {
+                monitorTracking.iterateCountTracking(serviceTask, count, stride);
+                if (r == null && BooleanUtils.isNotTrue(elementIterable.getIteAlignIndex())) {
                     return resultList;
                 }
-                if (methodWrapper.isMonoResult()) {
-                    monoResultList.add(ImmutablePair.of((Mono<?>) r, batchParamSize));
-                } else {
-                    addSuccessResult(serviceTask, isOneStride, resultList, elementIterable, r, batchParamSize);
+                addSuccessResult(serviceTask, isOneStride, resultList, elementIterable, r, batchParamSize);
+                return resultList;
+            }
+            addSuccessResult(serviceTask, isOneStride, resultList, elementIterable, r, batchParamSize);
+        }
+        monitorTracking.iterateCountTracking(serviceTask, count, stride);
+        return resultList;
+    }
+
+    /**
+     * 迭代返回 Mono 的服务方法，按并发上限订阅各迭代项（批）返回的 Mono 并合并结果，不阻塞当前线程
+     * <p>
+     * 对齐索引时结果顺序与迭代顺序一致，否则按完成顺序合并。ANY_SUCCESS 策略未指定并发数时逐项执行，取迭代顺序中第一个成功的结果
+     * <p>
+     * Flux 数据源被直接订阅，引擎自身不在 Reactor 线程中阻塞等待。后续迭代项的服务方法在上一个 Mono 完成的线程上调用，服务方法本身需要尽快返回 Mono，不应阻塞
+     */
+    private Mono<List<Object>> mergeIterate(FlowRegister flowRegister, ElementIterable elementIterable, ServiceTask serviceTask, StoryBus storyBus, Role role,
+                                            TaskServiceDef taskServiceDef, IterateSource iterateSource, int stride, boolean isOneStride) {
+        MonitorTracking monitorTracking = storyBus.getMonitorTracking();
+        Integer taskTimeout = getTaskTimeout(false, serviceTask, taskServiceDef.getMethodWrapper().getInvokeProperties());
+        boolean alignIndex = BooleanUtils.isTrue(elementIterable.getIteAlignIndex());
+        boolean anySuccess = elementIterable.getIteStrategy() == IterateStrategyEnum.ANY_SUCCESS;
+        int concurrency = Optional.ofNullable(elementIterable.getConcurrency()).filter(c -> c > 0).orElse(anySuccess ? 1 : Queues.SMALL_BUFFER_SIZE);
+        int size = iterateSource.getBatchSize(stride);
+        // 订阅期间同步执行的迭代项运行在流程线程上，无需切换线程上下文。同步订阅返回后立即清空，线程归还线程池后再次在该线程上执行的迭代项仍需切换
+        AtomicReference<Thread> subscribeThread = new AtomicReference<>();
+        AtomicInteger count = new AtomicInteger();
+
+        // 迭代项（批）结果，left：迭代项数量，right：执行结果
+        Function<Object, Mono<ImmutablePair<Integer, Object>>> invokeItem = item -> {
+            int index = count.getAndIncrement();
+            @SuppressWarnings("unchecked")
+            IterDataItem<Object> iterDataItem = isOneStride ? new IterDataItem<>(false, item, Lists.newArrayList(), index, size)
+                    : new IterDataItem<>(true, null, (List<Object>) item, index, size);
+            int batchParamSize = isOneStride ? 1 : iterDataItem.getDataList().size();
+            // 后续迭代项在上一个 Mono 完成的线程上执行，需要切换线程上下文
+            boolean threadSwitch = subscribeThread.get() != Thread.currentThread();
+            Object r;
+            try {
+                if (threadSwitch) {
+                    engineModule.getThreadSwitchHookProcessor().usePreviousData(threadSwitchHookObjectMap, storyBus.getScopeDataOperator());
                 }
-                if (!isOneStride && (i + 1) < iteratorList.size()) {
-                    batchParamList = Lists.newArrayList();
+                InvokeMethodThreadLocal.whenServiceInvoke(flowRegister, taskServiceDef, serviceTask, storyBus.getBusinessId());
+                r = super.retryInvokeMethod(index == 0, elementIterable, iterDataItem, taskServiceDef, serviceTask, storyBus, role);
+            } finally {
+                InvokeMethodThreadLocal.clear();
+                if (threadSwitch) {
+                    engineModule.getThreadSwitchHookProcessor().clear(threadSwitchHookObjectMap, storyBus.getScopeDataOperator());
                 }
             }
-            if (methodWrapper.isMonoResult()) {
-                monoResultList.forEach(pair -> {
-                    Object res;
-                    try {
-                        Mono<?> r = pair.getLeft();
-                        Integer taskTimeout = getTaskTimeout(false, serviceTask, invokeProperties);
-                        try {
-                            res = r.block(Duration.ofMillis(taskTimeout == null ? storyBus.remainTimeMillis() : Math.min(taskTimeout, storyBus.remainTimeMillis())));
-                        } catch (Exception e) {
-                            monitorTracking.timeoutTaskTracking(serviceTask, taskTimeout);
-                            throw e;
-                        }
-                    } catch (Throwable e) {
-                        if (elementIterable.getIteStrategy() == IterateStrategyEnum.ALL_SUCCESS) {
-                            throw ExceptionUtil.buildException(e, ExceptionEnum.ITERATE_ITEM_ERROR, null);
-                        }
-                        if (BooleanUtils.isNotTrue(elementIterable.getIteAlignIndex())) {
-                            return;
-                        }
-                        if (isOneStride) {
-                            resultList.add(null);
-                        } else {
-                            resultList.addAll(IntStream.range(0, pair.getRight()).mapToObj(it -> null).collect(Collectors.toList()));
-                        }
-                        return;
+            if (r == INVOKE_ERROR_SIGN) {
+                return Mono.just(ImmutablePair.of(batchParamSize, INVOKE_ERROR_SIGN));
+            }
+            long remainTime = storyBus.remainTimeMillis();
+            Mono<?> itemMono = GlobalUtil.transferNotEmpty(r, Mono.class);
+            return itemMono.timeout(Duration.ofMillis(taskTimeout == null ? remainTime : Math.min(taskTimeout, remainTime)), engineModule.getTimer().getScheduler())
+                    .doOnError(TimeoutException.class, e -> {
+                        monitorTracking.timeoutTaskTracking(serviceTask, taskTimeout);
+                        circuitBreakerResult(getCircuitBreaker(serviceTask, taskServiceDef), serviceTask, false);
+                    })
+                    .map(v -> ImmutablePair.of(batchParamSize, (Object) v))
+                    .defaultIfEmpty(ImmutablePair.of(batchParamSize, null))
+                    .onErrorResume(e -> elementIterable.getIteStrategy() == IterateStrategyEnum.ALL_SUCCESS
+                            ? Mono.error(ExceptionUtil.buildException(e, ExceptionEnum.ITERATE_ITEM_ERROR, null)) : Mono.just(ImmutablePair.of(batchParamSize, INVOKE_ERROR_SIGN)));
+        };
+        Flux<Object> items = iterateSource.toFlux(stride);
+        Flux<ImmutablePair<Integer, Object>> itemResults = alignIndex ? items.flatMapSequential(invokeItem, concurrency) : items.flatMap(invokeItem, concurrency);
+        Mono<List<Object>> mergeResult;
+        if (anySuccess) {
+            mergeResult = itemResults.filter(pair -> pair.getRight() != INVOKE_ERROR_SIGN).next().map(pair -> {
+                List<Object> resultList = Lists.newArrayList();
+                if (pair.getRight() != null || alignIndex) {
+                    addSuccessResult(serviceTask, isOneStride, resultList, elementIterable, pair.getRight(), pair.getLeft());
+                }
+                return resultList;
+            }).defaultIfEmpty(Lists.newArrayList()).doFinally(s -> monitorTracking.iterateCountTracking(serviceTask, count.get(), stride));
+        } else {
+            mergeResult = itemResults.collectList().map(pairs -> {
+                List<Object> resultList = Lists.newArrayList();
+                pairs.forEach(pair -> {
+                    if (pair.getRight() != INVOKE_ERROR_SIGN) {
+                        addSuccessResult(serviceTask, isOneStride, resultList, elementIterable, pair.getRight(), pair.getLeft());
+                    } else if (alignIndex) {
+                        resultList.addAll(Collections.nCopies(pair.getLeft(), null));
                     }
-                    addSuccessResult(serviceTask, isOneStride, resultList, elementIterable, res, pair.getRight());
                 });
-            }
-            monitorTracking.iterateCountTracking(serviceTask, count, stride);
-            return resultList;
+                return resultList;
+            }).doFinally(s -> monitorTracking.iterateCountTracking(serviceTask, count.get(), stride));
         }
-        return asyncIterate(elementIterable, serviceTask, storyBus, role, taskServiceDef, methodWrapper, monitorTracking, iteratorList, stride, isOneStride);
+        return Mono.from(subscriber -> {
+            subscribeThread.set(Thread.currentThread());
+            try {
+                mergeResult.subscribe(subscriber);
+            } finally {
+                subscribeThread.set(null);
+            }
+        });
     }
 
-    private Object asyncIterate(ElementIterable elementIterable, ServiceTask serviceTask, StoryBus storyBus, Role role,
-                                TaskServiceDef taskServiceDef, MethodWrapper methodWrapper, MonitorTracking monitorTracking, List<Object> iteratorList, int stride, boolean isOneStride) {
-        List<Object> resultList = Lists.newArrayList();
+    private Object asyncIterate(ElementIterable elementIterable, ServiceTask serviceTask, StoryBus storyBus, Role role, TaskServiceDef taskServiceDef,
+                                MethodWrapper methodWrapper, MonitorTracking monitorTracking, IterateSource iterateSource, int stride, boolean isOneStride, int size) {
         InvokeProperties invokeProperties = methodWrapper.getInvokeProperties();
         ExecutorService executor = StringUtils.isBlank(invokeProperties.getCustomExecutorName())
                 ? engineModule.getIteratorThreadPool().getExecutorService() : engineModule.getApplicationContext().getBean(invokeProperties.getCustomExecutorName(), ExecutorService.class);
-        Map<CompletableFuture<Object>, Integer> batchParamSizeMap = Maps.newHashMap();
-        List<CompletableFuture<Object>> futureList = Lists.newArrayList();
-        if (isOneStride) {
-            for (int i = 0; i < iteratorList.size(); i++) {
-                int index = i;
-                Object next = iteratorList.get(index);
-                CompletableFuture<Object> f = CompletableFuture.supplyAsync(() -> {
-                    try {
-                        engineModule.getThreadSwitchHookProcessor().usePreviousData(threadSwitchHookObjectMap, storyBus.getScopeDataOperator());
-                        return super.retryInvokeMethod(index == 0, elementIterable, new IterDataItem<>(false, next, Lists.newArrayList(), index, iteratorList.size()), taskServiceDef, serviceTask, storyBus, role);
-                    } finally {
-                        InvokeMethodThreadLocal.clear();
-                        engineModule.getThreadSwitchHookProcessor().clear(threadSwitchHookObjectMap, storyBus.getScopeDataOperator());
-                    }
-                }, executor);
-                futureList.add(f);
-            }
-        } else {
-            List<List<Object>> partition = Lists.partition(iteratorList, stride);
-            for (int i = 0; i < partition.size(); i++) {
-                int index = i;
-                List<Object> next = partition.get(index);
-                CompletableFuture<Object> f = CompletableFuture.supplyAsync(() -> {
-                    try {
-                        engineModule.getThreadSwitchHookProcessor().usePreviousData(threadSwitchHookObjectMap, storyBus.getScopeDataOperator());
-                        return super.retryInvokeMethod(index == 0, elementIterable, new IterDataItem<>(true, null, next, index, partition.size()), taskServiceDef, serviceTask, storyBus, role);
-                    } finally {
-                        InvokeMethodThreadLocal.clear();
-                        engineModule.getThreadSwitchHookProcessor().clear(threadSwitchHookObjectMap, storyBus.getScopeDataOperator());
-                    }
-                }, executor);
-                futureList.add(f);
-                batchParamSizeMap.put(f, next.size());
+        int concurrency = getIterateConcurrency(elementIterable, executor, size);
+        boolean anySuccess = elementIterable.getIteStrategy() == IterateStrategyEnum.ANY_SUCCESS;
+
+        // 迭代项（批）在有空闲并发时才从数据源拉取，按完成顺序处理，结果按下标存放，顺序与迭代顺序保持一致
+        List<Object> results = Lists.newArrayList();
+        List<Integer> batchParamSizeList = Lists.newArrayList();
+        BlockingQueue<IterateItemTask> completedQueue = new LinkedBlockingQueue<>();
+        Set<IterateItemTask> runningSet = Sets.newHashSetWithExpectedSize(concurrency);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(storyBus.remainTimeMillis());
+        int successIndex = -1;
+        try {
+            while (true) {
+                while (runningSet.size() < concurrency && iterateSource.hasNext()) {
+                    int index = results.size();
+                    List<Object> batchParamList = isOneStride ? null : iterateSource.nextBatch(stride);
+                    IterDataItem<Object> iterDataItem = isOneStride ? new IterDataItem<>(false, iterateSource.next(), Lists.newArrayList(), index, size)
+                            : new IterDataItem<>(true, null, batchParamList, index, size);
+                    results.add(INVOKE_ERROR_SIGN);
+                    batchParamSizeList.add(isOneStride ? 1 : batchParamList.size());
+                    // 迭代项被取消（ANY_SUCCESS 已命中、超时等）后中断重试，避免被取消的迭代项继续调用目标方法并计入熔断
+                    AtomicReference<IterateItemTask> itemTaskRef = new AtomicReference<>();
+                    IterateItemTask itemTask = new IterateItemTask(index, completedQueue, () -> {
+                        try {
+                            engineModule.getThreadSwitchHookProcessor().usePreviousData(threadSwitchHookObjectMap, storyBus.getScopeDataOperator());
+                            return super.retryInvokeMethod(index == 0, elementIterable, iterDataItem, taskServiceDef, serviceTask, storyBus, role,
+                                    () -> itemTaskRef.get().isCancelled() || Thread.currentThread().isInterrupted());
+                        } finally {
+                            InvokeMethodThreadLocal.clear();
+                            engineModule.getThreadSwitchHookProcessor().clear(threadSwitchHookObjectMap, storyBus.getScopeDataOperator());
+                        }
+                    });
+                    itemTaskRef.set(itemTask);
+                    runningSet.add(itemTask);
+                    executor.execute(itemTask);
+                }
+                if (runningSet.isEmpty()) {
+                    break;
+                }
+                // 片段线程在此阻塞等待迭代项完成，与改造前等待 Future 的行为一致，是有意保留的：迭代项在迭代线程池中执行，
+                // 各迭代项自身的方法超时仍由时间轮控制，不额外占用线程。需要不阻塞片段线程时，目标方法可以返回 Mono 走合并迭代
+                long remain = deadline - System.nanoTime();
+                IterateItemTask itemTask = remain > 0 ? completedQueue.poll(remain, TimeUnit.NANOSECONDS) : null;
+                if (itemTask == null) {
+                    throw ExceptionUtil.buildException(new TimeoutException(GlobalUtil.format("Iterate task execution timeout! identity: {}", serviceTask.identity())),
+                            ExceptionEnum.ITERATE_ITEM_ERROR, null);
+                }
+                runningSet.remove(itemTask);
+                Object ro;
+                try {
+                    ro = itemTask.get();
+                } catch (Throwable e) {
+                    // ALL_SUCCESS 策略下迭代项执行失败，在 finally 中取消其余未完成的迭代项
+                    throw ExceptionUtil.buildException(e, ExceptionEnum.ITERATE_ITEM_ERROR, null);
+                }
+                results.set(itemTask.index, ro);
+                if (anySuccess && ro != INVOKE_ERROR_SIGN) {
+                    successIndex = itemTask.index;
+                    break;
+                }
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw ExceptionUtil.buildException(e, ExceptionEnum.ITERATE_ITEM_ERROR, null);
+        } finally {
+            runningSet.forEach(t -> t.cancel(true));
+            monitorTracking.iterateCountTracking(serviceTask, results.size(), stride);
         }
-        monitorTracking.iterateCountTracking(serviceTask, futureList.size(), stride);
-        futureList.forEach(f -> {
-            Object ro;
-            try {
-                ro = f.get(storyBus.remainTimeMillis(), TimeUnit.MILLISECONDS);
-            } catch (Throwable e) {
-                throw ExceptionUtil.buildException(e, ExceptionEnum.ITERATE_ITEM_ERROR, null);
-            }
-            Integer batchParamSize = batchParamSizeMap.get(f);
-            AssertUtil.isTrue(isOneStride || batchParamSize != null);
+
+        List<Object> resultList = Lists.newArrayList();
+        int resultSize = anySuccess && successIndex >= 0 ? successIndex + 1 : results.size();
+        for (int i = 0; i < resultSize; i++) {
+            int batchParamSize = batchParamSizeList.get(i);
+            Object ro = results.get(i);
             if (ro == INVOKE_ERROR_SIGN) {
-                if (BooleanUtils.isNotTrue(elementIterable.getIteAlignIndex())) {
-                    return;
-                }
-                if (isOneStride) {
-                    resultList.add(null);
-                } else {
-                    assert batchParamSize != null;
-                    resultList.addAll(IntStream.range(0, batchParamSize).mapToObj(it -> null).collect(Collectors.toList()));
+                if (BooleanUtils.isTrue(elementIterable.getIteAlignIndex())) {
+                    resultList.addAll(Collections.nCopies(batchParamSize, null));
                 }
-                return;
+                continue;
+            }
+            if (ro == null && anySuccess && BooleanUtils.isNotTrue(elementIterable.getIteAlignIndex())) {
+                continue;
             }
             addSuccessResult(serviceTask, isOneStride, resultList, elementIterable, ro, batchParamSize);
-        });
+        }
         return resultList;
     }
 
+    /**
+     * 获取异步迭代的并发数，未指定时以执行器的最大线程数为上限
+     */
+    private int getIterateConcurrency(ElementIterable elementIterable, ExecutorService executor, int size) {
+        int concurrency = Optional.ofNullable(elementIterable.getConcurrency()).filter(c -> c > 0)
+                .orElseGet(() -> executor instanceof ThreadPoolExecutor ? ((ThreadPoolExecutor) executor).getMaximumPoolSize()
+                        : (size == IterateSource.UNKNOWN_SIZE ? Runtime.getRuntime().availableProcessors() : size));
+        return Math.max(1, size == IterateSource.UNKNOWN_SIZE ? concurrency : Math.min(concurrency, size));
+    }
+
     protected List<Object> getIteratorList(FlowElement serviceTask, StoryBus storyBus, ElementIterable elementIterable) {
-        MonitorTracking monitorTracking = storyBus.getMonitorTracking();
+        Optional<IterateSource> iterateSourceOptional = getIterateSource(serviceTask, storyBus, elementIterable, 1, false);
+        if (!iterateSourceOptional.isPresent()) {
+            return null;
+        }
+        try (IterateSource iterateSource = iterateSourceOptional.get()) {
+            List<Object> iteratorList = Lists.newArrayList();
+            while (iterateSource.hasNext()) {
+                iteratorList.add(iterateSource.next());
+            }
+            return iteratorList;
+        }
+    }
+
+    /**
+     * 获取迭代数据源，仅在从 StoryBus 中获取数据源时持有读锁，Iterable 在持有读锁时复制快照，一次性数据源的迭代项在遍历时按需拉取
+     *
+     * @param reactive 是否以响应式的方式消费数据源，此时不为判断是否为空而提前订阅 Flux
+     */
+    private Optional<IterateSource> getIterateSource(FlowElement serviceTask, StoryBus storyBus, ElementIterable elementIterable, int stride, boolean reactive) {
         ReentrantReadWriteLock.ReadLock readLock = storyBus.getScopeDataOperator().readLock();
+        Optional<IterateSource> iterateSourceOptional;
         readLock.lock();
         try {
-            Optional<Object> iteData = storyBus.getScopeDataOperator().getData(elementIterable.getIteSource()).map(d -> {
-                if (!d.getClass().isArray()) {
-                    return d;
-                }
-                int arrLength = Array.getLength(d);
-                if (arrLength == 0) {
-                    return null;
-                }
-                Object[] dArray = new Object[arrLength];
-                for (int i = 0; i < arrLength; i++) {
-                    dArray[i] = Array.get(d, i);
-                }
-                return Stream.of(dArray).collect(Collectors.toList());
-            }).filter(d -> d instanceof Iterable);
-            if (!iteData.isPresent()) {
-                monitorTracking.iterateCountTracking(serviceTask, 0, 0);
-                LOGGER.info("[{}] {} identity: {}, source: {}", ExceptionEnum.ITERATE_ITEM_ERROR.getExceptionCode(),
-                        "Get the target collection is empty, the component will not perform traversal execution!", serviceTask.identity(), elementIterable.getIteSource());
-                return null;
-            }
-            Iterator<?> iterator = GlobalUtil.transferNotEmpty(iteData.get(), Iterable.class).iterator();
-            if (!iterator.hasNext()) {
-                monitorTracking.iterateCountTracking(serviceTask, 0, 0);
-                LOGGER.info("[{}] {} identity: {}, source: {}", ExceptionEnum.ITERATE_ITEM_ERROR.getExceptionCode(),
-                        "Get the target collection is empty, the component will not perform traversal execution!", serviceTask.identity(), elementIterable.getIteSource());
-                return null;
-            }
-            List<Object> iteratorList = Lists.newArrayList();
-            iterator.forEachRemaining(iteratorList::add);
-            return iteratorList;
+            iterateSourceOptional = storyBus.getScopeDataOperator().getData(elementIterable.getIteSource())
+                    .flatMap(d -> IterateSource.of(d, stride, storyBus.remainTimeMillis()));
         } finally {
             readLock.unlock();
         }
+        if (!iterateSourceOptional.isPresent() || !(reactive && iterateSourceOptional.get().isPendingFlux()) && !iterateSourceOptional.get().hasNext()) {
+            iterateSourceOptional.ifPresent(IterateSource::close);
+            storyBus.getMonitorTracking().iterateCountTracking(serviceTask, 0, 0);
+            LOGGER.info("[{}] {} identity: {}, source: {}", ExceptionEnum.ITERATE_ITEM_ERROR.getExceptionCode(),
+                    "Get the target collection is empty, the component will not perform traversal execution!", serviceTask.identity(), elementIterable.getIteSource());
+            return Optional.empty();
+        }
+        return iterateSourceOptional;
     }
 
     private void addSuccessResult(ServiceTask serviceTask, boolean isOneStride, List<Object> resultList, ElementIterable elementIterable, Object ro, Integer batchParamSize) {
@@ -678,4 +978,25 @@ public abstract class FlowTaskCore<T> extends BasicTaskCore<T> {
         iterable.mergeProperty(elementIterable);
         return iterable;
     }
+
+    /**
+     * 异步迭代项，执行结束后放入完成队列，由流程片段线程按完成顺序处理
+     */
+    private static class IterateItemTask extends FutureTask<Object> {
+
+        private final int index;
+
+        private final BlockingQueue<IterateItemTask> completedQueue;
+
+        private IterateItemTask(int index, BlockingQueue<IterateItemTask> completedQueue, Callable<Object> callable) {
+            super(callable);
+            this.index = index;
+            this.completedQueue = completedQueue;
+        }
+
+        @Override
+        protected void done() {
+            completedQueue.offer(this);
+        }
+    }
 }
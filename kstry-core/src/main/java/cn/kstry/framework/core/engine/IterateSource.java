@@ -0,0 +1,262 @@
+/*
+ *
+ *  * Copyright (c) 2020-2024, Lykan (jiashuomeng@gmail.com).
+ *  * <p>
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  * <p>
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  * <p>
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+package cn.kstry.framework.core.engine;
+
+import cn.kstry.framework.core.exception.ExceptionEnum;
+import cn.kstry.framework.core.util.AssertUtil;
+import com.google.common.collect.Lists;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.concurrent.Queues;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.IntFunction;
+import java.util.stream.BaseStream;
+
+/**
+ * 迭代数据源
+ * <p>
+ * 支持数组、Iterable、Iterator、Stream、Spliterator、Flux。数组按下标直接遍历，不复制。Iterable 在创建时复制快照，需在持有 StoryBus 读锁时创建，
+ * 避免遍历期间集合被并发修改。Iterator、Stream、Spliterator、Flux 只能被消费一次，按需从数据源中拉取迭代项
+ *
+ * @author lykan
+ */
+final class IterateSource implements AutoCloseable {
+
+    /**
+     * 数据源大小未知
+     */
+    static final int UNKNOWN_SIZE = -1;
+
+    private final int size;
+
+    private final Flux<?> flux;
+
+    private final int prefetch;
+
+    private Iterator<?> iterator;
+
+    private BaseStream<?, ?> stream;
+
+    private IterateSource(Iterator<?> iterator, int size, BaseStream<?, ?> stream) {
+        this.iterator = iterator;
+        this.size = size;
+        this.stream = stream;
+        this.flux = null;
+        this.prefetch = 0;
+    }
+
+    private IterateSource(Flux<?> flux, int prefetch) {
+        this.size = UNKNOWN_SIZE;
+        this.flux = flux;
+        this.prefetch = prefetch;
+    }
+
+    /**
+     * 包装迭代数据源，Iterable 会被复制快照
+     *
+     * @param source 数据源
+     * @param stride 迭代步长，决定 Flux 每次向上游请求的元素数量
+     * @param timeout Flux 数据源等待下一个元素的最长时间，单位：ms
+     * @return 不支持的数据源类型返回空
+     */
+    static Optional<IterateSource> of(Object source, int stride, long timeout) {
+        if (source == null) {
+            return Optional.empty();
+        }
+        if (source.getClass().isArray()) {
+            return Optional.of(ofArray(source));
+        }
+        if (source instanceof Iterable) {
+            List<?> snapshot = Lists.newArrayList((Iterable<?>) source);
+            return Optional.of(new IterateSource(snapshot.iterator(), snapshot.size(), null));
+        }
+        if (source instanceof Iterator) {
+            return Optional.of(new IterateSource((Iterator<?>) source, UNKNOWN_SIZE, null));
+        }
+        if (source instanceof Spliterator) {
+            return Optional.of(ofSpliterator((Spliterator<?>) source, null));
+        }
+        if (source instanceof BaseStream) {
+            BaseStream<?, ?> baseStream = (BaseStream<?, ?>) source;
+            return Optional.of(ofSpliterator(baseStream.spliterator(), baseStream));
+        }
+        if (source instanceof Flux) {
+            return Optional.of(new IterateSource(((Flux<?>) source).timeout(Duration.ofMillis(Math.max(timeout, 1))), Math.max(stride, Queues.XS_BUFFER_SIZE)));
+        }
+        return Optional.empty();
+    }
+
+    private static IterateSource ofArray(Object array) {
+        IntFunction<Object> getter;
+        int length;
+        if (array instanceof Object[]) {
+            Object[] a = (Object[]) array;
+            getter = i -> a[i];
+            length = a.length;
+        } else if (array instanceof int[]) {
+            int[] a = (int[]) array;
+            getter = i -> a[i];
+            length = a.length;
+        } else if (array instanceof long[]) {
+            long[] a = (long[]) array;
+            getter = i -> a[i];
+            length = a.length;
+        } else if (array instanceof double[]) {
+            double[] a = (double[]) array;
+            getter = i -> a[i];
+            length = a.length;
+        } else if (array instanceof float[]) {
+            float[] a = (float[]) array;
+            getter = i -> a[i];
+            length = a.length;
+        } else if (array instanceof short[]) {
+            short[] a = (short[]) array;
+            getter = i -> a[i];
+            length = a.length;
+        } else if (array instanceof byte[]) {
+            byte[] a = (byte[]) array;
+            getter = i -> a[i];
+            length = a.length;
+        } else if (array instanceof char[]) {
+            char[] a = (char[]) array;
+            getter = i -> a[i];
+            length = a.length;
+        } else {
+            boolean[] a = (boolean[]) array;
+            getter = i -> a[i];
+            length = a.length;
+        }
+        return new IterateSource(new ArrayIterator(getter, length), length, null);
+    }
+
+    private static IterateSource ofSpliterator(Spliterator<?> spliterator, BaseStream<?, ?> stream) {
+        long exactSize = spliterator.getExactSizeIfKnown();
+        int size = exactSize < 0 || exactSize > Integer.MAX_VALUE ? UNKNOWN_SIZE : (int) exactSize;
+        return new IterateSource(Spliterators.iterator(spliterator), size, stream);
+    }
+
+    boolean hasNext() {
+        return iterator().hasNext();
+    }
+
+    Object next() {
+        return iterator().next();
+    }
+
+    /**
+     * 数据源是否为尚未开始拉取的 Flux，判断其是否为空需要订阅上游
+     */
+    boolean isPendingFlux() {
+        return flux != null && iterator == null;
+    }
+
+    /**
+     * 以 Flux 的形式拉取剩余迭代项，Flux 终止时关闭数据源
+     *
+     * @param stride 步长，大于1时每个元素为一批迭代项组成的 List
+     * @return 迭代项（批）
+     */
+    @SuppressWarnings("unchecked")
+    Flux<Object> toFlux(int stride) {
+        Flux<Object> items = isPendingFlux() ? (Flux<Object>) flux : Flux.fromIterable(() -> (Iterator<Object>) iterator());
+        if (stride > 1) {
+            items = items.buffer(stride).map(batch -> batch);
+        }
+        return items.doFinally(s -> close());
+    }
+
+    /**
+     * 拉取下一批迭代项
+     *
+     * @param stride 步长
+     * @return 不超过步长数量的迭代项
+     */
+    List<Object> nextBatch(int stride) {
+        List<Object> batch = Lists.newArrayListWithCapacity(size == UNKNOWN_SIZE ? stride : Math.min(stride, size));
+        while (batch.size() < stride && hasNext()) {
+            batch.add(next());
+        }
+        return batch;
+    }
+
+    /**
+     * 按步长划分后的迭代批次数
+     *
+     * @param stride 步长
+     * @return 数据源大小未知时返回 UNKNOWN_SIZE
+     */
+    int getBatchSize(int stride) {
+        if (size == UNKNOWN_SIZE) {
+            return UNKNOWN_SIZE;
+        }
+        return size / stride + (size % stride == 0 ? 0 : 1);
+    }
+
+    private Iterator<?> iterator() {
+        if (iterator == null) {
+            // Reactor 非阻塞线程中不允许阻塞式遍历 Flux，需要同步迭代 Flux 的服务节点已在进入迭代前转移到可阻塞的线程中执行
+            AssertUtil.notTrue(Schedulers.isInNonBlockingThread(), ExceptionEnum.ITERATE_ITEM_ERROR,
+                    "Flux iteration source cannot be pulled in a non-blocking thread! threadName: {}", Thread.currentThread().getName());
+            // 关闭 Stream 时取消对 Flux 的订阅，迭代提前结束时不再继续拉取上游数据
+            stream = flux.toStream(prefetch);
+            iterator = stream.iterator();
+        }
+        return iterator;
+    }
+
+    @Override
+    public void close() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private static class ArrayIterator implements Iterator<Object> {
+
+        private final IntFunction<Object> getter;
+
+        private final int length;
+
+        private int cursor;
+
+        ArrayIterator(IntFunction<Object> getter, int length) {
+            this.getter = getter;
+            this.length = length;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return cursor < length;
+        }
+
+        @Override
+        public Object next() {
+            if (cursor >= length) {
+                throw new NoSuchElementException();
+            }
+            return getter.apply(cursor++);
+        }
+    }
+}
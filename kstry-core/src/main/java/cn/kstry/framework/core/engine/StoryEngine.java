@@ -56,6 +56,7 @@ import reactor.core.publisher.Mono;
 
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -95,14 +96,10 @@ public class StoryEngine {
             return doFire(storyRequest, scopeDataQuery);
         } catch (KstryException exception) {
             exception.log(e -> LOGGER.warn(e.getMessage(), e));
-            TaskResponse<T> errorResponse = TaskResponseBox.buildError(exception.getErrorCode(), exception.getMessage());
-            GlobalUtil.transferNotEmpty(errorResponse, TaskResponseBox.class).setResultException(exception);
-            return errorResponse;
+            return buildErrorResponse(exception);
         } catch (Throwable exception) {
-            TaskResponse<T> errorResponse = TaskResponseBox.buildError(ExceptionEnum.SYSTEM_ERROR.getExceptionCode(), ExceptionEnum.SYSTEM_ERROR.getDesc());
-            GlobalUtil.transferNotEmpty(errorResponse, TaskResponseBox.class).setResultException(exception);
             LOGGER.warn(exception.getMessage(), exception);
-            return errorResponse;
+            return buildErrorResponse(exception);
         } finally {
             GlobalUtil.traceIdClear(oldRequestId, requestLogIdKey);
         }
@@ -114,11 +111,20 @@ public class StoryEngine {
         FlowRegister flowRegister = getFlowRegister(storyRequest, scopeDataQuery);
         BasicStoryBus storyBus = getStoryBus(storyRequest, flowRegister, role);
         FlowTask flowTask = new FlowTask(storyEngineModule, flowRegister, role, storyBus);
-        AdminFuture adminFuture = storyEngineModule.getTaskThreadPool().submitAdminTask(storyBus.getStoryExecutor(), flowTask);
+        int timeout = storyRequest.getTimeout();
+        boolean callerRuns = storyRequest.isCallerRuns();
+        long startNanos = System.nanoTime();
+        AdminFuture adminFuture = callerRuns ? storyEngineModule.getTaskThreadPool().runAdminTask(flowTask, storyEngineModule.getTimer(), timeout)
+                : storyEngineModule.getTaskThreadPool().submitAdminTask(storyBus.getStoryExecutor(), flowTask);
         try {
-            int timeout = storyRequest.getTimeout();
             FlowFuture flowFuture = GlobalUtil.transferNotEmpty(adminFuture.getMainTaskFuture(), FlowFuture.class);
-            boolean await = flowFuture.await(timeout, TimeUnit.MILLISECONDS);
+
+            // 调用线程直接执行时，主流程已经执行结束，只需在剩余时间内等待异步分支完成。已完成时无论剩余时间多少均不视为超时
+            long awaitTime = timeout;
+            if (callerRuns) {
+                awaitTime -= TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            }
+            boolean await = flowFuture.isDone() || (awaitTime > 0 && flowFuture.await(awaitTime, TimeUnit.MILLISECONDS));
             if (!await) {
                 throw new TimeoutException(GlobalUtil.format("[{}] Target story execution timeout! maximum time limit: {}ms", ExceptionEnum.ASYNC_TASK_TIMEOUT.getExceptionCode(), timeout));
             }
@@ -138,6 +144,10 @@ public class StoryEngine {
             Optional.ofNullable(storyRequest.getRecallStoryHook()).ifPresent(c -> c.accept(new RecallStory(storyBus)));
             return TaskResponseBox.buildSuccess((T) result);
         } catch (Throwable exception) {
+            if (exception instanceof InterruptedException) {
+                // 等待结果期间调用线程被中断，恢复中断标记，交由调用方处理
+                Thread.currentThread().interrupt();
+            }
             adminFuture.cancel(flowRegister.getStartEventId());
             Optional.ofNullable(storyRequest.getRecallStoryHook()).ifPresent(c -> c.accept(new RecallStory(exception, storyBus)));
             throw exception;
@@ -162,6 +172,23 @@ public class StoryEngine {
         }
     }
 
+    /**
+     * 非阻塞执行，返回 CompletableFuture。流程结束时由任务完成回调触发结果，超时由共享的定时器控制，等待期间不占用任何线程
+     * 执行失败时与 fire 保持一致，以失败的 TaskResponse 正常完成 CompletableFuture
+     *
+     * @param storyRequest 请求
+     * @return CompletableFuture
+     */
+    public <T> CompletableFuture<TaskResponse<T>> fireFuture(StoryRequest<T> storyRequest) {
+        CompletableFuture<TaskResponse<T>> resultFuture = new CompletableFuture<>();
+        fireAsync(storyRequest).subscribe(
+                result -> resultFuture.complete(TaskResponseBox.buildSuccess(result)),
+                exception -> resultFuture.complete(buildErrorResponse(exception)),
+                () -> resultFuture.complete(TaskResponseBox.buildSuccess(null))
+        );
+        return resultFuture;
+    }
+
     @SuppressWarnings("unchecked")
     public <T> Optional<T> serialize(StoryRequest<?> storyRequest) {
         if (storyRequest == null) {
@@ -223,6 +250,18 @@ public class StoryEngine {
         });
     }
 
+    private <T> TaskResponse<T> buildErrorResponse(Throwable exception) {
+        TaskResponse<T> errorResponse;
+        if (exception instanceof KstryException) {
+            KstryException kstryException = GlobalUtil.transferNotEmpty(exception, KstryException.class);
+            errorResponse = TaskResponseBox.buildError(kstryException.getErrorCode(), kstryException.getMessage());
+        } else {
+            errorResponse = TaskResponseBox.buildError(ExceptionEnum.SYSTEM_ERROR.getExceptionCode(), ExceptionEnum.SYSTEM_ERROR.getDesc());
+        }
+        GlobalUtil.transferNotEmpty(errorResponse, TaskResponseBox.class).setResultException(exception);
+        return errorResponse;
+    }
+
     private <T> FlowRegister getFlowRegister(StoryRequest<T> storyRequest, ScopeDataQuery scopeDataQuery) {
         String startId = storyRequest.getStartId();
         AssertUtil.notBlank(startId, ExceptionEnum.PARAMS_ERROR, "StartId is not allowed to be empty!");
@@ -246,8 +285,12 @@ public class StoryEngine {
         Class<?> returnType = storyRequest.getReturnType();
         TypeConverterProcessor typeConverterProcessor = storyEngineModule.getTypeConverterProcessor();
         MonitorTracking monitorTracking = flowRegister.getMonitorTracking();
-        return new OperatorStoryBus(typeConverterProcessor, returnType, storyRequest.getTimeout(), storyRequest.getStoryExecutor(),
+        OperatorStoryBus storyBus = new OperatorStoryBus(typeConverterProcessor, returnType, storyRequest.getTimeout(), storyRequest.getStoryExecutor(),
                 storyRequest.getRequestId(), storyRequest.getStartId(), businessId, role, monitorTracking, storyRequest.getRequest(), varScopeData, staScopeData);
+        storyBus.setContinuationPolicy(storyRequest.getContinuationPolicy());
+        storyBus.setMethodTimeoutMode(storyRequest.getMethodTimeoutMode());
+        storyBus.setSubProcessInline(storyRequest.getSubProcessInline());
+        return storyBus;
     }
 
     @SuppressWarnings("unchecked")
@@ -19,7 +19,9 @@ package cn.kstry.framework.core.engine;
 
 import cn.kstry.framework.core.component.bpmn.SerializeProcessParser;
 import cn.kstry.framework.core.component.conversion.TypeConverterProcessor;
+import cn.kstry.framework.core.component.breaker.CircuitBreakerComponent;
 import cn.kstry.framework.core.component.limiter.RateLimiterComponent;
+import cn.kstry.framework.core.constant.GlobalConstant;
 import cn.kstry.framework.core.container.component.ParamInjectDef;
 import cn.kstry.framework.core.container.component.TaskContainer;
 import cn.kstry.framework.core.container.element.StartEventContainer;
@@ -27,11 +29,14 @@ import cn.kstry.framework.core.engine.interceptor.SubProcessInterceptorRepositor
 import cn.kstry.framework.core.engine.interceptor.TaskInterceptorRepository;
 import cn.kstry.framework.core.engine.thread.TaskServiceExecutor;
 import cn.kstry.framework.core.engine.thread.hook.ThreadSwitchHookProcessor;
+import cn.kstry.framework.core.engine.timer.HashedWheelTimer;
 import cn.kstry.framework.core.enums.ExecutorType;
 import cn.kstry.framework.core.exception.ExceptionEnum;
 import cn.kstry.framework.core.monitor.SerializeTracking;
 import cn.kstry.framework.core.util.AssertUtil;
 import org.springframework.context.ApplicationContext;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
 import java.util.List;
 import java.util.function.Function;
@@ -108,12 +113,27 @@ public class StoryEngineModule {
 
     private final RateLimiterComponent rateLimiterComponent;
 
+    /**
+     * 服务节点熔断器管理
+     */
+    private final CircuitBreakerComponent circuitBreakerComponent;
+
+    /**
+     * 引擎共用的定时器，负责流程、任务、迭代等超时控制
+     */
+    private final HashedWheelTimer timer;
+
+    /**
+     * Mono 结果产生后，延续策略为 SCHEDULER 时使用的 Scheduler，首次使用时按 Bean 名字加载
+     */
+    private volatile Scheduler continuationScheduler;
+
     public StoryEngineModule(List<TaskServiceExecutor> taskServiceExecutors, StartEventContainer startEventContainer, TaskContainer taskContainer,
                              Function<ParamInjectDef, Object> paramInitStrategy, SubProcessInterceptorRepository subInterceptorRepository,
                              TaskInterceptorRepository taskInterceptorRepository, ThreadSwitchHookProcessor threadSwitchHookProcessor, ApplicationContext applicationContext,
                              SerializeProcessParser<?> serializeProcessParser, SerializeTracking serializeTracking, TypeConverterProcessor typeConverterProcessor,
-                             RateLimiterComponent rateLimiterComponent) {
-        AssertUtil.anyNotNull(taskServiceExecutors, taskContainer, paramInitStrategy, startEventContainer);
+                             RateLimiterComponent rateLimiterComponent, CircuitBreakerComponent circuitBreakerComponent, HashedWheelTimer timer) {
+        AssertUtil.anyNotNull(taskServiceExecutors, taskContainer, paramInitStrategy, startEventContainer, circuitBreakerComponent, timer);
 
         List<TaskServiceExecutor> methodThreadPoolList = taskServiceExecutors.stream().filter(s -> s.getExecutorType() == ExecutorType.METHOD).collect(Collectors.toList());
         List<TaskServiceExecutor> taskThreadPoolList = taskServiceExecutors.stream().filter(s -> s.getExecutorType() == ExecutorType.TASK).collect(Collectors.toList());
@@ -135,6 +155,8 @@ public class StoryEngineModule {
         this.serializeTracking = serializeTracking;
         this.typeConverterProcessor = typeConverterProcessor;
         this.rateLimiterComponent = rateLimiterComponent;
+        this.circuitBreakerComponent = circuitBreakerComponent;
+        this.timer = timer;
     }
 
     public TaskServiceExecutor getTaskThreadPool() {
@@ -189,7 +211,27 @@ public class StoryEngineModule {
         return typeConverterProcessor;
     }
 
+    public Scheduler getContinuationScheduler() {
+        if (continuationScheduler == null) {
+            synchronized (this) {
+                if (continuationScheduler == null) {
+                    continuationScheduler = applicationContext != null && applicationContext.containsBean(GlobalConstant.CONTINUATION_SCHEDULER_BEAN_NAME)
+                            ? applicationContext.getBean(GlobalConstant.CONTINUATION_SCHEDULER_BEAN_NAME, Scheduler.class) : Schedulers.boundedElastic();
+                }
+            }
+        }
+        return continuationScheduler;
+    }
+
     public RateLimiterComponent getRateLimiterComponent() {
         return rateLimiterComponent;
     }
+
+    public CircuitBreakerComponent getCircuitBreakerComponent() {
+        return circuitBreakerComponent;
+    }
+
+    public HashedWheelTimer getTimer() {
+        return timer;
+    }
 }
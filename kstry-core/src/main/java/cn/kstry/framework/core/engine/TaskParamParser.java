@@ -26,6 +26,7 @@ import cn.kstry.framework.core.constant.GlobalProperties;
 import cn.kstry.framework.core.container.component.MethodWrapper;
 import cn.kstry.framework.core.container.component.ParamInjectDef;
 import cn.kstry.framework.core.container.component.TaskInstructWrapper;
+import cn.kstry.framework.core.enums.ParamInjectType;
 import cn.kstry.framework.core.enums.ScopeTypeEnum;
 import cn.kstry.framework.core.exception.ExceptionEnum;
 import cn.kstry.framework.core.monitor.MonitorTracking;
@@ -68,9 +69,10 @@ public class TaskParamParser {
     public Object[] parseParams(boolean tracking, IterDataItem<?> iterDataItem, ServiceTask serviceTask,
                                 StoryBus storyBus, Role role, MethodWrapper methodWrapper, List<ParamInjectDef> paramInjectDefs) {
         TaskInstructWrapper taskInstructWrapper = methodWrapper.getTaskInstructWrapper().orElse(null);
-        Object[] params = getTaskParams(methodWrapper.isCustomRole(), tracking, serviceTask, storyBus, role, taskInstructWrapper, paramInjectDefs, iterDataItem);
+        MonitorTracking monitorTracking = tracking ? storyBus.getMonitorTracking() : null;
+        Object[] params = getTaskParams(monitorTracking, serviceTask, storyBus, role, taskInstructWrapper, methodWrapper.getParamInjectPlan(), paramInjectDefs, iterDataItem);
         fillTaskParams(tracking, storyBus, serviceTask, params, serviceTask.getTaskParamWrapper(), paramInjectDefs, storyBus.getScopeDataOperator());
-        if (ArrayUtils.isEmpty(params)) {
+        if (ArrayUtils.isEmpty(params) || !methodWrapper.hasLifecycleParam()) {
             return params;
         }
 
@@ -83,17 +85,13 @@ public class TaskParamParser {
     }
 
     /**
-     * 获取目标方法入参
+     * 获取目标方法入参，按照 MethodWrapper 解析时确定的注入计划逐个注入
      */
-    private Object[] getTaskParams(boolean isCustomRole, boolean tracking, ServiceTask serviceTask, StoryBus storyBus, Role role,
-                                   TaskInstructWrapper taskInstructWrapper, List<ParamInjectDef> paramInjectDefs, IterDataItem<?> iterDataItem) {
+    private Object[] getTaskParams(MonitorTracking monitorTracking, ServiceTask serviceTask, StoryBus storyBus, Role role,
+                                   TaskInstructWrapper taskInstructWrapper, ParamInjectType[] injectPlan, List<ParamInjectDef> paramInjectDefs, IterDataItem<?> iterDataItem) {
         AssertUtil.notNull(serviceTask);
-        Optional<MonitorTracking> trackingOptional = Optional.of(storyBus.getMonitorTracking()).filter(t -> tracking);
         Object[] params = new Object[paramInjectDefs.size()];
-        for (int i = 0; i < paramInjectDefs.size(); i++) {
-
-            // 默认 null
-            params[i] = null;
+        for (int i = 0; i < params.length; i++) {
 
             // 没有参数定义时，取默认值
             ParamInjectDef iDef = paramInjectDefs.get(i);
@@ -106,137 +104,149 @@ public class TaskParamParser {
             if (isPrimitive) {
                 params[i] = ElementParserUtil.initPrimitive(iDef.getParamType());
             }
-            if (iDef.notNeedInject()) {
-                // 非注解参数？尝试字段名读取
-                if(StringUtils.isBlank(iDef.getTargetName()) && !iDef.getFieldName().startsWith("arg")){
+            switch (injectPlan[i]) {
+                case FIELD_NAME:
+                    // 非注解参数？尝试字段名读取
                     Object r = storyBus.getValue(ScopeTypeEnum.VARIABLE, iDef.getFieldName()).orElse(
                             storyBus.getValue(ScopeTypeEnum.STABLE, iDef.getFieldName()).orElse(null));
-                    if(r!=null && r!= PropertyUtil.GET_PROPERTY_ERROR_SIGN){
+                    if (r != null && r != PropertyUtil.GET_PROPERTY_ERROR_SIGN) {
                         params[i] = r;
                     }
-                }
-                continue;
-            }
-
-            // 如果拿入参的 request 参数，直接赋值
-            if (iDef.getScopeDataEnum() == ScopeTypeEnum.REQUEST && iDef.isInjectSelf()) {
-                Object actualReq = storyBus.isSetReqScope() ? storyBus.getReq() : params[i];
-                params[i] = actualReq;
-                trackingOptional.ifPresent(mt -> mt.trackingNodeParams(serviceTask, () -> ParamTracking.build(iDef.getFieldName(),
-                        ScopeTypeEnum.REQUEST.name().toLowerCase(), ScopeTypeEnum.REQUEST, actualReq, GlobalUtil.resOptional(actualReq).map(Object::getClass).orElse(null), null)
-                ));
-                continue;
+                    break;
+                case REQUEST_SELF:
+                    // 如果拿入参的 request 参数，直接赋值
+                    Object actualReq = storyBus.isSetReqScope() ? storyBus.getReq() : params[i];
+                    params[i] = actualReq;
+                    if (monitorTracking != null) {
+                        monitorTracking.trackingNodeParams(serviceTask, () -> ParamTracking.build(iDef.getFieldName(),
+                                ScopeTypeEnum.REQUEST.name().toLowerCase(), ScopeTypeEnum.REQUEST, actualReq, GlobalUtil.resOptional(actualReq).map(Object::getClass).orElse(null), null)
+                        );
+                    }
+                    break;
+                case INSTRUCT_CONTENT:
+                    if (taskInstructWrapper == null || StringUtils.isBlank(serviceTask.getTaskInstruct())) {
+                        break;
+                    }
+                    InstructContent instructContent = new InstructContent(serviceTask.getTaskInstruct(), serviceTask.getTaskInstructContent());
+                    params[i] = instructContent;
+                    if (monitorTracking != null) {
+                        monitorTracking.trackingNodeParams(serviceTask,
+                                () -> ParamTracking.build(iDef.getFieldName(), InstructContent.class.getSimpleName(), ScopeTypeEnum.EMPTY, instructContent, InstructContent.class, null)
+                        );
+                    }
+                    break;
+                case ITER_DATA_ITEM:
+                    if (iterDataItem == null) {
+                        break;
+                    }
+                    params[i] = iterDataItem;
+                    if (monitorTracking != null) {
+                        monitorTracking.trackingNodeParams(serviceTask,
+                                () -> ParamTracking.build(iDef.getFieldName(), IterDataItem.class.getSimpleName(), ScopeTypeEnum.EMPTY, iterDataItem, IterDataItem.class, null)
+                        );
+                    }
+                    break;
+                case ROLE:
+                    // 如果目标类是 CustomRole 且方法入参需要 Role 时，直接透传 role
+                    params[i] = role;
+                    if (monitorTracking != null) {
+                        monitorTracking.trackingNodeParams(serviceTask,
+                                () -> ParamTracking.build(iDef.getFieldName(), Role.class.getSimpleName(), ScopeTypeEnum.EMPTY, null, Role.class, null)
+                        );
+                    }
+                    break;
+                case SCOPE_DATA_OPERATOR:
+                    // 入参是 ScopeDataOperator 时，注入ScopeDataOperator
+                    params[i] = storyBus.getScopeDataOperator();
+                    if (monitorTracking != null) {
+                        monitorTracking.trackingNodeParams(serviceTask,
+                                () -> ParamTracking.build(iDef.getFieldName(), ScopeDataOperator.class.getSimpleName(), ScopeTypeEnum.EMPTY, null, ScopeDataQuery.class, null)
+                        );
+                    }
+                    break;
+                case SCOPE_DATA:
+                    // 参数被 @TaskParam、@ReqTaskParam、@VarTaskParam、@StaTaskParam 注解修饰时，从 StoryBus 中直接获取变量并赋值给参数
+                    params[i] = getScopeDataParam(monitorTracking, serviceTask, storyBus, iDef, isPrimitive, params[i]);
+                    break;
+                case BEAN:
+                    // case 1：参数 Bean 需要解析注入
+                    // case 2：参数需要 Spring 容器实例化
+                    // case 3：参数实现 ParamLifecycle 接口
+                    params[i] = getBeanParam(monitorTracking, serviceTask, storyBus, iDef);
+                    break;
+                default:
+                    break;
             }
+        }
+        return params;
+    }
 
-            if (InstructContent.class.isAssignableFrom(iDef.getParamType())) {
-                if (taskInstructWrapper == null || StringUtils.isBlank(serviceTask.getTaskInstruct())) {
-                    continue;
-                }
-                InstructContent instructContent = new InstructContent(serviceTask.getTaskInstruct(), serviceTask.getTaskInstructContent());
-                params[i] = instructContent;
-                trackingOptional.ifPresent(mt -> mt.trackingNodeParams(serviceTask,
-                        () -> ParamTracking.build(iDef.getFieldName(), InstructContent.class.getSimpleName(), ScopeTypeEnum.EMPTY, instructContent, InstructContent.class, null))
+    private Object getScopeDataParam(MonitorTracking monitorTracking, ServiceTask serviceTask, StoryBus storyBus, ParamInjectDef iDef, boolean isPrimitive, Object defaultValue) {
+        Object r = storyBus.getValue(iDef.getScopeDataEnum(), iDef.getTargetName()).orElse(null);
+        if (r == PropertyUtil.GET_PROPERTY_ERROR_SIGN) {
+            if (monitorTracking != null) {
+                monitorTracking.trackingNodeParams(serviceTask,
+                        () -> ParamTracking.build(iDef.getFieldName(), iDef.getTargetName(), iDef.getScopeDataEnum(), BAD_VALUE, iDef.getParamType(), null)
                 );
-                continue;
             }
-
-            if (IterDataItem.class.isAssignableFrom(iDef.getParamType())) {
-                if (iterDataItem == null) {
-                    continue;
-                }
-                params[i] = iterDataItem;
-                trackingOptional.ifPresent(mt -> mt.trackingNodeParams(serviceTask,
-                        () -> ParamTracking.build(iDef.getFieldName(), IterDataItem.class.getSimpleName(), ScopeTypeEnum.EMPTY, iterDataItem, IterDataItem.class, null))
+            return defaultValue;
+        }
+        if (isPrimitive && r == null) {
+            if (monitorTracking != null) {
+                monitorTracking.trackingNodeParams(serviceTask,
+                        () -> ParamTracking.build(iDef.getFieldName(), iDef.getTargetName(), iDef.getScopeDataEnum(), defaultValue, iDef.getParamType(), null)
                 );
-                continue;
             }
+            return defaultValue;
+        }
+        Pair<String, ?> convertPair = engineModule.getTypeConverterProcessor().convert(iDef.getConverter(), r, iDef.getParamType(), iDef.getCollGenericType().orElse(null));
+        Object value = convertPair.getValue();
+        checkParamType(serviceTask, iDef, value);
+        if (monitorTracking != null) {
+            monitorTracking.trackingNodeParams(serviceTask,
+                    () -> ParamTracking.build(iDef.getFieldName(), iDef.getTargetName(), iDef.getScopeDataEnum(), value, iDef.getParamType(), convertPair.getKey())
+            );
+        }
+        return value;
+    }
 
-            // 如果目标类是 CustomRole 且方法入参需要 Role 时，直接透传 role
-            if (isCustomRole && Role.class.isAssignableFrom(iDef.getParamType())) {
-                params[i] = role;
-                trackingOptional.ifPresent(mt -> mt.trackingNodeParams(serviceTask,
-                        () -> ParamTracking.build(iDef.getFieldName(), Role.class.getSimpleName(), ScopeTypeEnum.EMPTY, null, Role.class, null))
-                );
-                continue;
-            }
+    private Object getBeanParam(MonitorTracking monitorTracking, ServiceTask serviceTask, StoryBus storyBus, ParamInjectDef iDef) {
+        Object o = engineModule.getParamInitStrategy().apply(iDef);
+        if (o instanceof SpringParamLifecycle) {
+            ((SpringParamLifecycle) o).initContext(engineModule.getApplicationContext());
+        }
+        if (o instanceof ParamLifecycle) {
+            ((ParamLifecycle) o).before(storyBus.getScopeDataOperator());
+        }
 
-            // 入参是 ScopeDataOperator 时，注入ScopeDataOperator
-            if (ScopeDataQuery.class.isAssignableFrom(iDef.getParamType())) {
-                params[i] = storyBus.getScopeDataOperator();
-                trackingOptional.ifPresent(mt -> mt.trackingNodeParams(serviceTask,
-                        () -> ParamTracking.build(iDef.getFieldName(), ScopeDataOperator.class.getSimpleName(), ScopeTypeEnum.EMPTY, null, ScopeDataQuery.class, null))
-                );
+        List<ParamInjectDef> fieldInjectDefList = iDef.getFieldInjectDefList();
+        if (CollectionUtils.isEmpty(fieldInjectDefList)) {
+            return o;
+        }
+        for (ParamInjectDef def : fieldInjectDefList) {
+            if (def.notNeedInject()) {
                 continue;
             }
-
-            // 参数被 @TaskParam、@ReqTaskParam、@VarTaskParam、@StaTaskParam 注解修饰时，从 StoryBus 中直接获取变量并赋值给参数
-            if (iDef.getScopeDataEnum() != null && (StringUtils.isNotBlank(iDef.getTargetName()) || iDef.getScopeDataEnum() == ScopeTypeEnum.RESULT)) {
-                Object r = storyBus.getValue(iDef.getScopeDataEnum(), iDef.getTargetName()).orElse(null);
-                if (r == PropertyUtil.GET_PROPERTY_ERROR_SIGN) {
-                    trackingOptional.ifPresent(mt -> mt.trackingNodeParams(serviceTask,
-                            () -> ParamTracking.build(iDef.getFieldName(), iDef.getTargetName(), iDef.getScopeDataEnum(), BAD_VALUE, iDef.getParamType(), null))
+            Object value = storyBus.getValue(def.getScopeDataEnum(), def.getTargetName()).orElse(null);
+            if (value == PropertyUtil.GET_PROPERTY_ERROR_SIGN) {
+                if (monitorTracking != null) {
+                    monitorTracking.trackingNodeParams(serviceTask, () ->
+                            ParamTracking.build(iDef.getFieldName() + "." + def.getFieldName(), def.getTargetName(), def.getScopeDataEnum(), BAD_VALUE, def.getParamType(), null)
                     );
-                    continue;
-                }
-                if (isPrimitive && r == null) {
-                    Object primitiveFinalObj = params[i];
-                    trackingOptional.ifPresent(mt -> mt.trackingNodeParams(serviceTask,
-                            () -> ParamTracking.build(iDef.getFieldName(), iDef.getTargetName(), iDef.getScopeDataEnum(), primitiveFinalObj, iDef.getParamType(), null))
-                    );
-                    continue;
                 }
-                Pair<String, ?> convertPair = engineModule.getTypeConverterProcessor().convert(iDef.getConverter(), r, iDef.getParamType(), iDef.getCollGenericType().orElse(null));
-                r = convertPair.getValue();
-                checkParamType(serviceTask, iDef, r);
-                params[i] = r;
-                Object rFinal = r;
-                trackingOptional.ifPresent(mt -> mt.trackingNodeParams(serviceTask,
-                        () -> ParamTracking.build(iDef.getFieldName(), iDef.getTargetName(), iDef.getScopeDataEnum(), rFinal, iDef.getParamType(), convertPair.getKey()))
-                );
                 continue;
             }
-
-            // case 1：参数 Bean 需要解析注入
-            // case 2：参数需要 Spring 容器实例化
-            // case 3：参数实现 ParamLifecycle 接口
-            if (CollectionUtils.isNotEmpty(iDef.getFieldInjectDefList()) || iDef.isSpringInitialization() || ParamLifecycle.class.isAssignableFrom(iDef.getParamType())) {
-                Object o = engineModule.getParamInitStrategy().apply(iDef);
-                if (o instanceof SpringParamLifecycle) {
-                    ((SpringParamLifecycle) o).initContext(engineModule.getApplicationContext());
-                }
-                if (o instanceof ParamLifecycle) {
-                    ((ParamLifecycle) o).before(storyBus.getScopeDataOperator());
-                }
-
-                List<ParamInjectDef> fieldInjectDefList = iDef.getFieldInjectDefList();
-                if (CollectionUtils.isNotEmpty(fieldInjectDefList)) {
-                    fieldInjectDefList.forEach(def -> {
-                        if (def.notNeedInject()) {
-                            return;
-                        }
-                        Object value = storyBus.getValue(def.getScopeDataEnum(), def.getTargetName()).orElse(null);
-                        if (value == PropertyUtil.GET_PROPERTY_ERROR_SIGN) {
-                            trackingOptional.ifPresent(mt -> mt.trackingNodeParams(serviceTask, () ->
-                                    ParamTracking.build(iDef.getFieldName() + "." + def.getFieldName(), def.getTargetName(), def.getScopeDataEnum(), BAD_VALUE, def.getParamType(), null))
-                            );
-                            return;
-                        }
-                        Pair<String, ?> convertPair = engineModule.getTypeConverterProcessor().convert(def.getConverter(), value, def.getParamType(), def.getCollGenericType().orElse(null));
-                        value = convertPair.getValue();
-                        checkParamType(serviceTask, def, value);
-                        boolean setSuccess = PropertyUtil.setProperty(o, def.getFieldName(), value);
-                        if (setSuccess) {
-                            Object valueFinal = value;
-                            trackingOptional.ifPresent(mt -> mt.trackingNodeParams(serviceTask, () ->
-                                    ParamTracking.build(iDef.getFieldName() + "." + def.getFieldName(), def.getTargetName(), def.getScopeDataEnum(), valueFinal, def.getParamType(), convertPair.getKey()))
-                            );
-                        }
-                    });
-                }
-                params[i] = o;
+            Pair<String, ?> convertPair = engineModule.getTypeConverterProcessor().convert(def.getConverter(), value, def.getParamType(), def.getCollGenericType().orElse(null));
+            Object convertValue = convertPair.getValue();
+            checkParamType(serviceTask, def, convertValue);
+            boolean setSuccess = PropertyUtil.setProperty(o, def.getFieldName(), convertValue);
+            if (setSuccess && monitorTracking != null) {
+                monitorTracking.trackingNodeParams(serviceTask, () ->
+                        ParamTracking.build(iDef.getFieldName() + "." + def.getFieldName(), def.getTargetName(), def.getScopeDataEnum(), convertValue, def.getParamType(), convertPair.getKey())
+                );
             }
         }
-        return params;
+        return o;
     }
 
     private void checkParamType(FlowElement flowElement, ParamInjectDef def, Object value) {
@@ -20,6 +20,8 @@ package cn.kstry.framework.core.engine.facade;
 import cn.kstry.framework.core.bus.ScopeData;
 import cn.kstry.framework.core.bus.ScopeDataQuery;
 import cn.kstry.framework.core.component.bpmn.lambda.LambdaParam;
+import cn.kstry.framework.core.enums.ContinuationPolicyEnum;
+import cn.kstry.framework.core.enums.MethodTimeoutModeEnum;
 import cn.kstry.framework.core.enums.ScopeTypeEnum;
 import cn.kstry.framework.core.enums.TrackingTypeEnum;
 import cn.kstry.framework.core.exception.ExceptionEnum;
@@ -121,6 +123,26 @@ public class ReqBuilder<T> {
         return this;
     }
 
+    public ReqBuilder<T> callerRuns(boolean callerRuns) {
+        this.storyRequest.setCallerRuns(callerRuns);
+        return this;
+    }
+
+    public ReqBuilder<T> continuationPolicy(ContinuationPolicyEnum continuationPolicy) {
+        this.storyRequest.setContinuationPolicy(continuationPolicy);
+        return this;
+    }
+
+    public ReqBuilder<T> methodTimeoutMode(MethodTimeoutModeEnum methodTimeoutMode) {
+        this.storyRequest.setMethodTimeoutMode(methodTimeoutMode);
+        return this;
+    }
+
+    public ReqBuilder<T> subProcessInline(boolean subProcessInline) {
+        this.storyRequest.setSubProcessInline(subProcessInline);
+        return this;
+    }
+
     public ReqBuilder<T> recallStoryHook(Consumer<RecallStory> recallStoryHook) {
         this.storyRequest.setRecallStoryHook(recallStoryHook);
         return this;
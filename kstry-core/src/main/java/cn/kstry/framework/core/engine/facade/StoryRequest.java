@@ -21,6 +21,8 @@ import cn.kstry.framework.core.bus.ScopeData;
 import cn.kstry.framework.core.bus.ScopeDataQuery;
 import cn.kstry.framework.core.constant.GlobalProperties;
 import cn.kstry.framework.core.engine.StoryEngine;
+import cn.kstry.framework.core.enums.ContinuationPolicyEnum;
+import cn.kstry.framework.core.enums.MethodTimeoutModeEnum;
 import cn.kstry.framework.core.enums.ScopeTypeEnum;
 import cn.kstry.framework.core.enums.TrackingTypeEnum;
 import cn.kstry.framework.core.monitor.RecallStory;
@@ -86,6 +88,26 @@ public class StoryRequest<T> {
      */
     private Integer timeout;
 
+    /**
+     * 是否由调用线程直接执行主流程，为空时使用全局默认配置。仅对同步执行（fire）生效，异步分支、方法超时控制等仍提交至任务线程池
+     */
+    private Boolean callerRuns;
+
+    /**
+     * 异步结果产生后执行后续片段任务的延续策略，为空时使用全局默认配置
+     */
+    private ContinuationPolicyEnum continuationPolicy;
+
+    /**
+     * 服务节点设置超时时间时目标方法的执行方式，为空时使用全局默认配置
+     */
+    private MethodTimeoutModeEnum methodTimeoutMode;
+
+    /**
+     * 子流程是否允许在父流程当前线程中直接执行，为空时使用全局默认配置
+     */
+    private Boolean subProcessInline;
+
     /**
      * 链路追踪级别，未指定时使用全局默认配置的级别
      */
@@ -179,6 +201,38 @@ public class StoryRequest<T> {
         this.timeout = timeout;
     }
 
+    public boolean isCallerRuns() {
+        return Optional.ofNullable(callerRuns).orElse(GlobalProperties.KSTRY_STORY_CALLER_RUNS);
+    }
+
+    public void setCallerRuns(Boolean callerRuns) {
+        this.callerRuns = callerRuns;
+    }
+
+    public ContinuationPolicyEnum getContinuationPolicy() {
+        return continuationPolicy;
+    }
+
+    public void setContinuationPolicy(ContinuationPolicyEnum continuationPolicy) {
+        this.continuationPolicy = continuationPolicy;
+    }
+
+    public MethodTimeoutModeEnum getMethodTimeoutMode() {
+        return methodTimeoutMode;
+    }
+
+    public void setMethodTimeoutMode(MethodTimeoutModeEnum methodTimeoutMode) {
+        this.methodTimeoutMode = methodTimeoutMode;
+    }
+
+    public Boolean getSubProcessInline() {
+        return subProcessInline;
+    }
+
+    public void setSubProcessInline(Boolean subProcessInline) {
+        this.subProcessInline = subProcessInline;
+    }
+
     public TrackingTypeEnum getTrackingType() {
         return trackingType;
     }
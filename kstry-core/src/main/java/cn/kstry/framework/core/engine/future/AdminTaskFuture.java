@@ -55,8 +55,10 @@ public class AdminTaskFuture implements AdminFuture {
      * 分组管理Future
      * k：流程开始事件id
      * v：被管理的Future列表
+     *
+     * 分组的新增、取消在锁内完成。非严格模式分组及已取消分组的取消状态读取不加锁，严格模式下未取消时加锁读取
      */
-    private final Map<String, InFutureList> groupManagedFutureMap = Maps.newHashMap();
+    private final Map<String, InFutureList> groupManagedFutureMap = Maps.newConcurrentMap();
 
     /**
      * 任务异常
@@ -95,12 +97,7 @@ public class AdminTaskFuture implements AdminFuture {
 
     @Override
     public void addManagedFuture(FragmentFuture future, String startEventId) {
-        reentrantLock.lock();
-        try {
-            addManagedFuture(null, future, startEventId);
-        } finally {
-            reentrantLock.unlock();
-        }
+        addManagedFuture(null, future, startEventId);
     }
 
     @Override
@@ -153,11 +150,19 @@ public class AdminTaskFuture implements AdminFuture {
 
     @Override
     public boolean isCancelled(String startEventId) {
+        AssertUtil.notBlank(startEventId);
+
+        // 已取消状态不会再改变，非严格模式分组仅取消自身，均可直接读取 volatile 取消状态
+        InFutureList inFutureList = groupManagedFutureMap.get(startEventId);
+        if (inFutureList != null && (inFutureList.isCancelled || !inFutureList.strictMode)) {
+            return inFutureList.isCancelled;
+        }
+
+        // 严格模式下取消会依次标记全部分组，加锁等待正在进行的取消完成后再读取，保证看到的取消状态与已取消的 Future 一致。
+        // 分组不存在说明其他线程正在注册该分组，同样加锁等待注册完成后再读取
         reentrantLock.lock();
         try {
-            AssertUtil.notBlank(startEventId);
-            InFutureList inFutureList = groupManagedFutureMap.get(startEventId);
-            return inFutureList.isCancelled;
+            return GlobalUtil.notNull(groupManagedFutureMap.get(startEventId)).isCancelled;
         } finally {
             reentrantLock.unlock();
         }
@@ -285,9 +290,9 @@ public class AdminTaskFuture implements AdminFuture {
         private final boolean strictMode;
 
         /**
-         * 是否被取消
+         * 是否被取消，只在锁内修改
          */
-        private boolean isCancelled = false;
+        private volatile boolean isCancelled = false;
 
         public InFutureList(boolean strictMode) {
             this.strictMode = strictMode;
@@ -34,4 +34,11 @@ public interface FlowFuture extends MainTaskFuture {
      * @return 等待指定时长后，任务是否执行完成
      */
     boolean await(long timeout, TimeUnit unit) throws InterruptedException;
+
+    /**
+     * 任务是否已执行完成
+     *
+     * @return 是否执行完成
+     */
+    boolean isDone();
 }
@@ -47,6 +47,11 @@ public class FlowTaskFuture extends FragmentTaskFuture<AsyncTaskState> implement
         return endTaskPedometer.await(timeout, unit);
     }
 
+    @Override
+    public boolean isDone() {
+        return endTaskPedometer.isDone();
+    }
+
     @Override
     public EndTaskPedometer getEndTaskPedometer() {
         return endTaskPedometer;
@@ -23,10 +23,12 @@ import cn.kstry.framework.core.util.AssertUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
 import java.time.Duration;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
+import java.util.function.Function;
 
 /**
  * 异步版本的主流程 FlowFuture
@@ -57,9 +59,10 @@ public class MonoFlowTaskFuture extends FragmentTaskFuture<AsyncTaskState> imple
      */
     private final boolean strictMode;
 
-    public MonoFlowTaskFuture(EndTaskPedometer endTaskPedometer, Future<AsyncTaskState> future, String taskName, FlowTaskSubscriber flowTaskSubscriber) {
+    public MonoFlowTaskFuture(EndTaskPedometer endTaskPedometer, Future<AsyncTaskState> future, String taskName,
+                              FlowTaskSubscriber flowTaskSubscriber, Scheduler timerScheduler) {
         super(future, taskName);
-        AssertUtil.anyNotNull(endTaskPedometer, flowTaskSubscriber);
+        AssertUtil.anyNotNull(endTaskPedometer, flowTaskSubscriber, timerScheduler);
         this.strictMode = flowTaskSubscriber.isStrictMode();
         this.endTaskPedometer = endTaskPedometer;
 
@@ -67,7 +70,8 @@ public class MonoFlowTaskFuture extends FragmentTaskFuture<AsyncTaskState> imple
         Integer timeout = flowTaskSubscriber.getTimeout();
         Mono<AsyncTaskState> r = resultMono;
         if (timeout != null && timeout >= 0) {
-            r = resultMono.timeout(Duration.ofMillis(timeout), Mono.fromSupplier(flowTaskSubscriber::hookTimeout));
+            // 超时后 timeout 会取消上游，使用派生的 Future 订阅，避免共享的 resultFuture 被取消，其他订阅方才能收到真正的超时异常
+            r = Mono.fromFuture(resultFuture.thenApply(Function.identity())).timeout(Duration.ofMillis(timeout), Mono.fromSupplier(flowTaskSubscriber::hookTimeout), timerScheduler);
         }
         r.subscribe(flowTaskSubscriber);
     }
@@ -76,6 +76,10 @@ public class EndTaskPedometer {
         LOGGER.debug("Create end task pedometer. taskName: {}, latch count: {}", taskName, this.taskCountDownLatch.getCount());
     }
 
+    public boolean isDone() {
+        return taskCountDownLatch.getCount() == 0;
+    }
+
     public boolean await(long timeout, TimeUnit unit) throws InterruptedException {
         boolean await = taskCountDownLatch.await(timeout, unit);
         if (!await) {
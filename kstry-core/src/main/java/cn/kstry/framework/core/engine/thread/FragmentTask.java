@@ -28,6 +28,7 @@ import cn.kstry.framework.core.engine.StoryEngineModule;
 import cn.kstry.framework.core.engine.future.AdminFuture;
 import cn.kstry.framework.core.engine.future.FragmentFuture;
 import cn.kstry.framework.core.engine.future.FragmentTaskFuture;
+import cn.kstry.framework.core.engine.thread.hook.ThreadSwitchHook;
 import cn.kstry.framework.core.enums.AsyncTaskState;
 import cn.kstry.framework.core.exception.ExceptionEnum;
 import cn.kstry.framework.core.exception.KstryException;
@@ -39,6 +40,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Future;
 import java.util.stream.IntStream;
 
@@ -51,6 +53,11 @@ public class FragmentTask extends FlowTaskCore<AsyncTaskState> implements Task<A
 
     private static final Logger LOGGER = LoggerFactory.getLogger(FragmentTask.class);
 
+    /**
+     * 是否在产生结果的线程中直接执行
+     */
+    private volatile boolean inline;
+
     public FragmentTask(StoryEngineModule engineModule, FlowRegister flowRegister, Role role, StoryBus storyBus) {
         super(engineModule, flowRegister, role, storyBus);
     }
@@ -60,11 +67,25 @@ public class FragmentTask extends FlowTaskCore<AsyncTaskState> implements Task<A
         return new FragmentTaskFuture<>(future, getTaskName());
     }
 
+    /**
+     * 标记在产生结果的线程中直接执行，执行结束后恢复该线程原有的线程上下文
+     */
+    public void inline() {
+        this.inline = true;
+    }
+
     @Override
     public AsyncTaskState call() {
         AdminFuture adminFuture = null;
+        boolean threadSwitch = needThreadSwitch();
+        Map<ThreadSwitchHook<Object>, Object> currentThreadData = null;
         try {
-            engineModule.getThreadSwitchHookProcessor().usePreviousData(threadSwitchHookObjectMap, storyBus.getScopeDataOperator());
+            if (threadSwitch) {
+                if (inline) {
+                    currentThreadData = engineModule.getThreadSwitchHookProcessor().getCurrentData(storyBus.getScopeDataOperator());
+                }
+                engineModule.getThreadSwitchHookProcessor().usePreviousData(threadSwitchHookObjectMap, storyBus.getScopeDataOperator());
+            }
             asyncTaskSwitch.await();
             adminFuture = flowRegister.getAdminFuture();
             AssertUtil.notTrue(adminFuture.isCancelled(flowRegister.getStartEventId()), ExceptionEnum.ASYNC_TASK_INTERRUPTED, "Task interrupted. Story task was interrupted! taskName: {}", getTaskName());
@@ -89,10 +110,25 @@ public class FragmentTask extends FlowTaskCore<AsyncTaskState> implements Task<A
             }
             return AsyncTaskState.ERROR;
         } finally {
-            engineModule.getThreadSwitchHookProcessor().clear(threadSwitchHookObjectMap, storyBus.getScopeDataOperator());
+            if (threadSwitch) {
+                engineModule.getThreadSwitchHookProcessor().clear(threadSwitchHookObjectMap, storyBus.getScopeDataOperator());
+                if (currentThreadData != null) {
+                    // 直接执行时当前线程可能仍在执行外层任务，恢复外层任务的线程上下文
+                    engineModule.getThreadSwitchHookProcessor().restoreData(currentThreadData, storyBus.getScopeDataOperator());
+                }
+            }
         }
     }
 
+    /**
+     * 执行任务前是否需要切换线程上下文
+     *
+     * @return 是否需要切换
+     */
+    protected boolean needThreadSwitch() {
+        return true;
+    }
+
     /**
      * 从子流程名称，提取遍历配置，实现子流程for循环
      */
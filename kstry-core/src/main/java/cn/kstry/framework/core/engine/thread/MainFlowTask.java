@@ -45,6 +45,11 @@ public class MainFlowTask extends FragmentTask {
      */
     protected final EndTaskPedometer endTaskPedometer;
 
+    /**
+     * 是否由调用线程直接执行
+     */
+    private volatile boolean callerRuns;
+
     public MainFlowTask(StoryEngineModule engineModule, FlowRegister flowRegister, Role role, StoryBus storyBus) {
         super(engineModule, flowRegister, role, storyBus);
         StartEvent startEvent = GlobalUtil.transferNotEmpty(flowRegister.getStartElement(), StartEvent.class);
@@ -57,6 +62,18 @@ public class MainFlowTask extends FragmentTask {
         throw ExceptionUtil.buildException(null, ExceptionEnum.ASYNC_TASK_ERROR, null);
     }
 
+    /**
+     * 标记由调用线程直接执行，调用线程与执行线程相同，无需切换线程上下文
+     */
+    public void callerRuns() {
+        this.callerRuns = true;
+    }
+
+    @Override
+    protected boolean needThreadSwitch() {
+        return !callerRuns;
+    }
+
     /**
      * 设置 TaskFuture 管理类
      *
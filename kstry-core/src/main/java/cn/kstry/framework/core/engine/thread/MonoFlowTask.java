@@ -44,6 +44,6 @@ public class MonoFlowTask extends MainFlowTask {
 
     @Override
     public MonoFlowFuture buildTaskFuture(Future<AsyncTaskState> future) {
-        return new MonoFlowTaskFuture(endTaskPedometer, future, getTaskName(), flowTaskSubscriber);
+        return new MonoFlowTaskFuture(endTaskPedometer, future, getTaskName(), flowTaskSubscriber, engineModule.getTimer().getScheduler());
     }
 }
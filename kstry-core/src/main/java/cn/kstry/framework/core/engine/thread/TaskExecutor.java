@@ -19,7 +19,9 @@ package cn.kstry.framework.core.engine.thread;
 
 import cn.kstry.framework.core.engine.future.AdminFuture;
 import cn.kstry.framework.core.engine.future.InvokeFuture;
+import cn.kstry.framework.core.engine.timer.HashedWheelTimer;
 import cn.kstry.framework.core.enums.ExecutorType;
+import reactor.core.scheduler.Scheduler;
 
 import java.util.concurrent.ExecutorService;
 
@@ -38,11 +40,37 @@ public interface TaskExecutor {
      */
     AdminFuture submitAdminTask(ExecutorService threadPool, MainFlowTask mainFlowTask);
 
+    /**
+     * 在调用线程中直接执行流程任务，主流程执行结束后返回结果操作入口。超过 timeout 时取消任务
+     *
+     * @param mainFlowTask 流程任务
+     * @param timer 超时控制使用的定时器
+     * @param timeout 超时时间，单位 ms
+     * @return AdminFuture
+     */
+    AdminFuture runAdminTask(MainFlowTask mainFlowTask, HashedWheelTimer timer, long timeout);
+
     /**
      * 提交片段任务
      */
     void submitFragmentTask(ExecutorService threadPool, FragmentTask fragmentTask);
 
+    /**
+     * 在当前线程中直接执行片段任务
+     *
+     * @param fragmentTask 片段任务
+     * @return 当前线程嵌套执行层数超过上限时不执行，返回 false
+     */
+    boolean runFragmentTask(FragmentTask fragmentTask);
+
+    /**
+     * 提交片段任务至 Reactor Scheduler
+     *
+     * @param scheduler Reactor Scheduler
+     * @param fragmentTask 片段任务
+     */
+    void submitFragmentTask(Scheduler scheduler, FragmentTask fragmentTask);
+
     /**
      * 提交异步流程任务
      *
@@ -51,6 +79,15 @@ public interface TaskExecutor {
      */
     void submitMonoFlowTask(ExecutorService threadPool, String parentStartEventId, MonoFlowTask flowTask);
 
+    /**
+     * 在当前线程中直接执行异步流程任务
+     *
+     * @param parentStartEventId 开始事件id
+     * @param flowTask 流程任务
+     * @return 当前线程嵌套执行层数超过上限时不执行，返回 false
+     */
+    boolean runMonoFlowTask(String parentStartEventId, MonoFlowTask flowTask);
+
     /**
      * 提交方法执行任务
      *
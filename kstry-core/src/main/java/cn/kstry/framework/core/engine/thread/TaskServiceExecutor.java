@@ -21,6 +21,8 @@ import cn.kstry.framework.core.constant.GlobalProperties;
 import cn.kstry.framework.core.container.ComponentLifecycle;
 import cn.kstry.framework.core.engine.FlowRegister;
 import cn.kstry.framework.core.engine.future.*;
+import cn.kstry.framework.core.engine.timer.HashedWheelTimer;
+import cn.kstry.framework.core.engine.timer.Timeout;
 import cn.kstry.framework.core.enums.AsyncTaskState;
 import cn.kstry.framework.core.enums.ExecutorType;
 import cn.kstry.framework.core.exception.ExceptionEnum;
@@ -33,8 +35,11 @@ import org.apache.commons.lang3.reflect.MethodUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.util.ClassUtils;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * 任务线程池
@@ -48,15 +53,31 @@ public class TaskServiceExecutor implements TaskExecutor, ComponentLifecycle {
     private static final boolean SUPPORT_VIRTUAL_THREAD = ClassUtils.isPresent("java.lang.VirtualThread", TaskServiceExecutor.class.getClassLoader())
             && ClassUtils.isPresent("java.util.concurrent.ThreadPerTaskExecutor", TaskServiceExecutor.class.getClassLoader());
 
+    /**
+     * 当前线程直接执行片段任务的最大嵌套层数。Mono 同步产生结果时，直接执行会在当前调用栈中嵌套执行后续片段
+     */
+    private static final int MAX_INLINE_DEPTH = 16;
+
+    /**
+     * 当前线程直接执行片段任务的嵌套层数
+     */
+    private static final ThreadLocal<int[]> INLINE_DEPTH = ThreadLocal.withInitial(() -> new int[1]);
+
     private final ExecutorType executorType;
 
     private final ExecutorService executorService;
 
     private final String prefix;
 
+    /**
+     * 基于当前线程池的 Reactor Scheduler
+     */
+    private final Scheduler scheduler;
+
     public TaskServiceExecutor(ExecutorType executorType, ExecutorService executorService, String prefix) {
         AssertUtil.anyNotNull(executorType, executorService);
         this.executorService = executorService;
+        this.scheduler = Schedulers.fromExecutorService(executorService);
         this.executorType = executorType;
         this.prefix = prefix == null ? StringUtils.EMPTY : prefix;
     }
@@ -121,6 +142,38 @@ public class TaskServiceExecutor implements TaskExecutor, ComponentLifecycle {
         }
     }
 
+    @Override
+    public AdminFuture runAdminTask(MainFlowTask mainFlowTask, HashedWheelTimer timer, long timeout) {
+        AssertUtil.anyNotNull(mainFlowTask, timer);
+        FutureTask<AsyncTaskState> future = new FutureTask<>(mainFlowTask);
+        MainTaskFuture mainTaskFuture = mainFlowTask.buildTaskFuture(future);
+        AdminTaskFuture adminTaskFuture = new AdminTaskFuture(mainTaskFuture);
+        mainFlowTask.setAdminFuture(adminTaskFuture);
+        mainFlowTask.callerRuns();
+        mainFlowTask.openSwitch();
+
+        String startEventId = mainFlowTask.getFlowRegister().getStartEventId();
+        boolean callerInterrupted = Thread.currentThread().isInterrupted();
+        AtomicBoolean timeoutCancelled = new AtomicBoolean(false);
+        Timeout timeoutFuture = timer.newTimeout(() -> {
+            timeoutCancelled.set(true);
+            adminTaskFuture.cancel(startEventId);
+        }, timeout, TimeUnit.MILLISECONDS);
+        try {
+            future.run();
+        } finally {
+            timeoutFuture.cancel();
+            if (timeoutCancelled.get()) {
+                // 超时取消会中断正在执行任务的调用线程，任务退出后清除中断标记
+                clearTaskInterrupt(callerInterrupted);
+            } else if (callerInterrupted && !Thread.currentThread().isInterrupted()) {
+                // 任务执行期间的阻塞等待可能已消费调用方的中断标记，任务退出后重新设置
+                Thread.currentThread().interrupt();
+            }
+        }
+        return adminTaskFuture;
+    }
+
     @Override
     public void submitFragmentTask(ExecutorService executorService, FragmentTask fragmentTask) {
         AssertUtil.notNull(fragmentTask);
@@ -134,6 +187,50 @@ public class TaskServiceExecutor implements TaskExecutor, ComponentLifecycle {
         }
     }
 
+    @Override
+    public boolean runFragmentTask(FragmentTask fragmentTask) {
+        AssertUtil.notNull(fragmentTask);
+        int[] depth = INLINE_DEPTH.get();
+        if (depth[0] >= MAX_INLINE_DEPTH) {
+            return false;
+        }
+        fragmentTask.inline();
+        FutureTask<AsyncTaskState> future = new FutureTask<>(fragmentTask);
+        try {
+            FragmentFuture fragmentFuture = fragmentTask.buildTaskFuture(future);
+            FlowRegister flowRegister = fragmentTask.getFlowRegister();
+            flowRegister.getAdminFuture().addManagedFuture(fragmentFuture, flowRegister.getStartEventId());
+        } finally {
+            fragmentTask.openSwitch();
+        }
+        boolean callerInterrupted = Thread.currentThread().isInterrupted();
+        depth[0]++;
+        try {
+            future.run();
+        } finally {
+            depth[0]--;
+            if (future.isCancelled()) {
+                // 任务被取消时会中断执行线程，当前线程并不属于 Story 线程池，任务退出后清除中断标记
+                clearTaskInterrupt(callerInterrupted);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void submitFragmentTask(Scheduler scheduler, FragmentTask fragmentTask) {
+        AssertUtil.anyNotNull(scheduler, fragmentTask);
+        FutureTask<AsyncTaskState> future = new FutureTask<>(fragmentTask);
+        try {
+            FragmentFuture fragmentFuture = fragmentTask.buildTaskFuture(future);
+            FlowRegister flowRegister = fragmentTask.getFlowRegister();
+            flowRegister.getAdminFuture().addManagedFuture(fragmentFuture, flowRegister.getStartEventId());
+            scheduler.schedule(future);
+        } finally {
+            fragmentTask.openSwitch();
+        }
+    }
+
     @Override
     public void submitMonoFlowTask(ExecutorService executorService, String parentStartEventId, MonoFlowTask flowTask) {
         AssertUtil.notNull(flowTask);
@@ -147,6 +244,36 @@ public class TaskServiceExecutor implements TaskExecutor, ComponentLifecycle {
         }
     }
 
+    @Override
+    public boolean runMonoFlowTask(String parentStartEventId, MonoFlowTask flowTask) {
+        AssertUtil.notNull(flowTask);
+        int[] depth = INLINE_DEPTH.get();
+        if (depth[0] >= MAX_INLINE_DEPTH) {
+            return false;
+        }
+        FutureTask<AsyncTaskState> future = new FutureTask<>(flowTask);
+        try {
+            MonoFlowFuture monoFlowFuture = flowTask.buildTaskFuture(future);
+            FlowRegister flowRegister = flowTask.getFlowRegister();
+            flowRegister.getAdminFuture().addManagedFuture(parentStartEventId, monoFlowFuture, flowRegister.getStartEventId());
+            flowTask.callerRuns();
+        } finally {
+            flowTask.openSwitch();
+        }
+        boolean callerInterrupted = Thread.currentThread().isInterrupted();
+        depth[0]++;
+        try {
+            future.run();
+        } finally {
+            depth[0]--;
+            if (future.isCancelled()) {
+                // 子流程被取消时会中断执行线程，父流程可能仍在当前线程中继续执行，任务退出后清除中断标记
+                clearTaskInterrupt(callerInterrupted);
+            }
+        }
+        return true;
+    }
+
     @Override
     public InvokeFuture submitMethodInvokeTask(ExecutorService executorService, MethodInvokeTask methodInvokeTask) {
         AssertUtil.notNull(methodInvokeTask);
@@ -161,6 +288,15 @@ public class TaskServiceExecutor implements TaskExecutor, ComponentLifecycle {
         }
     }
 
+    /**
+     * 获取基于当前线程池的 Reactor Scheduler，任务被取消时会中断执行线程
+     *
+     * @return Scheduler
+     */
+    public Scheduler getScheduler() {
+        return scheduler;
+    }
+
     @Override
     public void destroy() {
         if (executorService instanceof ThreadPoolExecutor) {
@@ -233,6 +369,18 @@ public class TaskServiceExecutor implements TaskExecutor, ComponentLifecycle {
         return executorService;
     }
 
+    /**
+     * 清除任务取消时对当前线程设置的中断标记，任务执行前当前线程已处于中断状态时重新设置，保留调用方的中断状态
+     *
+     * @param interrupted 任务执行前当前线程是否处于中断状态
+     */
+    private static void clearTaskInterrupt(boolean interrupted) {
+        Thread.interrupted();
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     private ExecutorService getActualExecutor(ExecutorService es) {
         return es == null ? executorService : es;
     }
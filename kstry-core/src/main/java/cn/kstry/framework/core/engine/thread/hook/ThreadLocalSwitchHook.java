@@ -58,6 +58,20 @@ public class ThreadLocalSwitchHook implements ThreadSwitchHook<Map<ThreadLocal<O
         threadLocalMap.keySet().forEach(ThreadLocal::remove);
     }
 
+    @Override
+    public void restoreData(Map<ThreadLocal<Object>, Object> threadLocalMap, ScopeDataQuery scopeDataQuery) {
+        if (MapUtils.isEmpty(threadLocalMap)) {
+            return;
+        }
+        threadLocalMap.forEach((threadLocal, value) -> {
+            if (value == null) {
+                threadLocal.remove();
+            } else {
+                threadLocal.set(value);
+            }
+        });
+    }
+
     @Override
     public int getOrder() {
         return HIGHEST_PRECEDENCE;
@@ -53,6 +53,26 @@ public interface ThreadSwitchHook<T> extends Ordered {
         // DO NOTHING
     }
 
+    /**
+     * 获取当前线程中的数据，任务在当前线程中直接执行前，用于保存当前线程原有的数据
+     *
+     * @param scopeDataQuery 域数据查询
+     * @return 当前线程中的数据
+     */
+    default T getCurrentData(ScopeDataQuery scopeDataQuery) {
+        return getPreviousData(scopeDataQuery);
+    }
+
+    /**
+     * 任务在当前线程中直接执行结束后，恢复当前线程原有的数据
+     *
+     * @param data           任务执行前当前线程中的数据
+     * @param scopeDataQuery 域数据查询
+     */
+    default void restoreData(T data, ScopeDataQuery scopeDataQuery) {
+        usePreviousData(data, scopeDataQuery);
+    }
+
     default int getOrder() {
         return LOWEST_PRECEDENCE;
     }
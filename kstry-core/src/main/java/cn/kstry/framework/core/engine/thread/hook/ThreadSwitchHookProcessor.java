@@ -75,6 +75,36 @@ public class ThreadSwitchHookProcessor {
         });
     }
 
+    public Map<ThreadSwitchHook<Object>, Object> getCurrentData(ScopeDataQuery scopeDataQuery) {
+        HashMap<ThreadSwitchHook<Object>, Object> resultMap = Maps.newHashMap();
+        if (CollectionUtils.isEmpty(threadSwitchHookList)) {
+            return resultMap;
+        }
+        threadSwitchHookList.forEach(hook -> {
+            Object currentData = null;
+            try {
+                currentData = hook.getCurrentData(scopeDataQuery);
+            } catch (Throwable e) {
+                LOGGER.warn("[{}] {}", ExceptionEnum.THREAD_SWITCH_HOOK_ERROR.getExceptionCode(), ExceptionEnum.THREAD_SWITCH_HOOK_ERROR.getDesc(), e);
+            }
+            resultMap.put(hook, currentData);
+        });
+        return resultMap;
+    }
+
+    public void restoreData(Map<ThreadSwitchHook<Object>, Object> dataMap, ScopeDataQuery scopeDataQuery) {
+        if (CollectionUtils.isEmpty(threadSwitchHookList) || MapUtils.isEmpty(dataMap)) {
+            return;
+        }
+        threadSwitchHookList.forEach(hook -> {
+            try {
+                hook.restoreData(dataMap.get(hook), scopeDataQuery);
+            } catch (Throwable e) {
+                LOGGER.warn("[{}] {}", ExceptionEnum.THREAD_SWITCH_HOOK_ERROR.getExceptionCode(), ExceptionEnum.THREAD_SWITCH_HOOK_ERROR.getDesc(), e);
+            }
+        });
+    }
+
     public void clear(Map<ThreadSwitchHook<Object>, Object> dataMap, ScopeDataQuery scopeDataQuery) {
         if (CollectionUtils.isEmpty(threadSwitchHookList) || MapUtils.isEmpty(dataMap)) {
             return;
@@ -71,6 +71,23 @@ public class ThreadSwitchLogHook implements ThreadSwitchHook<TraceLog> {
         MDC.remove(mdcKeyName);
     }
 
+    @Override
+    public TraceLog getCurrentData(ScopeDataQuery scopeDataQuery) {
+        TraceLog traceLog = new TraceLog();
+        traceLog.setLogId(MDC.get(GlobalProperties.KSTRY_STORY_REQUEST_ID_NAME));
+        return traceLog;
+    }
+
+    @Override
+    public void restoreData(TraceLog traceLog, ScopeDataQuery scopeDataQuery) {
+        String mdcKeyName = GlobalProperties.KSTRY_STORY_REQUEST_ID_NAME;
+        if (traceLog == null || StringUtils.isBlank(traceLog.getLogId())) {
+            MDC.remove(mdcKeyName);
+            return;
+        }
+        MDC.put(mdcKeyName, traceLog.getLogId());
+    }
+
     @Override
     public int getOrder() {
         return HIGHEST_PRECEDENCE;
@@ -0,0 +1,443 @@
+/*
+ *
+ *  * Copyright (c) 2020-2024, Lykan (jiashuomeng@gmail.com).
+ *  * <p>
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  * <p>
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  * <p>
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+package cn.kstry.framework.core.engine.timer;
+
+import cn.kstry.framework.core.container.ComponentLifecycle;
+import cn.kstry.framework.core.util.AssertUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 时间轮定时器，引擎中所有的超时控制共用一个定时器。
+ * 由单个工作线程按照固定刻度推进时间轮，新增、取消定时任务的开销为 O(1)，到期的任务交由 taskExecutor 执行。
+ * 工作线程只负责推进时间轮，到期任务中的阻塞操作会占用 taskExecutor 的线程，taskExecutor 拒绝时退化为由工作线程直接执行
+ *
+ * @author lykan
+ */
+public class HashedWheelTimer implements ComponentLifecycle {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HashedWheelTimer.class);
+
+    private static final int WORKER_INIT = 0;
+
+    private static final int WORKER_STARTED = 1;
+
+    private static final int WORKER_SHUTDOWN = 2;
+
+    /**
+     * 每个刻度最多从等待队列中转移的任务数，避免工作线程长时间停留在转移任务上
+     */
+    private static final int MAX_TRANSFER_PER_TICK = 100_000;
+
+    /**
+     * 工作线程状态
+     */
+    private final AtomicInteger workerState = new AtomicInteger(WORKER_INIT);
+
+    /**
+     * 刻度时长，单位：ns
+     */
+    private final long tickDuration;
+
+    /**
+     * 时间轮
+     */
+    private final HashedWheelBucket[] wheel;
+
+    private final int mask;
+
+    /**
+     * 等待放入时间轮的任务
+     */
+    private final Queue<HashedWheelTimeout> pendingTimeouts = new ConcurrentLinkedQueue<>();
+
+    /**
+     * 已取消、等待工作线程从时间轮中移除的任务
+     */
+    private final Queue<HashedWheelTimeout> cancelledTimeouts = new ConcurrentLinkedQueue<>();
+
+    /**
+     * 尚未到期且未被移除的任务数
+     */
+    private final AtomicLong pendingCount = new AtomicLong();
+
+    /**
+     * 允许同时等待到期的最大任务数，小于等于 0 时不限制
+     */
+    private final long maxPendingTimeouts;
+
+    /**
+     * 到期任务执行器
+     */
+    private final Executor taskExecutor;
+
+    private final Thread workerThread;
+
+    private final CountDownLatch startTimeInitialized = new CountDownLatch(1);
+
+    private final Scheduler scheduler;
+
+    /**
+     * 时间轮开始时间，单位：ns
+     */
+    private volatile long startTime;
+
+    public HashedWheelTimer(String name, long tickDuration, TimeUnit unit, int ticksPerWheel, Executor taskExecutor) {
+        this(name, tickDuration, unit, ticksPerWheel, -1, taskExecutor);
+    }
+
+    public HashedWheelTimer(String name, long tickDuration, TimeUnit unit, int ticksPerWheel, long maxPendingTimeouts, Executor taskExecutor) {
+        AssertUtil.anyNotNull(name, unit, taskExecutor);
+        AssertUtil.isTrue(tickDuration > 0 && ticksPerWheel > 0);
+        this.tickDuration = Math.max(unit.toNanos(tickDuration), TimeUnit.MILLISECONDS.toNanos(1));
+        this.wheel = new HashedWheelBucket[normalizeTicksPerWheel(ticksPerWheel)];
+        for (int i = 0; i < wheel.length; i++) {
+            wheel[i] = new HashedWheelBucket();
+        }
+        this.mask = wheel.length - 1;
+        this.maxPendingTimeouts = maxPendingTimeouts;
+        this.taskExecutor = taskExecutor;
+        this.workerThread = new Thread(this::work, name);
+        this.workerThread.setDaemon(true);
+        this.scheduler = new TimerScheduler(this);
+    }
+
+    /**
+     * 新增定时任务，到期后交由 taskExecutor 执行。等待到期的任务数超过上限时抛出 RejectedExecutionException
+     *
+     * @param task 任务
+     * @param delay 延迟时间
+     * @param unit 时间单位
+     * @return 定时任务句柄
+     */
+    public Timeout newTimeout(Runnable task, long delay, TimeUnit unit) {
+        AssertUtil.anyNotNull(task, unit);
+        start();
+        long count = pendingCount.incrementAndGet();
+        if (maxPendingTimeouts > 0 && count > maxPendingTimeouts) {
+            pendingCount.decrementAndGet();
+            throw new RejectedExecutionException("Number of pending timeouts (" + count
+                    + ") is greater than maximum allowed pending timeouts (" + maxPendingTimeouts + ")! name: " + workerThread.getName());
+        }
+        long deadline = System.nanoTime() + unit.toNanos(Math.max(delay, 0)) - startTime;
+        if (delay > 0 && deadline < 0) {
+            deadline = Long.MAX_VALUE;
+        }
+        HashedWheelTimeout timeout = new HashedWheelTimeout(task, deadline, true);
+        pendingTimeouts.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * 新增无需延迟的任务，直接交由 taskExecutor 执行，不经过时间轮。任务开始执行前可以取消
+     *
+     * @param task 任务
+     * @return 任务句柄
+     */
+    public Timeout execute(Runnable task) {
+        AssertUtil.notNull(task);
+        if (workerState.get() == WORKER_SHUTDOWN) {
+            throw new RejectedExecutionException("Timer has been stopped! name: " + workerThread.getName());
+        }
+        HashedWheelTimeout timeout = new HashedWheelTimeout(task, 0, false);
+        timeout.executeNow();
+        return timeout;
+    }
+
+    /**
+     * 基于当前定时器的 Reactor Scheduler，可用于 Mono.timeout 等需要定时的操作
+     *
+     * @return Scheduler
+     */
+    public Scheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * 获取尚未到期且未被移除的任务数
+     *
+     * @return 任务数
+     */
+    public long pendingTimeouts() {
+        return pendingCount.get();
+    }
+
+    @Override
+    public void destroy() {
+        if (workerState.getAndSet(WORKER_SHUTDOWN) != WORKER_STARTED) {
+            return;
+        }
+        workerThread.interrupt();
+        try {
+            workerThread.join(tickDuration / 1_000_000 + 100);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void start() {
+        int state = workerState.get();
+        if (state == WORKER_INIT && workerState.compareAndSet(WORKER_INIT, WORKER_STARTED)) {
+            workerThread.start();
+        } else if (state == WORKER_SHUTDOWN) {
+            throw new RejectedExecutionException("Timer has been stopped! name: " + workerThread.getName());
+        }
+        while (startTime == 0) {
+            try {
+                startTimeInitialized.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void work() {
+        long st = System.nanoTime();
+        startTime = st == 0 ? 1 : st;
+        startTimeInitialized.countDown();
+        long tick = 0;
+        while (workerState.get() == WORKER_STARTED) {
+            long deadline = waitForNextTick(tick);
+            if (deadline < 0) {
+                continue;
+            }
+            processCancelledTimeouts();
+            transferTimeoutsToBuckets(tick);
+            wheel[(int) (tick & mask)].expireTimeouts(deadline);
+            tick++;
+        }
+    }
+
+    private long waitForNextTick(long tick) {
+        long deadline = tickDuration * (tick + 1);
+        while (true) {
+            long currentTime = System.nanoTime() - startTime;
+            long sleepTimeMs = (deadline - currentTime + 999_999) / 1_000_000;
+            if (sleepTimeMs <= 0) {
+                return currentTime;
+            }
+            try {
+                Thread.sleep(sleepTimeMs);
+            } catch (InterruptedException e) {
+                if (workerState.get() == WORKER_SHUTDOWN) {
+                    return -1;
+                }
+            }
+        }
+    }
+
+    private void processCancelledTimeouts() {
+        while (true) {
+            HashedWheelTimeout timeout = cancelledTimeouts.poll();
+            if (timeout == null) {
+                return;
+            }
+            // 尚在等待队列中的任务未进入刻度，转移时会被跳过
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+            pendingCount.decrementAndGet();
+        }
+    }
+
+    private void transferTimeoutsToBuckets(long tick) {
+        for (int i = 0; i < MAX_TRANSFER_PER_TICK; i++) {
+            HashedWheelTimeout timeout = pendingTimeouts.poll();
+            if (timeout == null) {
+                return;
+            }
+            if (timeout.isCancelled()) {
+                continue;
+            }
+            long calculated = timeout.deadline / tickDuration;
+            timeout.remainingRounds = (calculated - tick) / wheel.length;
+            long ticks = Math.max(calculated, tick);
+            HashedWheelBucket bucket = wheel[(int) (ticks & mask)];
+            timeout.bucket = bucket;
+            bucket.add(timeout);
+        }
+    }
+
+    private static int normalizeTicksPerWheel(int ticksPerWheel) {
+        int normalized = 1;
+        while (normalized < ticksPerWheel) {
+            normalized <<= 1;
+        }
+        return normalized;
+    }
+
+    private final class HashedWheelTimeout implements Timeout {
+
+        private static final int ST_INIT = 0;
+
+        private static final int ST_CANCELLED = 1;
+
+        private static final int ST_EXPIRED = 2;
+
+        private final AtomicInteger state = new AtomicInteger(ST_INIT);
+
+        private final Runnable task;
+
+        private final long deadline;
+
+        /**
+         * 是否经过时间轮，经过时间轮的任务计入等待到期的任务数
+         */
+        private final boolean scheduled;
+
+        /**
+         * 以下字段仅由工作线程访问
+         */
+        private long remainingRounds;
+
+        private HashedWheelBucket bucket;
+
+        private HashedWheelTimeout next;
+
+        private HashedWheelTimeout prev;
+
+        private HashedWheelTimeout(Runnable task, long deadline, boolean scheduled) {
+            this.task = task;
+            this.deadline = deadline;
+            this.scheduled = scheduled;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (!state.compareAndSet(ST_INIT, ST_CANCELLED)) {
+                return false;
+            }
+            // 刻度链表仅由工作线程访问，取消后的任务由工作线程在下一个刻度移除，无需等到时间轮转至所在刻度
+            if (scheduled) {
+                cancelledTimeouts.add(this);
+            }
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state.get() == ST_CANCELLED;
+        }
+
+        @Override
+        public boolean isExpired() {
+            return state.get() == ST_EXPIRED;
+        }
+
+        private void expire() {
+            if (!state.compareAndSet(ST_INIT, ST_EXPIRED)) {
+                return;
+            }
+            pendingCount.decrementAndGet();
+            try {
+                taskExecutor.execute(task);
+            } catch (RejectedExecutionException e) {
+                // 执行器拒绝时由工作线程直接执行，保证等待到期的一方不会一直阻塞
+                runTask();
+            } catch (Throwable e) {
+                LOGGER.warn("An exception was thrown while submitting the expired timer task! name: {}", workerThread.getName(), e);
+            }
+        }
+
+        private void executeNow() {
+            Runnable expireTask = () -> {
+                if (state.compareAndSet(ST_INIT, ST_EXPIRED)) {
+                    runTask();
+                }
+            };
+            try {
+                taskExecutor.execute(expireTask);
+            } catch (RejectedExecutionException e) {
+                // 执行器拒绝时由当前线程直接执行
+                expireTask.run();
+            }
+        }
+
+        private void runTask() {
+            try {
+                task.run();
+            } catch (Throwable e) {
+                LOGGER.warn("An exception was thrown while running the expired timer task! name: {}", workerThread.getName(), e);
+            }
+        }
+    }
+
+    /**
+     * 时间轮的刻度，双向链表仅由工作线程访问
+     */
+    private static final class HashedWheelBucket {
+
+        private HashedWheelTimeout head;
+
+        private HashedWheelTimeout tail;
+
+        private void add(HashedWheelTimeout timeout) {
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        private void expireTimeouts(long deadline) {
+            HashedWheelTimeout timeout = head;
+            while (timeout != null) {
+                HashedWheelTimeout next = timeout.next;
+                // 已取消的任务由 processCancelledTimeouts 扣减计数，到期时 expire 不会再执行
+                if (timeout.remainingRounds <= 0 && timeout.deadline <= deadline) {
+                    remove(timeout);
+                    timeout.expire();
+                } else if (timeout.remainingRounds > 0) {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        private void remove(HashedWheelTimeout timeout) {
+            HashedWheelTimeout next = timeout.next;
+            if (timeout.prev != null) {
+                timeout.prev.next = next;
+            }
+            if (next != null) {
+                next.prev = timeout.prev;
+            }
+            if (timeout == head) {
+                head = next;
+            }
+            if (timeout == tail) {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ *
+ *  * Copyright (c) 2020-2024, Lykan (jiashuomeng@gmail.com).
+ *  * <p>
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  * <p>
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  * <p>
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+package cn.kstry.framework.core.engine.timer;
+
+/**
+ * 定时任务句柄
+ *
+ * @author lykan
+ */
+public interface Timeout {
+
+    /**
+     * 取消定时任务，定时任务已执行或已取消时返回 false
+     *
+     * @return 是否取消成功
+     */
+    boolean cancel();
+
+    /**
+     * 定时任务是否已取消
+     *
+     * @return 是否已取消
+     */
+    boolean isCancelled();
+
+    /**
+     * 定时任务是否已到期执行
+     *
+     * @return 是否已到期
+     */
+    boolean isExpired();
+}
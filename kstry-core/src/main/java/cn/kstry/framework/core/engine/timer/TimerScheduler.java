@@ -0,0 +1,121 @@
+/*
+ *
+ *  * Copyright (c) 2020-2024, Lykan (jiashuomeng@gmail.com).
+ *  * <p>
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  * <p>
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  * <p>
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+package cn.kstry.framework.core.engine.timer;
+
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 基于时间轮定时器的 Reactor Scheduler，供 Mono.timeout 等操作共用引擎的定时器
+ *
+ * @author lykan
+ */
+public class TimerScheduler implements Scheduler {
+
+    private final HashedWheelTimer timer;
+
+    public TimerScheduler(HashedWheelTimer timer) {
+        this.timer = timer;
+    }
+
+    @Override
+    public Disposable schedule(Runnable task) {
+        return schedule(task, 0, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+        if (delay <= 0) {
+            // 无需延迟的任务直接交由执行器执行，不进入时间轮等待下一个刻度
+            return new TimeoutDisposable(timer.execute(task));
+        }
+        return new TimeoutDisposable(timer.newTimeout(task, delay, unit));
+    }
+
+    @Override
+    public Worker createWorker() {
+        return new TimerWorker();
+    }
+
+    private static final class TimeoutDisposable implements Disposable {
+
+        private final Timeout timeout;
+
+        private TimeoutDisposable(Timeout timeout) {
+            this.timeout = timeout;
+        }
+
+        @Override
+        public void dispose() {
+            timeout.cancel();
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return timeout.isCancelled() || timeout.isExpired();
+        }
+    }
+
+    private final class TimerWorker implements Worker {
+
+        private final Disposable.Composite tasks = Disposables.composite();
+
+        @Override
+        public Disposable schedule(Runnable task) {
+            return schedule(task, 0, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+            // 任务可能在其他线程中先于赋值执行结束，通过 AtomicReference 保证执行线程可见
+            AtomicReference<Disposable> holder = new AtomicReference<>();
+            Disposable disposable = TimerScheduler.this.schedule(() -> {
+                try {
+                    task.run();
+                } finally {
+                    Disposable d = holder.get();
+                    if (d != null) {
+                        tasks.remove(d);
+                    }
+                }
+            }, delay, unit);
+            holder.set(disposable);
+            if (!tasks.add(disposable)) {
+                disposable.dispose();
+            } else if (disposable.isDisposed()) {
+                // 任务在加入前已开始执行，执行线程可能未能移除
+                tasks.remove(disposable);
+            }
+            return disposable;
+        }
+
+        @Override
+        public void dispose() {
+            tasks.dispose();
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return tasks.isDisposed();
+        }
+    }
+}
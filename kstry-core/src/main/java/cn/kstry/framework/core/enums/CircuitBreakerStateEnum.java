@@ -0,0 +1,41 @@
+/*
+ *
+ *  * Copyright (c) 2020-2024, Lykan (jiashuomeng@gmail.com).
+ *  * <p>
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  * <p>
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  * <p>
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+package cn.kstry.framework.core.enums;
+
+/**
+ * 服务节点熔断器状态
+ *
+ * @author lykan
+ */
+public enum CircuitBreakerStateEnum {
+
+    /**
+     * 关闭，正常调用服务节点
+     */
+    CLOSED,
+
+    /**
+     * 打开，不再调用服务节点，直接执行降级服务节点
+     */
+    OPEN,
+
+    /**
+     * 半开，打开时间到期后放行一次探测调用，探测成功后关闭熔断器，失败后重新打开
+     */
+    HALF_OPEN
+}
@@ -0,0 +1,61 @@
+/*
+ *
+ *  * Copyright (c) 2020-2024, Lykan (jiashuomeng@gmail.com).
+ *  * <p>
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  * <p>
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  * <p>
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+package cn.kstry.framework.core.enums;
+
+import cn.kstry.framework.core.exception.ExceptionEnum;
+import cn.kstry.framework.core.util.ExceptionUtil;
+import cn.kstry.framework.core.util.GlobalUtil;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * 服务节点返回 Mono 时，结果产生后后续节点的执行策略
+ *
+ * @author lykan
+ */
+public enum ContinuationPolicyEnum {
+
+    /**
+     * 提交至 Story 线程池执行，默认策略
+     */
+    STORY_EXECUTOR,
+
+    /**
+     * 直接在产生结果的线程中继续执行，省去一次线程池排队与线程切换。
+     * 后续节点会运行在 Mono 的发布线程上（如 Netty IO 线程），后续节点中存在阻塞操作时不建议使用
+     */
+    INLINE,
+
+    /**
+     * 提交至 Reactor Scheduler 执行。容器中存在名为 kstry-continuation-scheduler 的 Scheduler 时使用该 Scheduler，否则使用 Schedulers.boundedElastic()
+     */
+    SCHEDULER;
+
+    public static ContinuationPolicyEnum of(String policy) {
+        if (StringUtils.isBlank(policy)) {
+            return STORY_EXECUTOR;
+        }
+        String p = policy.replace("-", "_");
+        return Stream.of(values()).filter(e -> Objects.equals(e.name().toLowerCase(), p.toLowerCase())).findFirst()
+                .orElseThrow(() -> ExceptionUtil.buildException(null, ExceptionEnum.CONFIGURATION_PARSE_FAILURE,
+                        GlobalUtil.format("Unknown mono continuation policy! policy: {}, optional: {}", policy, Arrays.toString(values()))));
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ *
+ *  * Copyright (c) 2020-2024, Lykan (jiashuomeng@gmail.com).
+ *  * <p>
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  * <p>
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  * <p>
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+package cn.kstry.framework.core.enums;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * 服务节点设置超时时间（@Invoke(timeout)）时，目标方法的执行方式
+ *
+ * @author lykan
+ */
+public enum MethodTimeoutModeEnum {
+
+    /**
+     * 提交至方法线程池执行，流程片段线程阻塞等待结果，默认方式
+     */
+    THREAD_POOL,
+
+    /**
+     * 直接在流程片段线程中执行，同时在定时器中登记截止时间，到期后中断执行线程并以超时结束。
+     * 不响应中断的方法会执行至返回后再以超时结束
+     */
+    DEADLINE,
+
+    /**
+     * 提交至方法线程池执行，流程片段线程不再等待，方法返回后按照 Mono 结果的方式继续执行后续节点。
+     * 任务拦截器在方法线程中围绕目标方法执行。迭代节点、降级节点不适用该方式，以 DEADLINE 方式执行
+     */
+    CONTINUATION;
+
+    public static MethodTimeoutModeEnum of(String mode) {
+        if (StringUtils.isBlank(mode)) {
+            return THREAD_POOL;
+        }
+        String m = mode.replace("-", "_");
+        return Stream.of(values()).filter(e -> Objects.equals(e.name().toLowerCase(), m.toLowerCase())).findFirst().orElse(THREAD_POOL);
+    }
+}
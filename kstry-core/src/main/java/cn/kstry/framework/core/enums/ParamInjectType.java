@@ -0,0 +1,71 @@
+/*
+ *
+ *  * Copyright (c) 2020-2024, Lykan (jiashuomeng@gmail.com).
+ *  * <p>
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  * <p>
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  * <p>
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+package cn.kstry.framework.core.enums;
+
+/**
+ * 服务节点方法入参的注入方式，在方法解析时确定，执行时直接按注入方式取值
+ *
+ * @author lykan
+ */
+public enum ParamInjectType {
+
+    /**
+     * 不需要注入，使用默认值
+     */
+    DEFAULT,
+
+    /**
+     * 非注解参数，尝试使用参数名从 var、sta 域中读取
+     */
+    FIELD_NAME,
+
+    /**
+     * 注入 request 对象本身
+     */
+    REQUEST_SELF,
+
+    /**
+     * 注入指令内容 InstructContent
+     */
+    INSTRUCT_CONTENT,
+
+    /**
+     * 注入迭代数据 IterDataItem
+     */
+    ITER_DATA_ITEM,
+
+    /**
+     * 注入当前角色 Role
+     */
+    ROLE,
+
+    /**
+     * 注入 ScopeDataOperator
+     */
+    SCOPE_DATA_OPERATOR,
+
+    /**
+     * 从 StoryBus 指定域中获取变量注入
+     */
+    SCOPE_DATA,
+
+    /**
+     * 初始化参数 Bean，并对 Bean 字段进行注入
+     */
+    BEAN
+}
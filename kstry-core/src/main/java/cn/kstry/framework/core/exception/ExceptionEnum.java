@@ -250,6 +250,11 @@ public enum ExceptionEnum {
      */
     RATE_LIMITER_ERROR(ExceptionTypeEnum.NODE_INVOKE, "0008", "The service node is subject to rate limiting!"),
 
+    /**
+     * [K1050009] 熔断异常
+     */
+    CIRCUIT_BREAKER_OPEN(ExceptionTypeEnum.NODE_INVOKE, "0009", "The service node circuit breaker is open!"),
+
     ///////////////////////////////////////////////// NODE_INVOKE END /////////////////////////////////////////////////
 
     /**
@@ -17,6 +17,7 @@
  */
 package cn.kstry.framework.core.monitor;
 
+import cn.kstry.framework.core.enums.CircuitBreakerStateEnum;
 import cn.kstry.framework.core.util.GlobalUtil;
 import com.alibaba.fastjson.annotation.JSONField;
 
@@ -42,6 +43,11 @@ public class DemotionInfo {
      */
     private int retryTimes;
 
+    /**
+     * 熔断器状态，熔断器状态发生变化或熔断器未关闭直接降级时记录，未开启熔断器时为空
+     */
+    private CircuitBreakerStateEnum circuitBreakerState;
+
     /**
      * 降级失败异常
      */
@@ -64,6 +70,14 @@ public class DemotionInfo {
         this.retryTimes = retryTimes;
     }
 
+    public CircuitBreakerStateEnum getCircuitBreakerState() {
+        return circuitBreakerState;
+    }
+
+    public void setCircuitBreakerState(CircuitBreakerStateEnum circuitBreakerState) {
+        this.circuitBreakerState = circuitBreakerState;
+    }
+
     public Boolean getDemotionSuccess() {
         return demotionSuccess;
     }
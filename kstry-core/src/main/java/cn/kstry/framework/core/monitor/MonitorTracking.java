@@ -31,6 +31,7 @@ import cn.kstry.framework.core.component.utils.BasicInStack;
 import cn.kstry.framework.core.component.utils.InStack;
 import cn.kstry.framework.core.constant.GlobalProperties;
 import cn.kstry.framework.core.engine.FlowRegister;
+import cn.kstry.framework.core.enums.CircuitBreakerStateEnum;
 import cn.kstry.framework.core.enums.TrackingTypeEnum;
 import cn.kstry.framework.core.exception.ExceptionEnum;
 import cn.kstry.framework.core.util.AssertUtil;
@@ -282,6 +283,17 @@ public class MonitorTracking {
         getServiceNodeTracking(flowElement).ifPresent(tracking -> tracking.setDemotionInfo(demotionInfo));
     }
 
+    public void circuitBreakerTracking(FlowElement flowElement, CircuitBreakerStateEnum circuitBreakerState) {
+        getServiceNodeTracking(flowElement).ifPresent(tracking -> {
+            DemotionInfo demotionInfo = tracking.getDemotionInfo();
+            if (demotionInfo == null) {
+                demotionInfo = new DemotionInfo();
+                tracking.setDemotionInfo(demotionInfo);
+            }
+            demotionInfo.setCircuitBreakerState(circuitBreakerState);
+        });
+    }
+
     public void timeoutTaskTracking(FlowElement flowElement, Integer timeout) {
         getServiceNodeTracking(flowElement).ifPresent(tracking -> tracking.setTimeout(timeout));
     }
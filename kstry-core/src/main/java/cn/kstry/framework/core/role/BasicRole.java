@@ -19,11 +19,15 @@ package cn.kstry.framework.core.role;
 
 import cn.kstry.framework.core.component.utils.BasicInStack;
 import cn.kstry.framework.core.component.utils.InStack;
+import cn.kstry.framework.core.enums.PermissionType;
 import cn.kstry.framework.core.enums.ServiceNodeType;
 import cn.kstry.framework.core.exception.ExceptionEnum;
 import cn.kstry.framework.core.resource.identity.Identity;
+import cn.kstry.framework.core.resource.service.ServiceNodeResourceAuth;
+import cn.kstry.framework.core.resource.service.ServiceNodeResourceItem;
 import cn.kstry.framework.core.role.permission.Permission;
 import cn.kstry.framework.core.role.permission.PermissionAuth;
+import cn.kstry.framework.core.role.permission.SimplePermission;
 import cn.kstry.framework.core.util.ExceptionUtil;
 import com.google.common.collect.*;
 import org.apache.commons.collections.CollectionUtils;
@@ -33,10 +37,14 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * 角色基类
+ * <p>
+ * 角色自身及全部父级角色的权限被编译为扁平的不可变权限索引，鉴权时无需加锁、无需遍历角色层级。
+ * 权限或父级角色发生变化时，当前角色及其全部子级角色的权限索引失效，在下一次鉴权时重新编译
  *
  * @author lykan
  */
@@ -52,6 +60,11 @@ public class BasicRole implements Role {
      */
     private final Set<Role> parentRoles = Sets.newHashSet();
 
+    /**
+     * 子级 角色集合，弱引用持有，用于权限变化时使子级角色的权限索引失效
+     */
+    private final Set<BasicRole> childRoles = Sets.newSetFromMap(new MapMaker().weakKeys().makeMap());
+
     /**
      * 权限桶
      */
@@ -62,6 +75,16 @@ public class BasicRole implements Role {
      */
     private final ReentrantReadWriteLock readWriteLock = new ReentrantReadWriteLock();
 
+    /**
+     * 权限索引版本，权限索引失效时递增
+     */
+    private final AtomicLong indexVersion = new AtomicLong();
+
+    /**
+     * 权限索引，为空时代表需要重新编译
+     */
+    private volatile PermissionIndex permissionIndex;
+
     public BasicRole() {
         this(null);
     }
@@ -77,25 +100,10 @@ public class BasicRole implements Role {
 
     @Override
     public boolean allowedUseResource(PermissionAuth permissionAuth) {
-        ReentrantReadWriteLock.ReadLock readLock = readWriteLock.readLock();
-        readLock.lock();
-        try {
-            InStack<Role> roleStack = new BasicInStack<>();
-            roleStack.push(this);
-            while (!roleStack.isEmpty()) {
-                Role role = roleStack.pop().orElseThrow(() -> ExceptionUtil.buildException(null, ExceptionEnum.SYSTEM_ERROR, null));
-                if (permissionAuth.auth(role.getPermission().get(permissionAuth.getServiceNodeType()))) {
-                    return true;
-                }
-                if (CollectionUtils.isEmpty(role.getParentRole())) {
-                    continue;
-                }
-                roleStack.pushCollection(role.getParentRole());
-            }
+        if (permissionAuth == null) {
             return false;
-        } finally {
-            readLock.unlock();
         }
+        return getPermissionIndex().allowed(permissionAuth);
     }
 
     @Override
@@ -109,10 +117,12 @@ public class BasicRole implements Role {
         try {
             if (notExistCircularDependency(roleSet, this)) {
                 this.parentRoles.addAll(roleSet);
+                roleSet.stream().filter(role -> role instanceof BasicRole).forEach(role -> ((BasicRole) role).childRoles.add(this));
             }
         } finally {
             writeLock.unlock();
         }
+        invalidatePermissionIndex();
     }
 
     @Override
@@ -144,6 +154,7 @@ public class BasicRole implements Role {
         } finally {
             writeLock.unlock();
         }
+        invalidatePermissionIndex();
     }
 
     @Override
@@ -157,6 +168,92 @@ public class BasicRole implements Role {
         }
     }
 
+    @Override
+    public long getPermissionVersion() {
+        long version = indexVersion.get();
+        if (!getPermissionIndex().cacheable || indexVersion.get() != version) {
+            return -1;
+        }
+        return version;
+    }
+
+    /**
+     * 获取权限索引，索引失效时重新编译
+     * <p>
+     * 角色层级中存在非 BasicRole 实现的角色时，无法感知其权限变化，编译得到的索引不做缓存
+     */
+    private PermissionIndex getPermissionIndex() {
+        PermissionIndex index = this.permissionIndex;
+        if (index != null) {
+            return index;
+        }
+        long version = indexVersion.get();
+        index = compilePermissionIndex();
+        // 编译期间权限发生变化时，不发布已过期的索引
+        if (index.cacheable && indexVersion.get() == version) {
+            this.permissionIndex = index;
+            if (indexVersion.get() != version) {
+                this.permissionIndex = null;
+            }
+        }
+        return index;
+    }
+
+    private PermissionIndex compilePermissionIndex() {
+        ImmutableSetMultimap.Builder<PermissionType, String> permissionIdBuilder = ImmutableSetMultimap.builder();
+        ImmutableListMultimap.Builder<ServiceNodeType, Permission> permissionBuilder = ImmutableListMultimap.builder();
+        boolean cacheable = true;
+        ReentrantReadWriteLock.ReadLock readLock = readWriteLock.readLock();
+        readLock.lock();
+        try {
+            permissionBucket.forEach((serviceNodeType, list) -> list.forEach(permission -> {
+                permissionIdBuilder.put(permission.getPermissionType(), permission.getIdentityId());
+                permissionBuilder.put(serviceNodeType, permission);
+            }));
+            for (Role parentRole : parentRoles) {
+                if (parentRole instanceof BasicRole) {
+                    PermissionIndex parentIndex = ((BasicRole) parentRole).getPermissionIndex();
+                    permissionIdBuilder.putAll(parentIndex.permissionIds);
+                    permissionBuilder.putAll(parentIndex.permissions);
+                    cacheable = cacheable && parentIndex.cacheable;
+                    continue;
+                }
+                cacheable = false;
+                InStack<Role> roleStack = new BasicInStack<>();
+                roleStack.push(parentRole);
+                while (!roleStack.isEmpty()) {
+                    Role role = roleStack.pop().orElseThrow(() -> ExceptionUtil.buildException(null, ExceptionEnum.SYSTEM_ERROR, null));
+                    role.getPermission().forEach((serviceNodeType, list) -> list.forEach(permission -> {
+                        permissionIdBuilder.put(permission.getPermissionType(), permission.getIdentityId());
+                        permissionBuilder.put(serviceNodeType, permission);
+                    }));
+                    if (CollectionUtils.isNotEmpty(role.getParentRole())) {
+                        roleStack.pushCollection(role.getParentRole());
+                    }
+                }
+            }
+        } finally {
+            readLock.unlock();
+        }
+        return new PermissionIndex(permissionIdBuilder.build(), permissionBuilder.build(), cacheable);
+    }
+
+    /**
+     * 使当前角色及全部子级角色的权限索引失效
+     */
+    private void invalidatePermissionIndex() {
+        InStack<BasicRole> roleStack = new BasicInStack<>();
+        roleStack.push(this);
+        while (!roleStack.isEmpty()) {
+            BasicRole role = roleStack.pop().orElseThrow(() -> ExceptionUtil.buildException(null, ExceptionEnum.SYSTEM_ERROR, null));
+            role.indexVersion.incrementAndGet();
+            role.permissionIndex = null;
+            if (CollectionUtils.isNotEmpty(role.childRoles)) {
+                roleStack.pushCollection(role.childRoles);
+            }
+        }
+    }
+
     private boolean notExistCircularDependency(Set<Role> roleSet, Role checkRole) {
         if (CollectionUtils.isEmpty(roleSet)) {
             return true;
@@ -175,4 +272,54 @@ public class BasicRole implements Role {
         }
         return true;
     }
+
+    /**
+     * 扁平的不可变权限索引，包含角色自身及全部父级角色的权限
+     */
+    private static class PermissionIndex {
+
+        /**
+         * 权限类型 -> 权限标识
+         */
+        private final ImmutableSetMultimap<PermissionType, String> permissionIds;
+
+        /**
+         * 服务节点类型 -> 权限，用于自定义的 PermissionAuth 鉴权
+         */
+        private final ImmutableListMultimap<ServiceNodeType, Permission> permissions;
+
+        /**
+         * 是否可以缓存
+         */
+        private final boolean cacheable;
+
+        PermissionIndex(ImmutableSetMultimap<PermissionType, String> permissionIds, ImmutableListMultimap<ServiceNodeType, Permission> permissions, boolean cacheable) {
+            this.permissionIds = permissionIds;
+            this.permissions = permissions;
+            this.cacheable = cacheable;
+        }
+
+        /**
+         * 仅内置的 SimplePermission、ServiceNodeResourceItem 直接查询权限索引，子类或自定义实现可能重写了 auth()，需调用 auth() 鉴权
+         */
+        boolean allowed(PermissionAuth permissionAuth) {
+            if (permissionAuth.getClass() == SimplePermission.class) {
+                Permission permission = (Permission) permissionAuth;
+                return permissionIds.containsEntry(permission.getPermissionType(), permission.getIdentityId());
+            }
+            if (permissionAuth.getClass() == ServiceNodeResourceItem.class) {
+                ServiceNodeResourceAuth resource = (ServiceNodeResourceAuth) permissionAuth;
+                for (PermissionType permissionType : PermissionType.values()) {
+                    if (permissionType.getServiceNodeType() != resource.getServiceNodeType() || !permissionIds.containsKey(permissionType)) {
+                        continue;
+                    }
+                    if (permissionType.getPermissionId(resource).filter(id -> permissionIds.containsEntry(permissionType, id)).isPresent()) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            return permissionAuth.auth(permissions.get(permissionAuth.getServiceNodeType()));
+        }
+    }
 }
@@ -74,4 +74,14 @@ public interface Role {
      * @return 权限（副本）
      */
     Map<ServiceNodeType, List<Permission>> getPermission();
+
+    /**
+     * 获取角色权限版本，角色自身或父级角色的权限发生变化时版本随之变化。
+     * 版本小于 0 代表无法感知权限变化，基于该角色得到的服务节点匹配结果不能被缓存
+     *
+     * @return 权限版本
+     */
+    default long getPermissionVersion() {
+        return -1;
+    }
 }
@@ -0,0 +1,290 @@
+/*
+ *
+ *  * Copyright (c) 2020-2024, Lykan (jiashuomeng@gmail.com).
+ *  * <p>
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  * <p>
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  * <p>
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+package cn.kstry.framework.core.util;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Lists;
+import org.apache.commons.beanutils.DynaBean;
+import org.apache.commons.beanutils.MethodUtils;
+import org.apache.commons.beanutils.NestedNullException;
+import org.apache.commons.beanutils.PropertyUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.BeanUtils;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 编译后的属性访问。属性路径只解析一次，每个类的每个属性只内省一次并生成 MethodHandle，之后的访问不再经过反射内省
+ * 包含下标、Map键等复杂语法的路径以及 DynaBean，仍交给 commons-beanutils 处理
+ * 模块规则下无法生成 MethodHandle 的成员（如未导出包中 JDK 内部类的方法），改用公共父类或接口中声明的同一方法，仍不可用时反射调用
+ *
+ * @author lykan
+ */
+public class PropertyAccessUtil {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    /**
+     * 不存在的属性使用该对象占位，避免重复内省
+     */
+    private static final PropertyHandle ABSENT_HANDLE = new PropertyHandle(null, null, null, null);
+
+    /**
+     * 解析后的属性路径，key：属性路径。复杂路径对应空数组
+     */
+    private static final Cache<String, String[]> propertyPathCache = CacheBuilder.newBuilder()
+            .concurrencyLevel(8).initialCapacity(1024).maximumSize(50_000).expireAfterAccess(1, TimeUnit.HOURS).build();
+
+    /**
+     * 由当前类加载器或其父加载器加载的类的属性访问句柄，与框架的生命周期一致，强引用缓存
+     */
+    private static final Map<Class<?>, Map<String, PropertyHandle>> propertyHandleCache = new ConcurrentHashMap<>(256);
+
+    /**
+     * 由其他类加载器（如热部署使用的类加载器）加载的类的属性访问句柄。句柄会引用目标类，
+     * 使用弱引用键、软引用值缓存，避免框架持有句柄导致类加载器无法卸载
+     */
+    private static final Cache<Class<?>, Map<String, PropertyHandle>> foreignPropertyHandleCache = CacheBuilder.newBuilder().weakKeys().softValues().build();
+
+    private static final String[] COMPLEX_PATH = new String[0];
+
+    public static Object getProperty(Object bean, String propertyName) throws Throwable {
+        String[] path = parsePath(propertyName);
+        if (path == COMPLEX_PATH) {
+            return PropertyUtils.getProperty(bean, propertyName);
+        }
+        Object current = bean;
+        for (int i = 0; i < path.length; i++) {
+            if (current == null) {
+                throw new NestedNullException("Null property value for '" + path[i - 1] + "' on bean class '" + bean.getClass() + "'");
+            }
+            current = getSimpleProperty(current, path[i]);
+        }
+        return current;
+    }
+
+    public static void setProperty(Object target, String propertyName, Object value) throws Throwable {
+        String[] path = parsePath(propertyName);
+        if (path == COMPLEX_PATH) {
+            PropertyUtils.setProperty(target, propertyName, value);
+            return;
+        }
+        Object current = target;
+        for (int i = 0; i < path.length - 1; i++) {
+            current = getSimpleProperty(current, path[i]);
+            if (current == null) {
+                throw new NestedNullException("Null property value for '" + path[i] + "' on bean class '" + target.getClass() + "'");
+            }
+        }
+        setSimpleProperty(current, path[path.length - 1], value);
+    }
+
+    private static Object getSimpleProperty(Object bean, String name) throws Throwable {
+        if (bean instanceof Map) {
+            return ((Map<?, ?>) bean).get(name);
+        }
+        if (bean instanceof DynaBean) {
+            return PropertyUtils.getSimpleProperty(bean, name);
+        }
+        PropertyHandle handle = getPropertyHandle(bean.getClass(), name);
+        if (!handle.readable()) {
+            throw new NoSuchMethodException("Unknown property '" + name + "' on class '" + bean.getClass() + "'");
+        }
+        return handle.get(bean);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void setSimpleProperty(Object bean, String name, Object value) throws Throwable {
+        if (bean instanceof Map) {
+            ((Map<Object, Object>) bean).put(name, value);
+            return;
+        }
+        if (bean instanceof DynaBean) {
+            PropertyUtils.setSimpleProperty(bean, name, value);
+            return;
+        }
+        PropertyHandle handle = getPropertyHandle(bean.getClass(), name);
+        if (!handle.writeable()) {
+            throw new NoSuchMethodException("Property '" + name + "' has no setter method in class '" + bean.getClass() + "'");
+        }
+        handle.set(bean, value);
+    }
+
+    private static String[] parsePath(String propertyName) throws ExecutionException {
+        String[] path = propertyPathCache.getIfPresent(propertyName);
+        if (path != null) {
+            return path;
+        }
+        return propertyPathCache.get(propertyName, () -> {
+            if (StringUtils.containsAny(propertyName, '[', ']', '(', ')')) {
+                return COMPLEX_PATH;
+            }
+            String[] split = StringUtils.splitPreserveAllTokens(propertyName, '.');
+            for (String s : split) {
+                if (StringUtils.isEmpty(s)) {
+                    return COMPLEX_PATH;
+                }
+            }
+            return split;
+        });
+    }
+
+    private static PropertyHandle getPropertyHandle(Class<?> beanClass, String name) throws ExecutionException {
+        Map<String, PropertyHandle> handleMap = getPropertyHandleMap(beanClass);
+        PropertyHandle handle = handleMap.get(name);
+        if (handle != null) {
+            return handle;
+        }
+        return handleMap.computeIfAbsent(name, n -> newPropertyHandle(beanClass, n));
+    }
+
+    private static Map<String, PropertyHandle> getPropertyHandleMap(Class<?> beanClass) throws ExecutionException {
+        Map<String, PropertyHandle> handleMap = propertyHandleCache.get(beanClass);
+        if (handleMap != null) {
+            return handleMap;
+        }
+        if (ClassUtils.isCacheSafe(beanClass, PropertyAccessUtil.class.getClassLoader())) {
+            return propertyHandleCache.computeIfAbsent(beanClass, c -> new ConcurrentHashMap<>());
+        }
+        return foreignPropertyHandleCache.get(beanClass, ConcurrentHashMap::new);
+    }
+
+    private static PropertyHandle newPropertyHandle(Class<?> beanClass, String name) {
+        PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(beanClass, name);
+        if (descriptor == null) {
+            return ABSENT_HANDLE;
+        }
+        MethodHandle getter = unreflect(beanClass, descriptor.getReadMethod(), GETTER_TYPE);
+        MethodHandle setter = unreflect(beanClass, descriptor.getWriteMethod(), SETTER_TYPE);
+        Method readMethod = getter == null ? getAccessibleMethod(beanClass, descriptor.getReadMethod()) : null;
+        Method writeMethod = setter == null ? getAccessibleMethod(beanClass, descriptor.getWriteMethod()) : null;
+        PropertyHandle handle = new PropertyHandle(getter, readMethod, setter, writeMethod);
+        if (!handle.readable() && !handle.writeable()) {
+            return ABSENT_HANDLE;
+        }
+        return handle;
+    }
+
+    private static MethodHandle unreflect(Class<?> beanClass, Method method, MethodType type) {
+        if (method == null) {
+            return null;
+        }
+        try {
+            ReflectionUtils.makeAccessible(method);
+            return MethodHandles.lookup().unreflect(method).asType(type);
+        } catch (Exception e) {
+            // 方法所在类位于未导出或未开放的模块包中，查找公共父类或接口中声明的同一方法
+            return unreflectPublic(beanClass, method, type);
+        }
+    }
+
+    private static MethodHandle unreflectPublic(Class<?> beanClass, Method method, MethodType type) {
+        List<Class<?>> typeList = Lists.newArrayList();
+        for (Class<?> c = beanClass.getSuperclass(); c != null; c = c.getSuperclass()) {
+            typeList.add(c);
+        }
+        typeList.addAll(ClassUtils.getAllInterfacesForClassAsSet(beanClass));
+        for (Class<?> t : typeList) {
+            if (!Modifier.isPublic(t.getModifiers())) {
+                continue;
+            }
+            try {
+                Method publicMethod = t.getMethod(method.getName(), method.getParameterTypes());
+                return MethodHandles.publicLookup().unreflect(publicMethod).asType(type);
+            } catch (Exception e) {
+                // 当前类型中不存在或不可访问，继续查找
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 无法生成 MethodHandle 时，获取可以直接反射调用的方法
+     */
+    private static Method getAccessibleMethod(Class<?> beanClass, Method method) {
+        if (method == null) {
+            return null;
+        }
+        return MethodUtils.getAccessibleMethod(beanClass, method);
+    }
+
+    private static class PropertyHandle {
+
+        private final MethodHandle getter;
+
+        private final Method readMethod;
+
+        private final MethodHandle setter;
+
+        private final Method writeMethod;
+
+        private PropertyHandle(MethodHandle getter, Method readMethod, MethodHandle setter, Method writeMethod) {
+            this.getter = getter;
+            this.readMethod = readMethod;
+            this.setter = setter;
+            this.writeMethod = writeMethod;
+        }
+
+        private boolean readable() {
+            return getter != null || readMethod != null;
+        }
+
+        private boolean writeable() {
+            return setter != null || writeMethod != null;
+        }
+
+        private Object get(Object bean) throws Throwable {
+            if (getter != null) {
+                return getter.invokeExact(bean);
+            }
+            return invoke(readMethod, bean);
+        }
+
+        private void set(Object bean, Object value) throws Throwable {
+            if (setter != null) {
+                setter.invokeExact(bean, value);
+                return;
+            }
+            invoke(writeMethod, bean, value);
+        }
+
+        private static Object invoke(Method method, Object bean, Object... args) throws Throwable {
+            try {
+                return method.invoke(bean, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+}
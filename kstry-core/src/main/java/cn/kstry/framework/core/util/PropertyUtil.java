@@ -20,11 +20,12 @@ package cn.kstry.framework.core.util;
 import cn.kstry.framework.core.constant.ConfigPropertyNameConstant;
 import cn.kstry.framework.core.constant.GlobalConstant;
 import cn.kstry.framework.core.constant.GlobalProperties;
+import cn.kstry.framework.core.enums.ContinuationPolicyEnum;
+import cn.kstry.framework.core.enums.MethodTimeoutModeEnum;
 import cn.kstry.framework.core.enums.ScopeTypeEnum;
 import cn.kstry.framework.core.exception.ExceptionEnum;
 import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.JSONPath;
-import org.apache.commons.beanutils.PropertyUtils;
 import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.math.NumberUtils;
@@ -60,7 +61,7 @@ public class PropertyUtil {
             if (propertyName.startsWith("$")) {
                 return GlobalUtil.resOptional(JSONPath.eval(bean, propertyName));
             }
-            return GlobalUtil.resOptional(PropertyUtils.getProperty(bean, propertyName));
+            return GlobalUtil.resOptional(PropertyAccessUtil.getProperty(bean, propertyName));
         } catch (NoSuchMethodException e) {
             LOGGER.warn("[{}] Error accessing a non-existent variable! propertyName: {}, class: {}",
                     ExceptionEnum.FAILED_GET_PROPERTY.getExceptionCode(), propertyName, bean.getClass());
@@ -80,7 +81,7 @@ public class PropertyUtil {
                 ((ConcurrentHashMap<?, ?>) target).remove(propertyName);
                 return true;
             }
-            PropertyUtils.setProperty(target, propertyName, value);
+            PropertyAccessUtil.setProperty(target, propertyName, value);
             return true;
         } catch (NoSuchMethodException e) {
             LOGGER.warn("[{}] Unknown property to set bean property! targetName: {}, propertyName: {}, value: {}",
@@ -179,6 +180,26 @@ public class PropertyUtil {
             GlobalProperties.SERVICE_NODE_DEFINE_PARAMS = BooleanUtils.toBoolean(kstryStoryDefineNodeParams);
         }
 
+        String kstryStoryCallerRuns = environment.getProperty(ConfigPropertyNameConstant.KSTRY_STORY_CALLER_RUNS);
+        if (StringUtils.isNotBlank(kstryStoryCallerRuns)) {
+            GlobalProperties.KSTRY_STORY_CALLER_RUNS = BooleanUtils.toBoolean(kstryStoryCallerRuns);
+        }
+
+        String kstryStoryMonoContinuation = environment.getProperty(ConfigPropertyNameConstant.KSTRY_STORY_MONO_CONTINUATION);
+        if (StringUtils.isNotBlank(kstryStoryMonoContinuation)) {
+            GlobalProperties.KSTRY_STORY_MONO_CONTINUATION = ContinuationPolicyEnum.of(kstryStoryMonoContinuation);
+        }
+
+        String kstryStorySubProcessInline = environment.getProperty(ConfigPropertyNameConstant.KSTRY_STORY_SUB_PROCESS_INLINE);
+        if (StringUtils.isNotBlank(kstryStorySubProcessInline)) {
+            GlobalProperties.KSTRY_STORY_SUB_PROCESS_INLINE = BooleanUtils.toBoolean(kstryStorySubProcessInline);
+        }
+
+        String kstryStoryMethodTimeoutMode = environment.getProperty(ConfigPropertyNameConstant.KSTRY_STORY_METHOD_TIMEOUT_MODE);
+        if (StringUtils.isNotBlank(kstryStoryMethodTimeoutMode)) {
+            GlobalProperties.KSTRY_STORY_METHOD_TIMEOUT_MODE = MethodTimeoutModeEnum.of(kstryStoryMethodTimeoutMode);
+        }
+
         String kstryThreadOpenVirtual = environment.getProperty(ConfigPropertyNameConstant.KSTRY_THREAD_OPEN_VIRTUAL);
         if (StringUtils.isNotBlank(kstryThreadOpenVirtual)) {
             GlobalProperties.KSTRY_OPEN_VIRTUAL_THREAD = BooleanUtils.toBoolean(kstryThreadOpenVirtual);
@@ -189,5 +210,16 @@ public class PropertyUtil {
         }
         GlobalProperties.KSTRY_STORY_REQUEST_ID_NAME =
                 environment.getProperty(ConfigPropertyNameConstant.KSTRY_STORY_REQUEST_ID_NAME, GlobalProperties.KSTRY_STORY_REQUEST_ID_NAME);
+        GlobalProperties.JS_SCRIPT_ENGINE_POOL_SIZE = NumberUtils.toInt(
+                environment.getProperty(ConfigPropertyNameConstant.KSTRY_INSTRUCT_JS_ENGINE_POOL_SIZE), GlobalProperties.THREAD_POOL_MAX_SIZE
+        );
+        GlobalProperties.JS_SCRIPT_ENGINE_BORROW_TIMEOUT = Math.max(0, NumberUtils.toLong(
+                environment.getProperty(ConfigPropertyNameConstant.KSTRY_INSTRUCT_JS_ENGINE_BORROW_TIMEOUT), GlobalProperties.JS_SCRIPT_ENGINE_BORROW_TIMEOUT
+        ));
+        GlobalProperties.KSTRY_TIMER_MAX_PENDING_TIMEOUTS = NumberUtils.toLong(
+                environment.getProperty(ConfigPropertyNameConstant.KSTRY_TIMER_MAX_PENDING_TIMEOUTS), GlobalProperties.KSTRY_TIMER_MAX_PENDING_TIMEOUTS
+        );
+        GlobalProperties.SPEL_COMPILER_MODE =
+                environment.getProperty(ConfigPropertyNameConstant.KSTRY_EXPRESSION_SPEL_COMPILER_MODE, GlobalProperties.SPEL_COMPILER_MODE);
     }
 }
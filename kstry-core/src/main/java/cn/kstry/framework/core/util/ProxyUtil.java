@@ -38,7 +38,6 @@ import org.slf4j.LoggerFactory;
 import org.springframework.aop.support.AopUtils;
 import org.springframework.core.ResolvableType;
 import org.springframework.core.annotation.AnnotationUtils;
-import org.springframework.util.ReflectionUtils;
 
 import java.io.Serializable;
 import java.lang.invoke.SerializedLambda;
@@ -89,7 +88,7 @@ public class ProxyUtil {
     public static Object invokeMethod(MethodWrapper methodWrapper, ServiceTask serviceTask, Object target, Supplier<Object[]> paramsSupplier) {
         try {
             Object[] params = paramsSupplier.get();
-            return ReflectionUtils.invokeMethod(methodWrapper.getMethod(), target, params);
+            return methodWrapper.invoke(target, params);
         } catch (Throwable e) {
             Throwable throwable = RequestValidator.processViolationException(e);
             if ((throwable instanceof KstryException) && !(throwable instanceof BusinessException)) {
@@ -0,0 +1,87 @@
+/*
+ *
+ *  * Copyright (c) 2020-2024, Lykan (jiashuomeng@gmail.com).
+ *  * <p>
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  * <p>
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  * <p>
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+package cn.kstry.framework.core.util;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.ql.util.express.ExpressRunner;
+import com.ql.util.express.IExpressContext;
+import com.ql.util.express.InstructionSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * QLExpress 脚本编译与执行，脚本编译为 InstructionSet 后缓存，执行时不再重复解析
+ *
+ * @author crabo Yang, Feb 2025
+ */
+public class QLExpressUtil {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(QLExpressUtil.class);
+
+    private static final ExpressRunner RUNNER = new ExpressRunner();
+
+    /**
+     * 已编译脚本缓存，key：脚本文本
+     */
+    private static final Cache<String, InstructionSet> instructionSetCache = CacheBuilder.newBuilder()
+            .concurrencyLevel(8).initialCapacity(1024).maximumSize(20_000).expireAfterAccess(1, TimeUnit.HOURS)
+            .removalListener(notification -> LOGGER.debug("QLExpress instruction set cache lose efficacy. key: {}, cause: {}",
+                    notification.getKey(), notification.getCause())).build();
+
+    /**
+     * 编译脚本，首次编译后缓存。流程加载时调用可提前暴露脚本错误
+     *
+     * @param script 脚本
+     * @return 编译结果
+     * @throws Exception 脚本编译失败
+     */
+    public static InstructionSet compile(String script) throws Exception {
+        AssertUtil.notBlank(script);
+        InstructionSet instructionSet = instructionSetCache.getIfPresent(script);
+        if (instructionSet != null) {
+            return instructionSet;
+        }
+        try {
+            return instructionSetCache.get(script, () -> RUNNER.parseInstructionSet(script));
+        } catch (ExecutionException | UncheckedExecutionException | ExecutionError e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 执行脚本
+     *
+     * @param script 脚本
+     * @param context 上下文
+     * @return 执行结果
+     * @throws Exception 脚本编译或执行失败
+     */
+    public static Object execute(String script, IExpressContext<String, Object> context) throws Exception {
+        return RUNNER.execute(compile(script), context, null, false, false);
+    }
+}
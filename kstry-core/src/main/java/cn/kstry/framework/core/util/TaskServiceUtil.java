@@ -88,6 +88,7 @@ public class TaskServiceUtil {
         taskBuilder.property(sTask.getTaskProperty());
         taskBuilder.params(sTask.getTaskParams() == null ? null : JSON.toJSONString(sTask.getTaskParams(), SerializerFeature.DisableCircularReferenceDetect));
         taskBuilder.retryTimes(sTask.getRetryTimes());
+        taskBuilder.breaker(sTask.getBreakerThreshold(), sTask.getBreakerOpenTime());
         if (sTask.allowAbsent()) {
             taskBuilder.allowAbsent();
         }
@@ -0,0 +1,164 @@
+/*
+ *
+ *  * Copyright (c) 2020-2024, Lykan (jiashuomeng@gmail.com).
+ *  * <p>
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  * <p>
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  * <p>
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+package cn.kstry.framework.test.breaker;
+
+import cn.kstry.framework.core.engine.StoryEngine;
+import cn.kstry.framework.core.engine.facade.ReqBuilder;
+import cn.kstry.framework.core.engine.facade.StoryRequest;
+import cn.kstry.framework.core.engine.facade.TaskResponse;
+import cn.kstry.framework.core.enums.CircuitBreakerStateEnum;
+import cn.kstry.framework.core.enums.TrackingTypeEnum;
+import cn.kstry.framework.core.exception.ExceptionEnum;
+import cn.kstry.framework.core.monitor.DemotionInfo;
+import cn.kstry.framework.core.monitor.NodeTracking;
+import cn.kstry.framework.test.breaker.bo.BreakerRequest;
+import cn.kstry.framework.test.breaker.config.BreakerProcessConfiguration;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ *
+ * @author lykan
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = BreakerConfiguration.class)
+public class BreakerTest {
+
+    @Autowired
+    private StoryEngine storyEngine;
+
+    /**
+     * 【正常】测试：连续失败后熔断器打开，直接执行降级节点，打开时间到期后探测成功关闭熔断器
+     */
+    @Test
+    public void testBreaker001() throws InterruptedException {
+        AtomicInteger invokeCount = new AtomicInteger();
+        AtomicInteger demotionCount = new AtomicInteger();
+        for (int i = 0; i < 3; i++) {
+            Assert.assertTrue(fire(new BreakerRequest(true, invokeCount, demotionCount), null).isSuccess());
+        }
+        Assert.assertEquals(3, invokeCount.get());
+        Assert.assertEquals(3, demotionCount.get());
+
+        AtomicReference<DemotionInfo> demotionInfo = new AtomicReference<>();
+        Assert.assertTrue(fire(new BreakerRequest(false, invokeCount, demotionCount), demotionInfo).isSuccess());
+        Assert.assertEquals(3, invokeCount.get());
+        Assert.assertEquals(4, demotionCount.get());
+        Assert.assertEquals(CircuitBreakerStateEnum.OPEN, demotionInfo.get().getCircuitBreakerState());
+
+        TimeUnit.MILLISECONDS.sleep(400);
+        demotionInfo.set(null);
+        Assert.assertTrue(fire(new BreakerRequest(false, invokeCount, demotionCount), demotionInfo).isSuccess());
+        Assert.assertEquals(4, invokeCount.get());
+        Assert.assertEquals(4, demotionCount.get());
+        Assert.assertEquals(CircuitBreakerStateEnum.CLOSED, demotionInfo.get().getCircuitBreakerState());
+
+        Assert.assertTrue(fire(new BreakerRequest(false, invokeCount, demotionCount), null).isSuccess());
+        Assert.assertEquals(5, invokeCount.get());
+    }
+
+    /**
+     * 【异常】测试：未指定降级节点时熔断器打开后直接抛出熔断异常，探测失败后重新打开
+     */
+    @Test
+    public void testBreaker002() throws InterruptedException {
+        AtomicInteger invokeCount = new AtomicInteger();
+        AtomicInteger demotionCount = new AtomicInteger();
+        for (int i = 0; i < 2; i++) {
+            Assert.assertFalse(fireNoDemotion(new BreakerRequest(true, invokeCount, demotionCount)).isSuccess());
+        }
+        TaskResponse<Void> response = fireNoDemotion(new BreakerRequest(false, invokeCount, demotionCount));
+        Assert.assertFalse(response.isSuccess());
+        Assert.assertEquals(ExceptionEnum.CIRCUIT_BREAKER_OPEN.getExceptionCode(), response.getResultCode());
+        Assert.assertEquals(2, invokeCount.get());
+
+        TimeUnit.MILLISECONDS.sleep(400);
+        Assert.assertFalse(fireNoDemotion(new BreakerRequest(true, invokeCount, demotionCount)).isSuccess());
+        Assert.assertEquals(3, invokeCount.get());
+        response = fireNoDemotion(new BreakerRequest(false, invokeCount, demotionCount));
+        Assert.assertEquals(ExceptionEnum.CIRCUIT_BREAKER_OPEN.getExceptionCode(), response.getResultCode());
+        Assert.assertEquals(3, invokeCount.get());
+        Assert.assertEquals(0, demotionCount.get());
+    }
+
+    /**
+     * 【异常】测试：Mono 结果超过节点自身的超时时间时计入熔断器失败，熔断器打开
+     */
+    @Test
+    public void testBreaker003() {
+        AtomicInteger invokeCount = new AtomicInteger();
+        StoryRequest<Void> fireRequest = ReqBuilder.returnType(Void.class).request(new BreakerRequest(500, invokeCount))
+                .trackingType(TrackingTypeEnum.SERVICE).startProcess(BreakerProcessConfiguration::timeoutMonoProcess).build();
+        Assert.assertFalse(storyEngine.fire(fireRequest).isSuccess());
+
+        fireRequest = ReqBuilder.returnType(Void.class).request(new BreakerRequest(0, invokeCount))
+                .trackingType(TrackingTypeEnum.SERVICE).startProcess(BreakerProcessConfiguration::timeoutMonoProcess).build();
+        TaskResponse<Void> response = storyEngine.fire(fireRequest);
+        Assert.assertFalse(response.isSuccess());
+        Assert.assertEquals(ExceptionEnum.CIRCUIT_BREAKER_OPEN.getExceptionCode(), response.getResultCode());
+        Assert.assertEquals(1, invokeCount.get());
+    }
+
+    /**
+     * 【正常】测试：共享服务节点资源但熔断配置不同的节点各自维护熔断器，不会相互重置失败计数
+     */
+    @Test
+    public void testBreaker004() {
+        AtomicInteger invokeCount = new AtomicInteger();
+        AtomicInteger demotionCount = new AtomicInteger();
+        for (int i = 0; i < 6; i++) {
+            StoryRequest<Void> fireRequest = ReqBuilder.returnType(Void.class).request(new BreakerRequest(true, invokeCount, demotionCount))
+                    .trackingType(TrackingTypeEnum.SERVICE).startProcess(BreakerProcessConfiguration::sharedResourceProcess).build();
+            Assert.assertTrue(storyEngine.fire(fireRequest).isSuccess());
+        }
+        Assert.assertEquals(4 + 6, invokeCount.get());
+        Assert.assertEquals(12, demotionCount.get());
+
+        StoryRequest<Void> fireRequest = ReqBuilder.returnType(Void.class).request(new BreakerRequest(false, invokeCount, demotionCount))
+                .trackingType(TrackingTypeEnum.SERVICE).startProcess(BreakerProcessConfiguration::sharedResourceProcess).build();
+        Assert.assertTrue(storyEngine.fire(fireRequest).isSuccess());
+        Assert.assertEquals(10, invokeCount.get());
+        Assert.assertEquals(14, demotionCount.get());
+    }
+
+    private TaskResponse<Void> fire(BreakerRequest request, AtomicReference<DemotionInfo> demotionInfo) {
+        StoryRequest<Void> fireRequest = ReqBuilder.returnType(Void.class).request(request).trackingType(TrackingTypeEnum.SERVICE_DETAIL)
+                .recallStoryHook(r -> {
+                    if (demotionInfo != null) {
+                        r.getMonitorTracking().getStoryTracking().stream()
+                                .map(NodeTracking::getDemotionInfo).filter(Objects::nonNull).findFirst().ifPresent(demotionInfo::set);
+                    }
+                }).startProcess(BreakerProcessConfiguration::unstableProcess).build();
+        return storyEngine.fire(fireRequest);
+    }
+
+    private TaskResponse<Void> fireNoDemotion(BreakerRequest request) {
+        StoryRequest<Void> fireRequest = ReqBuilder.returnType(Void.class).request(request)
+                .trackingType(TrackingTypeEnum.SERVICE).startProcess(BreakerProcessConfiguration::unstableNoDemotionProcess).build();
+        return storyEngine.fire(fireRequest);
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ *
+ *  * Copyright (c) 2020-2024, Lykan (jiashuomeng@gmail.com).
+ *  * <p>
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  * <p>
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  * <p>
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+package cn.kstry.framework.test.breaker.bo;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ *
+ * @author lykan
+ */
+public class BreakerRequest {
+
+    private final boolean fail;
+
+    private final AtomicInteger invokeCount;
+
+    private final AtomicInteger demotionCount;
+
+    /**
+     * Mono 结果的延迟时间，单位：ms
+     */
+    private final long delay;
+
+    public BreakerRequest(boolean fail, AtomicInteger invokeCount, AtomicInteger demotionCount) {
+        this.fail = fail;
+        this.invokeCount = invokeCount;
+        this.demotionCount = demotionCount;
+        this.delay = 0;
+    }
+
+    public BreakerRequest(long delay, AtomicInteger invokeCount) {
+        this.fail = false;
+        this.invokeCount = invokeCount;
+        this.demotionCount = new AtomicInteger();
+        this.delay = delay;
+    }
+
+    public boolean isFail() {
+        return fail;
+    }
+
+    public AtomicInteger getInvokeCount() {
+        return invokeCount;
+    }
+
+    public AtomicInteger getDemotionCount() {
+        return demotionCount;
+    }
+
+    public long getDelay() {
+        return delay;
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ *
+ *  * Copyright (c) 2020-2024, Lykan (jiashuomeng@gmail.com).
+ *  * <p>
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  * <p>
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  * <p>
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+package cn.kstry.framework.test.breaker.config;
+
+import cn.kstry.framework.core.component.bpmn.link.ProcessLink;
+import cn.kstry.framework.core.component.bpmn.link.StartProcessLink;
+import cn.kstry.framework.test.breaker.service.BreakerService;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ *
+ * @author lykan
+ */
+@Configuration
+public class BreakerProcessConfiguration {
+
+    @Bean
+    public ProcessLink unstableProcess() {
+        StartProcessLink processLink = StartProcessLink.build(BreakerProcessConfiguration::unstableProcess);
+        processLink.nextService(BreakerService::unstable).build().end();
+        return processLink;
+    }
+
+    @Bean
+    public ProcessLink unstableNoDemotionProcess() {
+        StartProcessLink processLink = StartProcessLink.build(BreakerProcessConfiguration::unstableNoDemotionProcess);
+        processLink.nextService(BreakerService::unstableNoDemotion).build().end();
+        return processLink;
+    }
+
+    @Bean
+    public ProcessLink timeoutMonoProcess() {
+        StartProcessLink processLink = StartProcessLink.build(BreakerProcessConfiguration::timeoutMonoProcess);
+        processLink.nextService(BreakerService::timeoutMono).build().end();
+        return processLink;
+    }
+
+    @Bean
+    public ProcessLink sharedResourceProcess() {
+        StartProcessLink processLink = StartProcessLink.build(BreakerProcessConfiguration::sharedResourceProcess);
+        processLink.nextService(BreakerService::unstable).breaker(4, 60000).build()
+                .nextService(BreakerService::unstable).breaker(6, 60000).build().end();
+        return processLink;
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ *
+ *  * Copyright (c) 2020-2024, Lykan (jiashuomeng@gmail.com).
+ *  * <p>
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  * <p>
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  * <p>
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+package cn.kstry.framework.test.breaker.service;
+
+import cn.kstry.framework.core.annotation.Invoke;
+import cn.kstry.framework.core.annotation.ReqTaskParam;
+import cn.kstry.framework.core.annotation.TaskComponent;
+import cn.kstry.framework.core.annotation.TaskService;
+import cn.kstry.framework.test.breaker.bo.BreakerRequest;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ *
+ * @author lykan
+ */
+@TaskComponent(name = "breaker-service")
+public class BreakerService {
+
+    @TaskService(invoke = @Invoke(breakerThreshold = 3, breakerOpenTime = 300, demotion = "pr:breaker-service@unstableDemotion"))
+    public void unstable(@ReqTaskParam(reqSelf = true) BreakerRequest request) {
+        invoke(request);
+    }
+
+    @TaskService
+    public void unstableDemotion(@ReqTaskParam(reqSelf = true) BreakerRequest request) {
+        request.getDemotionCount().incrementAndGet();
+    }
+
+    @TaskService(invoke = @Invoke(breakerThreshold = 2, breakerOpenTime = 300))
+    public void unstableNoDemotion(@ReqTaskParam(reqSelf = true) BreakerRequest request) {
+        invoke(request);
+    }
+
+    @TaskService(invoke = @Invoke(timeout = 50, breakerThreshold = 1, breakerOpenTime = 60000))
+    public Mono<Integer> timeoutMono(@ReqTaskParam(reqSelf = true) BreakerRequest request) {
+        request.getInvokeCount().incrementAndGet();
+        return Mono.delay(Duration.ofMillis(request.getDelay())).map(l -> 1);
+    }
+
+    private void invoke(BreakerRequest request) {
+        request.getInvokeCount().incrementAndGet();
+        if (request.isFail()) {
+            throw new RuntimeException("breaker test failure");
+        }
+    }
+}
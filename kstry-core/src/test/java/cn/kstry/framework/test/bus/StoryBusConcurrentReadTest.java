@@ -0,0 +1,156 @@
+/*
+ *
+ *  * Copyright (c) 2020-2024, Lykan (jiashuomeng@gmail.com).
+ *  * <p>
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  * <p>
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  * <p>
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+package cn.kstry.framework.test.bus;
+
+import cn.kstry.framework.core.bus.OperatorStoryBus;
+import cn.kstry.framework.core.bus.ScopeData;
+import cn.kstry.framework.core.bus.ScopeDataOperator;
+import cn.kstry.framework.core.enums.ScopeTypeEnum;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * StoryBus 并发读写测试
+ *
+ * @author lykan
+ */
+public class StoryBusConcurrentReadTest {
+
+    private static final int WRITING = -1;
+
+    /**
+     * 测试 serialWrite 与业务代码直接持有写锁期间，并发读取不会读到写操作的中间状态
+     */
+    @Test
+    public void testReadDuringSerialWrite() throws InterruptedException {
+        SlowReadScope varScope = new SlowReadScope();
+        OperatorStoryBus storyBus = new OperatorStoryBus(null, null, 3000, null, "request-id",
+                "start-event-id", null, null, null, null, varScope, null);
+        ScopeDataOperator scopeDataOperator = storyBus.getScopeDataOperator();
+
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicInteger readCount = new AtomicInteger();
+        AtomicInteger dirtyReadCount = new AtomicInteger();
+        Thread reader = new Thread(() -> {
+            while (writing.get()) {
+                Object value = storyBus.getValue(ScopeTypeEnum.VARIABLE, "value").orElse(null);
+                readCount.incrementAndGet();
+                if (!(value instanceof Integer) || (Integer) value == WRITING) {
+                    dirtyReadCount.incrementAndGet();
+                }
+            }
+        });
+        reader.start();
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(500);
+        for (int i = 1; System.nanoTime() < deadline || readCount.get() < 1000; i++) {
+            int value = i;
+            // 写操作之间留出间隔，使读取线程有机会走无锁读取路径
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(50));
+            if (i % 2 == 0) {
+                scopeDataOperator.serialWrite(query -> {
+                    varScope.setValue(WRITING);
+                    Thread.yield();
+                    varScope.setValue(value);
+                    return value;
+                });
+                continue;
+            }
+            ReentrantReadWriteLock.WriteLock writeLock = scopeDataOperator.writeLock();
+            writeLock.lock();
+            try {
+                varScope.setValue(WRITING);
+                Thread.yield();
+                varScope.setValue(value);
+            } finally {
+                writeLock.unlock();
+            }
+        }
+        writing.set(false);
+        reader.join();
+
+        Assert.assertEquals(0, dirtyReadCount.get());
+    }
+
+    /**
+     * 测试写锁重入期间当前线程可以读取数据，最外层释放后乐观读与其他线程的写锁均可正常获取
+     */
+    @Test
+    public void testReentrantWriteLock() throws InterruptedException {
+        SlowReadScope varScope = new SlowReadScope();
+        OperatorStoryBus storyBus = new OperatorStoryBus(null, null, 3000, null, "request-id",
+                "start-event-id", null, null, null, null, varScope, null);
+        ScopeDataOperator scopeDataOperator = storyBus.getScopeDataOperator();
+
+        ReentrantReadWriteLock.WriteLock writeLock = scopeDataOperator.writeLock();
+        writeLock.lock();
+        try {
+            scopeDataOperator.serialWrite(query -> {
+                varScope.setValue(1);
+                return null;
+            });
+            Assert.assertEquals(1, storyBus.getValue(ScopeTypeEnum.VARIABLE, "value").orElse(null));
+            varScope.setValue(2);
+        } finally {
+            writeLock.unlock();
+        }
+        Assert.assertEquals(2, storyBus.getValue(ScopeTypeEnum.VARIABLE, "value").orElse(null));
+
+        AtomicBoolean locked = new AtomicBoolean();
+        Thread writer = new Thread(() -> {
+            ReentrantReadWriteLock.WriteLock wLock = scopeDataOperator.writeLock();
+            if (wLock.tryLock()) {
+                locked.set(true);
+                wLock.unlock();
+            }
+        });
+        writer.start();
+        writer.join();
+        Assert.assertTrue(locked.get());
+    }
+
+    /**
+     * 读取较慢的数据域，扩大读取过程与写操作重叠的时间窗口
+     */
+    public static class SlowReadScope implements ScopeData {
+
+        private volatile int value;
+
+        public int getValue() {
+            Thread.yield();
+            int v = value;
+            Thread.yield();
+            return v;
+        }
+
+        public void setValue(int value) {
+            this.value = value;
+        }
+
+        @Override
+        public ScopeTypeEnum getScopeDataEnum() {
+            return ScopeTypeEnum.VARIABLE;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ *
+ *  * Copyright (c) 2020-2024, Lykan (jiashuomeng@gmail.com).
+ *  * <p>
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  * <p>
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  * <p>
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+package cn.kstry.framework.test.expression;
+
+import cn.kstry.framework.core.bus.ExpressionBus;
+import cn.kstry.framework.core.bus.StoryBus;
+import cn.kstry.framework.core.component.expression.ConditionExpression;
+import cn.kstry.framework.core.component.expression.SpelConditionExpression;
+import cn.kstry.framework.core.exception.ExpressionException;
+import com.google.common.cache.Cache;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.expression.Expression;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Spel 条件表达式测试
+ *
+ * @author lykan
+ */
+public class SpelConditionExpressionTest {
+
+    /**
+     * 测试相同的表达式文本只解析一次，不同的表达式文本分别解析
+     */
+    @Test
+    public void testExpressionCache() {
+        Expression expression = SpelConditionExpression.getExpression("T(java.lang.Math).max(1, 2) == 2");
+        Assert.assertSame(expression, SpelConditionExpression.getExpression("T(java.lang.Math).max(1, 2) == 2"));
+        Assert.assertNotSame(expression, SpelConditionExpression.getExpression("T(java.lang.Math).max(1, 2) == 1"));
+        Assert.assertSame(expression, getExpressionCache().getIfPresent("T(java.lang.Math).max(1, 2) == 2"));
+
+        Assert.assertThrows(ExpressionException.class, () -> SpelConditionExpression.getExpression("1 +"));
+        Assert.assertNull(getExpressionCache().getIfPresent("1 +"));
+    }
+
+    /**
+     * 测试表达式被淘汰后重新解析，缓存数量不超过上限
+     */
+    @Test
+    public void testExpressionCacheEviction() {
+        Cache<String, Expression> expressionCache = getExpressionCache();
+        String exp = "T(java.lang.Math).min(1, 2) == 1";
+        Expression expression = SpelConditionExpression.getExpression(exp);
+        expressionCache.invalidate(exp);
+        Expression reparsed = SpelConditionExpression.getExpression(exp);
+        Assert.assertNotSame(expression, reparsed);
+        Assert.assertTrue(condition(exp));
+
+        // 超过缓存上限后，最早解析且之后未被访问的表达式被淘汰
+        for (int i = 0; i < 40_000; i++) {
+            SpelConditionExpression.getExpression("#root != " + i);
+        }
+        Assert.assertTrue(expressionCache.size() <= 20_000);
+        Assert.assertNull(expressionCache.getIfPresent(exp));
+        Assert.assertNotSame(reparsed, SpelConditionExpression.getExpression(exp));
+        expressionCache.invalidateAll();
+    }
+
+    /**
+     * 测试每次计算使用新的上下文，表达式中的变量赋值不影响其他计算
+     */
+    @Test
+    public void testEvaluationContextIsolated() {
+        Assert.assertTrue(condition("(#flag = true) == true and #flag"));
+        Assert.assertTrue(condition("#flag == null"));
+    }
+
+    private static boolean condition(String exp) {
+        StoryBus storyBus = Mockito.mock(StoryBus.class);
+        Mockito.when(storyBus.getExpressionBus()).thenReturn(new ExpressionBus(storyBus));
+        ConditionExpression conditionExpression = new SpelConditionExpression().newWorkConditionExpression(exp, exp, 0, false);
+        conditionExpression.parseConditionExpression(null);
+        return conditionExpression.condition(storyBus);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Cache<String, Expression> getExpressionCache() {
+        return (Cache<String, Expression>) ReflectionTestUtils.getField(SpelConditionExpression.class, "expressionCache");
+    }
+}
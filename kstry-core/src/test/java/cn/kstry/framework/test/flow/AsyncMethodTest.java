@@ -21,6 +21,7 @@ import cn.kstry.framework.core.engine.StoryEngine;
 import cn.kstry.framework.core.engine.facade.ReqBuilder;
 import cn.kstry.framework.core.engine.facade.StoryRequest;
 import cn.kstry.framework.core.engine.facade.TaskResponse;
+import cn.kstry.framework.core.enums.MethodTimeoutModeEnum;
 import cn.kstry.framework.core.enums.TrackingTypeEnum;
 import cn.kstry.framework.test.flow.bo.MethodInvokeBo;
 import cn.kstry.framework.test.util.TestUtil;
@@ -31,6 +32,7 @@ import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import reactor.core.publisher.Mono;
 
 /**
  *
@@ -159,4 +161,56 @@ public class AsyncMethodTest {
             Assert.assertEquals(5, result.getResult().getD());
         });
     }
+
+    /**
+     * 【正常】测试：服务节点设置超时时间，分别以 DEADLINE、CONTINUATION 方式执行目标方法，包含重试、降级与超时降级
+     */
+    @Test
+    public void testAsyncMethod007() {
+        for (MethodTimeoutModeEnum mode : Lists.newArrayList(MethodTimeoutModeEnum.DEADLINE, MethodTimeoutModeEnum.CONTINUATION)) {
+            TestUtil.repeatTest(100, () -> {
+                for (String startId : Lists.newArrayList("story-def-async-method-001", "story-def-async-method-002", "story-def-async-method-003")) {
+                    StoryRequest<MethodInvokeBo> request = buildRequest(startId);
+                    request.setMethodTimeoutMode(mode);
+                    TaskResponse<MethodInvokeBo> result = storyEngine.fire(request);
+                    Assert.assertTrue(result.isSuccess());
+                    Assert.assertEquals(346, result.getResult().getA());
+                }
+                StoryRequest<MethodInvokeBo> request = buildRequest("story-def-async-method-006");
+                request.setMethodTimeoutMode(mode);
+                TaskResponse<MethodInvokeBo> result = storyEngine.fire(request);
+                Assert.assertTrue(result.isSuccess());
+                Assert.assertEquals(321, result.getResult().getA());
+                Assert.assertEquals(5, result.getResult().getD());
+                Assert.assertFalse(Thread.currentThread().isInterrupted());
+            });
+        }
+    }
+
+    /**
+     * 【正常】测试：CONTINUATION 方式下任务拦截器在方法线程中执行，拦截到目标方法的原始返回值而非 Mono
+     */
+    @Test
+    public void testAsyncMethod008() {
+        MethodInvokeBo request = new MethodInvokeBo();
+        request.setA(345);
+        request.setB(true);
+        request.setC("AsyncMethod测试");
+        StoryRequest<MethodInvokeBo> fireRequest = ReqBuilder.returnType(MethodInvokeBo.class).request(request).businessId(ContinuationTaskInterceptor.BUSINESS_ID)
+                .methodTimeoutMode(MethodTimeoutModeEnum.CONTINUATION).startId("story-def-async-method-001").build();
+        TaskResponse<MethodInvokeBo> result = storyEngine.fire(fireRequest);
+        Assert.assertTrue(result.isSuccess());
+        Assert.assertEquals(346, result.getResult().getA());
+        Assert.assertFalse(request.getInterceptResults().isEmpty());
+        Assert.assertTrue(request.getInterceptResults().stream().noneMatch(r -> r instanceof Mono));
+        Assert.assertTrue(request.getInterceptThreads().stream().allMatch(t -> t.startsWith("kstry-method")));
+    }
+
+    private StoryRequest<MethodInvokeBo> buildRequest(String startId) {
+        MethodInvokeBo request = new MethodInvokeBo();
+        request.setA(345);
+        request.setB(true);
+        request.setC("AsyncMethod测试");
+        return ReqBuilder.returnType(MethodInvokeBo.class).trackingType(TrackingTypeEnum.SERVICE_DETAIL).request(request).startId(startId).build();
+    }
 }
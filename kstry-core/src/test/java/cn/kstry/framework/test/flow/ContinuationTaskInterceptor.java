@@ -0,0 +1,50 @@
+/*
+ *
+ *  * Copyright (c) 2020-2024, Lykan (jiashuomeng@gmail.com).
+ *  * <p>
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  * <p>
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  * <p>
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+package cn.kstry.framework.test.flow;
+
+import cn.kstry.framework.core.engine.interceptor.Iter;
+import cn.kstry.framework.core.engine.interceptor.IterData;
+import cn.kstry.framework.core.engine.interceptor.TaskInterceptor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 记录 CONTINUATION 方式下任务拦截器所在线程与拦截到的结果
+ *
+ * @author lykan
+ */
+@Component
+public class ContinuationTaskInterceptor implements TaskInterceptor {
+
+    public static final String BUSINESS_ID = "continuation-task-interceptor";
+
+    @Override
+    public boolean match(IterData iterData) {
+        return Objects.equals(BUSINESS_ID, iterData.getDataOperator().getBusinessId().orElse(null));
+    }
+
+    @Override
+    public Object invoke(Iter iter) {
+        Object result = iter.next();
+        iter.getDataOperator().<List<Object>>getReqData("interceptResults").ifPresent(list -> list.add(result));
+        iter.getDataOperator().<List<String>>getReqData("interceptThreads").ifPresent(list -> list.add(Thread.currentThread().getName()));
+        return result;
+    }
+}
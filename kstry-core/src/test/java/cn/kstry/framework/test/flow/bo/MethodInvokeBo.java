@@ -19,6 +19,9 @@ package cn.kstry.framework.test.flow.bo;
 
 import lombok.Data;
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
 /**
  *
  * @author lykan
@@ -33,4 +36,8 @@ public class MethodInvokeBo {
     private String c;
 
     private int d;
+
+    private List<Object> interceptResults = new CopyOnWriteArrayList<>();
+
+    private List<String> interceptThreads = new CopyOnWriteArrayList<>();
 }
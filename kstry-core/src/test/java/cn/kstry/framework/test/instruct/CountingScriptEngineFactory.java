@@ -0,0 +1,173 @@
+/*
+ *
+ *  * Copyright (c) 2020-2024, Lykan (jiashuomeng@gmail.com).
+ *  * <p>
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  * <p>
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  * <p>
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+package cn.kstry.framework.test.instruct;
+
+import javax.script.AbstractScriptEngine;
+import javax.script.Bindings;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
+import javax.script.ScriptContext;
+import javax.script.ScriptEngine;
+import javax.script.ScriptEngineFactory;
+import javax.script.ScriptException;
+import javax.script.SimpleBindings;
+import java.io.Reader;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 用于测试脚本引擎池的脚本引擎，记录引擎创建与脚本编译次数。
+ * 脚本内容即变量名，执行结果为该变量的值，变量值为 CountDownLatch 时等待其计数归零，模拟执行耗时
+ *
+ * @author lykan
+ */
+public class CountingScriptEngineFactory implements ScriptEngineFactory {
+
+    public static final String ENGINE_NAME = "kstry-counting";
+
+    public static final AtomicInteger CREATED_COUNT = new AtomicInteger();
+
+    public static final AtomicInteger COMPILED_COUNT = new AtomicInteger();
+
+    public static void reset() {
+        CREATED_COUNT.set(0);
+        COMPILED_COUNT.set(0);
+    }
+
+    @Override
+    public String getEngineName() {
+        return ENGINE_NAME;
+    }
+
+    @Override
+    public String getEngineVersion() {
+        return "1.0";
+    }
+
+    @Override
+    public List<String> getExtensions() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public List<String> getMimeTypes() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public List<String> getNames() {
+        return Collections.singletonList(ENGINE_NAME);
+    }
+
+    @Override
+    public String getLanguageName() {
+        return ENGINE_NAME;
+    }
+
+    @Override
+    public String getLanguageVersion() {
+        return "1.0";
+    }
+
+    @Override
+    public Object getParameter(String key) {
+        return null;
+    }
+
+    @Override
+    public String getMethodCallSyntax(String obj, String m, String... args) {
+        return null;
+    }
+
+    @Override
+    public String getOutputStatement(String toDisplay) {
+        return null;
+    }
+
+    @Override
+    public String getProgram(String... statements) {
+        return null;
+    }
+
+    @Override
+    public ScriptEngine getScriptEngine() {
+        CREATED_COUNT.incrementAndGet();
+        return new CountingScriptEngine(this);
+    }
+
+    private static class CountingScriptEngine extends AbstractScriptEngine implements Compilable {
+
+        private final ScriptEngineFactory factory;
+
+        private CountingScriptEngine(ScriptEngineFactory factory) {
+            this.factory = factory;
+        }
+
+        @Override
+        public Object eval(String script, ScriptContext context) throws ScriptException {
+            Object value = context.getAttribute(script);
+            if (value instanceof CountDownLatch) {
+                try {
+                    ((CountDownLatch) value).await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new ScriptException(e);
+                }
+            }
+            return value;
+        }
+
+        @Override
+        public Object eval(Reader reader, ScriptContext context) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompiledScript compile(String script) {
+            COMPILED_COUNT.incrementAndGet();
+            return new CompiledScript() {
+                @Override
+                public Object eval(ScriptContext context) throws ScriptException {
+                    return CountingScriptEngine.this.eval(script, context);
+                }
+
+                @Override
+                public ScriptEngine getEngine() {
+                    return CountingScriptEngine.this;
+                }
+            };
+        }
+
+        @Override
+        public CompiledScript compile(Reader script) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Bindings createBindings() {
+            return new SimpleBindings();
+        }
+
+        @Override
+        public ScriptEngineFactory getFactory() {
+            return factory;
+        }
+    }
+}
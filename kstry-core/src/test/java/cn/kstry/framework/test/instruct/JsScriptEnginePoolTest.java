@@ -0,0 +1,127 @@
+/*
+ *
+ *  * Copyright (c) 2020-2024, Lykan (jiashuomeng@gmail.com).
+ *  * <p>
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  * <p>
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  * <p>
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+package cn.kstry.framework.test.instruct;
+
+import cn.kstry.framework.core.component.instruct.JsScriptEnginePool;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 脚本引擎池测试
+ *
+ * @author lykan
+ */
+public class JsScriptEnginePoolTest {
+
+    @Before
+    public void before() {
+        CountingScriptEngineFactory.reset();
+    }
+
+    /**
+     * 测试相同脚本只编译一次，不同脚本分别编译，每次执行使用新的变量
+     */
+    @Test
+    public void testCompiledScriptCache() throws Exception {
+        JsScriptEnginePool pool = new JsScriptEnginePool(CountingScriptEngineFactory.ENGINE_NAME, 1, 10);
+        Assert.assertEquals(1, pool.eval("a", bind -> bind.put("a", 1)));
+        Assert.assertEquals(2, pool.eval("a", bind -> bind.put("a", 2)));
+        Assert.assertNull(pool.eval("a", null));
+        Assert.assertEquals(1, CountingScriptEngineFactory.COMPILED_COUNT.get());
+
+        pool.compile("b");
+        Assert.assertEquals(3, pool.eval("b", bind -> bind.put("b", 3)));
+        Assert.assertEquals(2, CountingScriptEngineFactory.COMPILED_COUNT.get());
+    }
+
+    /**
+     * 测试编译缓存超过上限后淘汰最久未使用的脚本，被淘汰的脚本再次执行时重新编译
+     */
+    @Test
+    public void testCompiledScriptEviction() throws Exception {
+        JsScriptEnginePool pool = new JsScriptEnginePool(CountingScriptEngineFactory.ENGINE_NAME, 1, 10);
+        pool.compile("s0");
+        pool.compile("s1");
+        for (int i = 2; i <= 1024; i++) {
+            pool.compile("s" + i);
+            // 持续访问 s1，使 s0 成为最久未使用的脚本
+            pool.compile("s1");
+        }
+        Assert.assertEquals(1025, CountingScriptEngineFactory.COMPILED_COUNT.get());
+
+        pool.compile("s1");
+        pool.compile("s1024");
+        Assert.assertEquals(1025, CountingScriptEngineFactory.COMPILED_COUNT.get());
+        pool.compile("s0");
+        Assert.assertEquals(1026, CountingScriptEngineFactory.COMPILED_COUNT.get());
+    }
+
+    /**
+     * 测试引擎数量不超过上限，引擎全部借出且等待超时后使用临时引擎，临时引擎用后丢弃不归还至池中
+     */
+    @Test
+    public void testEnginePool() throws Exception {
+        JsScriptEnginePool pool = new JsScriptEnginePool(CountingScriptEngineFactory.ENGINE_NAME, 2, 50);
+        CountDownLatch latch = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Object> f1 = executor.submit(() -> pool.eval("wait", bind -> bind.put("wait", latch)));
+            Future<Object> f2 = executor.submit(() -> pool.eval("wait", bind -> bind.put("wait", latch)));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(3);
+            while (CountingScriptEngineFactory.CREATED_COUNT.get() < 2 && System.nanoTime() < deadline) {
+                TimeUnit.MILLISECONDS.sleep(5);
+            }
+            Assert.assertEquals(2, CountingScriptEngineFactory.CREATED_COUNT.get());
+
+            // 池中引擎已全部借出，等待超时后创建临时引擎
+            Assert.assertEquals(1, pool.eval("a", bind -> bind.put("a", 1)));
+            Assert.assertEquals(3, CountingScriptEngineFactory.CREATED_COUNT.get());
+
+            latch.countDown();
+            Assert.assertSame(latch, f1.get(3, TimeUnit.SECONDS));
+            Assert.assertSame(latch, f2.get(3, TimeUnit.SECONDS));
+            // 归还的引擎被复用，不再创建新的引擎
+            for (int i = 0; i < 4; i++) {
+                int value = i;
+                Assert.assertEquals(value, pool.eval("a", bind -> bind.put("a", value)));
+            }
+            Assert.assertEquals(3, CountingScriptEngineFactory.CREATED_COUNT.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 测试当前环境不存在脚本引擎时，编译不做处理，执行时抛出异常
+     */
+    @Test
+    public void testEngineNotFound() throws Exception {
+        JsScriptEnginePool pool = new JsScriptEnginePool("kstry-not-exist", 1, 10);
+        Assert.assertFalse(pool.isEngineAvailable());
+        pool.compile("a");
+        Assert.assertThrows(RuntimeException.class, () -> pool.eval("a", null));
+        Assert.assertTrue(new JsScriptEnginePool(CountingScriptEngineFactory.ENGINE_NAME, 1, 10).isEngineAvailable());
+    }
+}
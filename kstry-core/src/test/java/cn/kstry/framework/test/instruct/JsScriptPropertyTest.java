@@ -0,0 +1,78 @@
+/*
+ *
+ *  * Copyright (c) 2020-2024, Lykan (jiashuomeng@gmail.com).
+ *  * <p>
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  * <p>
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  * <p>
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+package cn.kstry.framework.test.instruct;
+
+import cn.kstry.framework.core.component.instruct.JsScriptProperty;
+import com.google.common.cache.Cache;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+/**
+ * 脚本属性测试
+ *
+ * @author lykan
+ */
+public class JsScriptPropertyTest {
+
+    /**
+     * 测试相同的属性文本只解析一次，不同的属性文本分别解析，无效属性返回空
+     */
+    @Test
+    public void testPropertyCache() {
+        String text = "{\"invoke-method\":\"run\",\"return-type\":\"java.lang.Integer\"}";
+        JsScriptProperty property = JsScriptProperty.parse(text).orElse(null);
+        Assert.assertNotNull(property);
+        Assert.assertEquals("run", property.getInvokeMethod());
+        Assert.assertSame(property, JsScriptProperty.parse(text).orElse(null));
+        Assert.assertNotSame(property, JsScriptProperty.parse("{\"invoke-method\":\"run\"}").orElse(null));
+
+        Assert.assertFalse(JsScriptProperty.parse("{invalid").isPresent());
+        Assert.assertFalse(JsScriptProperty.parse(" ").isPresent());
+    }
+
+    /**
+     * 测试属性被淘汰后重新解析，修改返回值类型后重新加载类型
+     */
+    @Test
+    public void testPropertyCacheInvalidation() throws ClassNotFoundException {
+        String text = "{\"invoke-method\":\"run\",\"return-type\":\"java.lang.Long\"}";
+        JsScriptProperty property = JsScriptProperty.parse(text).orElse(null);
+        Assert.assertNotNull(property);
+        Assert.assertSame(Long.class, property.resolveReturnType());
+        Assert.assertSame(Long.class, property.resolveReturnType());
+
+        getPropertyCache().invalidate(text);
+        JsScriptProperty reparsed = JsScriptProperty.parse(text).orElse(null);
+        Assert.assertNotNull(reparsed);
+        Assert.assertNotSame(property, reparsed);
+        Assert.assertSame(Long.class, reparsed.resolveReturnType());
+
+        property.setReturnType("java.lang.String");
+        Assert.assertSame(String.class, property.resolveReturnType());
+        property.setReturnType(null);
+        Assert.assertNull(property.resolveReturnType());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Cache<String, Optional<JsScriptProperty>> getPropertyCache() {
+        return (Cache<String, Optional<JsScriptProperty>>) ReflectionTestUtils.getField(JsScriptProperty.class, "propertyCache");
+    }
+}
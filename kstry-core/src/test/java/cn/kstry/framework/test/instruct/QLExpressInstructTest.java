@@ -0,0 +1,100 @@
+/*
+ *
+ *  * Copyright (c) 2020-2024, Lykan (jiashuomeng@gmail.com).
+ *  * <p>
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  * <p>
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  * <p>
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+package cn.kstry.framework.test.instruct;
+
+import cn.kstry.framework.core.bus.InstructContent;
+import cn.kstry.framework.core.bus.ScopeDataOperator;
+import cn.kstry.framework.core.component.conversion.TypeConverterProcessor;
+import cn.kstry.framework.core.component.instruct.QLExpressInstruct;
+import cn.kstry.framework.core.exception.ExceptionEnum;
+import cn.kstry.framework.core.exception.KstryException;
+import cn.kstry.framework.core.util.QLExpressUtil;
+import com.google.common.collect.ImmutableMap;
+import com.ql.util.express.InstructionSet;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+/**
+ * QLExpress 指令测试，校验脚本编译缓存、上下文取值与结果回写
+ *
+ * @author crabo Yang, Feb 2025
+ */
+public class QLExpressInstructTest {
+
+    private static final String RETURN_PROPERTY = "{\"return-target\":[\"var.sum\"]}";
+
+    /**
+     * 测试同一脚本只编译一次，不同脚本分别编译
+     */
+    @Test
+    public void testCompileCache() throws Exception {
+        InstructionSet instructionSet = QLExpressUtil.compile("1 + 2");
+        Assert.assertSame(instructionSet, QLExpressUtil.compile("1 + 2"));
+        Assert.assertNotSame(instructionSet, QLExpressUtil.compile("1 + 3"));
+    }
+
+    /**
+     * 测试脚本从 req 域取值计算，结果写入 return-target 指定的位置
+     */
+    @Test
+    public void testInstruct() {
+        QLExpressInstruct instruct = buildInstruct();
+        ScopeDataOperator scopeData = mockScopeData();
+        Mockito.doReturn(ImmutableMap.of("a", 3, "b", 4)).when(scopeData).getReqScope();
+
+        InstructContent content = new InstructContent(QLExpressInstruct.INSTRUCT_NAME, "req.a + req.b");
+        instruct.instruct(content, scopeData);
+        instruct.instruct(content, scopeData);
+
+        Mockito.verify(scopeData, Mockito.times(2)).setData("var.sum", 7);
+    }
+
+    /**
+     * 测试脚本编译失败时抛出脚本执行异常，且不写入结果
+     */
+    @Test
+    public void testCompileError() {
+        Assert.assertThrows(Exception.class, () -> QLExpressUtil.compile("1 +* ("));
+
+        QLExpressInstruct instruct = buildInstruct();
+        ScopeDataOperator scopeData = mockScopeData();
+        KstryException exception = Assert.assertThrows(KstryException.class,
+                () -> instruct.instruct(new InstructContent(QLExpressInstruct.INSTRUCT_NAME, "1 +* ("), scopeData));
+        Assert.assertEquals(ExceptionEnum.SCRIPT_EXECUTE_ERROR.getExceptionCode(), exception.getErrorCode());
+        Mockito.verify(scopeData, Mockito.never()).setData(Mockito.anyString(), Mockito.any());
+    }
+
+    private static QLExpressInstruct buildInstruct() {
+        GenericApplicationContext applicationContext = new GenericApplicationContext();
+        applicationContext.refresh();
+        QLExpressInstruct instruct = new QLExpressInstruct(new TypeConverterProcessor(null));
+        ReflectionTestUtils.setField(instruct, "applicationContext", applicationContext);
+        return instruct;
+    }
+
+    private static ScopeDataOperator mockScopeData() {
+        ScopeDataOperator scopeData = Mockito.mock(ScopeDataOperator.class);
+        Mockito.when(scopeData.getTaskProperty()).thenReturn(Optional.of(RETURN_PROPERTY));
+        return scopeData;
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ *
+ *  * Copyright (c) 2020-2024, Lykan (jiashuomeng@gmail.com).
+ *  * <p>
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  * <p>
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  * <p>
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+package cn.kstry.framework.test.instruct;
+
+import cn.kstry.framework.core.bus.InstructContent;
+import cn.kstry.framework.core.bus.IterDataItem;
+import cn.kstry.framework.core.bus.ScopeDataOperator;
+import cn.kstry.framework.core.component.conversion.TypeConverterProcessor;
+import cn.kstry.framework.core.component.instruct.SqlInstruct;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * SQL 指令测试，数据源使用 Mockito 模拟，校验下发到 JDBC 的语句与参数
+ *
+ * @author crabo Yang
+ */
+public class SqlInstructTest {
+
+    private static final String BATCH_PROPERTY = "{\"invoke-method\":\"batch\",\"return-target\":[\"var.counts\"]}";
+
+    private static final String EXECUTE_PROPERTY = "{\"invoke-method\":\"execute\",\"return-target\":[\"var.count\"]}";
+
+    private static final String UPDATE_ITEM_SQL = "update t set v=:item.v where id=:item.id";
+
+    /**
+     * 测试批量迭代时 batch 模式将本批次的每一项作为一组参数，执行一次 JDBC 批量更新
+     */
+    @Test
+    public void testBatch() throws SQLException {
+        DataSource dataSource = mockDataSource();
+        PreparedStatement ps = preparedStatement(dataSource);
+        Mockito.when(ps.executeBatch()).thenReturn(new int[]{1, 0, 1});
+        SqlInstruct sqlInstruct = buildSqlInstruct(ImmutableMap.of("ds1", dataSource));
+        ScopeDataOperator scopeData = mockScopeData(BATCH_PROPERTY);
+
+        List<Object> rows = Lists.newArrayList(row(1, "a"), row(2, "b"), row(3, "c"));
+        sqlInstruct.instruct(new InstructContent(SqlInstruct.INSTRUCT_NAME, UPDATE_ITEM_SQL), scopeData, new IterDataItem<>(true, null, rows, 0, 1));
+
+        Connection connection = dataSource.getConnection();
+        Mockito.verify(connection, Mockito.times(1)).prepareStatement("update t set v=? where id=?");
+        Mockito.verify(ps, Mockito.times(3)).addBatch();
+        Mockito.verify(ps, Mockito.times(1)).executeBatch();
+        Mockito.verify(ps, Mockito.never()).executeUpdate();
+        Mockito.verify(ps).setString(1, "b");
+        Mockito.verify(ps).setObject(2, 2);
+        Mockito.verify(scopeData).setData("var.counts", Arrays.asList(1, 0, 1));
+    }
+
+    /**
+     * 测试 batch 模式在非批量迭代时，以当前迭代项为参数执行一次更新
+     */
+    @Test
+    public void testBatchSingleItem() throws SQLException {
+        DataSource dataSource = mockDataSource();
+        PreparedStatement ps = preparedStatement(dataSource);
+        Mockito.when(ps.executeUpdate()).thenReturn(1);
+        SqlInstruct sqlInstruct = buildSqlInstruct(ImmutableMap.of("ds1", dataSource));
+        ScopeDataOperator scopeData = mockScopeData(BATCH_PROPERTY);
+
+        sqlInstruct.instruct(new InstructContent(SqlInstruct.INSTRUCT_NAME, UPDATE_ITEM_SQL), scopeData, new IterDataItem<>(false, row(7, "x"), Collections.emptyList(), 0, 1));
+
+        Mockito.verify(ps, Mockito.never()).addBatch();
+        Mockito.verify(ps, Mockito.times(1)).executeUpdate();
+        Mockito.verify(ps).setString(1, "x");
+        Mockito.verify(ps).setObject(2, 7);
+        Mockito.verify(scopeData).setData("var.counts", 1);
+    }
+
+    /**
+     * 测试非迭代执行时从 StoryBus 中获取参数，同一参数只解析一次，JdbcTemplate 在多次执行之间复用
+     */
+    @Test
+    public void testExecute() throws SQLException {
+        DataSource dataSource = mockDataSource();
+        PreparedStatement ps = preparedStatement(dataSource);
+        Mockito.when(ps.executeUpdate()).thenReturn(2);
+        SqlInstruct sqlInstruct = buildSqlInstruct(ImmutableMap.of("ds1", dataSource));
+        ScopeDataOperator scopeData = mockScopeData(EXECUTE_PROPERTY);
+        Mockito.doReturn(Optional.of("y")).when(scopeData).getData("sta.v");
+
+        InstructContent content = new InstructContent(SqlInstruct.INSTRUCT_NAME, "update t set v=:sta.v where v<>:sta.v");
+        sqlInstruct.instruct(content, scopeData, null);
+        sqlInstruct.instruct(content, scopeData, null);
+
+        Mockito.verify(ps, Mockito.times(2)).executeUpdate();
+        Mockito.verify(ps, Mockito.times(2)).setString(1, "y");
+        Mockito.verify(ps, Mockito.times(2)).setString(2, "y");
+        Mockito.verify(scopeData, Mockito.times(2)).getData("sta.v");
+        Mockito.verify(scopeData, Mockito.times(2)).setData("var.count", 2);
+        Assert.assertEquals(1, ((Map<?, ?>) ReflectionTestUtils.getField(sqlInstruct, "jdbcTemplateCache")).size());
+    }
+
+    /**
+     * 测试存在路由数据源时直接使用路由数据源，缓存的 JdbcTemplate 在每次获取连接时按当前路由键选择目标数据源
+     */
+    @Test
+    public void testRoutingDataSource() throws SQLException {
+        DataSource master = mockDataSource();
+        DataSource slave = mockDataSource();
+        AtomicReference<String> lookupKey = new AtomicReference<>("master");
+        AbstractRoutingDataSource routingDataSource = new AbstractRoutingDataSource() {
+            @Override
+            protected Object determineCurrentLookupKey() {
+                return lookupKey.get();
+            }
+        };
+        routingDataSource.setTargetDataSources(ImmutableMap.of("master", master, "slave", slave));
+        routingDataSource.afterPropertiesSet();
+        SqlInstruct sqlInstruct = buildSqlInstruct(ImmutableMap.of("routing", routingDataSource, "master", master, "slave", slave));
+        ScopeDataOperator scopeData = mockScopeData(EXECUTE_PROPERTY);
+
+        InstructContent content = new InstructContent(SqlInstruct.INSTRUCT_NAME, "delete from t");
+        sqlInstruct.instruct(content, scopeData, null);
+        lookupKey.set("slave");
+        sqlInstruct.instruct(content, scopeData, null);
+
+        Mockito.verify(preparedStatement(master), Mockito.times(1)).executeUpdate();
+        Mockito.verify(preparedStatement(slave), Mockito.times(1)).executeUpdate();
+    }
+
+    private static SqlInstruct buildSqlInstruct(Map<String, DataSource> dataSourceMap) {
+        GenericApplicationContext applicationContext = new GenericApplicationContext();
+        dataSourceMap.forEach((name, ds) -> applicationContext.getBeanFactory().registerSingleton(name, ds));
+        applicationContext.refresh();
+        SqlInstruct sqlInstruct = new SqlInstruct(new TypeConverterProcessor(null));
+        ReflectionTestUtils.setField(sqlInstruct, "applicationContext", applicationContext);
+        return sqlInstruct;
+    }
+
+    private static ScopeDataOperator mockScopeData(String property) {
+        ScopeDataOperator scopeData = Mockito.mock(ScopeDataOperator.class);
+        Mockito.when(scopeData.getTaskProperty()).thenReturn(Optional.of(property));
+        Mockito.doReturn(Optional.empty()).when(scopeData).getData(Mockito.anyString());
+        return scopeData;
+    }
+
+    private static DataSource mockDataSource() throws SQLException {
+        DatabaseMetaData metaData = Mockito.mock(DatabaseMetaData.class);
+        Mockito.when(metaData.supportsBatchUpdates()).thenReturn(true);
+        Connection connection = Mockito.mock(Connection.class);
+        Mockito.when(connection.getMetaData()).thenReturn(metaData);
+        PreparedStatement ps = Mockito.mock(PreparedStatement.class);
+        Mockito.when(ps.getConnection()).thenReturn(connection);
+        Mockito.when(connection.prepareStatement(Mockito.anyString())).thenReturn(ps);
+        DataSource dataSource = Mockito.mock(DataSource.class);
+        Mockito.when(dataSource.getConnection()).thenReturn(connection);
+        return dataSource;
+    }
+
+    private static PreparedStatement preparedStatement(DataSource dataSource) throws SQLException {
+        return dataSource.getConnection().prepareStatement(StringUtils.EMPTY);
+    }
+
+    private static Map<String, Object> row(int id, String v) {
+        return ImmutableMap.of("id", id, "v", v);
+    }
+}
@@ -4,8 +4,11 @@ import cn.kstry.framework.core.engine.StoryEngine;
 import cn.kstry.framework.core.engine.facade.ReqBuilder;
 import cn.kstry.framework.core.engine.facade.StoryRequest;
 import cn.kstry.framework.core.engine.facade.TaskResponse;
+import cn.kstry.framework.core.enums.ContinuationPolicyEnum;
 import cn.kstry.framework.core.enums.TrackingTypeEnum;
+import cn.kstry.framework.core.exception.ExceptionEnum;
 import cn.kstry.framework.test.iterator.bo.DataSource;
+import cn.kstry.framework.test.iterator.bo.IterateProbe;
 import cn.kstry.framework.test.iterator.bo.SkuBo;
 import cn.kstry.framework.test.iterator.config.DynamicIteratorProcess;
 import com.alibaba.fastjson.JSON;
@@ -16,10 +19,18 @@ import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 /**
  *
@@ -79,4 +90,240 @@ public class IteratorTaskCaseTest {
         Assert.assertEquals(11, fire.getResult().size());
         Assert.assertEquals(fire.getResult().stream().mapToInt(i -> i).sum(), 385);
     }
+
+    /**
+     * 测试限制并发数的异步迭代，结果顺序与迭代顺序一致
+     */
+    @Test
+    public void test04() {
+        IterateProbe probe = new IterateProbe();
+        DataSource dataSource = new DataSource();
+        dataSource.setProbe(probe);
+        dataSource.setNumList(Lists.newArrayList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10).toArray(new Integer[0]));
+        StoryRequest<List<Integer>> fireRequest = ReqBuilder.<List<Integer>>returnType(Lists.newArrayList()).timeout(3000).request(dataSource).startId(DynamicIteratorProcess.ITERATE_PROCESS_05).build();
+
+        TaskResponse<List<Integer>> fire = storyEngine.fire(fireRequest);
+        Assert.assertTrue(fire.isSuccess());
+        Assert.assertEquals(Lists.newArrayList(0, 1, 4, 9, 16, 25, 36, 49, 64, 81, 100), fire.getResult());
+        Assert.assertEquals(11, probe.getExecuted());
+        Assert.assertTrue(probe.getMaxRunning() <= 2);
+    }
+
+    /**
+     * 测试异步迭代 ALL_SUCCESS 策略下迭代项失败后，不再提交后续迭代项
+     */
+    @Test
+    public void test05() {
+        IterateProbe probe = new IterateProbe();
+        DataSource dataSource = new DataSource();
+        dataSource.setProbe(probe);
+        dataSource.setNumList(Lists.newArrayList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10).toArray(new Integer[0]));
+        StoryRequest<List<Integer>> fireRequest = ReqBuilder.<List<Integer>>returnType(Lists.newArrayList()).timeout(3000).request(dataSource).startId(DynamicIteratorProcess.ITERATE_PROCESS_06).build();
+
+        TaskResponse<List<Integer>> fire = storyEngine.fire(fireRequest);
+        Assert.assertFalse(fire.isSuccess());
+        Assert.assertEquals(ExceptionEnum.ITERATE_ITEM_ERROR.getExceptionCode(), fire.getResultCode());
+        Assert.assertTrue(probe.getExecuted() <= 3);
+    }
+
+    /**
+     * 测试异步迭代 ANY_SUCCESS 策略，第一个执行成功的迭代项出现后提前结束
+     */
+    @Test
+    public void test06() {
+        IterateProbe probe = new IterateProbe();
+        DataSource dataSource = new DataSource();
+        dataSource.setProbe(probe);
+        dataSource.setNumList(Lists.newArrayList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10).toArray(new Integer[0]));
+        StoryRequest<List<Integer>> fireRequest = ReqBuilder.<List<Integer>>returnType(Lists.newArrayList()).timeout(3000).request(dataSource).startId(DynamicIteratorProcess.ITERATE_PROCESS_07).build();
+
+        TaskResponse<List<Integer>> fire = storyEngine.fire(fireRequest);
+        Assert.assertTrue(fire.isSuccess());
+        Assert.assertEquals(1, fire.getResult().size());
+        Assert.assertTrue(Lists.newArrayList(9, 16, 25).contains(fire.getResult().get(0)));
+        Assert.assertTrue(probe.getExecuted() <= 6);
+    }
+
+    /**
+     * 测试异步批量迭代 Flux 数据源，按步长拉取数据，结果顺序与迭代顺序一致
+     */
+    @Test
+    public void test07() {
+        IterateProbe probe = new IterateProbe();
+        AtomicInteger emitted = new AtomicInteger();
+        DataSource dataSource = new DataSource();
+        dataSource.setProbe(probe);
+        dataSource.setNumFlux(Flux.range(0, 11).doOnNext(i -> emitted.incrementAndGet()));
+        StoryRequest<List<Integer>> fireRequest = ReqBuilder.<List<Integer>>returnType(Lists.newArrayList()).timeout(3000).request(dataSource).startId(DynamicIteratorProcess.ITERATE_PROCESS_08).build();
+
+        TaskResponse<List<Integer>> fire = storyEngine.fire(fireRequest);
+        Assert.assertTrue(fire.isSuccess());
+        Assert.assertEquals(Lists.newArrayList(0, 1, 4, 9, 16, 25, 36, 49, 64, 81, 100), fire.getResult());
+        Assert.assertEquals(11, emitted.get());
+        Assert.assertEquals(4, probe.getExecuted());
+        Assert.assertEquals(-1, probe.getIterateSize());
+    }
+
+    /**
+     * 测试同步迭代无限 Stream 数据源，ANY_SUCCESS 策略下第一个执行成功的迭代项出现后停止拉取
+     */
+    @Test
+    public void test08() {
+        IterateProbe probe = new IterateProbe();
+        DataSource dataSource = new DataSource();
+        dataSource.setProbe(probe);
+        dataSource.setNumStream(Stream.iterate(0, i -> i + 1));
+        StoryRequest<List<Integer>> fireRequest = ReqBuilder.<List<Integer>>returnType(Lists.newArrayList()).timeout(3000).request(dataSource).startId(DynamicIteratorProcess.ITERATE_PROCESS_09).build();
+
+        TaskResponse<List<Integer>> fire = storyEngine.fire(fireRequest);
+        Assert.assertTrue(fire.isSuccess());
+        Assert.assertEquals(Lists.newArrayList(9), fire.getResult());
+        Assert.assertEquals(4, probe.getExecuted());
+    }
+
+    /**
+     * 测试限制并发数合并迭代项返回的 Mono，对齐索引时结果顺序与迭代顺序一致
+     */
+    @Test
+    public void test09() {
+        IterateProbe probe = new IterateProbe();
+        DataSource dataSource = new DataSource();
+        dataSource.setProbe(probe);
+        dataSource.setNumList(Lists.newArrayList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10).toArray(new Integer[0]));
+        StoryRequest<List<Integer>> fireRequest = ReqBuilder.<List<Integer>>returnType(Lists.newArrayList()).timeout(3000).request(dataSource).startId(DynamicIteratorProcess.ITERATE_PROCESS_10).build();
+
+        TaskResponse<List<Integer>> fire = storyEngine.fire(fireRequest);
+        Assert.assertTrue(fire.isSuccess());
+        Assert.assertEquals(Lists.newArrayList(0, 1, 4, 9, 16, 25, 36, 49, 64, 81, 100), fire.getResult());
+        Assert.assertEquals(11, probe.getExecuted());
+        Assert.assertTrue(probe.getMaxRunning() <= 2);
+    }
+
+    /**
+     * 测试 ANY_SUCCESS 策略合并迭代项返回的 Mono，第一个成功的迭代项返回后取消其余迭代项，取消不计入熔断器失败
+     */
+    @Test
+    public void test10() throws InterruptedException {
+        for (int i = 0; i < 2; i++) {
+            IterateProbe probe = new IterateProbe(2);
+            DataSource dataSource = new DataSource();
+            dataSource.setProbe(probe);
+            dataSource.setNumList(Lists.newArrayList(0, 1, 2, 3, 4, 5).toArray(new Integer[0]));
+            StoryRequest<List<Integer>> fireRequest = ReqBuilder.<List<Integer>>returnType(Lists.newArrayList()).timeout(3000).request(dataSource).startId(DynamicIteratorProcess.ITERATE_PROCESS_11).build();
+
+            TaskResponse<List<Integer>> fire = storyEngine.fire(fireRequest);
+            Assert.assertTrue(fire.isSuccess());
+            Assert.assertEquals(Lists.newArrayList(1), fire.getResult());
+            Assert.assertEquals(3, probe.getExecuted());
+            // 结果先向下游发出，之后才取消其余迭代项
+            Assert.assertTrue(probe.awaitCancelled());
+            Assert.assertTrue(probe.getCancelled() >= 2);
+        }
+    }
+
+    /**
+     * 测试 ALL_SUCCESS 策略合并迭代项返回的 Mono，迭代项失败后取消其余迭代项，只有失败的迭代项计入熔断器
+     */
+    @Test
+    public void test11() throws InterruptedException {
+        IterateProbe probe = new IterateProbe(2);
+        DataSource dataSource = new DataSource();
+        dataSource.setProbe(probe);
+        dataSource.setNumList(Lists.newArrayList(-1, 2, 3, 4, 5).toArray(new Integer[0]));
+        StoryRequest<List<Integer>> fireRequest = ReqBuilder.<List<Integer>>returnType(Lists.newArrayList()).timeout(3000).request(dataSource).startId(DynamicIteratorProcess.ITERATE_PROCESS_12).build();
+
+        TaskResponse<List<Integer>> fire = storyEngine.fire(fireRequest);
+        Assert.assertFalse(fire.isSuccess());
+        Assert.assertEquals(3, probe.getExecuted());
+        Assert.assertTrue(probe.awaitCancelled());
+        Assert.assertEquals(2, probe.getCancelled());
+
+        dataSource = new DataSource();
+        dataSource.setProbe(new IterateProbe());
+        dataSource.setNumList(Lists.newArrayList(1, 2, 3).toArray(new Integer[0]));
+        fireRequest = ReqBuilder.<List<Integer>>returnType(Lists.newArrayList()).timeout(3000).request(dataSource).startId(DynamicIteratorProcess.ITERATE_PROCESS_12).build();
+        fire = storyEngine.fire(fireRequest);
+        Assert.assertTrue(fire.isSuccess());
+        Assert.assertEquals(Lists.newArrayList(1, 4, 9), fire.getResult());
+    }
+
+    /**
+     * 测试 ANY_SUCCESS 策略异步迭代，命中结果后被取消的迭代项不再重试
+     */
+    @Test
+    public void test12() throws InterruptedException {
+        IterateProbe probe = new IterateProbe(2);
+        DataSource dataSource = new DataSource();
+        dataSource.setProbe(probe);
+        dataSource.setNumList(Lists.newArrayList(0, 1, 2, 3, 4).toArray(new Integer[0]));
+        StoryRequest<List<Integer>> fireRequest = ReqBuilder.<List<Integer>>returnType(Lists.newArrayList()).timeout(3000).request(dataSource).startId(DynamicIteratorProcess.ITERATE_PROCESS_13).build();
+
+        TaskResponse<List<Integer>> fire = storyEngine.fire(fireRequest);
+        Assert.assertTrue(fire.isSuccess());
+        Assert.assertEquals(Lists.newArrayList(1), fire.getResult());
+        // 结果先向下游发出，之后才中断其余迭代项
+        Assert.assertTrue(probe.awaitCancelled());
+        Assert.assertEquals(3, probe.getExecuted());
+        Assert.assertEquals(2, probe.getCancelled());
+    }
+
+    /**
+     * 测试 Mono 结果产生后分别以 INLINE、SCHEDULER 策略继续执行的节点同步迭代 Flux 数据源
+     */
+    @Test
+    public void test13() {
+        for (ContinuationPolicyEnum policy : ContinuationPolicyEnum.values()) {
+            IterateProbe probe = new IterateProbe();
+            DataSource dataSource = new DataSource();
+            dataSource.setProbe(probe);
+            dataSource.setNumFlux(Flux.range(0, 11));
+            StoryRequest<List<Integer>> fireRequest = ReqBuilder.<List<Integer>>returnType(Lists.newArrayList())
+                    .continuationPolicy(policy).timeout(3000).request(dataSource).startId(DynamicIteratorProcess.ITERATE_PROCESS_14).build();
+
+            TaskResponse<List<Integer>> fire = storyEngine.fire(fireRequest);
+            Assert.assertTrue(fire.isSuccess());
+            Assert.assertEquals(Lists.newArrayList(0, 1, 4, 9, 16, 25, 36, 49, 64, 81, 100), fire.getResult());
+            Assert.assertEquals(4, probe.getExecuted());
+        }
+    }
+
+    /**
+     * 测试合并迭代项返回的 Mono，流程线程归还线程池后，在该线程上执行的后续迭代项仍切换到当前请求的线程上下文
+     */
+    @Test
+    public void test14() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            IterateProbe probe = new IterateProbe();
+            probe.setScheduler(Schedulers.fromExecutorService(executor));
+            DataSource dataSource = new DataSource();
+            dataSource.setNumList(Lists.newArrayList(1, 2, 3).toArray(new Integer[0]));
+            dataSource.setProbe(probe);
+            StoryRequest<List<Integer>> fireRequest = ReqBuilder.<List<Integer>>returnType(Lists.newArrayList())
+                    .storyExecutor(executor).timeout(3000).request(dataSource).startId(DynamicIteratorProcess.ITERATE_PROCESS_15).build();
+
+            TaskResponse<List<Integer>> fire = storyEngine.fireFuture(fireRequest).get(3, TimeUnit.SECONDS);
+            Assert.assertTrue(fire.isSuccess());
+            Assert.assertEquals(Lists.newArrayList(1, 4, 9), fire.getResult());
+            Assert.assertEquals(3, probe.getExecuted());
+            Assert.assertEquals(Collections.nCopies(3, fireRequest.getRequestId()), probe.getTraceIdList());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 测试批量迭代基本类型数组数据源
+     */
+    @Test
+    public void test15() {
+        DataSource dataSource = new DataSource();
+        dataSource.setProbe(new IterateProbe());
+        dataSource.setNumArray(new int[]{0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10});
+        StoryRequest<List<Integer>> fireRequest = ReqBuilder.<List<Integer>>returnType(Lists.newArrayList()).timeout(3000).request(dataSource).startId(DynamicIteratorProcess.ITERATE_PROCESS_16).build();
+
+        TaskResponse<List<Integer>> fire = storyEngine.fire(fireRequest);
+        Assert.assertTrue(fire.isSuccess());
+        Assert.assertEquals(Lists.newArrayList(0, 1, 4, 9, 16, 25, 36, 49, 64, 81, 100), fire.getResult());
+    }
 }
@@ -18,8 +18,10 @@
 package cn.kstry.framework.test.iterator.bo;
 
 import lombok.Data;
+import reactor.core.publisher.Flux;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  *
@@ -29,4 +31,12 @@ import java.util.List;
 public class DataSource {
 
     private Integer[] numList;
+
+    private int[] numArray;
+
+    private Flux<Integer> numFlux;
+
+    private Stream<Integer> numStream;
+
+    private IterateProbe probe;
 }
@@ -0,0 +1,121 @@
+/*
+ *
+ *  * Copyright (c) 2020-2024, Lykan (jiashuomeng@gmail.com).
+ *  * <p>
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  * <p>
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  * <p>
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+package cn.kstry.framework.test.iterator.bo;
+
+import reactor.core.scheduler.Scheduler;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 单次请求的迭代执行记录，随请求传入，避免测试之间共享服务状态
+ *
+ * @author lykan
+ */
+public class IterateProbe {
+
+    private final AtomicInteger executed = new AtomicInteger();
+
+    private final AtomicInteger running = new AtomicInteger();
+
+    private final AtomicInteger maxRunning = new AtomicInteger();
+
+    private final AtomicInteger iterateSize = new AtomicInteger();
+
+    private final AtomicInteger cancelled = new AtomicInteger();
+
+    private final CountDownLatch cancelLatch;
+
+    private final List<String> traceIdList = new CopyOnWriteArrayList<>();
+
+    private Scheduler scheduler;
+
+    public IterateProbe() {
+        this(0);
+    }
+
+    /**
+     * @param expectCancelled 预期被取消的迭代项数量
+     */
+    public IterateProbe(int expectCancelled) {
+        this.cancelLatch = new CountDownLatch(expectCancelled);
+    }
+
+    public void execute() {
+        executed.incrementAndGet();
+    }
+
+    public void startRunning() {
+        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+    }
+
+    public void stopRunning() {
+        running.decrementAndGet();
+    }
+
+    public void cancel() {
+        cancelled.incrementAndGet();
+        cancelLatch.countDown();
+    }
+
+    /**
+     * 等待预期数量的迭代项被取消
+     */
+    public boolean awaitCancelled() throws InterruptedException {
+        return cancelLatch.await(3, TimeUnit.SECONDS);
+    }
+
+    public void addTraceId(String traceId) {
+        traceIdList.add(String.valueOf(traceId));
+    }
+
+    public int getExecuted() {
+        return executed.get();
+    }
+
+    public int getMaxRunning() {
+        return maxRunning.get();
+    }
+
+    public int getIterateSize() {
+        return iterateSize.get();
+    }
+
+    public void setIterateSize(int iterateSize) {
+        this.iterateSize.set(iterateSize);
+    }
+
+    public int getCancelled() {
+        return cancelled.get();
+    }
+
+    public List<String> getTraceIdList() {
+        return traceIdList;
+    }
+
+    public Scheduler getScheduler() {
+        return scheduler;
+    }
+
+    public void setScheduler(Scheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+}
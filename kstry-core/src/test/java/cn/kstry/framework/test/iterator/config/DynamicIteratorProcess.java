@@ -1,5 +1,6 @@
 package cn.kstry.framework.test.iterator.config;
 
+import cn.kstry.framework.core.bpmn.enums.IterateStrategyEnum;
 import cn.kstry.framework.core.bpmn.extend.ElementIterable;
 import cn.kstry.framework.core.bpmn.impl.BasicElementIterable;
 import cn.kstry.framework.core.component.bpmn.link.ProcessLink;
@@ -32,6 +33,66 @@ public class DynamicIteratorProcess implements DynamicProcess {
      */
     public static final String ITERATE_PROCESS_04 = "ITERATE_PROCESS_04";
 
+    /**
+     * 测试限制并发数的异步迭代
+     */
+    public static final String ITERATE_PROCESS_05 = "ITERATE_PROCESS_05";
+
+    /**
+     * 测试异步迭代 ALL_SUCCESS 策略下迭代项失败后取消其余迭代项
+     */
+    public static final String ITERATE_PROCESS_06 = "ITERATE_PROCESS_06";
+
+    /**
+     * 测试异步迭代 ANY_SUCCESS 策略提前结束
+     */
+    public static final String ITERATE_PROCESS_07 = "ITERATE_PROCESS_07";
+
+    /**
+     * 测试异步批量迭代 Flux 数据源
+     */
+    public static final String ITERATE_PROCESS_08 = "ITERATE_PROCESS_08";
+
+    /**
+     * 测试同步迭代无限 Stream 数据源
+     */
+    public static final String ITERATE_PROCESS_09 = "ITERATE_PROCESS_09";
+
+    /**
+     * 测试限制并发数合并迭代项返回的 Mono
+     */
+    public static final String ITERATE_PROCESS_10 = "ITERATE_PROCESS_10";
+
+    /**
+     * 测试 ANY_SUCCESS 策略合并迭代项返回的 Mono
+     */
+    public static final String ITERATE_PROCESS_11 = "ITERATE_PROCESS_11";
+
+    /**
+     * 测试 ALL_SUCCESS 策略合并迭代项返回的 Mono，迭代项失败
+     */
+    public static final String ITERATE_PROCESS_12 = "ITERATE_PROCESS_12";
+
+    /**
+     * 测试 ANY_SUCCESS 策略异步迭代，被取消的迭代项不再重试
+     */
+    public static final String ITERATE_PROCESS_13 = "ITERATE_PROCESS_13";
+
+    /**
+     * 测试 Mono 结果产生后继续执行的节点同步迭代 Flux 数据源
+     */
+    public static final String ITERATE_PROCESS_14 = "ITERATE_PROCESS_14";
+
+    /**
+     * 测试合并迭代项返回的 Mono，后续迭代项在归还到线程池的流程线程上执行
+     */
+    public static final String ITERATE_PROCESS_15 = "ITERATE_PROCESS_15";
+
+    /**
+     * 测试批量迭代基本类型数组数据源
+     */
+    public static final String ITERATE_PROCESS_16 = "ITERATE_PROCESS_16";
+
     @Override
     public Optional<ProcessLink> getProcessLink(String startId) {
         if (ITERATE_PROCESS_01.equals(startId)) {
@@ -57,6 +118,78 @@ public class DynamicIteratorProcess implements DynamicProcess {
             processLink.nextSubProcess(DynamicIteratorSubProcess.ITERATE_SUB_PROCESS_02).build().end();
             return Optional.of(processLink);
         }
+        if (ITERATE_PROCESS_05.equals(startId)) {
+            ProcessLink processLink = StartProcessLink.build(ITERATE_PROCESS_05);
+            processLink.nextTask("concurrent-iterate-service", "bounded-square").build().end();
+            return Optional.of(processLink);
+        }
+        if (ITERATE_PROCESS_06.equals(startId)) {
+            BasicElementIterable iterable = ElementIterable.builder("req.numList").openAsync().concurrency(2).build();
+            ProcessLink processLink = StartProcessLink.build(ITERATE_PROCESS_06);
+            processLink.nextTask("concurrent-iterate-service", "fail-fast-square").iterable(iterable).build().end();
+            return Optional.of(processLink);
+        }
+        if (ITERATE_PROCESS_07.equals(startId)) {
+            BasicElementIterable iterable = ElementIterable.builder("req.numList").openAsync().iteStrategy(IterateStrategyEnum.ANY_SUCCESS).concurrency(3).build();
+            ProcessLink processLink = StartProcessLink.build(ITERATE_PROCESS_07);
+            processLink.nextTask("concurrent-iterate-service", "any-square").iterable(iterable).build().end();
+            return Optional.of(processLink);
+        }
+        if (ITERATE_PROCESS_08.equals(startId)) {
+            BasicElementIterable iterable = ElementIterable.builder("req.numFlux").openAsync().stride(3).concurrency(2).build();
+            ProcessLink processLink = StartProcessLink.build(ITERATE_PROCESS_08);
+            processLink.nextTask("concurrent-iterate-service", "batch-square").iterable(iterable).build().end();
+            return Optional.of(processLink);
+        }
+        if (ITERATE_PROCESS_09.equals(startId)) {
+            BasicElementIterable iterable = ElementIterable.builder("req.numStream").iteStrategy(IterateStrategyEnum.ANY_SUCCESS).build();
+            ProcessLink processLink = StartProcessLink.build(ITERATE_PROCESS_09);
+            processLink.nextTask("concurrent-iterate-service", "any-square").iterable(iterable).build().end();
+            return Optional.of(processLink);
+        }
+        if (ITERATE_PROCESS_10.equals(startId)) {
+            BasicElementIterable iterable = ElementIterable.builder("req.numList").alignIndex().concurrency(2).build();
+            ProcessLink processLink = StartProcessLink.build(ITERATE_PROCESS_10);
+            processLink.nextTask("concurrent-iterate-service", "mono-square").iterable(iterable).build().end();
+            return Optional.of(processLink);
+        }
+        if (ITERATE_PROCESS_11.equals(startId)) {
+            BasicElementIterable iterable = ElementIterable.builder("req.numList").iteStrategy(IterateStrategyEnum.ANY_SUCCESS).concurrency(3).build();
+            ProcessLink processLink = StartProcessLink.build(ITERATE_PROCESS_11);
+            processLink.nextTask("concurrent-iterate-service", "mono-any-square").iterable(iterable).build().end();
+            return Optional.of(processLink);
+        }
+        if (ITERATE_PROCESS_12.equals(startId)) {
+            BasicElementIterable iterable = ElementIterable.builder("req.numList").concurrency(3).build();
+            ProcessLink processLink = StartProcessLink.build(ITERATE_PROCESS_12);
+            processLink.nextTask("concurrent-iterate-service", "mono-fail-square").iterable(iterable).build().end();
+            return Optional.of(processLink);
+        }
+        if (ITERATE_PROCESS_13.equals(startId)) {
+            BasicElementIterable iterable = ElementIterable.builder("req.numList").openAsync().iteStrategy(IterateStrategyEnum.ANY_SUCCESS).concurrency(3).build();
+            ProcessLink processLink = StartProcessLink.build(ITERATE_PROCESS_13);
+            processLink.nextTask("concurrent-iterate-service", "retry-any-square").iterable(iterable).build().end();
+            return Optional.of(processLink);
+        }
+        if (ITERATE_PROCESS_14.equals(startId)) {
+            BasicElementIterable iterable = ElementIterable.builder("req.numFlux").stride(3).build();
+            ProcessLink processLink = StartProcessLink.build(ITERATE_PROCESS_14);
+            processLink.nextTask("concurrent-iterate-service", "delay-mono").build()
+                    .nextTask("concurrent-iterate-service", "batch-square").iterable(iterable).build().end();
+            return Optional.of(processLink);
+        }
+        if (ITERATE_PROCESS_15.equals(startId)) {
+            BasicElementIterable iterable = ElementIterable.builder("req.numList").concurrency(1).build();
+            ProcessLink processLink = StartProcessLink.build(ITERATE_PROCESS_15);
+            processLink.nextTask("concurrent-iterate-service", "mono-trace-square").iterable(iterable).build().end();
+            return Optional.of(processLink);
+        }
+        if (ITERATE_PROCESS_16.equals(startId)) {
+            BasicElementIterable iterable = ElementIterable.builder("req.numArray").stride(3).build();
+            ProcessLink processLink = StartProcessLink.build(ITERATE_PROCESS_16);
+            processLink.nextTask("concurrent-iterate-service", "batch-square").iterable(iterable).build().end();
+            return Optional.of(processLink);
+        }
         return Optional.empty();
     }
 }
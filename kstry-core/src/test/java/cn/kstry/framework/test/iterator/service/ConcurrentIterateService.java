@@ -0,0 +1,187 @@
+/*
+ *
+ *  * Copyright (c) 2020-2024, Lykan (jiashuomeng@gmail.com).
+ *  * <p>
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  * <p>
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  * <p>
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+package cn.kstry.framework.test.iterator.service;
+
+import cn.kstry.framework.core.annotation.Invoke;
+import cn.kstry.framework.core.annotation.Iterator;
+import cn.kstry.framework.core.annotation.NoticeResult;
+import cn.kstry.framework.core.annotation.ReqTaskParam;
+import cn.kstry.framework.core.annotation.TaskComponent;
+import cn.kstry.framework.core.annotation.TaskService;
+import cn.kstry.framework.core.bus.IterDataItem;
+import cn.kstry.framework.core.constant.GlobalProperties;
+import cn.kstry.framework.core.enums.ScopeTypeEnum;
+import cn.kstry.framework.test.iterator.bo.DataSource;
+import cn.kstry.framework.test.iterator.bo.IterateProbe;
+import org.slf4j.MDC;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ *
+ * @author lykan
+ */
+@TaskComponent(name = "concurrent-iterate-service")
+public class ConcurrentIterateService {
+
+    /**
+     * 求平方，同时记录同时执行的迭代项数量
+     */
+    @NoticeResult
+    @TaskService(name = "bounded-square", iterator = @Iterator(sourceScope = ScopeTypeEnum.REQUEST, source = "numList", async = true, concurrency = 2))
+    public Integer boundedSquare(IterDataItem<Integer> data, @ReqTaskParam(reqSelf = true) DataSource dataSource) throws InterruptedException {
+        IterateProbe probe = dataSource.getProbe();
+        probe.startRunning();
+        try {
+            TimeUnit.MILLISECONDS.sleep(50);
+        } finally {
+            probe.stopRunning();
+        }
+        probe.execute();
+        int i = data.getData().orElse(0);
+        return i * i;
+    }
+
+    /**
+     * 求平方，第一项执行失败
+     */
+    @NoticeResult
+    @TaskService(name = "fail-fast-square")
+    public Integer failFastSquare(IterDataItem<Integer> data, @ReqTaskParam(reqSelf = true) DataSource dataSource) throws InterruptedException {
+        dataSource.getProbe().execute();
+        int i = data.getData().orElse(0);
+        if (i == 0) {
+            throw new RuntimeException("迭代项执行失败！");
+        }
+        TimeUnit.MILLISECONDS.sleep(200);
+        return i * i;
+    }
+
+    /**
+     * 求平方，前三项执行失败
+     */
+    @NoticeResult
+    @TaskService(name = "any-square")
+    public Integer anySquare(IterDataItem<Integer> data, @ReqTaskParam(reqSelf = true) DataSource dataSource) throws InterruptedException {
+        dataSource.getProbe().execute();
+        int i = data.getData().orElse(0);
+        if (i < 3) {
+            throw new RuntimeException("迭代项执行失败！");
+        }
+        TimeUnit.MILLISECONDS.sleep(100);
+        return i * i;
+    }
+
+    /**
+     * 批量求平方，同时记录迭代批次总数
+     */
+    @NoticeResult
+    @TaskService(name = "batch-square")
+    public List<Integer> batchSquare(IterDataItem<Integer> data, @ReqTaskParam(reqSelf = true) DataSource dataSource) {
+        IterateProbe probe = dataSource.getProbe();
+        probe.execute();
+        probe.setIterateSize(data.getSize());
+        return data.getDataList().stream().map(i -> i * i).collect(Collectors.toList());
+    }
+
+    /**
+     * 异步求平方，同时记录同时订阅的迭代项数量
+     */
+    @NoticeResult
+    @TaskService(name = "mono-square")
+    public Mono<Integer> monoSquare(IterDataItem<Integer> data, @ReqTaskParam(reqSelf = true) DataSource dataSource) {
+        IterateProbe probe = dataSource.getProbe();
+        probe.execute();
+        int i = data.getData().orElse(0);
+        return Mono.delay(Duration.ofMillis(50 - i * 4L)).map(t -> i * i).doOnSubscribe(s -> probe.startRunning()).doOnTerminate(probe::stopRunning);
+    }
+
+    /**
+     * 异步求平方，1 最先返回，其余迭代项返回较慢，开启熔断器
+     */
+    @NoticeResult
+    @TaskService(name = "mono-any-square", invoke = @Invoke(breakerThreshold = 1, breakerOpenTime = 60000))
+    public Mono<Integer> monoAnySquare(IterDataItem<Integer> data, @ReqTaskParam(reqSelf = true) DataSource dataSource) {
+        IterateProbe probe = dataSource.getProbe();
+        probe.execute();
+        int i = data.getData().orElse(0);
+        return Mono.delay(Duration.ofMillis(i == 1 ? 10 : 300)).map(t -> i * i).doOnCancel(probe::cancel);
+    }
+
+    /**
+     * 异步求平方，负数迭代项执行失败，其余迭代项返回较慢，开启熔断器
+     */
+    @NoticeResult
+    @TaskService(name = "mono-fail-square", invoke = @Invoke(breakerThreshold = 2, breakerOpenTime = 60000))
+    public Mono<Integer> monoFailSquare(IterDataItem<Integer> data, @ReqTaskParam(reqSelf = true) DataSource dataSource) {
+        IterateProbe probe = dataSource.getProbe();
+        probe.execute();
+        int i = data.getData().orElse(0);
+        if (i < 0) {
+            return Mono.delay(Duration.ofMillis(20)).flatMap(t -> Mono.error(new RuntimeException("迭代项执行失败！")));
+        }
+        return Mono.delay(Duration.ofMillis(i == 1 ? 10 : 300)).map(t -> i * i).doOnCancel(probe::cancel);
+    }
+
+    /**
+     * 求平方，1 最先返回，其余迭代项执行较慢且失败后重试
+     */
+    @NoticeResult
+    @TaskService(name = "retry-any-square", invoke = @Invoke(retry = 3))
+    public Integer retryAnySquare(IterDataItem<Integer> data, @ReqTaskParam(reqSelf = true) DataSource dataSource) throws InterruptedException {
+        IterateProbe probe = dataSource.getProbe();
+        probe.execute();
+        int i = data.getData().orElse(0);
+        if (i == 1) {
+            TimeUnit.MILLISECONDS.sleep(10);
+            return i * i;
+        }
+        try {
+            TimeUnit.MILLISECONDS.sleep(300);
+        } catch (InterruptedException e) {
+            probe.cancel();
+            throw e;
+        }
+        throw new RuntimeException("迭代项执行失败！");
+    }
+
+    /**
+     * 延迟返回的 Mono，结果在 Reactor 非阻塞线程中产生
+     */
+    @TaskService(name = "delay-mono")
+    public Mono<Integer> delayMono() {
+        return Mono.delay(Duration.ofMillis(10)).map(t -> 0);
+    }
+
+    /**
+     * 异步求平方，记录执行迭代项时线程上下文中的请求 ID，结果在指定的调度器上返回
+     */
+    @NoticeResult
+    @TaskService(name = "mono-trace-square")
+    public Mono<Integer> monoTraceSquare(IterDataItem<Integer> data, @ReqTaskParam(reqSelf = true) DataSource dataSource) {
+        IterateProbe probe = dataSource.getProbe();
+        probe.execute();
+        probe.addTraceId(MDC.get(GlobalProperties.KSTRY_STORY_REQUEST_ID_NAME));
+        int i = data.getData().orElse(0);
+        return Mono.delay(Duration.ofMillis(10)).publishOn(probe.getScheduler()).map(t -> i * i);
+    }
+}
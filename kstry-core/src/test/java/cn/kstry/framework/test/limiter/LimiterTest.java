@@ -0,0 +1,112 @@
+/*
+ *
+ *  * Copyright (c) 2020-2024, Lykan (jiashuomeng@gmail.com).
+ *  * <p>
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  * <p>
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  * <p>
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+package cn.kstry.framework.test.limiter;
+
+import cn.kstry.framework.core.engine.StoryEngine;
+import cn.kstry.framework.core.engine.facade.ReqBuilder;
+import cn.kstry.framework.core.engine.facade.StoryRequest;
+import cn.kstry.framework.core.enums.TrackingTypeEnum;
+import cn.kstry.framework.test.limiter.config.LimiterProcessConfiguration;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ *
+ * @author lykan
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = LimiterConfiguration.class)
+public class LimiterTest {
+
+    @Autowired
+    private StoryEngine storyEngine;
+
+    /**
+     * 【正常】测试：令牌桶限流，突发请求数不超过桶容量
+     */
+    @Test
+    public void testLimiter001() {
+        AtomicInteger req = new AtomicInteger();
+        for (int i = 0; i < 20; i++) {
+            StoryRequest<Void> fireRequest = ReqBuilder.returnType(Void.class).request(req)
+                    .trackingType(TrackingTypeEnum.SERVICE).startProcess(LimiterProcessConfiguration::tokenBucketProcess).build();
+            Assert.assertTrue(storyEngine.fire(fireRequest).isSuccess());
+        }
+        Assert.assertTrue(req.get() >= 5 && req.get() < 20);
+    }
+
+    /**
+     * 【正常】测试：滑动窗口限流，1s 内通过的请求数不超过 permits
+     */
+    @Test
+    public void testLimiter002() {
+        AtomicInteger req = new AtomicInteger();
+        for (int i = 0; i < 20; i++) {
+            StoryRequest<Void> fireRequest = ReqBuilder.returnType(Void.class).request(req)
+                    .trackingType(TrackingTypeEnum.SERVICE).startProcess(LimiterProcessConfiguration::slidingWindowProcess).build();
+            Assert.assertTrue(storyEngine.fire(fireRequest).isSuccess());
+        }
+        Assert.assertTrue(req.get() >= 5 && req.get() < 20);
+    }
+
+    /**
+     * 【正常】测试：并发数限流，同一时刻只允许一个节点执行，执行结束后归还许可
+     */
+    @Test
+    public void testLimiter003() {
+        AtomicInteger req = new AtomicInteger();
+        List<Mono<Void>> monoList = IntStream.range(0, 5).mapToObj(i -> storyEngine.fireAsync(ReqBuilder.returnType(Void.class).request(req).timeout(3000)
+                .trackingType(TrackingTypeEnum.SERVICE).startProcess(LimiterProcessConfiguration::concurrencyProcess).build())).collect(Collectors.toList());
+        monoList.forEach(Mono::block);
+        Assert.assertTrue(req.get() >= 1 && req.get() < 5);
+
+        int executed = req.get();
+        StoryRequest<Void> fireRequest = ReqBuilder.returnType(Void.class).request(req)
+                .trackingType(TrackingTypeEnum.SERVICE).startProcess(LimiterProcessConfiguration::concurrencyProcess).build();
+        Assert.assertTrue(storyEngine.fire(fireRequest).isSuccess());
+        Assert.assertEquals(executed + 1, req.get());
+    }
+
+    /**
+     * 【正常】测试：自适应并发数限流，并发数不超过并发上限的最大值，执行结束后归还许可
+     */
+    @Test
+    public void testLimiter004() {
+        AtomicInteger req = new AtomicInteger();
+        List<Mono<Void>> monoList = IntStream.range(0, 6).mapToObj(i -> storyEngine.fireAsync(ReqBuilder.returnType(Void.class).request(req).timeout(3000)
+                .trackingType(TrackingTypeEnum.SERVICE).startProcess(LimiterProcessConfiguration::adaptiveProcess).build())).collect(Collectors.toList());
+        monoList.forEach(Mono::block);
+        Assert.assertTrue(req.get() >= 1 && req.get() <= 2);
+
+        int executed = req.get();
+        StoryRequest<Void> fireRequest = ReqBuilder.returnType(Void.class).request(req)
+                .trackingType(TrackingTypeEnum.SERVICE).startProcess(LimiterProcessConfiguration::adaptiveProcess).build();
+        Assert.assertTrue(storyEngine.fire(fireRequest).isSuccess());
+        Assert.assertEquals(executed + 1, req.get());
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ *
+ *  * Copyright (c) 2020-2024, Lykan (jiashuomeng@gmail.com).
+ *  * <p>
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  * <p>
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  * <p>
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+package cn.kstry.framework.test.limiter;
+
+import cn.kstry.framework.core.component.limiter.RateLimiterConfig;
+import cn.kstry.framework.core.component.limiter.algorithm.VegasNodeLimiter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 自适应并发数限流测试
+ *
+ * @author lykan
+ */
+public class VegasNodeLimiterTest {
+
+    private static final long NORMAL_RTT = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static final long SLOW_RTT = TimeUnit.MILLISECONDS.toNanos(10);
+
+    /**
+     * 测试下游耗时升高时并发上限收缩，耗时恢复后并发上限重新增大
+     */
+    @Test
+    public void testLimitFollowsLatency() {
+        VegasNodeLimiter limiter = new VegasNodeLimiter(new RateLimiterConfig("vegas", 50, 0, 0, null, null));
+        int initialLimit = limiter.getLimit();
+
+        runRounds(limiter, NORMAL_RTT, 20);
+        int grownLimit = limiter.getLimit();
+        Assert.assertTrue(grownLimit > initialLimit);
+
+        runRounds(limiter, SLOW_RTT, 20);
+        int shrunkLimit = limiter.getLimit();
+        Assert.assertTrue(shrunkLimit < initialLimit);
+
+        runRounds(limiter, NORMAL_RTT, 20);
+        Assert.assertTrue(limiter.getLimit() > shrunkLimit);
+        Assert.assertEquals(0, limiter.getInFlight());
+    }
+
+    /**
+     * 每轮占满当前并发上限后，以指定耗时全部释放
+     */
+    private void runRounds(VegasNodeLimiter limiter, long rtt, int rounds) {
+        for (int i = 0; i < rounds; i++) {
+            int acquired = 0;
+            while (limiter.tryAcquire(0)) {
+                acquired++;
+            }
+            Assert.assertEquals(limiter.getLimit(), acquired);
+            for (int j = 0; j < acquired; j++) {
+                limiter.release(rtt);
+            }
+        }
+    }
+}
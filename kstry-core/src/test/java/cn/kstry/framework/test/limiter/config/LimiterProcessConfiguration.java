@@ -0,0 +1,60 @@
+/*
+ *
+ *  * Copyright (c) 2020-2024, Lykan (jiashuomeng@gmail.com).
+ *  * <p>
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  * <p>
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  * <p>
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+package cn.kstry.framework.test.limiter.config;
+
+import cn.kstry.framework.core.component.bpmn.link.ProcessLink;
+import cn.kstry.framework.core.component.bpmn.link.StartProcessLink;
+import cn.kstry.framework.test.limiter.service.LimiterService;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ *
+ * @author lykan
+ */
+@Configuration
+public class LimiterProcessConfiguration {
+
+    @Bean
+    public ProcessLink tokenBucketProcess() {
+        StartProcessLink processLink = StartProcessLink.build(LimiterProcessConfiguration::tokenBucketProcess);
+        processLink.nextService(LimiterService::tokenBucket).build().end();
+        return processLink;
+    }
+
+    @Bean
+    public ProcessLink slidingWindowProcess() {
+        StartProcessLink processLink = StartProcessLink.build(LimiterProcessConfiguration::slidingWindowProcess);
+        processLink.nextService(LimiterService::slidingWindow).build().end();
+        return processLink;
+    }
+
+    @Bean
+    public ProcessLink adaptiveProcess() {
+        StartProcessLink processLink = StartProcessLink.build(LimiterProcessConfiguration::adaptiveProcess);
+        processLink.nextService(LimiterService::adaptive).build().end();
+        return processLink;
+    }
+
+    @Bean
+    public ProcessLink concurrencyProcess() {
+        StartProcessLink processLink = StartProcessLink.build(LimiterProcessConfiguration::concurrencyProcess);
+        processLink.nextService(LimiterService::concurrency).build().end();
+        return processLink;
+    }
+}
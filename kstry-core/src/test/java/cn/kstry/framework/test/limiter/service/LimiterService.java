@@ -0,0 +1,69 @@
+/*
+ *
+ *  * Copyright (c) 2020-2024, Lykan (jiashuomeng@gmail.com).
+ *  * <p>
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  * <p>
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  * <p>
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+package cn.kstry.framework.test.limiter.service;
+
+import cn.kstry.framework.core.annotation.Limiter;
+import cn.kstry.framework.core.annotation.ReqTaskParam;
+import cn.kstry.framework.core.annotation.TaskComponent;
+import cn.kstry.framework.core.annotation.TaskService;
+import cn.kstry.framework.core.component.limiter.AdaptiveNodeRateLimiter;
+import cn.kstry.framework.core.component.limiter.ConcurrencyNodeRateLimiter;
+import cn.kstry.framework.core.component.limiter.SlidingWindowNodeRateLimiter;
+import cn.kstry.framework.core.component.limiter.TokenBucketNodeRateLimiter;
+import cn.kstry.framework.core.component.limiter.strategy.IgnoreFailAcquireStrategy;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ *
+ * @author lykan
+ */
+@TaskComponent
+public class LimiterService {
+
+    @TaskService(limiter = @Limiter(name = TokenBucketNodeRateLimiter.TOKEN_BUCKET_NODE_RATE_LIMITER, permits = 5, failStrategy = IgnoreFailAcquireStrategy.NAME))
+    public void tokenBucket(@ReqTaskParam(reqSelf = true) AtomicInteger req) {
+        req.incrementAndGet();
+    }
+
+    @TaskService(limiter = @Limiter(name = SlidingWindowNodeRateLimiter.SLIDING_WINDOW_NODE_RATE_LIMITER, permits = 5, failStrategy = IgnoreFailAcquireStrategy.NAME))
+    public void slidingWindow(@ReqTaskParam(reqSelf = true) AtomicInteger req) {
+        req.incrementAndGet();
+    }
+
+    @TaskService(limiter = @Limiter(name = AdaptiveNodeRateLimiter.ADAPTIVE_NODE_RATE_LIMITER, permits = 2, failStrategy = IgnoreFailAcquireStrategy.NAME))
+    public void adaptive(@ReqTaskParam(reqSelf = true) AtomicInteger req) {
+        req.incrementAndGet();
+        try {
+            TimeUnit.MILLISECONDS.sleep(200);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @TaskService(limiter = @Limiter(name = ConcurrencyNodeRateLimiter.CONCURRENCY_NODE_RATE_LIMITER, permits = 1, failStrategy = IgnoreFailAcquireStrategy.NAME))
+    public void concurrency(@ReqTaskParam(reqSelf = true) AtomicInteger req) {
+        req.incrementAndGet();
+        try {
+            TimeUnit.MILLISECONDS.sleep(200);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -18,9 +18,13 @@
 package cn.kstry.framework.test.mono;
 
 import cn.kstry.framework.core.annotation.EnableKstry;
+import cn.kstry.framework.core.constant.GlobalConstant;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.PropertySource;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
 /**
  *
@@ -32,4 +36,19 @@ import org.springframework.context.annotation.PropertySource;
 @ComponentScan(basePackageClasses = MonoConfiguration.class)
 public class MonoConfiguration {
 
+    /**
+     * 服务节点发布 Mono 结果使用的 Scheduler
+     */
+    @Bean(name = "mono-publish-scheduler", destroyMethod = "dispose")
+    public Scheduler monoPublishScheduler() {
+        return Schedulers.newSingle("mono-publish", true);
+    }
+
+    /**
+     * SCHEDULER 延续策略使用的 Scheduler
+     */
+    @Bean(name = GlobalConstant.CONTINUATION_SCHEDULER_BEAN_NAME, destroyMethod = "dispose")
+    public Scheduler continuationScheduler() {
+        return Schedulers.newSingle("mono-continuation", true);
+    }
 }
@@ -20,13 +20,17 @@ package cn.kstry.framework.test.mono;
 import cn.kstry.framework.core.engine.StoryEngine;
 import cn.kstry.framework.core.engine.facade.ReqBuilder;
 import cn.kstry.framework.core.engine.facade.StoryRequest;
+import cn.kstry.framework.core.engine.facade.TaskResponse;
+import cn.kstry.framework.core.enums.ContinuationPolicyEnum;
 import cn.kstry.framework.core.enums.TrackingTypeEnum;
 import cn.kstry.framework.core.exception.ExceptionEnum;
 import cn.kstry.framework.core.exception.KstryException;
 import cn.kstry.framework.core.role.BasicRole;
 import cn.kstry.framework.core.util.PermissionUtil;
 import cn.kstry.framework.test.mono.bo.SayInfoRequest;
+import cn.kstry.framework.test.mono.config.DynamicMonoProcess;
 import cn.kstry.framework.test.util.TestUtil;
+import com.google.common.collect.ImmutableMap;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -35,7 +39,10 @@ import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import reactor.core.publisher.Mono;
 
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  *
@@ -107,4 +114,123 @@ public class MonoResultTest {
         });
         TimeUnit.SECONDS.sleep(1);
     }
+
+    /**
+     * 【正常】测试：调用线程直接执行主流程，Mono结果正常返回
+     */
+    @Test
+    public void testMonoResult004() {
+        SayInfoRequest request = new SayInfoRequest();
+        request.setA(345);
+        request.setB(true);
+        request.setC("Mono测试");
+        StoryRequest<SayInfoRequest> fireRequest = ReqBuilder.returnType(SayInfoRequest.class).callerRuns(true)
+                .trackingType(TrackingTypeEnum.SERVICE_DETAIL).request(request).timeout(1000).startId("story-def-mono-result-001").build();
+        TaskResponse<SayInfoRequest> fire = storyEngine.fire(fireRequest);
+        Assert.assertTrue(fire.isSuccess());
+        Assert.assertEquals(345, fire.getResult().getA());
+    }
+
+    /**
+     * 【异常】测试：调用线程直接执行主流程，结果超时，超时后调用线程不残留中断标记
+     */
+    @Test
+    public void testMonoResult005() {
+        SayInfoRequest request = new SayInfoRequest();
+        request.setA(345);
+        request.setB(true);
+        request.setC("Mono测试");
+        StoryRequest<SayInfoRequest> fireRequest = ReqBuilder.returnType(SayInfoRequest.class).callerRuns(true)
+                .trackingType(TrackingTypeEnum.SERVICE_DETAIL).request(request).timeout(200).startId("story-def-mono-result-001").build();
+        TaskResponse<SayInfoRequest> fire = storyEngine.fire(fireRequest);
+        Assert.assertFalse(fire.isSuccess());
+        Assert.assertTrue(fire.getResultException() instanceof TimeoutException);
+        Assert.assertFalse(Thread.currentThread().isInterrupted());
+    }
+
+    /**
+     * 【异常】测试：调用线程直接执行主流程，结果超时，调用前已存在的中断标记被保留
+     */
+    @Test
+    public void testMonoResult009() {
+        SayInfoRequest request = new SayInfoRequest();
+        request.setA(345);
+        request.setB(true);
+        request.setC("Mono测试");
+        StoryRequest<SayInfoRequest> fireRequest = ReqBuilder.returnType(SayInfoRequest.class).callerRuns(true)
+                .trackingType(TrackingTypeEnum.SERVICE_DETAIL).request(request).timeout(200).startId("story-def-mono-result-001").build();
+        Thread.currentThread().interrupt();
+        try {
+            TaskResponse<SayInfoRequest> fire = storyEngine.fire(fireRequest);
+            Assert.assertFalse(fire.isSuccess());
+            Assert.assertTrue(Thread.currentThread().isInterrupted());
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    /**
+     * 【正常】测试：fireFuture 结果正常返回
+     */
+    @Test
+    public void testMonoResult006() throws Exception {
+        SayInfoRequest request = new SayInfoRequest();
+        request.setA(345);
+        request.setB(true);
+        request.setC("Mono测试");
+        StoryRequest<SayInfoRequest> fireRequest = ReqBuilder.returnType(SayInfoRequest.class)
+                .trackingType(TrackingTypeEnum.SERVICE_DETAIL).request(request).timeout(1000).startId("story-def-mono-result-001").build();
+        CompletableFuture<TaskResponse<SayInfoRequest>> future = storyEngine.fireFuture(fireRequest);
+        TaskResponse<SayInfoRequest> fire = future.get(2, TimeUnit.SECONDS);
+        Assert.assertTrue(fire.isSuccess());
+        Assert.assertEquals(345, fire.getResult().getA());
+    }
+
+    /**
+     * 【异常】测试：fireFuture 结果超时，以失败的 TaskResponse 正常完成
+     */
+    @Test
+    public void testMonoResult007() throws Exception {
+        SayInfoRequest request = new SayInfoRequest();
+        request.setA(345);
+        request.setB(true);
+        request.setC("Mono测试");
+        StoryRequest<SayInfoRequest> fireRequest = ReqBuilder.returnType(SayInfoRequest.class)
+                .trackingType(TrackingTypeEnum.SERVICE_DETAIL).request(request).timeout(200).startId("story-def-mono-result-001").build();
+        CompletableFuture<TaskResponse<SayInfoRequest>> future = storyEngine.fireFuture(fireRequest);
+        TaskResponse<SayInfoRequest> fire = future.get(2, TimeUnit.SECONDS);
+        Assert.assertFalse(fire.isSuccess());
+        Assert.assertEquals(ExceptionEnum.ASYNC_TASK_TIMEOUT.getExceptionCode(), fire.getResultCode());
+    }
+
+    /**
+     * 【正常】测试：Mono结果产生后，分别以 STORY_EXECUTOR、INLINE、SCHEDULER 策略继续执行后续节点，后续节点运行在策略对应的线程上
+     */
+    @Test
+    public void testMonoResult008() {
+        Map<ContinuationPolicyEnum, String> threadPrefixMap = ImmutableMap.of(
+                ContinuationPolicyEnum.STORY_EXECUTOR, "kstry-task", ContinuationPolicyEnum.INLINE, "mono-publish", ContinuationPolicyEnum.SCHEDULER, "mono-continuation");
+        for (ContinuationPolicyEnum policy : ContinuationPolicyEnum.values()) {
+            TestUtil.repeatTest(10, () -> {
+                SayInfoRequest request = new SayInfoRequest();
+                StoryRequest<SayInfoRequest> fireRequest = ReqBuilder.returnType(SayInfoRequest.class).continuationPolicy(policy)
+                        .request(request).timeout(1000).startId(DynamicMonoProcess.MONO_CONTINUATION_PROCESS).build();
+                TaskResponse<SayInfoRequest> fire = storyEngine.fire(fireRequest);
+                Assert.assertTrue(fire.isSuccess());
+                Assert.assertTrue(request.getThreadName(), request.getThreadName().startsWith(threadPrefixMap.get(policy)));
+            });
+        }
+    }
+
+    /**
+     * 【异常】测试：未知的延续策略抛出配置异常
+     */
+    @Test
+    public void testMonoResult010() {
+        Assert.assertEquals(ContinuationPolicyEnum.INLINE, ContinuationPolicyEnum.of("inline"));
+        Assert.assertEquals(ContinuationPolicyEnum.STORY_EXECUTOR, ContinuationPolicyEnum.of("story-executor"));
+        Assert.assertEquals(ContinuationPolicyEnum.STORY_EXECUTOR, ContinuationPolicyEnum.of(null));
+        KstryException exception = Assert.assertThrows(KstryException.class, () -> ContinuationPolicyEnum.of("schedular"));
+        Assert.assertEquals(ExceptionEnum.CONFIGURATION_PARSE_FAILURE.getExceptionCode(), exception.getErrorCode());
+    }
 }
@@ -33,4 +33,9 @@ public class SayInfoRequest {
     private String c;
 
     private int d;
+
+    /**
+     * 后续节点的执行线程
+     */
+    private String threadName;
 }
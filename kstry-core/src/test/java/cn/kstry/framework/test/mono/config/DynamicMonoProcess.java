@@ -0,0 +1,49 @@
+/*
+ *
+ *  * Copyright (c) 2020-2024, Lykan (jiashuomeng@gmail.com).
+ *  * <p>
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  * <p>
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  * <p>
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+package cn.kstry.framework.test.mono.config;
+
+import cn.kstry.framework.core.component.bpmn.link.ProcessLink;
+import cn.kstry.framework.core.component.bpmn.link.StartProcessLink;
+import cn.kstry.framework.core.component.dynamic.creator.DynamicProcess;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ *
+ * @author lykan
+ */
+@Component
+public class DynamicMonoProcess implements DynamicProcess {
+
+    /**
+     * 测试 Mono 结果产生后后续节点的执行线程
+     */
+    public static final String MONO_CONTINUATION_PROCESS = "MONO_CONTINUATION_PROCESS";
+
+    @Override
+    public Optional<ProcessLink> getProcessLink(String startId) {
+        if (MONO_CONTINUATION_PROCESS.equals(startId)) {
+            ProcessLink processLink = StartProcessLink.build(MONO_CONTINUATION_PROCESS);
+            processLink.nextTask("mono-thread-service", "publish_mono").build()
+                    .nextTask("mono-thread-service", "record_thread").build().end();
+            return Optional.of(processLink);
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ *
+ *  * Copyright (c) 2020-2024, Lykan (jiashuomeng@gmail.com).
+ *  * <p>
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  * <p>
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  * <p>
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+package cn.kstry.framework.test.mono.service;
+
+import cn.kstry.framework.core.annotation.ReqTaskParam;
+import cn.kstry.framework.core.annotation.TaskComponent;
+import cn.kstry.framework.core.annotation.TaskService;
+import cn.kstry.framework.test.mono.bo.SayInfoRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ *
+ * @author lykan
+ */
+@TaskComponent(name = "mono-thread-service")
+public class MonoThreadService {
+
+    @Autowired
+    @Qualifier("mono-publish-scheduler")
+    private Scheduler publishScheduler;
+
+    @TaskService(name = "publish_mono")
+    public Mono<Integer> publishMono() {
+        return Mono.fromCallable(() -> 1).subscribeOn(publishScheduler);
+    }
+
+    @TaskService(name = "record_thread")
+    public void recordThread(@ReqTaskParam(reqSelf = true) SayInfoRequest request) {
+        request.setThreadName(Thread.currentThread().getName());
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ *
+ *  * Copyright (c) 2020-2024, Lykan (jiashuomeng@gmail.com).
+ *  * <p>
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  * <p>
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  * <p>
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+package cn.kstry.framework.test.role;
+
+import cn.kstry.framework.core.enums.PermissionType;
+import cn.kstry.framework.core.resource.service.ServiceNodeResourceItem;
+import cn.kstry.framework.core.role.BasicRole;
+import cn.kstry.framework.core.role.Role;
+import cn.kstry.framework.core.role.permission.Permission;
+import cn.kstry.framework.core.role.permission.SimplePermission;
+import cn.kstry.framework.core.util.PermissionUtil;
+import com.google.common.collect.Sets;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+/**
+ * 角色权限索引测试
+ *
+ * @author lykan
+ */
+public class BasicRoleTest {
+
+    /**
+     * 测试继承多级父级角色的权限
+     */
+    @Test
+    public void testInheritPermission() {
+        BasicRole grandparentRole = new BasicRole();
+        grandparentRole.addPermission(PermissionUtil.permissionList("r:say_number@say_number_cube"));
+        BasicRole parentRole = new BasicRole();
+        parentRole.addPermission(PermissionUtil.permissionList("pr:say_info@say_number"));
+        parentRole.addParentRole(Sets.newHashSet(grandparentRole));
+        Role role = new BasicRole();
+        role.addPermission(PermissionUtil.permissionList("r:say_number@say_number_increase"));
+        role.addParentRole(Sets.newHashSet(parentRole));
+
+        Assert.assertTrue(role.allowedUseResource(new ServiceNodeResourceItem("say_info", "say_number", "say_number_increase", null)));
+        Assert.assertTrue(role.allowedUseResource(new ServiceNodeResourceItem("say_info", "say_number", null, null)));
+        Assert.assertTrue(role.allowedUseResource(new ServiceNodeResourceItem("say_info", "say_number", "say_number_cube", null)));
+        Assert.assertFalse(role.allowedUseResource(new ServiceNodeResourceItem("say_info", "say_number", "say_number_square", null)));
+        Assert.assertFalse(role.allowedUseResource(new ServiceNodeResourceItem("say_info2", "say_number", null, null)));
+        Assert.assertFalse(parentRole.allowedUseResource(new ServiceNodeResourceItem("say_info", "say_number", "say_number_increase", null)));
+
+        Assert.assertTrue(role.allowedUseResource(PermissionUtil.parsePermission("r:say_number@say_number_cube").orElse(null)));
+        Assert.assertFalse(role.allowedUseResource(PermissionUtil.parsePermission("pr:say_info@say_number@say_number_cube").orElse(null)));
+    }
+
+    /**
+     * 测试父级角色权限变化后，子级角色的权限随之变化
+     */
+    @Test
+    public void testParentPermissionChange() {
+        BasicRole grandparentRole = new BasicRole();
+        BasicRole parentRole = new BasicRole();
+        parentRole.addParentRole(Sets.newHashSet(grandparentRole));
+        Role role = new BasicRole();
+        role.addParentRole(Sets.newHashSet(parentRole));
+
+        ServiceNodeResourceItem resource = new ServiceNodeResourceItem("say_info", "say_number", "say_number_square", null);
+        Assert.assertFalse(role.allowedUseResource(resource));
+        grandparentRole.addPermission(PermissionUtil.permissionList("r:say_number@say_number_square"));
+        Assert.assertTrue(role.allowedUseResource(resource));
+
+        BasicRole otherRole = new BasicRole();
+        otherRole.addPermission(PermissionUtil.permissionList("pr:say_info@say_number@say_number_cube"));
+        ServiceNodeResourceItem cubeResource = new ServiceNodeResourceItem("say_info", "say_number", "say_number_cube", null);
+        Assert.assertFalse(role.allowedUseResource(cubeResource));
+        parentRole.addParentRole(Sets.newHashSet(otherRole));
+        Assert.assertTrue(role.allowedUseResource(cubeResource));
+    }
+
+    /**
+     * 测试重写了 auth() 的权限、服务节点资源子类不走权限索引，以 auth() 的结果为准
+     */
+    @Test
+    public void testCustomAuth() {
+        Role role = new BasicRole();
+        role.addPermission(PermissionUtil.permissionList("pr:say_info@say_number"));
+
+        ServiceNodeResourceItem denyResource = new ServiceNodeResourceItem("say_info", "say_number", null, null) {
+            @Override
+            public boolean auth(List<Permission> permissionList) {
+                return false;
+            }
+        };
+        Assert.assertTrue(role.allowedUseResource(new ServiceNodeResourceItem("say_info", "say_number", null, null)));
+        Assert.assertFalse(role.allowedUseResource(denyResource));
+
+        ServiceNodeResourceItem resource = new ServiceNodeResourceItem("say_info2", "say_number", null, null);
+        SimplePermission allowPermission = new SimplePermission(PermissionType.COMPONENT_SERVICE, resource) {
+            @Override
+            public boolean auth(List<Permission> permissionList) {
+                return true;
+            }
+        };
+        Assert.assertFalse(role.allowedUseResource(new SimplePermission(PermissionType.COMPONENT_SERVICE, resource)));
+        Assert.assertTrue(role.allowedUseResource(allowPermission));
+    }
+}
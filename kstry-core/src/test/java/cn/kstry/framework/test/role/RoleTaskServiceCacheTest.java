@@ -0,0 +1,85 @@
+/*
+ *
+ *  * Copyright (c) 2020-2024, Lykan (jiashuomeng@gmail.com).
+ *  * <p>
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  * <p>
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  * <p>
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+package cn.kstry.framework.test.role;
+
+import cn.kstry.framework.core.container.component.TaskComponentRepository;
+import cn.kstry.framework.core.container.component.TaskServiceDef;
+import cn.kstry.framework.core.exception.ExceptionEnum;
+import cn.kstry.framework.core.exception.KstryException;
+import cn.kstry.framework.core.role.BasicRole;
+import cn.kstry.framework.core.util.PermissionUtil;
+import cn.kstry.framework.test.role.service.SayInfoAbility;
+import com.google.common.collect.Sets;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Optional;
+
+/**
+ * 角色维度服务节点匹配结果缓存测试
+ *
+ * @author lykan
+ */
+public class RoleTaskServiceCacheTest {
+
+    /**
+     * 测试角色及父级角色权限变化后，缓存的匹配结果随之失效
+     */
+    @Test
+    public void testPermissionChange() {
+        TaskComponentRepository repository = new TaskComponentRepository() {
+            @Override
+            public void init() {
+                doInit(new SayInfoAbility(), SayInfoAbility.class, "say_info", false);
+            }
+        };
+        repository.init();
+
+        BasicRole role = new BasicRole();
+        role.addPermission(PermissionUtil.permissionList("r:say_number@say_number_square"));
+        Assert.assertEquals("say_number_square", getAbilityName(repository, role));
+        Assert.assertEquals("say_number_square", getAbilityName(repository, role));
+
+        TaskServiceDef def = repository.getTaskServiceDef("say_info", "say_number", role).orElse(null);
+        Assert.assertNotNull(def);
+        def.setDemotionNode(true);
+        Assert.assertFalse(repository.getTaskServiceDef("say_info", "say_number", role).map(TaskServiceDef::isDemotionNode).orElse(true));
+
+        BasicRole otherRole = new BasicRole();
+        otherRole.addPermission(PermissionUtil.permissionList("r:say_number@say_number_cube"));
+        Assert.assertEquals("say_number_cube", getAbilityName(repository, otherRole));
+
+        BasicRole increaseRole = new BasicRole();
+        increaseRole.addPermission(PermissionUtil.permissionList("r:say_number@say_number_increase"));
+        BasicRole childRole = new BasicRole();
+        childRole.addParentRole(Sets.newHashSet(increaseRole));
+        Assert.assertEquals("say_number_increase", getAbilityName(repository, childRole));
+        increaseRole.addPermission(PermissionUtil.permissionList("r:say_number@say_number_cube"));
+        try {
+            getAbilityName(repository, childRole);
+            Assert.fail();
+        } catch (KstryException e) {
+            Assert.assertEquals(ExceptionEnum.TASK_SERVICE_MATCH_ERROR.getExceptionCode(), e.getErrorCode());
+        }
+    }
+
+    private String getAbilityName(TaskComponentRepository repository, BasicRole role) {
+        Optional<TaskServiceDef> taskServiceDef = repository.getTaskServiceDef("say_info", "say_number", role);
+        return taskServiceDef.map(def -> def.getServiceNodeResource().getAbilityName()).orElse(null);
+    }
+}
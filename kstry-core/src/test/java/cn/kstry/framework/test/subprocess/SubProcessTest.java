@@ -25,6 +25,7 @@ import cn.kstry.framework.core.engine.facade.TaskResponse;
 import cn.kstry.framework.core.enums.ScopeTypeEnum;
 import cn.kstry.framework.core.enums.TrackingTypeEnum;
 import cn.kstry.framework.test.subprocess.bo.SubProcessBo;
+import cn.kstry.framework.test.subprocess.config.DynamicInlineProcess;
 import cn.kstry.framework.test.util.TestUtil;
 import org.junit.Assert;
 import org.junit.Test;
@@ -33,8 +34,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
-import java.util.Objects;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -71,13 +70,6 @@ public class SubProcessTest {
             Assert.assertTrue(result.isSuccess());
             Assert.assertNotNull(result.getResult());
             Assert.assertEquals(1, result.getResult().getA());
-            if (!Objects.equals(40, result.getResult().getF().get())) {
-                try {
-                    TimeUnit.MILLISECONDS.sleep(500);
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                }
-            }
             Assert.assertEquals(40, result.getResult().getF().get());
         });
     }
@@ -105,13 +97,6 @@ public class SubProcessTest {
             Assert.assertTrue(result.isSuccess());
             Assert.assertNotNull(result.getResult());
             Assert.assertEquals(1, result.getResult().getA());
-            if (!Objects.equals(40, result.getResult().getF().get())) {
-                try {
-                    TimeUnit.MILLISECONDS.sleep(500);
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                }
-            }
             Assert.assertEquals(40, result.getResult().getF().get());
         });
     }
@@ -171,4 +156,48 @@ public class SubProcessTest {
             Assert.assertTrue(i > 2000 && i < 2050);
         });
     }
+
+    /**
+     * 【正常】测试：请求开启子流程直接执行，子流程在父流程片段的线程中执行时结果一致
+     */
+    @Test
+    public void testSubprocess005() {
+        TestUtil.repeatTest(1000, () -> {
+            SubProcessBo request = new SubProcessBo();
+            request.setA(1);
+            request.setB(100);
+            request.setC(true);
+            request.setD("subProcessTest");
+            request.setE(3.4d);
+            request.setF(new AtomicInteger());
+
+            InScopeData tbo = new InScopeData(ScopeTypeEnum.STABLE);
+            tbo.put("tbo", request);
+            StoryRequest<SubProcessBo> fireRequest = ReqBuilder.returnType(SubProcessBo.class).staScopeData(tbo).subProcessInline(true)
+                    .trackingType(TrackingTypeEnum.SERVICE_DETAIL).request(request).startId("story-def-subprocess-test-001").build();
+            TaskResponse<SubProcessBo> result = storyEngine.fire(fireRequest);
+            Assert.assertTrue(result.isSuccess());
+            Assert.assertEquals(1, result.getResult().getA());
+            Assert.assertEquals(40, result.getResult().getF().get());
+        });
+    }
+
+    /**
+     * 【正常】测试：请求开启子流程直接执行时，子流程服务节点与父流程服务节点在同一线程中执行
+     */
+    @Test
+    public void testSubprocess006() {
+        SubProcessBo request = new SubProcessBo();
+        StoryRequest<Void> fireRequest = ReqBuilder.returnType(Void.class).request(request).subProcessInline(true)
+                .startId(DynamicInlineProcess.INLINE_PROCESS_01).build();
+        Assert.assertTrue(storyEngine.fire(fireRequest).isSuccess());
+        Assert.assertEquals(2, request.getThreads().size());
+        Assert.assertSame(request.getThreads().get(0), request.getThreads().get(1));
+
+        request = new SubProcessBo();
+        fireRequest = ReqBuilder.returnType(Void.class).request(request).subProcessInline(false)
+                .startId(DynamicInlineProcess.INLINE_PROCESS_01).build();
+        Assert.assertTrue(storyEngine.fire(fireRequest).isSuccess());
+        Assert.assertEquals(2, request.getThreads().size());
+    }
 }
@@ -19,6 +19,8 @@ package cn.kstry.framework.test.subprocess.bo;
 
 import lombok.Data;
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -39,4 +41,9 @@ public class SubProcessBo {
     private double e;
 
     private AtomicInteger f;
+
+    /**
+     * 依次执行的服务节点所在线程
+     */
+    private List<Thread> threads = new CopyOnWriteArrayList<>();
 }
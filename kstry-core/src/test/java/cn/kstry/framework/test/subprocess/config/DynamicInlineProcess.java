@@ -0,0 +1,49 @@
+/*
+ *
+ *  * Copyright (c) 2020-2024, Lykan (jiashuomeng@gmail.com).
+ *  * <p>
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  * <p>
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  * <p>
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+package cn.kstry.framework.test.subprocess.config;
+
+import cn.kstry.framework.core.component.bpmn.link.ProcessLink;
+import cn.kstry.framework.core.component.bpmn.link.StartProcessLink;
+import cn.kstry.framework.core.component.dynamic.creator.DynamicProcess;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ *
+ * @author lykan
+ */
+@Component
+public class DynamicInlineProcess implements DynamicProcess {
+
+    /**
+     * 测试子流程在父流程片段线程中直接执行
+     */
+    public static final String INLINE_PROCESS_01 = "INLINE_PROCESS_01";
+
+    @Override
+    public Optional<ProcessLink> getProcessLink(String startId) {
+        if (INLINE_PROCESS_01.equals(startId)) {
+            ProcessLink processLink = StartProcessLink.build(INLINE_PROCESS_01);
+            processLink.nextTask("sub-process-service", "record_thread").build()
+                    .nextSubProcess(DynamicInlineSubProcess.INLINE_SUB_PROCESS_01).build().end();
+            return Optional.of(processLink);
+        }
+        return Optional.empty();
+    }
+}
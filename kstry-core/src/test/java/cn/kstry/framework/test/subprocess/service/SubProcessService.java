@@ -18,6 +18,7 @@
 package cn.kstry.framework.test.subprocess.service;
 
 import cn.kstry.framework.core.annotation.NoticeResult;
+import cn.kstry.framework.core.annotation.ReqTaskParam;
 import cn.kstry.framework.core.annotation.StaTaskParam;
 import cn.kstry.framework.core.annotation.TaskComponent;
 import cn.kstry.framework.core.annotation.TaskService;
@@ -101,6 +102,11 @@ public class SubProcessService {
         return Mono.just(subProcessBo);
     }
 
+    @TaskService(name = "record_thread")
+    public void recordThread(@ReqTaskParam(reqSelf = true) SubProcessBo request) {
+        request.getThreads().add(Thread.currentThread());
+    }
+
     @TaskService(name = "say_error")
     public void sayError() {
         throw new RuntimeException("测试子链路抛异常");
@@ -0,0 +1,216 @@
+/*
+ *
+ *  * Copyright (c) 2020-2024, Lykan (jiashuomeng@gmail.com).
+ *  * <p>
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  * <p>
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  * <p>
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+package cn.kstry.framework.test.timer;
+
+import cn.kstry.framework.core.engine.timer.HashedWheelTimer;
+import cn.kstry.framework.core.engine.timer.Timeout;
+import org.junit.Assert;
+import org.junit.Test;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 时间轮定时器测试
+ *
+ * @author lykan
+ */
+public class HashedWheelTimerTest {
+
+    /**
+     * 测试定时任务按照到期时间的先后顺序执行，且不早于到期时间
+     */
+    @Test
+    public void testFiringOrder() throws InterruptedException {
+        HashedWheelTimer timer = new HashedWheelTimer("test-timer", 10, TimeUnit.MILLISECONDS, 8, Runnable::run);
+        try {
+            List<Integer> fired = new CopyOnWriteArrayList<>();
+            List<Long> elapsedList = new CopyOnWriteArrayList<>();
+            CountDownLatch latch = new CountDownLatch(3);
+            long start = System.nanoTime();
+            for (int delay : Arrays.asList(150, 50, 100)) {
+                timer.newTimeout(() -> {
+                    elapsedList.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                    fired.add(delay);
+                    latch.countDown();
+                }, delay, TimeUnit.MILLISECONDS);
+            }
+            Assert.assertTrue(latch.await(2, TimeUnit.SECONDS));
+            Assert.assertEquals(Arrays.asList(50, 100, 150), fired);
+            for (int i = 0; i < fired.size(); i++) {
+                Assert.assertTrue(elapsedList.get(i) >= fired.get(i));
+            }
+        } finally {
+            timer.destroy();
+        }
+    }
+
+    /**
+     * 测试取消后的定时任务不再执行
+     */
+    @Test
+    public void testCancel() throws InterruptedException {
+        HashedWheelTimer timer = new HashedWheelTimer("test-timer", 10, TimeUnit.MILLISECONDS, 8, Runnable::run);
+        try {
+            AtomicBoolean cancelledRun = new AtomicBoolean(false);
+            Timeout timeout = timer.newTimeout(() -> cancelledRun.set(true), 50, TimeUnit.MILLISECONDS);
+            Assert.assertTrue(timeout.cancel());
+            Assert.assertFalse(timeout.cancel());
+            Assert.assertTrue(timeout.isCancelled());
+
+            CountDownLatch latch = new CountDownLatch(1);
+            Timeout sentinel = timer.newTimeout(latch::countDown, 100, TimeUnit.MILLISECONDS);
+            Assert.assertTrue(latch.await(2, TimeUnit.SECONDS));
+            Assert.assertTrue(sentinel.isExpired());
+            Assert.assertFalse(sentinel.cancel());
+            Assert.assertFalse(cancelledRun.get());
+            Assert.assertFalse(timeout.isExpired());
+        } finally {
+            timer.destroy();
+        }
+    }
+
+    /**
+     * 测试取消后的任务在下一个刻度即被移除，不必等到时间轮转至所在刻度
+     */
+    @Test
+    public void testCancelRemovedEagerly() throws InterruptedException {
+        HashedWheelTimer timer = new HashedWheelTimer("test-timer", 10, TimeUnit.MILLISECONDS, 8, Runnable::run);
+        try {
+            List<Timeout> timeouts = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                timeouts.add(timer.newTimeout(() -> {
+                }, 1, TimeUnit.HOURS));
+            }
+            Assert.assertEquals(100, timer.pendingTimeouts());
+            timeouts.forEach(Timeout::cancel);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+            while (timer.pendingTimeouts() > 0 && System.nanoTime() < deadline) {
+                TimeUnit.MILLISECONDS.sleep(10);
+            }
+            Assert.assertEquals(0, timer.pendingTimeouts());
+        } finally {
+            timer.destroy();
+        }
+    }
+
+    /**
+     * 测试等待到期的任务数超过上限时拒绝新增，任务到期或取消后释放名额
+     */
+    @Test
+    public void testMaxPendingTimeouts() throws InterruptedException {
+        HashedWheelTimer timer = new HashedWheelTimer("test-timer", 10, TimeUnit.MILLISECONDS, 8, 2, Runnable::run);
+        try {
+            CountDownLatch latch = new CountDownLatch(1);
+            timer.newTimeout(latch::countDown, 20, TimeUnit.MILLISECONDS);
+            Timeout timeout = timer.newTimeout(() -> {
+            }, 1, TimeUnit.HOURS);
+            Assert.assertThrows(RejectedExecutionException.class, () -> timer.newTimeout(() -> {
+            }, 1, TimeUnit.HOURS));
+            Assert.assertEquals(2, timer.pendingTimeouts());
+
+            Assert.assertTrue(latch.await(2, TimeUnit.SECONDS));
+            Assert.assertEquals(1, timer.pendingTimeouts());
+            timer.newTimeout(() -> {
+            }, 1, TimeUnit.HOURS);
+
+            Assert.assertTrue(timeout.cancel());
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+            while (timer.pendingTimeouts() > 1 && System.nanoTime() < deadline) {
+                TimeUnit.MILLISECONDS.sleep(10);
+            }
+            Assert.assertEquals(1, timer.pendingTimeouts());
+            timer.newTimeout(() -> {
+            }, 1, TimeUnit.HOURS);
+        } finally {
+            timer.destroy();
+        }
+    }
+
+    /**
+     * 测试延迟时间超过时间轮一圈时，定时任务等待足够的圈数后才执行
+     */
+    @Test
+    public void testMultipleRounds() throws InterruptedException {
+        // 时间轮一圈 40ms，任务需要经过三圈以上
+        HashedWheelTimer timer = new HashedWheelTimer("test-timer", 10, TimeUnit.MILLISECONDS, 4, Runnable::run);
+        try {
+            List<Long> elapsedList = new CopyOnWriteArrayList<>();
+            CountDownLatch latch = new CountDownLatch(2);
+            long start = System.nanoTime();
+            for (int delay : Arrays.asList(130, 20)) {
+                timer.newTimeout(() -> {
+                    elapsedList.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                    latch.countDown();
+                }, delay, TimeUnit.MILLISECONDS);
+            }
+            Assert.assertTrue(latch.await(2, TimeUnit.SECONDS));
+            Assert.assertTrue(elapsedList.get(0) >= 20 && elapsedList.get(0) < 130);
+            Assert.assertTrue(elapsedList.get(1) >= 130);
+        } finally {
+            timer.destroy();
+        }
+    }
+
+    /**
+     * 测试 TimerScheduler 中无需延迟的任务直接交由执行器执行，不等待时间轮刻度
+     */
+    @Test
+    public void testSchedulerImmediateTask() throws InterruptedException {
+        ExecutorService executor = Executors.newSingleThreadExecutor(r -> new Thread(r, "test-timer-executor"));
+        // 刻度为 1s，任务进入时间轮时至少等待 1s
+        HashedWheelTimer timer = new HashedWheelTimer("test-timer", 1, TimeUnit.SECONDS, 8, executor);
+        try {
+            Scheduler scheduler = timer.getScheduler();
+            CountDownLatch latch = new CountDownLatch(1);
+            AtomicReference<String> threadName = new AtomicReference<>();
+            scheduler.schedule(() -> {
+                threadName.set(Thread.currentThread().getName());
+                latch.countDown();
+            });
+            Assert.assertTrue(latch.await(500, TimeUnit.MILLISECONDS));
+            Assert.assertEquals("test-timer-executor", threadName.get());
+
+            CountDownLatch workerLatch = new CountDownLatch(1);
+            Scheduler.Worker worker = scheduler.createWorker();
+            worker.schedule(workerLatch::countDown);
+            Assert.assertTrue(workerLatch.await(500, TimeUnit.MILLISECONDS));
+
+            AtomicBoolean disposedRun = new AtomicBoolean(false);
+            Disposable disposable = worker.schedule(() -> disposedRun.set(true), 50, TimeUnit.MILLISECONDS);
+            worker.dispose();
+            Assert.assertTrue(disposable.isDisposed());
+            TimeUnit.MILLISECONDS.sleep(1200);
+            Assert.assertFalse(disposedRun.get());
+        } finally {
+            timer.destroy();
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ *
+ *  * Copyright (c) 2020-2024, Lykan (jiashuomeng@gmail.com).
+ *  * <p>
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  * <p>
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  * <p>
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+package cn.kstry.framework.test.util;
+
+import cn.kstry.framework.core.util.PropertyAccessUtil;
+import com.google.common.cache.Cache;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.apache.commons.beanutils.NestedNullException;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * 属性访问测试
+ *
+ * @author lykan
+ */
+public class PropertyAccessUtilTest {
+
+    /**
+     * 测试简单属性、嵌套属性、Map 键以及下标路径的读写
+     */
+    @Test
+    public void testProperty() throws Throwable {
+        Bean bean = new Bean();
+        bean.setChild(new Bean());
+        bean.setAttrs(Maps.newHashMap());
+        bean.setList(Lists.newArrayList(new Bean()));
+
+        PropertyAccessUtil.setProperty(bean, "name", "a");
+        PropertyAccessUtil.setProperty(bean, "child.name", "b");
+        PropertyAccessUtil.setProperty(bean, "attrs.k", 1);
+        PropertyAccessUtil.setProperty(bean, "list[0].name", "c");
+        PropertyAccessUtil.setProperty(bean, "enable", true);
+        Assert.assertEquals("a", PropertyAccessUtil.getProperty(bean, "name"));
+        Assert.assertEquals("b", PropertyAccessUtil.getProperty(bean, "child.name"));
+        Assert.assertEquals(1, PropertyAccessUtil.getProperty(bean, "attrs.k"));
+        Assert.assertEquals("c", PropertyAccessUtil.getProperty(bean, "list[0].name"));
+        Assert.assertEquals(true, PropertyAccessUtil.getProperty(bean, "enable"));
+        Assert.assertNull(PropertyAccessUtil.getProperty(bean, "child.child"));
+
+        Assert.assertThrows(NoSuchMethodException.class, () -> PropertyAccessUtil.getProperty(bean, "missing"));
+        Assert.assertThrows(NoSuchMethodException.class, () -> PropertyAccessUtil.setProperty(bean, "readOnly", "x"));
+        Assert.assertThrows(NestedNullException.class, () -> PropertyAccessUtil.getProperty(bean, "child.child.name"));
+        Assert.assertThrows(NestedNullException.class, () -> PropertyAccessUtil.setProperty(bean, "child.child.name", "x"));
+    }
+
+    /**
+     * 测试未导出的 JDK 模块包中的类，通过公共父类或接口中声明的方法访问属性
+     */
+    @Test
+    public void testModuleRestrictedMember() throws Throwable {
+        // sun.util.calendar.ZoneInfo 重写了 TimeZone#getRawOffset，内省得到的是未导出包中的方法
+        TimeZone timeZone = TimeZone.getTimeZone("Asia/Shanghai");
+        Assert.assertEquals(timeZone.getRawOffset(), PropertyAccessUtil.getProperty(timeZone, "rawOffset"));
+        Assert.assertEquals("Asia/Shanghai", PropertyAccessUtil.getProperty(timeZone, "ID"));
+        Assert.assertEquals(timeZone.getRawOffset(), PropertyAccessUtil.getProperty(Collections.singletonMap("tz", timeZone), "tz.rawOffset"));
+
+        List<Integer> list = Collections.unmodifiableList(Lists.newArrayList(1, 2));
+        Assert.assertEquals(false, PropertyAccessUtil.getProperty(list, "empty"));
+    }
+
+    /**
+     * 测试其他类加载器加载的类不进入强引用缓存，避免框架阻止类加载器卸载
+     */
+    @Test
+    public void testForeignClassLoader() throws Throwable {
+        URL classPath = Bean.class.getProtectionDomain().getCodeSource().getLocation();
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{classPath}, null)) {
+            Class<?> foreignClass = classLoader.loadClass(Bean.class.getName());
+            Assert.assertNotSame(Bean.class, foreignClass);
+            Object bean = foreignClass.getConstructor().newInstance();
+            PropertyAccessUtil.setProperty(bean, "name", "a");
+            Assert.assertEquals("a", PropertyAccessUtil.getProperty(bean, "name"));
+
+            Map<?, ?> propertyHandleCache = (Map<?, ?>) ReflectionTestUtils.getField(PropertyAccessUtil.class, "propertyHandleCache");
+            Cache<?, ?> foreignPropertyHandleCache = (Cache<?, ?>) ReflectionTestUtils.getField(PropertyAccessUtil.class, "foreignPropertyHandleCache");
+            Assert.assertNotNull(propertyHandleCache);
+            Assert.assertNotNull(foreignPropertyHandleCache);
+            Assert.assertFalse(propertyHandleCache.containsKey(foreignClass));
+            Assert.assertNotNull(foreignPropertyHandleCache.getIfPresent(foreignClass));
+
+            PropertyAccessUtil.getProperty(new Bean(), "name");
+            Assert.assertTrue(propertyHandleCache.containsKey(Bean.class));
+            Assert.assertNull(foreignPropertyHandleCache.getIfPresent(Bean.class));
+        }
+    }
+
+    public static class Bean {
+
+        private String name;
+
+        private boolean enable;
+
+        private Bean child;
+
+        private Map<String, Object> attrs;
+
+        private List<Bean> list;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public boolean isEnable() {
+            return enable;
+        }
+
+        public void setEnable(boolean enable) {
+            this.enable = enable;
+        }
+
+        public Bean getChild() {
+            return child;
+        }
+
+        public void setChild(Bean child) {
+            this.child = child;
+        }
+
+        public Map<String, Object> getAttrs() {
+            return attrs;
+        }
+
+        public void setAttrs(Map<String, Object> attrs) {
+            this.attrs = attrs;
+        }
+
+        public List<Bean> getList() {
+            return list;
+        }
+
+        public void setList(List<Bean> list) {
+            this.list = list;
+        }
+
+        public String getReadOnly() {
+            return name;
+        }
+    }
+}